@@ -0,0 +1,315 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary search tree whose nodes carry the summary of their sub tree, e.g. the
+ * sum, min or max of the values. Summaries are updated along the changed path
+ * by insert and remove, and rebuilt by balance, so that the summary of the
+ * values in a range is combined from O(height) nodes instead of visiting every
+ * value in the range.
+ *
+ * Values that are equal are kept on the left of each other, and remove
+ * replaces a node by its predecessor to preserve that.
+ *
+ * @param <T> type of node value.
+ * @param <S> type of summary.
+ */
+public class AugmentedBinarySearchTree<T extends Comparable<T>, S> extends BinarySearchTreeBase<T> {
+    private final IMonoid<T, S> monoid;
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param monoid summary of the values.
+     */
+    public AugmentedBinarySearchTree(IMonoid<T, S> monoid) {
+        super();
+        this.monoid = monoid;
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param monoid          summary of the values.
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     */
+    public AugmentedBinarySearchTree(IMonoid<T, S> monoid, boolean uniqueNodeValue) {
+        super(uniqueNodeValue);
+        this.monoid = monoid;
+    }
+
+    /**
+     * Set the root node. The nodes are copied into augmented nodes of the same
+     * shape.
+     *
+     * @param root root node.
+     */
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        Map<BinarySearchTreeNode<T>, AugmentedBinarySearchTreeNode<T, S>> copies = new IdentityHashMap<>();
+        for (BinarySearchTreeNode<T> node : postorder(root)) {
+            AugmentedBinarySearchTreeNode<T, S> copy = new AugmentedBinarySearchTreeNode<>(node.getValue(),
+                    null);
+            copy.left = copies.get(node.left);
+            copy.right = copies.get(node.right);
+            this.update(copy);
+            copies.put(node, copy);
+        }
+        this.root = copies.get(root);
+    }
+
+    @Override
+    public void insert(T value) {
+        AugmentedBinarySearchTreeNode<T, S> node = new AugmentedBinarySearchTreeNode<>(value,
+                this.monoid.lift(value));
+        if (this.root == null) {
+            this.root = node;
+            return;
+        }
+
+        List<BinarySearchTreeNode<T>> path = new ArrayList<>();
+        BinarySearchTreeNode<T> cur = this.root;
+        while (true) {
+            path.add(cur);
+            int cmp = value.compareTo(cur.getValue());
+            if (this.uniqueNodeValue && cmp == 0) {
+                return;
+            }
+            if (cmp > 0) {
+                if (cur.right == null) {
+                    cur.right = node;
+                    break;
+                }
+                cur = cur.right;
+            } else {
+                if (cur.left == null) {
+                    cur.left = node;
+                    break;
+                }
+                cur = cur.left;
+            }
+        }
+        this.update(path);
+    }
+
+    @Override
+    public boolean remove(T value) {
+        boolean removed = this.removeOne(value);
+        boolean again = removed && !this.uniqueNodeValue;
+        while (again) {
+            again = this.removeOne(value);
+        }
+        return removed;
+    }
+
+    /**
+     * Balance the tree. The nodes are reused and their summaries rebuilt.
+     *
+     * @return true if actions are performed.
+     */
+    public boolean balance() {
+        if (this.root == null || this.isBalanced()) {
+            return false;
+        }
+        BalancedBuilder<T> builder = new BalancedBuilder<>(true);
+        int size = builder.size(this.root);
+        this.root = builder.build(builder.flatten(this.root, size), 0, size);
+        for (BinarySearchTreeNode<T> node : postorder(this.root)) {
+            this.update(node);
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the tree is balanced.
+     *
+     * @return true if the tree is balanced.
+     */
+    public boolean isBalanced() {
+        return (new Validator<>(this)).isBalanced();
+    }
+
+    @Override
+    public boolean isValid() {
+        return (new Validator<>(this)).isValid();
+    }
+
+    /**
+     * Return the summary of all values.
+     *
+     * @return summary.
+     */
+    public S aggregate() {
+        return this.summary(this.root);
+    }
+
+    /**
+     * Return the summary of the values in [low, high], in order. Nodes whose
+     * sub tree is entirely in the range contribute their summary, so at most
+     * two paths are walked.
+     *
+     * @param low  smallest value, inclusive.
+     * @param high largest value, inclusive.
+     * @return summary of the values in the range.
+     */
+    public S aggregate(T low, T high) {
+        if (low.compareTo(high) > 0) {
+            return this.monoid.identity();
+        }
+        return this.aggregate(this.root, low, high);
+    }
+
+    /**
+     * Return the summary of the values of a sub tree in [low, high], where a
+     * null bound is unbounded.
+     */
+    private S aggregate(BinarySearchTreeNode<T> node, T low, T high) {
+        while (node != null) {
+            if (low == null && high == null) {
+                return this.summary(node);
+            }
+            if (low != null && node.getValue().compareTo(low) < 0) {
+                node = node.right;
+            } else if (high != null && node.getValue().compareTo(high) > 0) {
+                node = node.left;
+            } else {
+                S left = this.aggregate(node.left, low, null);
+                S right = this.aggregate(node.right, null, high);
+                return this.monoid.combine(this.monoid.combine(left, this.monoid.lift(node.getValue())), right);
+            }
+        }
+        return this.monoid.identity();
+    }
+
+    /**
+     * Remove one node of a value and update the summaries of its ancestors.
+     * A node with two children is replaced by its predecessor, which is not
+     * smaller than the rest of the left sub tree and smaller than the right sub
+     * tree.
+     */
+    private boolean removeOne(T value) {
+        List<BinarySearchTreeNode<T>> path = new ArrayList<>();
+        BinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) {
+                break;
+            }
+            path.add(node);
+            node = cmp < 0 ? node.left : node.right;
+        }
+        if (node == null) {
+            return false;
+        }
+
+        BinarySearchTreeNode<T> replacement;
+        if (node.left == null) {
+            replacement = node.right;
+        } else if (node.left.right == null) {
+            replacement = node.left;
+            replacement.right = node.right;
+        } else {
+            List<BinarySearchTreeNode<T>> inner = new ArrayList<>();
+            BinarySearchTreeNode<T> parent = node.left;
+            while (parent.right.right != null) {
+                inner.add(parent);
+                parent = parent.right;
+            }
+            inner.add(parent);
+            replacement = parent.right;
+            parent.right = replacement.left;
+            replacement.left = node.left;
+            replacement.right = node.right;
+            this.update(inner);
+        }
+
+        if (path.isEmpty()) {
+            this.root = replacement;
+        } else {
+            BinarySearchTreeNode<T> parent = path.get(path.size() - 1);
+            if (parent.left == node) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+        }
+        if (replacement != null) {
+            this.update(replacement);
+        }
+        this.update(path);
+        return true;
+    }
+
+    private S summary(BinarySearchTreeNode<T> node) {
+        return node == null ? this.monoid.identity() : summaryOf(node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private S summaryOf(BinarySearchTreeNode<T> node) {
+        return ((AugmentedBinarySearchTreeNode<T, S>) node).summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void update(BinarySearchTreeNode<T> node) {
+        ((AugmentedBinarySearchTreeNode<T, S>) node).summary = this.monoid.combine(
+                this.monoid.combine(this.summary(node.left), this.monoid.lift(node.getValue())),
+                this.summary(node.right));
+    }
+
+    /**
+     * Update the summaries of a path from the deepest node up.
+     */
+    private void update(List<BinarySearchTreeNode<T>> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            this.update(path.get(i));
+        }
+    }
+
+    private static <T extends Comparable<T>> List<BinarySearchTreeNode<T>> postorder(BinarySearchTreeNode<T> root) {
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        Deque<BinarySearchTreeNode<T>> reversed = new ArrayDeque<>();
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            BinarySearchTreeNode<T> node = stack.pop();
+            reversed.push(node);
+            if (node.left != null) {
+                stack.push(node.left);
+            }
+            if (node.right != null) {
+                stack.push(node.right);
+            }
+        }
+        return new ArrayList<>(reversed);
+    }
+}
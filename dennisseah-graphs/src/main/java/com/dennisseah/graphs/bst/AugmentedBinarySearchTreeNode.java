@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Node that carries the summary of the values of its sub tree.
+ *
+ * @param <T> type of node value.
+ * @param <S> type of summary.
+ */
+public class AugmentedBinarySearchTreeNode<T extends Comparable<T>, S> extends BinarySearchTreeNode<T> {
+    S summary;
+
+    /**
+     * Instantiate an instance of this class with node value.
+     *
+     * @param value   node value.
+     * @param summary summary of the node value.
+     */
+    AugmentedBinarySearchTreeNode(T value, S summary) {
+        super(value);
+        this.summary = summary;
+    }
+
+    /**
+     * Return the summary of the values of the sub tree.
+     *
+     * @return summary.
+     */
+    public S getSummary() {
+        return this.summary;
+    }
+}
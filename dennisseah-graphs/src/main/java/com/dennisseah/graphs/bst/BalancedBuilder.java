@@ -0,0 +1,234 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Rebuild nodes into a balanced tree. Nodes are reused.
+ */
+class BalancedBuilder<T extends Comparable<T>> {
+    static final int FORK_THRESHOLD = 8192;
+
+    private final boolean equalOnLeft;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param equalOnLeft true to keep nodes with the same value on the left of
+     *                    each other, as insert places them. Many duplicates
+     *                    then form chains that cannot be balanced.
+     */
+    BalancedBuilder(boolean equalOnLeft) {
+        this.equalOnLeft = equalOnLeft;
+    }
+
+    /**
+     * Return the number of nodes of a sub tree.
+     *
+     * @param node root node of sub tree.
+     * @return number of nodes.
+     */
+    int size(BinarySearchTreeNode<T> node) {
+        int count = 0;
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        if (node != null) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            BinarySearchTreeNode<T> cur = stack.pop();
+            count++;
+            if (cur.left != null) {
+                stack.push(cur.left);
+            }
+            if (cur.right != null) {
+                stack.push(cur.right);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the nodes of a sub tree in order.
+     *
+     * @param node root node of sub tree.
+     * @param size number of nodes in the sub tree.
+     * @return nodes in order.
+     */
+    BinarySearchTreeNode<T>[] flatten(BinarySearchTreeNode<T> node, int size) {
+        BinarySearchTreeNode<T>[] nodes = BinarySearchTreeNode.newArray(size);
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        int i = 0;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            nodes[i++] = node;
+            node = node.right;
+        }
+        return nodes;
+    }
+
+    /**
+     * Return the root of a balanced tree of nodes in order.
+     *
+     * @param nodes nodes in order.
+     * @param from  first index, inclusive.
+     * @param to    last index, exclusive.
+     * @return root node, null if the range is empty.
+     */
+    BinarySearchTreeNode<T> build(BinarySearchTreeNode<T>[] nodes, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = this.middle(nodes, from, to);
+        int start = this.runStart(nodes, from, mid);
+        BinarySearchTreeNode<T> node = nodes[mid];
+        node.right = this.build(nodes, mid + 1, to);
+        // the nodes with the value of the root form a left chain below it.
+        BinarySearchTreeNode<T> bottom = node;
+        for (int i = mid - 1; i >= start; i--) {
+            bottom.left = nodes[i];
+            bottom = nodes[i];
+            bottom.right = null;
+        }
+        bottom.left = this.build(nodes, from, start);
+        return node;
+    }
+
+    /**
+     * Return the root of a balanced tree of new nodes of sorted values. The two
+     * sub trees of ranges larger than FORK_THRESHOLD are built in parallel.
+     *
+     * @param values sorted values.
+     * @param from   first index, inclusive.
+     * @param to     last index, exclusive.
+     * @param pool   pool to build the tree, null to build in the calling
+     *               thread.
+     * @return root node, null if the range is empty.
+     */
+    BinarySearchTreeNode<T> build(T[] values, int from, int to, ForkJoinPool pool) {
+        BuildTask task = new BuildTask(values, from, to, pool != null);
+        return pool == null ? task.compute() : pool.invoke(task);
+    }
+
+    private class BuildTask extends RecursiveTask<BinarySearchTreeNode<T>> {
+        private static final long serialVersionUID = 1L;
+        private final T[] values;
+        private final int from;
+        private final int to;
+        private final boolean parallel;
+
+        BuildTask(T[] values, int from, int to, boolean parallel) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected BinarySearchTreeNode<T> compute() {
+            if (this.from >= this.to) {
+                return null;
+            }
+            int mid = middle(this.values, this.from, this.to);
+            int start = runStart(this.values, this.from, mid);
+            BinarySearchTreeNode<T> node = new BinarySearchTreeNode<>(this.values[mid]);
+            // the values equal to the root form a left chain below it.
+            BinarySearchTreeNode<T> bottom = node;
+            for (int i = mid - 1; i >= start; i--) {
+                bottom.left = new BinarySearchTreeNode<>(this.values[i]);
+                bottom = bottom.left;
+            }
+            BuildTask left = new BuildTask(this.values, this.from, start, this.parallel);
+            BuildTask right = new BuildTask(this.values, mid + 1, this.to, this.parallel);
+            if (this.parallel && this.to - this.from > FORK_THRESHOLD) {
+                left.fork();
+                node.right = right.compute();
+                bottom.left = left.join();
+            } else {
+                bottom.left = left.compute();
+                node.right = right.compute();
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Return the index of the root of a range of sorted values, see middle of
+     * nodes.
+     */
+    int middle(T[] values, int from, int to) {
+        int mid = (from + to) >>> 1;
+        while (this.equalOnLeft && mid + 1 < to && values[mid + 1].compareTo(values[mid]) == 0) {
+            mid++;
+        }
+        return mid;
+    }
+
+    /**
+     * Return the first index of the values equal to the root of a range, if
+     * they shall all go to the left, else the index of the root. The equal
+     * values are chained without recursion, so that a long run of duplicates
+     * does not recurse once per value.
+     */
+    int runStart(T[] values, int from, int mid) {
+        int start = mid;
+        while (this.equalOnLeft && start > from && values[start - 1].compareTo(values[mid]) == 0) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * Return the first index of the nodes with the value of the root of a
+     * range, see runStart of values.
+     */
+    int runStart(BinarySearchTreeNode<T>[] nodes, int from, int mid) {
+        int start = mid;
+        while (this.equalOnLeft && start > from
+                && nodes[start - 1].getValue().compareTo(nodes[mid].getValue()) == 0) {
+            start--;
+        }
+        return start;
+    }
+
+    /**
+     * Return the index of the root of a range: the middle, moved past the nodes
+     * with the same value if they shall all go to the left.
+     */
+    int middle(BinarySearchTreeNode<T>[] nodes, int from, int to) {
+        int mid = (from + to) >>> 1;
+        while (this.equalOnLeft && mid + 1 < to
+                && nodes[mid + 1].getValue().compareTo(nodes[mid].getValue()) == 0) {
+            mid++;
+        }
+        return mid;
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Look up many values with a single walk of the tree. The values are sorted
+ * and pushed down the tree together; at each node the sorted range is split
+ * into the values that go left and the values that go right, so the common
+ * part of their paths is only walked once.
+ */
+class BatchFinder<T extends Comparable<T>> {
+    static final int FORK_THRESHOLD = 4096;
+
+    private final BinarySearchTreeNode<T> root;
+    private final boolean equalOnBothSides;
+    private T[] values;
+    private Integer[] order;
+
+    BatchFinder(BinarySearchTreeNode<T> root) {
+        this(root, false);
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param root             root of the tree.
+     * @param equalOnBothSides true if nodes with the same value can be on both
+     *                         sides of a node, false if they are only on the
+     *                         left (as insert places them).
+     */
+    BatchFinder(BinarySearchTreeNode<T> root, boolean equalOnBothSides) {
+        this.root = root;
+        this.equalOnBothSides = equalOnBothSides;
+    }
+
+    /**
+     * Return the matching nodes of every value.
+     *
+     * @param values values to match.
+     * @param pool   pool to split large lookups across, null to run in the
+     *               calling thread.
+     * @return matching nodes grouped by value position.
+     */
+    FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        this.values = values;
+        this.order = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.order[i] = i;
+        }
+        final T[] keys = values;
+        Arrays.sort(this.order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return keys[a].compareTo(keys[b]);
+            }
+        });
+
+        WalkTask task = new WalkTask(this.root, 0, values.length, pool != null);
+        if (pool != null && values.length >= FORK_THRESHOLD) {
+            pool.invoke(task);
+        } else {
+            task.walk();
+        }
+        return this.collect(task);
+    }
+
+    private FindAllResult<T> collect(WalkTask task) {
+        List<WalkTask> tasks = new ArrayList<>();
+        task.flatten(tasks);
+
+        int[] offsets = new int[this.values.length + 1];
+        for (WalkTask t : tasks) {
+            for (int i = 0; i < t.size; i++) {
+                offsets[t.probes[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < this.values.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        Object[] nodes = new Object[offsets[this.values.length]];
+        int[] next = Arrays.copyOf(offsets, this.values.length);
+        for (WalkTask t : tasks) {
+            for (int i = 0; i < t.size; i++) {
+                nodes[next[t.probes[i]]++] = t.nodes[i];
+            }
+        }
+        return new FindAllResult<>(nodes, offsets);
+    }
+
+    /**
+     * Return the first position in [lo, hi) of the sorted values that is greater
+     * than a given value.
+     */
+    private int upperBound(T value, int lo, int hi) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.values[this.order[mid]].compareTo(value) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Walk of a sub tree with a range of the sorted values. The matches are
+     * recorded as pairs of value position and node.
+     */
+    @SuppressWarnings("serial")
+    private class WalkTask extends RecursiveAction {
+        private final BinarySearchTreeNode<T> start;
+        private final int from;
+        private final int to;
+        private final boolean parallel;
+        private final List<WalkTask> children = new ArrayList<>();
+        private int[] probes = new int[16];
+        private Object[] nodes = new Object[16];
+        private int size = 0;
+
+        WalkTask(BinarySearchTreeNode<T> start, int from, int to, boolean parallel) {
+            this.start = start;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected void compute() {
+            this.walk();
+            invokeAll(this.children);
+        }
+
+        void walk() {
+            this.walk(this.start, this.from, this.to);
+        }
+
+        /**
+         * Add this task and its children in the order the matches were found,
+         * so the nodes of a value keep the order of find.
+         */
+        void flatten(List<WalkTask> tasks) {
+            tasks.add(this);
+            for (WalkTask child : this.children) {
+                child.flatten(tasks);
+            }
+        }
+
+        private void walk(BinarySearchTreeNode<T> node, int lo, int hi) {
+            while (node != null && lo < hi) {
+                T value = node.getValue();
+                int mid = upperBound(value, lo, hi);
+
+                // values in [lo, mid) are less than or equal to the node value,
+                // and the equal ones are at the end of the range.
+                int equal = mid;
+                while (equal > lo && values[order[equal - 1]].compareTo(value) == 0) {
+                    equal--;
+                    this.add(order[equal], node);
+                }
+                int right = equalOnBothSides ? equal : mid;
+
+                if (this.parallel && hi - lo >= FORK_THRESHOLD) {
+                    this.children.add(new WalkTask(node.left, lo, mid, true));
+                    this.children.add(new WalkTask(node.right, right, hi, true));
+                    return;
+                }
+                this.walk(node.left, lo, mid);
+                node = node.right;
+                lo = right;
+            }
+        }
+
+        private void add(int probe, BinarySearchTreeNode<T> node) {
+            if (this.size == this.probes.length) {
+                this.probes = Arrays.copyOf(this.probes, this.size * 2);
+                this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+            }
+            this.probes[this.size] = probe;
+            this.nodes[this.size] = node;
+            this.size++;
+        }
+    }
+}
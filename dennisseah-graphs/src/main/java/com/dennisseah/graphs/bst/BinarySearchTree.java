@@ -24,9 +24,20 @@
 package com.dennisseah.graphs.bst;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class BinarySearchTree<T extends Comparable<T>> extends BinarySearchTreeBase<T> implements IBinarySearchTree<T> {
+    /**
+     * Cached nodes with the smallest and largest values, null until they are
+     * looked up after a change that may have moved them. Links that are
+     * changed directly on the nodes of getRoot are not tracked; call setRoot
+     * afterwards.
+     */
+    private BinarySearchTreeNode<T> firstNode;
+    private BinarySearchTreeNode<T> lastNode;
+
     /**
      * Construct a empty tree.
      */
@@ -67,6 +78,463 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinarySearchTreeB
         super(values, uniqueNodeValue);
     }
 
+    /**
+     * Return a balanced tree of unsorted values. The values are sorted with
+     * Arrays.parallelSort and the sub trees are built in parallel in the
+     * common pool.
+     *
+     * @param values          values for the nodes, not modified.
+     * @param uniqueNodeValue true to have a tree with unique node values;
+     *                        duplicated values are dropped.
+     * @return balanced tree.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromUnsorted(T[] values, boolean uniqueNodeValue) {
+        return fromUnsorted(values, uniqueNodeValue, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Return a balanced tree of unsorted values. Nodes with the same value are
+     * kept on the left of each other, as insert places them.
+     *
+     * @param values          values for the nodes, not modified.
+     * @param uniqueNodeValue true to have a tree with unique node values;
+     *                        duplicated values are dropped.
+     * @param pool            pool to build the sub trees, null to sort and
+     *                        build in the calling thread.
+     * @return balanced tree.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromUnsorted(T[] values, boolean uniqueNodeValue,
+            ForkJoinPool pool) {
+        T[] sorted = Arrays.copyOf(values, values.length);
+        if (pool == null) {
+            Arrays.sort(sorted);
+        } else {
+            Arrays.parallelSort(sorted);
+        }
+
+        int size = sorted.length;
+        if (uniqueNodeValue && size > 0) {
+            size = 1;
+            for (int i = 1; i < sorted.length; i++) {
+                if (sorted[i].compareTo(sorted[size - 1]) != 0) {
+                    sorted[size++] = sorted[i];
+                }
+            }
+        }
+
+        BinarySearchTree<T> tree = new BinarySearchTree<>(uniqueNodeValue);
+        tree.root = (new BalancedBuilder<T>(true)).build(sorted, 0, size, pool);
+        return tree;
+    }
+
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        super.setRoot(root);
+        this.invalidateExtremes();
+    }
+
+    /**
+     * Insert value into tree. A value less than or equal to the smallest value
+     * is added as the left child of the first node, and a value greater than
+     * the largest value as the right child of the last node, so the cached
+     * nodes are updated without a walk.
+     *
+     * @param value value.
+     */
+    @Override
+    public void insert(T value) {
+        super.insert(value);
+        if (this.firstNode != null && this.firstNode.left != null) {
+            this.firstNode = this.firstNode.left;
+        }
+        if (this.lastNode != null && this.lastNode.right != null) {
+            this.lastNode = this.lastNode.right;
+        }
+    }
+
+    /**
+     * Remove value from tree. A removal detaches only nodes of the removed
+     * value, or moves the value of a node that is neither first nor last, so
+     * a cached node is forgotten only if it has the removed value.
+     *
+     * @param value value.
+     * @return true if a node is removed.
+     */
+    @Override
+    public boolean remove(T value) {
+        boolean removed = super.remove(value);
+        if (removed) {
+            if (this.firstNode != null && this.firstNode.getValue().compareTo(value) == 0) {
+                this.firstNode = null;
+            }
+            if (this.lastNode != null && this.lastNode.getValue().compareTo(value) == 0) {
+                this.lastNode = null;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public T first() {
+        if (this.firstNode == null && this.root != null) {
+            BinarySearchTreeNode<T> node = this.root;
+            while (node.left != null) {
+                node = node.left;
+            }
+            this.firstNode = node;
+        }
+        return this.firstNode == null ? null : this.firstNode.getValue();
+    }
+
+    @Override
+    public T last() {
+        if (this.lastNode == null && this.root != null) {
+            BinarySearchTreeNode<T> node = this.root;
+            while (node.right != null) {
+                node = node.right;
+            }
+            this.lastNode = node;
+        }
+        return this.lastNode == null ? null : this.lastNode.getValue();
+    }
+
+    /**
+     * Remove the node with the smallest value, in O(height). The next first
+     * node is found in the same walk.
+     *
+     * @return smallest value, null if the tree is empty.
+     */
+    @Override
+    public T pollFirst() {
+        if (this.root == null) {
+            return null;
+        }
+        BinarySearchTreeNode<T> parent = null;
+        BinarySearchTreeNode<T> node = this.root;
+        while (node.left != null) {
+            parent = node;
+            node = node.left;
+        }
+
+        BinarySearchTreeNode<T> next = node.right;
+        if (parent == null) {
+            this.root = next;
+        } else {
+            parent.left = next;
+        }
+        if (next != null) {
+            while (next.left != null) {
+                next = next.left;
+            }
+        } else {
+            next = parent;
+        }
+        if (this.lastNode == node) {
+            this.lastNode = null;
+        }
+        this.firstNode = next;
+        return node.getValue();
+    }
+
+    /**
+     * Remove the node with the largest value, in O(height). The next last node
+     * is found in the same walk.
+     *
+     * @return largest value, null if the tree is empty.
+     */
+    @Override
+    public T pollLast() {
+        if (this.root == null) {
+            return null;
+        }
+        BinarySearchTreeNode<T> parent = null;
+        BinarySearchTreeNode<T> node = this.root;
+        while (node.right != null) {
+            parent = node;
+            node = node.right;
+        }
+
+        BinarySearchTreeNode<T> next = node.left;
+        if (parent == null) {
+            this.root = next;
+        } else {
+            parent.right = next;
+        }
+        if (next != null) {
+            while (next.right != null) {
+                next = next.right;
+            }
+        } else {
+            next = parent;
+        }
+        if (this.firstNode == node) {
+            this.firstNode = null;
+        }
+        this.lastNode = next;
+        return node.getValue();
+    }
+
+    @Override
+    public T floor(T value) {
+        T result = null;
+        BinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp == 0) {
+                return node.getValue();
+            }
+            if (cmp < 0) {
+                result = node.getValue();
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public T ceiling(T value) {
+        T result = null;
+        BinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp == 0) {
+                return node.getValue();
+            }
+            if (cmp > 0) {
+                result = node.getValue();
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return an immutable copy of this tree for read only workloads.
+     * Later changes to this tree are not reflected in the copy.
+     *
+     * @return frozen copy of this tree.
+     */
+    public FrozenBinarySearchTree<T> freeze() {
+        List<T> sortedValues = new ArrayList<>();
+        for (BinarySearchTreeNode<T> node : inorderTraversal()) {
+            sortedValues.add(node.getValue());
+        }
+        return new FrozenBinarySearchTree<>(sortedValues);
+    }
+
+    /**
+     * Split the tree. The values greater than a given value are moved to a new
+     * tree, and this tree keeps the rest.
+     *
+     * @param value value to split at.
+     * @return tree with the values greater than value.
+     */
+    public BinarySearchTree<T> split(T value) {
+        BinarySearchTreeNode<T>[] parts = BinarySearchTreeNode.newArray(2);
+        (new JoinOperations<T>(null)).split(this.root, value, true, parts);
+        this.root = parts[0];
+        this.invalidateExtremes();
+
+        BinarySearchTree<T> greater = new BinarySearchTree<>(this.uniqueNodeValue);
+        greater.root = parts[1];
+        return greater;
+    }
+
+    /**
+     * Move all values of another tree into this tree. Every value of the other
+     * tree shall be greater than the values of this tree.
+     *
+     * @param greater tree to append, it is empty afterwards.
+     * @throws IllegalArgumentException if greater has a value less than or equal
+     *                                  to a value of this tree.
+     */
+    public void join(BinarySearchTree<T> greater) {
+        if (this.root != null && greater.root != null) {
+            BinarySearchTreeNode<T> last = this.root;
+            while (last.right != null) {
+                last = last.right;
+            }
+            BinarySearchTreeNode<T> first = greater.root;
+            while (first.left != null) {
+                first = first.left;
+            }
+            if (last.getValue().compareTo(first.getValue()) >= 0) {
+                throw new IllegalArgumentException("Values of the tree to join must be greater than this tree.");
+            }
+        }
+        this.root = (new JoinOperations<T>(null)).join(this.root, greater.root);
+        greater.root = null;
+        this.invalidateExtremes();
+        greater.invalidateExtremes();
+    }
+
+    /**
+     * Merge another tree into this tree. This tree keeps all its nodes and
+     * gains the nodes of the other tree whose value it does not have.
+     *
+     * @param other tree to merge, it is empty afterwards.
+     */
+    public void union(BinarySearchTree<T> other) {
+        this.union(other, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Merge another tree into this tree.
+     *
+     * @see BinarySearchTree.union
+     * @param other tree to merge, it is empty afterwards.
+     * @param pool  pool to run the operation, null to run in the calling thread.
+     */
+    public void union(BinarySearchTree<T> other, ForkJoinPool pool) {
+        this.apply(JoinOperations.Operation.UNION, other, pool);
+    }
+
+    /**
+     * Keep only the nodes whose value is in another tree.
+     *
+     * @param other tree to intersect with, it is empty afterwards.
+     */
+    public void intersection(BinarySearchTree<T> other) {
+        this.intersection(other, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Keep only the nodes whose value is in another tree.
+     *
+     * @see BinarySearchTree.intersection
+     * @param other tree to intersect with, it is empty afterwards.
+     * @param pool  pool to run the operation, null to run in the calling thread.
+     */
+    public void intersection(BinarySearchTree<T> other, ForkJoinPool pool) {
+        this.apply(JoinOperations.Operation.INTERSECTION, other, pool);
+    }
+
+    /**
+     * Remove the nodes whose value is in another tree.
+     *
+     * @param other tree of values to remove, it is empty afterwards.
+     */
+    public void difference(BinarySearchTree<T> other) {
+        this.difference(other, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Remove the nodes whose value is in another tree.
+     *
+     * @see BinarySearchTree.difference
+     * @param other tree of values to remove, it is empty afterwards.
+     * @param pool  pool to run the operation, null to run in the calling thread.
+     */
+    public void difference(BinarySearchTree<T> other, ForkJoinPool pool) {
+        this.apply(JoinOperations.Operation.DIFFERENCE, other, pool);
+    }
+
+    /**
+     * Remove all nodes of some values, then insert other values, as remove and
+     * insert do one value at a time. Each group of values is built into a
+     * balanced tree and combined with this tree by splits and joins, so the
+     * tree is walked once per group rather than once per value.
+     *
+     * @param removals   values to remove, not modified.
+     * @param insertions values to insert, not modified.
+     */
+    public void applyBatch(T[] removals, T[] insertions) {
+        this.applyBatch(removals, insertions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Remove all nodes of some values, then insert other values.
+     *
+     * @see BinarySearchTree.applyBatch
+     * @param removals   values to remove, not modified.
+     * @param insertions values to insert, not modified.
+     * @param pool       pool to run the operation, null to run in the calling
+     *                   thread.
+     */
+    public void applyBatch(T[] removals, T[] insertions, ForkJoinPool pool) {
+        if (removals.length > 0) {
+            this.apply(JoinOperations.Operation.DIFFERENCE, fromUnsorted(removals, true, pool), pool);
+        }
+        if (insertions.length > 0) {
+            JoinOperations.Operation operation = this.uniqueNodeValue ? JoinOperations.Operation.UNION
+                    : JoinOperations.Operation.MERGE;
+            this.apply(operation, fromUnsorted(insertions, this.uniqueNodeValue, pool), pool);
+        }
+    }
+
+    /**
+     * Return height of the tree. The top levels of the tree are walked in
+     * parallel.
+     *
+     * @param pool pool to run the walks, null to run in the calling thread.
+     * @return height.
+     */
+    public int parallelHeight(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).height(root);
+    }
+
+    /**
+     * Return true if tree is valid, see isValid. Sub trees are checked in
+     * parallel.
+     *
+     * @param pool pool to run the checks, null to run in the calling thread.
+     * @return true if tree is valid.
+     */
+    public boolean parallelIsValid(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).isValid(root);
+    }
+
+    /**
+     * Return true if tree is balanced, see isBalanced. Sub trees are checked in
+     * parallel.
+     *
+     * @param pool pool to run the checks, null to run in the calling thread.
+     * @return true if tree is balanced.
+     */
+    public boolean parallelIsBalanced(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).isBalanced(root);
+    }
+
+    /**
+     * Return a list of nodes after doing a in-order traversal. Sub trees are
+     * collected in parallel and assembled in order.
+     *
+     * @param pool pool to run the traversal, null to run in the calling
+     *             thread.
+     * @return list of nodes
+     */
+    public List<BinarySearchTreeNode<T>> parallelInorderTraversal(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).traversal(root, ParallelOperations.Order.INORDER);
+    }
+
+    /**
+     * Return a list of nodes after doing a pre-order traversal. Sub trees are
+     * collected in parallel and assembled in order.
+     *
+     * @param pool pool to run the traversal, null to run in the calling
+     *             thread.
+     * @return list of nodes
+     */
+    public List<BinarySearchTreeNode<T>> parallelPreorderTraversal(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).traversal(root, ParallelOperations.Order.PREORDER);
+    }
+
+    /**
+     * Return a list of nodes after doing a post-order traversal. Sub trees are
+     * collected in parallel and assembled in order.
+     *
+     * @param pool pool to run the traversal, null to run in the calling
+     *             thread.
+     * @return list of nodes
+     */
+    public List<BinarySearchTreeNode<T>> parallelPostorderTraversal(ForkJoinPool pool) {
+        return (new ParallelOperations<T>(pool)).traversal(root, ParallelOperations.Order.POSTORDER);
+    }
+
     @Override
     public boolean isBalanced() {
         return (new Validator<T>(this)).isBalanced();
@@ -103,11 +571,43 @@ public class BinarySearchTree<T extends Comparable<T>> extends BinarySearchTreeB
             sortedValues.add(node.getValue());
         }
         this.root = null;
+        this.invalidateExtremes();
         balanceInsert(sortedValues, sortedValues.size() / 2);
 
         return true;
     }
 
+    private void apply(JoinOperations.Operation operation, BinarySearchTree<T> other, ForkJoinPool pool) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot combine a tree with itself.");
+        }
+        this.root = (new JoinOperations<T>(pool)).apply(operation, this.root, other.root);
+        other.root = null;
+        this.invalidateExtremes();
+        other.invalidateExtremes();
+    }
+
+    /**
+     * Update the cached first and last nodes after a node is linked as a child
+     * of a parent; a new left child of the first node is the new first node.
+     */
+    void linked(BinarySearchTreeNode<T> parent, BinarySearchTreeNode<T> node) {
+        if (parent == this.firstNode && parent.left == node) {
+            this.firstNode = node;
+        }
+        if (parent == this.lastNode && parent.right == node) {
+            this.lastNode = node;
+        }
+    }
+
+    /**
+     * Forget the cached first and last nodes, after the nodes are relinked.
+     */
+    void invalidateExtremes() {
+        this.firstNode = null;
+        this.lastNode = null;
+    }
+
     private void balanceInsert(List<T> list, int index) {
         insert(list.get(index));
         if (index > 0) {
@@ -25,6 +25,7 @@ package com.dennisseah.graphs.bst;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import com.dennisseah.graphs.common.ValueUtils;
 
@@ -112,6 +113,21 @@ public abstract class BinarySearchTreeBase<T extends Comparable<T>> implements I
         return nodes;
     }
 
+    @Override
+    public FindAllResult<T> findAll(T[] values) {
+        return (new BatchFinder<T>(root)).findAll(values, null);
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return (new BatchFinder<T>(root)).findAll(values, pool);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high) {
+        return (new TraversalOperations<T>(this.root)).rangeTraversal(low, high);
+    }
+
     @Override
     public boolean remove(T value) {
         if (root == null) {
@@ -136,6 +152,28 @@ public abstract class BinarySearchTreeBase<T extends Comparable<T>> implements I
         return removed;
     }
 
+    /**
+     * Return the estimated heap footprint of the tree, for a JVM with
+     * compressed references.
+     *
+     * @param estimator estimator of the values.
+     * @return report.
+     */
+    public MemoryReport memoryReport(IKeySizeEstimator<? super T> estimator) {
+        return this.memoryReport(estimator, MemoryLayout.COMPRESSED_OOPS);
+    }
+
+    /**
+     * Return the estimated heap footprint of the tree.
+     *
+     * @param estimator estimator of the values.
+     * @param layout    object layout of the JVM.
+     * @return report.
+     */
+    public MemoryReport memoryReport(IKeySizeEstimator<? super T> estimator, MemoryLayout layout) {
+        return MemoryReport.of(this.root, estimator, layout);
+    }
+
     /**
      * Return height of the tree.
      *
@@ -281,7 +319,7 @@ public abstract class BinarySearchTreeBase<T extends Comparable<T>> implements I
                 }
             } else {
                 try {
-                    source.setValue(data.removeLeftmostNode(node.right));
+                    source.setValue(data.removeLeftmostNode(source));
                 } catch (NullValueException e) {
                     e.printStackTrace();
                 }
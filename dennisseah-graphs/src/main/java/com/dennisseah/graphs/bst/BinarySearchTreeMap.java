@@ -0,0 +1,1360 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Ordered map whose nodes hold the key and the mapped value, so that a single
+ * descent finds both. Keys are unique and ordered by their natural ordering;
+ * null keys are not allowed, null values are.
+ * 
+ * The tree is kept balanced as a ScapegoatTree is: an insert that makes the
+ * tree deeper than log(size) / log(1 / alpha) rebuilds the sub tree of the
+ * nearest unbalanced ancestor, and removals that shrink the tree to alpha of
+ * its largest size rebuild the whole tree. The views of NavigableMap are
+ * backed by the map, and their iterators fail fast. This class is not thread
+ * safe.
+ */
+public class BinarySearchTreeMap<K extends Comparable<K>, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+    public static final double DEFAULT_ALPHA = 0.7;
+
+    private final double alpha;
+    private final double logInverseAlpha;
+    private final BalancedBuilder<K> builder = new BalancedBuilder<>(false);
+    private BinarySearchTreeMapNode<K, V> root;
+    private int size = 0;
+    private int maxSize = 0;
+    private int modCount = 0;
+    private SubMap all;
+
+    /**
+     * Ancestors of the last located key, pathLength of them. A function of
+     * compute or merge may locate other keys, so the key is located again
+     * after the function returns.
+     */
+    private BinarySearchTreeNode<K>[] path = BinarySearchTreeNode.newArray(32);
+    private int pathLength = 0;
+
+    /**
+     * Construct a empty map.
+     */
+    public BinarySearchTreeMap() {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * Construct a empty map.
+     *
+     * @param alpha balance factor between 0.5 (strict, more rebuilds) and 1
+     *              (loose, fewer rebuilds).
+     */
+    public BinarySearchTreeMap(double alpha) {
+        if (alpha <= 0.5 || alpha >= 1) {
+            throw new IllegalArgumentException("Alpha must be between 0.5 and 1.");
+        }
+        this.alpha = alpha;
+        this.logInverseAlpha = Math.log(1 / alpha);
+    }
+
+    /**
+     * Return the root node.
+     *
+     * @return root node, null if the map is empty.
+     */
+    public BinarySearchTreeMapNode<K, V> getRoot() {
+        return this.root;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.getNode(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        BinarySearchTreeMapNode<K, V> node = this.getNode(key);
+        return node == null ? null : node.payload;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        BinarySearchTreeMapNode<K, V> node = this.getNode(key);
+        return node == null ? defaultValue : node.payload;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        if (node != null) {
+            V old = node.payload;
+            node.payload = value;
+            return old;
+        }
+        this.insertAtPath(key, value);
+        return null;
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        if (node != null && node.payload != null) {
+            this.clearPath();
+            return node.payload;
+        }
+        if (node != null) {
+            node.payload = value;
+            this.clearPath();
+        } else {
+            this.insertAtPath(key, value);
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        BinarySearchTreeMapNode<K, V> node = this.locate((K) key);
+        if (node == null) {
+            this.clearPath();
+            return null;
+        }
+        this.removeAtPath(node);
+        return node.payload;
+    }
+
+    @Override
+    public void clear() {
+        this.root = null;
+        this.size = 0;
+        this.maxSize = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        this.clearPath();
+        if (node != null && node.payload != null) {
+            return node.payload;
+        }
+        int expectedModCount = this.modCount;
+        V value = mappingFunction.apply(key);
+        this.checkModCount(expectedModCount);
+        if (value == null) {
+            return null;
+        }
+        if (node != null) {
+            node.payload = value;
+        } else {
+            this.locate(key);
+            this.insertAtPath(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        this.clearPath();
+        if (node == null || node.payload == null) {
+            return null;
+        }
+        int expectedModCount = this.modCount;
+        V value = remappingFunction.apply(key, node.payload);
+        this.checkModCount(expectedModCount);
+        this.locate(key);
+        return this.remap(node, value);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        this.clearPath();
+        int expectedModCount = this.modCount;
+        V value = remappingFunction.apply(key, node == null ? null : node.payload);
+        this.checkModCount(expectedModCount);
+        if (node == null && value == null) {
+            return null;
+        }
+        this.locate(key);
+        if (node != null) {
+            return this.remap(node, value);
+        }
+        this.insertAtPath(key, value);
+        return value;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        if (value == null) {
+            throw new NullPointerException("Value is required.");
+        }
+        BinarySearchTreeMapNode<K, V> node = this.locate(key);
+        if (node == null) {
+            this.insertAtPath(key, value);
+            return value;
+        }
+        if (node.payload == null) {
+            node.payload = value;
+            this.clearPath();
+            return value;
+        }
+        this.clearPath();
+        int expectedModCount = this.modCount;
+        V merged = remappingFunction.apply(node.payload, value);
+        this.checkModCount(expectedModCount);
+        this.locate(key);
+        return this.remap(node, merged);
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return null;
+    }
+
+    @Override
+    public K firstKey() {
+        return key(this.firstNode());
+    }
+
+    @Override
+    public K lastKey() {
+        return key(this.lastNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return export(this.firstNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return export(this.lastNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> pollFirstEntry() {
+        return this.poll(this.firstNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> pollLastEntry() {
+        return this.poll(this.lastNode());
+    }
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return export(this.lowerNode(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOrNull(this.lowerNode(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return export(this.floorNode(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOrNull(this.floorNode(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return export(this.ceilingNode(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOrNull(this.ceilingNode(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return export(this.higherNode(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOrNull(this.higherNode(key));
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return this.all().entrySet();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return this.navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return this.all().navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return this.descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        return new SubMap(true, null, true, true, null, true, true);
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        return this.all().subMap(fromKey, fromInclusive, toKey, toInclusive);
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        return this.all().headMap(toKey, inclusive);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        return this.all().tailMap(fromKey, inclusive);
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return this.subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return this.headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return this.tailMap(fromKey, true);
+    }
+
+    /**
+     * Return true if the map is a valid binary search tree with strictly
+     * increasing keys.
+     *
+     * @return true if the map is valid.
+     */
+    public boolean isValid() {
+        int count = 0;
+        K previous = null;
+        Deque<BinarySearchTreeNode<K>> stack = new ArrayDeque<>();
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            if (previous != null && previous.compareTo(node.getValue()) >= 0) {
+                return false;
+            }
+            previous = node.getValue();
+            count++;
+            node = node.right;
+        }
+        return count == this.size;
+    }
+
+    /**
+     * Return height of the tree.
+     *
+     * @return height.
+     */
+    public int height() {
+        int height = 0;
+        Deque<BinarySearchTreeNode<K>> level = new ArrayDeque<>();
+        if (this.root != null) {
+            level.add(this.root);
+        }
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                BinarySearchTreeNode<K> node = level.poll();
+                if (node.left != null) {
+                    level.add(node.left);
+                }
+                if (node.right != null) {
+                    level.add(node.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K extends Comparable<K>, V> BinarySearchTreeMapNode<K, V> cast(BinarySearchTreeNode<K> node) {
+        return (BinarySearchTreeMapNode<K, V>) node;
+    }
+
+    private static <K extends Comparable<K>, V> Map.Entry<K, V> export(BinarySearchTreeMapNode<K, V> node) {
+        return node == null ? null : new AbstractMap.SimpleImmutableEntry<>(node.getValue(), node.payload);
+    }
+
+    private static <K extends Comparable<K>> K key(BinarySearchTreeNode<K> node) {
+        if (node == null) {
+            throw new NoSuchElementException("Map is empty.");
+        }
+        return node.getValue();
+    }
+
+    private static <K extends Comparable<K>> K keyOrNull(BinarySearchTreeNode<K> node) {
+        return node == null ? null : node.getValue();
+    }
+
+    private SubMap all() {
+        if (this.all == null) {
+            this.all = new SubMap(true, null, true, true, null, true, false);
+        }
+        return this.all;
+    }
+
+    private void checkModCount(int expectedModCount) {
+        if (this.modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private BinarySearchTreeMapNode<K, V> getNode(Object key) {
+        K k = (K) key;
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null) {
+            int cmp = k.compareTo(node.getValue());
+            if (cmp == 0) {
+                return cast(node);
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Return the node of a key, and keep its ancestors in path. If there is no
+     * node, path ends with the parent of a new node.
+     */
+    private BinarySearchTreeMapNode<K, V> locate(K key) {
+        if (key == null) {
+            throw new NullPointerException("Key is required.");
+        }
+        this.pathLength = 0;
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getValue());
+            if (cmp == 0) {
+                return cast(node);
+            }
+            if (this.pathLength == this.path.length) {
+                this.path = Arrays.copyOf(this.path, this.pathLength * 2);
+            }
+            this.path[this.pathLength++] = node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private void clearPath() {
+        Arrays.fill(this.path, 0, this.pathLength, null);
+        this.pathLength = 0;
+    }
+
+    private void insertAtPath(K key, V value) {
+        BinarySearchTreeMapNode<K, V> node = new BinarySearchTreeMapNode<>(key, value);
+        int depth = this.pathLength;
+        if (depth == 0) {
+            this.root = node;
+        } else {
+            BinarySearchTreeNode<K> parent = this.path[depth - 1];
+            if (key.compareTo(parent.getValue()) < 0) {
+                parent.left = node;
+            } else {
+                parent.right = node;
+            }
+        }
+        this.size++;
+        this.maxSize = Math.max(this.maxSize, this.size);
+        this.modCount++;
+
+        if (depth > Math.log(this.size) / this.logInverseAlpha) {
+            this.rebuildScapegoat(node, depth);
+        }
+        this.clearPath();
+    }
+
+    /**
+     * Set the value of a located node, or remove the node if the value is null.
+     */
+    private V remap(BinarySearchTreeMapNode<K, V> node, V value) {
+        if (value == null) {
+            this.removeAtPath(node);
+        } else {
+            node.payload = value;
+            this.clearPath();
+        }
+        return value;
+    }
+
+    /**
+     * Remove a located node.
+     */
+    private void removeAtPath(BinarySearchTreeMapNode<K, V> node) {
+        BinarySearchTreeNode<K> replacement = this.unlink(node);
+        if (this.pathLength == 0) {
+            this.root = cast(replacement);
+        } else {
+            BinarySearchTreeNode<K> parent = this.path[this.pathLength - 1];
+            if (parent.left == node) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+        }
+        this.clearPath();
+        this.size--;
+        this.modCount++;
+        if (this.size <= this.alpha * this.maxSize) {
+            this.root = cast(this.builder.build(this.builder.flatten(this.root, this.size), 0, this.size));
+            this.maxSize = this.size;
+        }
+    }
+
+    private Map.Entry<K, V> poll(BinarySearchTreeMapNode<K, V> node) {
+        if (node == null) {
+            return null;
+        }
+        Map.Entry<K, V> entry = export(node);
+        this.remove(node.getValue());
+        return entry;
+    }
+
+    /**
+     * Walk up from a new node and rebuild the sub tree of the first ancestor
+     * whose child holds more than alpha of its nodes.
+     */
+    private void rebuildScapegoat(BinarySearchTreeNode<K> node, int depth) {
+        int childSize = 1;
+        BinarySearchTreeNode<K> child = node;
+
+        for (int i = depth - 1; i >= 0; i--) {
+            BinarySearchTreeNode<K> parent = this.path[i];
+            BinarySearchTreeNode<K> sibling = parent.left == child ? parent.right : parent.left;
+            int parentSize = childSize + 1 + this.builder.size(sibling);
+
+            if (childSize > this.alpha * parentSize) {
+                BinarySearchTreeNode<K> rebuilt = this.builder.build(this.builder.flatten(parent, parentSize), 0,
+                        parentSize);
+                if (i == 0) {
+                    this.root = cast(rebuilt);
+                } else if (this.path[i - 1].left == parent) {
+                    this.path[i - 1].left = rebuilt;
+                } else {
+                    this.path[i - 1].right = rebuilt;
+                }
+                break;
+            }
+            childSize = parentSize;
+            child = parent;
+        }
+    }
+
+    /**
+     * Return the sub tree that replaces a removed node. A node with two
+     * children is replaced by its in-order predecessor, so that every other
+     * node keeps its key and value.
+     */
+    private BinarySearchTreeNode<K> unlink(BinarySearchTreeNode<K> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+
+        BinarySearchTreeNode<K> parent = node;
+        BinarySearchTreeNode<K> predecessor = node.left;
+        while (predecessor.right != null) {
+            parent = predecessor;
+            predecessor = predecessor.right;
+        }
+        if (parent != node) {
+            parent.right = predecessor.left;
+            predecessor.left = node.left;
+        }
+        predecessor.right = node.right;
+        return predecessor;
+    }
+
+    private BinarySearchTreeMapNode<K, V> firstNode() {
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return cast(node);
+    }
+
+    private BinarySearchTreeMapNode<K, V> lastNode() {
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null && node.right != null) {
+            node = node.right;
+        }
+        return cast(node);
+    }
+
+    /**
+     * Return the first node with a key greater than (or equal to, if inclusive)
+     * a key.
+     */
+    private BinarySearchTreeMapNode<K, V> ceilingNode(K key, boolean inclusive) {
+        BinarySearchTreeNode<K> result = null;
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(key);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return cast(result);
+    }
+
+    /**
+     * Return the last node with a key less than (or equal to, if inclusive) a
+     * key.
+     */
+    private BinarySearchTreeMapNode<K, V> floorNode(K key, boolean inclusive) {
+        BinarySearchTreeNode<K> result = null;
+        BinarySearchTreeNode<K> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(key);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return cast(result);
+    }
+
+    private BinarySearchTreeMapNode<K, V> ceilingNode(K key) {
+        return this.ceilingNode(key, true);
+    }
+
+    private BinarySearchTreeMapNode<K, V> higherNode(K key) {
+        return this.ceilingNode(key, false);
+    }
+
+    private BinarySearchTreeMapNode<K, V> floorNode(K key) {
+        return this.floorNode(key, true);
+    }
+
+    private BinarySearchTreeMapNode<K, V> lowerNode(K key) {
+        return this.floorNode(key, false);
+    }
+
+    /**
+     * Entry of an iterator, backed by the node.
+     */
+    private final class NodeEntry implements Map.Entry<K, V> {
+        private final BinarySearchTreeMapNode<K, V> node;
+
+        NodeEntry(BinarySearchTreeMapNode<K, V> node) {
+            this.node = node;
+        }
+
+        @Override
+        public K getKey() {
+            return this.node.getValue();
+        }
+
+        @Override
+        public V getValue() {
+            return this.node.payload;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.node.payload;
+            this.node.payload = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) other;
+            return this.getKey().equals(entry.getKey())
+                    && (this.getValue() == null ? entry.getValue() == null : this.getValue().equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.getKey().hashCode() ^ (this.getValue() == null ? 0 : this.getValue().hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return this.getKey() + "=" + this.getValue();
+        }
+    }
+
+    /**
+     * In-order iterator of the nodes of a view, with a stack of the ancestors
+     * that are still to be visited. After a remove, the stack is rebuilt from
+     * the removed key, as the removal may have rebuilt the tree.
+     */
+    private abstract class NodeIterator<E> implements Iterator<E> {
+        private final SubMap view;
+        private final Deque<BinarySearchTreeNode<K>> stack = new ArrayDeque<>();
+        private BinarySearchTreeMapNode<K, V> next;
+        private BinarySearchTreeMapNode<K, V> last;
+        private int expectedModCount = modCount;
+
+        NodeIterator(SubMap view) {
+            this.view = view;
+            K start = view.descending ? view.hi : view.lo;
+            boolean fromEnd = view.descending ? view.toEnd : view.fromStart;
+            boolean inclusive = view.descending ? view.hiInclusive : view.loInclusive;
+            this.seek(fromEnd ? null : start, inclusive);
+        }
+
+        abstract E element(BinarySearchTreeMapNode<K, V> node);
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public E next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            this.last = this.next;
+            this.advance();
+            return this.element(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            K key = this.last.getValue();
+            BinarySearchTreeMap.this.remove(key);
+            this.last = null;
+            this.expectedModCount = modCount;
+            this.seek(key, false);
+        }
+
+        /**
+         * Fill the stack with the nodes after a key in the order of the view;
+         * from the first node if key is null.
+         */
+        private void seek(K key, boolean inclusive) {
+            boolean descending = this.view.descending;
+            this.stack.clear();
+            BinarySearchTreeNode<K> node = root;
+            while (node != null) {
+                int cmp = key == null ? (descending ? -1 : 1) : node.getValue().compareTo(key);
+                if (descending) {
+                    cmp = -cmp;
+                }
+                if (cmp > 0 || (cmp == 0 && inclusive)) {
+                    this.stack.push(node);
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+            this.advance();
+        }
+
+        private void advance() {
+            if (this.stack.isEmpty()) {
+                this.next = null;
+                return;
+            }
+            BinarySearchTreeNode<K> node = this.stack.pop();
+            this.next = cast(node);
+            BinarySearchTreeNode<K> child = this.view.descending ? node.left : node.right;
+            while (child != null) {
+                this.stack.push(child);
+                child = this.view.descending ? child.right : child.left;
+            }
+            if (!this.view.inRange(this.next.getValue())) {
+                this.next = null;
+                this.stack.clear();
+            }
+        }
+    }
+
+    /**
+     * View of the keys between two optional bounds, in ascending or
+     * descending order; the map itself is the view without bounds.
+     */
+    private final class SubMap extends AbstractMap<K, V> implements NavigableMap<K, V> {
+        final boolean fromStart;
+        final K lo;
+        final boolean loInclusive;
+        final boolean toEnd;
+        final K hi;
+        final boolean hiInclusive;
+        final boolean descending;
+
+        SubMap(boolean fromStart, K lo, boolean loInclusive, boolean toEnd, K hi, boolean hiInclusive,
+                boolean descending) {
+            if (!fromStart && !toEnd && lo.compareTo(hi) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        boolean tooLow(K key) {
+            if (this.fromStart) {
+                return false;
+            }
+            int cmp = key.compareTo(this.lo);
+            return cmp < 0 || (cmp == 0 && !this.loInclusive);
+        }
+
+        boolean tooHigh(K key) {
+            if (this.toEnd) {
+                return false;
+            }
+            int cmp = key.compareTo(this.hi);
+            return cmp > 0 || (cmp == 0 && !this.hiInclusive);
+        }
+
+        boolean inRange(K key) {
+            return !this.tooLow(key) && !this.tooHigh(key);
+        }
+
+        /**
+         * Return true if a bound of a nested view is within the bounds of this
+         * view; an exclusive bound may be equal to an exclusive bound.
+         */
+        private boolean inRange(K key, boolean inclusive) {
+            if (inclusive) {
+                return this.inRange(key);
+            }
+            return (this.fromStart || key.compareTo(this.lo) >= 0) && (this.toEnd || key.compareTo(this.hi) <= 0);
+        }
+
+        private BinarySearchTreeMapNode<K, V> bounded(BinarySearchTreeMapNode<K, V> node) {
+            return node == null || !this.inRange(node.getValue()) ? null : node;
+        }
+
+        private BinarySearchTreeMapNode<K, V> absLowest() {
+            if (this.fromStart) {
+                return this.bounded(firstNode());
+            }
+            return this.bounded(ceilingNode(this.lo, this.loInclusive));
+        }
+
+        private BinarySearchTreeMapNode<K, V> absHighest() {
+            if (this.toEnd) {
+                return this.bounded(lastNode());
+            }
+            return this.bounded(floorNode(this.hi, this.hiInclusive));
+        }
+
+        private BinarySearchTreeMapNode<K, V> absCeiling(K key, boolean inclusive) {
+            if (this.tooLow(key)) {
+                return this.absLowest();
+            }
+            return this.bounded(ceilingNode(key, inclusive));
+        }
+
+        private BinarySearchTreeMapNode<K, V> absFloor(K key, boolean inclusive) {
+            if (this.tooHigh(key)) {
+                return this.absHighest();
+            }
+            return this.bounded(floorNode(key, inclusive));
+        }
+
+        private BinarySearchTreeMapNode<K, V> lowest() {
+            return this.descending ? this.absHighest() : this.absLowest();
+        }
+
+        private BinarySearchTreeMapNode<K, V> highest() {
+            return this.descending ? this.absLowest() : this.absHighest();
+        }
+
+        private BinarySearchTreeMapNode<K, V> above(K key, boolean inclusive) {
+            return this.descending ? this.absFloor(key, inclusive) : this.absCeiling(key, inclusive);
+        }
+
+        private BinarySearchTreeMapNode<K, V> below(K key, boolean inclusive) {
+            return this.descending ? this.absCeiling(key, inclusive) : this.absFloor(key, inclusive);
+        }
+
+        @Override
+        public int size() {
+            if (this.fromStart && this.toEnd) {
+                return size;
+            }
+            int count = 0;
+            for (Iterator<Map.Entry<K, V>> it = this.entrySet().iterator(); it.hasNext(); it.next()) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.lowest() == null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean containsKey(Object key) {
+            return this.inRange((K) key) && BinarySearchTreeMap.this.containsKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            return this.inRange((K) key) ? BinarySearchTreeMap.this.get(key) : null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!this.inRange(key)) {
+                throw new IllegalArgumentException("Key out of range.");
+            }
+            return BinarySearchTreeMap.this.put(key, value);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(Object key) {
+            return this.inRange((K) key) ? BinarySearchTreeMap.this.remove(key) : null;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return this.descending ? Collections.<K>reverseOrder() : null;
+        }
+
+        @Override
+        public K firstKey() {
+            return key(this.lowest());
+        }
+
+        @Override
+        public K lastKey() {
+            return key(this.highest());
+        }
+
+        @Override
+        public Map.Entry<K, V> firstEntry() {
+            return export(this.lowest());
+        }
+
+        @Override
+        public Map.Entry<K, V> lastEntry() {
+            return export(this.highest());
+        }
+
+        @Override
+        public Map.Entry<K, V> pollFirstEntry() {
+            return poll(this.lowest());
+        }
+
+        @Override
+        public Map.Entry<K, V> pollLastEntry() {
+            return poll(this.highest());
+        }
+
+        @Override
+        public Map.Entry<K, V> lowerEntry(K key) {
+            return export(this.below(key, false));
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOrNull(this.below(key, false));
+        }
+
+        @Override
+        public Map.Entry<K, V> floorEntry(K key) {
+            return export(this.below(key, true));
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOrNull(this.below(key, true));
+        }
+
+        @Override
+        public Map.Entry<K, V> ceilingEntry(K key) {
+            return export(this.above(key, true));
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOrNull(this.above(key, true));
+        }
+
+        @Override
+        public Map.Entry<K, V> higherEntry(K key) {
+            return export(this.above(key, false));
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOrNull(this.above(key, false));
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new NodeIterator<Map.Entry<K, V>>(SubMap.this) {
+                        @Override
+                        Map.Entry<K, V> element(BinarySearchTreeMapNode<K, V> node) {
+                            return new NodeEntry(node);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return SubMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (!(o instanceof Map.Entry)) {
+                        return false;
+                    }
+                    Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+                    Object value = entry.getValue();
+                    return SubMap.this.containsKey(entry.getKey()) && (value == null
+                            ? SubMap.this.get(entry.getKey()) == null
+                            : value.equals(SubMap.this.get(entry.getKey())));
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    if (!this.contains(o)) {
+                        return false;
+                    }
+                    SubMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    SubMap.this.clear();
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            if (this.fromStart && this.toEnd) {
+                BinarySearchTreeMap.this.clear();
+                return;
+            }
+            for (Iterator<Map.Entry<K, V>> it = this.entrySet().iterator(); it.hasNext();) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return this.navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> navigableKeySet() {
+            return new KeySet<>(this);
+        }
+
+        @Override
+        public NavigableSet<K> descendingKeySet() {
+            return this.descendingMap().navigableKeySet();
+        }
+
+        @Override
+        public NavigableMap<K, V> descendingMap() {
+            return new SubMap(this.fromStart, this.lo, this.loInclusive, this.toEnd, this.hi, this.hiInclusive,
+                    !this.descending);
+        }
+
+        @Override
+        public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            return this.nested(fromKey, fromInclusive, true, toKey, toInclusive, true);
+        }
+
+        @Override
+        public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            return this.nested(null, false, false, toKey, inclusive, true);
+        }
+
+        @Override
+        public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            return this.nested(fromKey, inclusive, true, null, false, false);
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) {
+            return this.subMap(fromKey, true, toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K toKey) {
+            return this.headMap(toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K fromKey) {
+            return this.tailMap(fromKey, true);
+        }
+
+        /**
+         * Return a view within this view, with bounds in the order of this
+         * view.
+         */
+        private SubMap nested(K fromKey, boolean fromInclusive, boolean hasFrom, K toKey, boolean toInclusive,
+                boolean hasTo) {
+            if ((hasFrom && !this.inRange(fromKey, fromInclusive)) || (hasTo && !this.inRange(toKey, toInclusive))) {
+                throw new IllegalArgumentException("Key out of range.");
+            }
+            // bounds in ascending order.
+            boolean hasLow = this.descending ? hasTo : hasFrom;
+            K low = this.descending ? toKey : fromKey;
+            boolean lowInclusive = this.descending ? toInclusive : fromInclusive;
+            boolean hasHigh = this.descending ? hasFrom : hasTo;
+            K high = this.descending ? fromKey : toKey;
+            boolean highInclusive = this.descending ? fromInclusive : toInclusive;
+            if (this.descending && hasFrom && hasTo && fromKey.compareTo(toKey) < 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+
+            return new SubMap(hasLow ? false : this.fromStart, hasLow ? low : this.lo,
+                    hasLow ? lowInclusive : this.loInclusive, hasHigh ? false : this.toEnd, hasHigh ? high : this.hi,
+                    hasHigh ? highInclusive : this.hiInclusive, this.descending);
+        }
+    }
+
+    /**
+     * Navigable set of the keys of a map view.
+     */
+    private static final class KeySet<K> extends AbstractSet<K> implements NavigableSet<K> {
+        private final NavigableMap<K, ?> map;
+
+        KeySet(NavigableMap<K, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            final Iterator<? extends Map.Entry<K, ?>> entries = this.map.entrySet().iterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return entries.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    entries.remove();
+                }
+            };
+        }
+
+        @Override
+        public Iterator<K> descendingIterator() {
+            return this.descendingSet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return this.map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return this.map.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!this.map.containsKey(o)) {
+                return false;
+            }
+            this.map.remove(o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            this.map.clear();
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return this.map.comparator();
+        }
+
+        @Override
+        public K first() {
+            return this.map.firstKey();
+        }
+
+        @Override
+        public K last() {
+            return this.map.lastKey();
+        }
+
+        @Override
+        public K lower(K key) {
+            return this.map.lowerKey(key);
+        }
+
+        @Override
+        public K floor(K key) {
+            return this.map.floorKey(key);
+        }
+
+        @Override
+        public K ceiling(K key) {
+            return this.map.ceilingKey(key);
+        }
+
+        @Override
+        public K higher(K key) {
+            return this.map.higherKey(key);
+        }
+
+        @Override
+        public K pollFirst() {
+            Map.Entry<K, ?> entry = this.map.pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public K pollLast() {
+            Map.Entry<K, ?> entry = this.map.pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public NavigableSet<K> descendingSet() {
+            return new KeySet<>(this.map.descendingMap());
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+            return new KeySet<>(this.map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+            return new KeySet<>(this.map.headMap(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+            return new KeySet<>(this.map.tailMap(fromElement, inclusive));
+        }
+
+        @Override
+        public SortedSet<K> subSet(K fromElement, K toElement) {
+            return this.subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> headSet(K toElement) {
+            return this.headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<K> tailSet(K fromElement) {
+            return this.tailSet(fromElement, true);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Node of a BinarySearchTreeMap. The node value is the key, and the node also
+ * holds the value that is mapped to the key.
+ */
+public class BinarySearchTreeMapNode<K extends Comparable<K>, V> extends BinarySearchTreeNode<K> {
+    V payload;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param key     key.
+     * @param payload value mapped to the key.
+     */
+    BinarySearchTreeMapNode(K key, V payload) {
+        super(key);
+        this.payload = payload;
+    }
+
+    /**
+     * Return the value mapped to the key of this node.
+     *
+     * @return mapped value.
+     */
+    public V getPayload() {
+        return this.payload;
+    }
+}
@@ -113,4 +113,15 @@ public class BinarySearchTreeNode<T extends Comparable<T>> {
     public void setRight(BinarySearchTreeNode<T> right) {
         this.right = right;
     }
+
+    /**
+     * Return a new array of nodes.
+     *
+     * @param size length of the array.
+     * @return array of null nodes.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    static <T extends Comparable<T>> BinarySearchTreeNode<T>[] newArray(int size) {
+        return new BinarySearchTreeNode[size];
+    }
 }
@@ -0,0 +1,660 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+
+import com.dennisseah.graphs.common.ValueUtils;
+
+/**
+ * Tree of unique values with a maximum size. An insert that exceeds the
+ * maximum size evicts one value by policy in the same operation: the first or
+ * last node for SMALLEST and LARGEST, or the oldest value of a linked hash map
+ * for LRU and TTL, each removed in one descent. With TTL, expired values are
+ * also evicted at the start of every operation.
+ * 
+ * The tree is kept balanced as a ScapegoatTree is: an insert that goes deeper
+ * than log(size) / log(1 / alpha) rebuilds the sub tree of a scapegoat, and
+ * removals that shrink the tree to alpha of its size at the last rebuild
+ * rebuild the whole tree, so updates take amortized O(log n) even for
+ * sequential values. The size is counted as values are inserted and removed,
+ * and split subtracts the nodes it moves out. join, union, difference and
+ * applyBatch insert or remove the values one at a time when they are few for
+ * the size of the tree; otherwise, and for setRoot and intersection, the
+ * nodes are counted again, the tree is rebuilt and values are evicted by
+ * policy down to the maximum size. Values that such an operation adds are the
+ * most recently used, or start their time to live. This class is not thread
+ * safe.
+ */
+public class BoundedBinarySearchTree<T extends Comparable<T>> extends BinarySearchTree<T> {
+    private static final LongSupplier SYSTEM_CLOCK = new LongSupplier() {
+        @Override
+        public long getAsLong() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    private static final double ALPHA = ScapegoatTree.DEFAULT_ALPHA;
+    private static final double LOG_INVERSE_ALPHA = Math.log(1 / ALPHA);
+
+    private final int maxSize;
+    private final EvictionPolicy policy;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Values in eviction order with the time they expire, for LRU and TTL.
+     */
+    private final Map<T, Long> order;
+    private final BalancedBuilder<T> builder = new BalancedBuilder<>(false);
+    private int size = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Size at the last rebuild of the whole tree.
+     */
+    private int rebuiltSize = 0;
+
+    /**
+     * Ancestors of the node being inserted, cleared when the insert returns.
+     */
+    private BinarySearchTreeNode<T>[] path = BinarySearchTreeNode.newArray(32);
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param maxSize maximum number of values.
+     * @param policy  eviction policy, other than TTL.
+     */
+    public BoundedBinarySearchTree(int maxSize, EvictionPolicy policy) {
+        this(maxSize, policy, 0, SYSTEM_CLOCK);
+        if (policy == EvictionPolicy.TTL) {
+            throw new IllegalArgumentException("TTL requires a time to live.");
+        }
+    }
+
+    /**
+     * Construct a empty tree that evicts values a time after they are
+     * inserted.
+     *
+     * @param maxSize   maximum number of values.
+     * @param ttlMillis time to live of a value; inserting a value again
+     *                  restarts it.
+     */
+    public BoundedBinarySearchTree(int maxSize, long ttlMillis) {
+        this(maxSize, EvictionPolicy.TTL, ttlMillis, SYSTEM_CLOCK);
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive.");
+        }
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param maxSize   maximum number of values.
+     * @param policy    eviction policy.
+     * @param ttlMillis time to live of a value, for TTL.
+     * @param clock     source of the current time in milliseconds.
+     */
+    BoundedBinarySearchTree(int maxSize, EvictionPolicy policy, long ttlMillis, LongSupplier clock) {
+        super(true);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.order = policy == EvictionPolicy.LRU || policy == EvictionPolicy.TTL
+                ? new LinkedHashMap<T, Long>(16, 0.75f, policy == EvictionPolicy.LRU)
+                : null;
+    }
+
+    /**
+     * Return the maximum number of values.
+     *
+     * @return maximum size.
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Return the eviction policy.
+     *
+     * @return eviction policy.
+     */
+    public EvictionPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Return the number of values.
+     *
+     * @return number of values.
+     */
+    public int size() {
+        this.evictExpired();
+        return this.size;
+    }
+
+    /**
+     * Return the number of values evicted so far, by size or by time.
+     *
+     * @return number of evictions.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Insert value into tree, and evict a value if the tree is over its
+     * maximum size. The inserted value itself is evicted if the policy picks
+     * it, e.g. a value smaller than all others with SMALLEST.
+     *
+     * @param value value.
+     */
+    @Override
+    public void insert(T value) {
+        this.evictExpired();
+        if (this.order != null && this.order.containsKey(value)) {
+            this.touch(value);
+            return;
+        }
+        if (!this.add(value)) {
+            return;
+        }
+
+        this.size++;
+        this.rebuiltSize = Math.max(this.rebuiltSize, this.size);
+        if (this.order != null) {
+            this.order.put(value, this.clock.getAsLong() + this.ttlMillis);
+        }
+        if (this.size > this.maxSize) {
+            this.evict();
+        }
+    }
+
+    @Override
+    public boolean remove(T value) {
+        this.evictExpired();
+        boolean removed = super.remove(value);
+        if (removed) {
+            this.forget(value);
+        }
+        return removed;
+    }
+
+    /**
+     * Return a list of nodes that matches a given value. With LRU, a found
+     * value becomes the most recently used.
+     *
+     * @param value value to match.
+     * @return list of matching nodes.
+     */
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        this.evictExpired();
+        List<BinarySearchTreeNode<T>> nodes = super.find(value);
+        if (!nodes.isEmpty() && this.policy == EvictionPolicy.LRU) {
+            this.order.get(value);
+        }
+        return nodes;
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        this.evictExpired();
+        return super.findAll(values, pool);
+    }
+
+    @Override
+    public T first() {
+        this.evictExpired();
+        return super.first();
+    }
+
+    @Override
+    public T last() {
+        this.evictExpired();
+        return super.last();
+    }
+
+    @Override
+    public T floor(T value) {
+        this.evictExpired();
+        return super.floor(value);
+    }
+
+    @Override
+    public T ceiling(T value) {
+        this.evictExpired();
+        return super.ceiling(value);
+    }
+
+    @Override
+    public T pollFirst() {
+        this.evictExpired();
+        return this.forget(super.pollFirst());
+    }
+
+    @Override
+    public T pollLast() {
+        this.evictExpired();
+        return this.forget(super.pollLast());
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> inorderTraversal() {
+        this.evictExpired();
+        return super.inorderTraversal();
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> preorderTraversal() {
+        this.evictExpired();
+        return super.preorderTraversal();
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> postorderTraversal() {
+        this.evictExpired();
+        return super.postorderTraversal();
+    }
+
+    @Override
+    public boolean balance() {
+        this.evictExpired();
+        if (this.root == null || this.isBalanced()) {
+            return false;
+        }
+        this.rebuild();
+        return true;
+    }
+
+    /**
+     * Evict the values whose time to live has passed. The values expire in the
+     * order they are inserted, so only expired values are visited.
+     *
+     * @return number of evicted values.
+     */
+    public int evictExpired() {
+        if (this.policy != EvictionPolicy.TTL) {
+            return 0;
+        }
+        long now = this.clock.getAsLong();
+        int count = 0;
+        Iterator<Map.Entry<T, Long>> it = this.order.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<T, Long> entry = it.next();
+            if (entry.getValue() > now) {
+                break;
+            }
+            it.remove();
+            super.remove(entry.getKey());
+            this.size--;
+            count++;
+        }
+        this.evictionCount += count;
+        if (count > 0) {
+            this.shrunk();
+        }
+        return count;
+    }
+
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        super.setRoot(root);
+        this.recount();
+    }
+
+    @Override
+    public BinarySearchTree<T> split(T value) {
+        BinarySearchTree<T> greater = super.split(value);
+        // a split does not deepen the nodes that stay.
+        int moved = this.builder.size(greater.root);
+        this.size -= moved;
+        if (this.order != null) {
+            for (BinarySearchTreeNode<T> node : this.builder.flatten(greater.root, moved)) {
+                this.order.remove(node.getValue());
+            }
+        }
+        this.shrunk();
+        return greater;
+    }
+
+    @Override
+    public void join(BinarySearchTree<T> greater) {
+        T[] values = this.valuesOf(greater);
+        if (values != null && (this.root == null || values.length == 0
+                || super.last().compareTo(values[0]) < 0)) {
+            greater.setRoot(null);
+            this.insertEach(values);
+            return;
+        }
+        super.join(greater);
+        this.recount();
+        recountEmptied(greater);
+    }
+
+    @Override
+    public void union(BinarySearchTree<T> other, ForkJoinPool pool) {
+        T[] values = other == this ? null : this.valuesOf(other);
+        if (values != null) {
+            other.setRoot(null);
+            this.insertEach(values);
+            return;
+        }
+        super.union(other, pool);
+        this.recount();
+        recountEmptied(other);
+    }
+
+    @Override
+    public void intersection(BinarySearchTree<T> other, ForkJoinPool pool) {
+        super.intersection(other, pool);
+        this.recount();
+        recountEmptied(other);
+    }
+
+    @Override
+    public void difference(BinarySearchTree<T> other, ForkJoinPool pool) {
+        T[] values = other == this ? null : this.valuesOf(other);
+        if (values != null) {
+            other.setRoot(null);
+            this.removeEach(values);
+            return;
+        }
+        super.difference(other, pool);
+        this.recount();
+        recountEmptied(other);
+    }
+
+    @Override
+    public void applyBatch(T[] removals, T[] insertions, ForkJoinPool pool) {
+        if (this.fewValues(removals.length + insertions.length)) {
+            this.removeEach(removals);
+            this.insertEach(insertions);
+            return;
+        }
+        super.applyBatch(removals, insertions, pool);
+        this.recount();
+    }
+
+    /**
+     * Return true if a number of values are few enough to insert or remove one
+     * at a time, in O(count log(size)), rather than to combine the trees and
+     * count the nodes again in O(size).
+     */
+    private boolean fewValues(int count) {
+        return (long) count * (32 - Integer.numberOfLeadingZeros(this.size)) < this.size;
+    }
+
+    /**
+     * Return the values of another tree in order if they are few, else null.
+     */
+    private T[] valuesOf(BinarySearchTree<T> other) {
+        int count = this.builder.size(other.root);
+        if (!this.fewValues(count)) {
+            return null;
+        }
+        BinarySearchTreeNode<T>[] nodes = this.builder.flatten(other.root, count);
+        T[] values = ValueUtils.<T>newArray(count);
+        for (int i = 0; i < count; i++) {
+            values[i] = nodes[i].getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Remove values that are in the tree, one at a time.
+     */
+    private void removeEach(T[] values) {
+        this.evictExpired();
+        for (T value : values) {
+            if (super.remove(value)) {
+                this.forget(value);
+            }
+        }
+    }
+
+    /**
+     * Insert values that are not in the tree, one at a time, and evict down to
+     * the maximum size. Values that are in the tree keep their place in the
+     * eviction order.
+     */
+    private void insertEach(T[] values) {
+        this.evictExpired();
+        long expires = this.clock.getAsLong() + this.ttlMillis;
+        for (T value : values) {
+            if (this.add(value)) {
+                this.size++;
+                this.rebuiltSize = Math.max(this.rebuiltSize, this.size);
+                if (this.order != null) {
+                    this.order.put(value, expires);
+                }
+            }
+        }
+        while (this.size > this.maxSize) {
+            this.evict();
+        }
+    }
+
+    /**
+     * Reset the count of a bounded tree whose nodes were taken.
+     */
+    private static <T extends Comparable<T>> void recountEmptied(BinarySearchTree<T> other) {
+        if (other instanceof BoundedBinarySearchTree) {
+            ((BoundedBinarySearchTree<T>) other).recount();
+        }
+    }
+
+    /**
+     * Insert a node unless its value is in the tree, and rebuild the sub tree
+     * of a scapegoat if the node is too deep.
+     *
+     * @return true if the node is inserted.
+     */
+    private boolean add(T value) {
+        BinarySearchTreeNode<T> node = new BinarySearchTreeNode<>(value);
+        if (this.root == null) {
+            this.root = node;
+            this.invalidateExtremes();
+            return true;
+        }
+
+        int depth = 0;
+        BinarySearchTreeNode<T> parent = this.root;
+        while (true) {
+            int cmp = value.compareTo(parent.getValue());
+            if (cmp == 0) {
+                this.clearPath(depth);
+                return false;
+            }
+            this.push(depth++, parent);
+            BinarySearchTreeNode<T> next = cmp > 0 ? parent.right : parent.left;
+            if (next == null) {
+                if (cmp > 0) {
+                    parent.right = node;
+                } else {
+                    parent.left = node;
+                }
+                this.linked(parent, node);
+                break;
+            }
+            parent = next;
+        }
+
+        // a rebuild relinks the nodes, the cached first and last stay extreme.
+        if (depth > Math.log(this.size + 1) / LOG_INVERSE_ALPHA) {
+            this.rebuildScapegoat(node, depth);
+        }
+        this.clearPath(depth);
+        return true;
+    }
+
+    private void push(int depth, BinarySearchTreeNode<T> node) {
+        if (depth == this.path.length) {
+            this.path = Arrays.copyOf(this.path, depth * 2);
+        }
+        this.path[depth] = node;
+    }
+
+    private void clearPath(int depth) {
+        Arrays.fill(this.path, 0, depth, null);
+    }
+
+    /**
+     * Walk up from a new node and rebuild the sub tree of the first ancestor
+     * whose child holds more than alpha of its nodes.
+     *
+     * @param node  new node.
+     * @param depth depth of the new node, path holds its ancestors.
+     */
+    private void rebuildScapegoat(BinarySearchTreeNode<T> node, int depth) {
+        int childSize = 1;
+        BinarySearchTreeNode<T> child = node;
+
+        for (int i = depth - 1; i >= 0; i--) {
+            BinarySearchTreeNode<T> parent = this.path[i];
+            BinarySearchTreeNode<T> sibling = parent.left == child ? parent.right : parent.left;
+            int parentSize = childSize + 1 + this.builder.size(sibling);
+
+            if (childSize > ALPHA * parentSize) {
+                BinarySearchTreeNode<T> rebuilt = this.builder.build(this.builder.flatten(parent, parentSize), 0,
+                        parentSize);
+                if (i == 0) {
+                    this.root = rebuilt;
+                } else if (this.path[i - 1].left == parent) {
+                    this.path[i - 1].left = rebuilt;
+                } else {
+                    this.path[i - 1].right = rebuilt;
+                }
+                break;
+            }
+            childSize = parentSize;
+            child = parent;
+        }
+    }
+
+    /**
+     * Rebuild the whole tree into a balanced tree.
+     */
+    private void rebuild() {
+        this.root = this.builder.build(this.builder.flatten(this.root, this.size), 0, this.size);
+        this.rebuiltSize = this.size;
+        this.invalidateExtremes();
+    }
+
+    /**
+     * Rebuild the whole tree once removals shrink it to alpha of its size at
+     * the last rebuild.
+     */
+    private void shrunk() {
+        if (this.size <= ALPHA * this.rebuiltSize) {
+            this.rebuild();
+        }
+    }
+
+    /**
+     * Count the nodes after an operation that replaced them, keep the eviction
+     * order of the values that stayed, rebuild the tree and evict down to the
+     * maximum size.
+     */
+    private void recount() {
+        this.size = this.builder.size(this.root);
+        BinarySearchTreeNode<T>[] nodes = this.builder.flatten(this.root, this.size);
+        if (this.order != null) {
+            Set<T> values = new HashSet<>();
+            for (BinarySearchTreeNode<T> node : nodes) {
+                values.add(node.getValue());
+            }
+            this.order.keySet().retainAll(values);
+            long expires = this.clock.getAsLong() + this.ttlMillis;
+            for (BinarySearchTreeNode<T> node : nodes) {
+                if (!this.order.containsKey(node.getValue())) {
+                    this.order.put(node.getValue(), expires);
+                }
+            }
+        }
+        this.root = this.builder.build(nodes, 0, this.size);
+        this.rebuiltSize = this.size;
+        this.invalidateExtremes();
+
+        this.evictExpired();
+        while (this.size > this.maxSize) {
+            this.evict();
+        }
+    }
+
+    /**
+     * Make a value the most recently used, or restart its time to live.
+     */
+    private void touch(T value) {
+        if (this.policy == EvictionPolicy.LRU) {
+            this.order.get(value);
+        } else {
+            this.order.remove(value);
+            this.order.put(value, this.clock.getAsLong() + this.ttlMillis);
+        }
+    }
+
+    private void evict() {
+        T value;
+        if (this.policy == EvictionPolicy.SMALLEST) {
+            value = super.pollFirst();
+        } else if (this.policy == EvictionPolicy.LARGEST) {
+            value = super.pollLast();
+        } else {
+            Iterator<T> it = this.order.keySet().iterator();
+            value = it.next();
+            it.remove();
+            super.remove(value);
+        }
+        if (value != null) {
+            this.size--;
+            this.evictionCount++;
+            this.shrunk();
+        }
+    }
+
+    private T forget(T value) {
+        if (value != null) {
+            this.size--;
+            if (this.order != null) {
+                this.order.remove(value);
+            }
+            this.shrunk();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.dennisseah.graphs.common.CachePolicy;
+import com.dennisseah.graphs.common.LookupCache;
+
+/**
+ * Tree with a bounded cache of find results in front of another tree. A
+ * cached lookup returns the same read only list without walking the tree.
+ *
+ * The cache is kept correct as long as the tree is only changed through this
+ * class. This class is not thread safe.
+ */
+public class CachingBinarySearchTree<T extends Comparable<T>> implements IBinarySearchTreeBase<T> {
+    private final IBinarySearchTreeBase<T> tree;
+    private final LookupCache<T, List<BinarySearchTreeNode<T>>> cache;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree     tree to cache.
+     * @param capacity maximum number of cached values.
+     * @param policy   eviction policy.
+     */
+    public CachingBinarySearchTree(IBinarySearchTreeBase<T> tree, int capacity, CachePolicy policy) {
+        this.tree = tree;
+        this.cache = new LookupCache<>(capacity, policy);
+    }
+
+    /**
+     * Return the cached tree.
+     *
+     * @return the cached tree.
+     */
+    public IBinarySearchTreeBase<T> getTree() {
+        return this.tree;
+    }
+
+    /**
+     * Return the number of finds that are served from the cache.
+     *
+     * @return hit count.
+     */
+    public long getHitCount() {
+        return this.cache.getHitCount();
+    }
+
+    /**
+     * Return the number of finds that walk the tree.
+     *
+     * @return miss count.
+     */
+    public long getMissCount() {
+        return this.cache.getMissCount();
+    }
+
+    @Override
+    public BinarySearchTreeNode<T> getRoot() {
+        return this.tree.getRoot();
+    }
+
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        this.tree.setRoot(root);
+        this.cache.clear();
+    }
+
+    @Override
+    public void insert(T value) {
+        this.tree.insert(value);
+        this.cache.invalidate(value);
+    }
+
+    /**
+     * Return a read only list of nodes that matches a given value.
+     *
+     * @param value value to match.
+     * @return list of matching nodes.
+     */
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        List<BinarySearchTreeNode<T>> nodes = this.cache.get(value);
+        if (nodes == null) {
+            nodes = Collections.unmodifiableList(this.tree.find(value));
+            this.cache.put(value, nodes);
+        }
+        return nodes;
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values) {
+        return this.tree.findAll(values);
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return this.tree.findAll(values, pool);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high) {
+        return this.tree.rangeTraversal(low, high);
+    }
+
+    @Override
+    public boolean remove(T value) {
+        boolean removed = this.tree.remove(value);
+        this.cache.invalidate(value);
+
+        if (removed) {
+            // removing a node with two children can move the value of its
+            // successor into it, which changes the nodes of the next value.
+            if (this.tree instanceof IReadOnlyBinarySearchTree) {
+                @SuppressWarnings("unchecked")
+                T next = ((IReadOnlyBinarySearchTree<T>) this.tree).ceiling(value);
+                if (next != null) {
+                    this.cache.invalidate(next);
+                }
+            } else {
+                this.cache.clear();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Balance the tree if it can be balanced.
+     *
+     * @see IBinarySearchTree.balance
+     * @return true if actions are performed.
+     */
+    public boolean balance() {
+        if (!(this.tree instanceof IBinarySearchTree)) {
+            return false;
+        }
+        boolean balanced = ((IBinarySearchTree<T>) this.tree).balance();
+        if (balanced) {
+            this.cache.clear();
+        }
+        return balanced;
+    }
+
+    @Override
+    public boolean isValid() {
+        return this.tree.isValid();
+    }
+}
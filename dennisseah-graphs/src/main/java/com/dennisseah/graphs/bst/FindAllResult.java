@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Result of a batch lookup. The matching nodes of all the values are kept in
+ * a single array, grouped by the position of the value in the lookup array.
+ */
+public class FindAllResult<T extends Comparable<T>> {
+    private final Object[] nodes;
+    private final int[] offsets;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param nodes   matching nodes, grouped by value position.
+     * @param offsets start of each group in nodes, followed by nodes.length.
+     */
+    FindAllResult(Object[] nodes, int[] offsets) {
+        this.nodes = nodes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Return the number of values that are looked up.
+     *
+     * @return number of values.
+     */
+    public int size() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Return the total number of matching nodes.
+     *
+     * @return number of matching nodes.
+     */
+    public int totalCount() {
+        return this.nodes.length;
+    }
+
+    /**
+     * Return the number of nodes that matches the value at a given position.
+     *
+     * @param index position of the value in the lookup array.
+     * @return number of matching nodes.
+     */
+    public int count(int index) {
+        return this.offsets[index + 1] - this.offsets[index];
+    }
+
+    /**
+     * Return a matching node of the value at a given position.
+     *
+     * @param index position of the value in the lookup array.
+     * @param i     index of the matching node, from 0 to count(index) - 1.
+     * @return matching node.
+     */
+    @SuppressWarnings("unchecked")
+    public BinarySearchTreeNode<T> get(int index, int i) {
+        if (i < 0 || i >= this.count(index)) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Count: " + this.count(index));
+        }
+        return (BinarySearchTreeNode<T>) this.nodes[this.offsets[index] + i];
+    }
+
+    /**
+     * Return a read only view of the nodes that matches the value at a given
+     * position. This is the same list that find returns for the value.
+     *
+     * @param index position of the value in the lookup array.
+     * @return list of matching nodes.
+     */
+    public List<BinarySearchTreeNode<T>> nodes(final int index) {
+        return new AbstractList<BinarySearchTreeNode<T>>() {
+            @Override
+            public BinarySearchTreeNode<T> get(int i) {
+                return FindAllResult.this.get(index, i);
+            }
+
+            @Override
+            public int size() {
+                return FindAllResult.this.count(index);
+            }
+        };
+    }
+}
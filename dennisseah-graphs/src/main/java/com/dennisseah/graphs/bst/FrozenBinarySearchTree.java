@@ -0,0 +1,269 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable binary search tree that keeps its values in a single array in
+ * Eytzinger (breadth first) order. The children of slot k are at 2k and 2k + 1
+ * (slot 0 is unused), so a search walks a contiguous array instead of chasing
+ * node references, and the descent selects the next slot arithmetically from
+ * the comparison result rather than branching on it.
+ *
+ * [ -, 4, 2, 6, 1, 3, 5, 7 ]
+ * .....|..L..R
+ * .....+--+--+
+ *
+ * Nodes returned by find and the traversals are detached copies; they carry the
+ * value only and changing them does not affect the tree.
+ */
+public class FrozenBinarySearchTree<T extends Comparable<T>> implements IReadOnlyBinarySearchTree<T> {
+    private final Object[] values;
+    private final int size;
+
+    /**
+     * Construct a frozen tree from values in ascending order.
+     *
+     * @param sortedValues values in ascending order.
+     */
+    FrozenBinarySearchTree(List<T> sortedValues) {
+        this.size = sortedValues.size();
+        this.values = new Object[this.size + 1];
+
+        int k = this.leftmost(1);
+        for (T value : sortedValues) {
+            this.values[k] = value;
+            k = this.successor(k);
+        }
+    }
+
+    /**
+     * Return the number of values in the tree.
+     *
+     * @return number of values.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return true if the tree has a given value.
+     *
+     * @param value value to match.
+     * @return true if the tree has the value.
+     */
+    public boolean contains(T value) {
+        int k = this.lowerBound(value);
+        return k != 0 && this.valueAt(k).compareTo(value) == 0;
+    }
+
+    /**
+     * Return the estimated heap footprint of the tree, for a JVM with
+     * compressed references. The nodes are the slots of the array; the unused
+     * slot 0 is the wasted capacity.
+     *
+     * @param estimator estimator of the values.
+     * @return report.
+     */
+    public MemoryReport memoryReport(IKeySizeEstimator<? super T> estimator) {
+        return this.memoryReport(estimator, MemoryLayout.COMPRESSED_OOPS);
+    }
+
+    /**
+     * Return the estimated heap footprint of the tree.
+     *
+     * @param estimator estimator of the values.
+     * @param layout    object layout of the JVM.
+     * @return report.
+     */
+    public MemoryReport memoryReport(IKeySizeEstimator<? super T> estimator, MemoryLayout layout) {
+        long keyBytes = 0;
+        long[] depthCounts = new long[32 - Integer.numberOfLeadingZeros(this.size)];
+        for (int k = 1; k <= this.size; k++) {
+            keyBytes += estimator.estimate(this.valueAt(k), layout);
+            depthCounts[31 - Integer.numberOfLeadingZeros(k)]++;
+        }
+        int slotBytes = layout.getReferenceBytes();
+        long arrayBytes = layout.arraySize(slotBytes, this.values.length);
+        return new MemoryReport(this.size, arrayBytes, keyBytes, 0, slotBytes, depthCounts);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        int k = this.lowerBound(value);
+        while (k != 0 && this.valueAt(k).compareTo(value) == 0) {
+            nodes.add(new BinarySearchTreeNode<>(this.valueAt(k)));
+            k = this.successor(k);
+        }
+        return nodes;
+    }
+
+    @Override
+    public T floor(T value) {
+        int k = 1;
+        while (k <= this.size) {
+            // go right when slot value <= value.
+            k = 2 * k + (~value.compareTo(this.valueAt(k)) >>> 31);
+        }
+        // drop the trailing left turns and the last right turn.
+        k >>>= Integer.numberOfTrailingZeros(k) + 1;
+        return k == 0 ? null : this.valueAt(k);
+    }
+
+    @Override
+    public T ceiling(T value) {
+        int k = this.lowerBound(value);
+        return k == 0 ? null : this.valueAt(k);
+    }
+
+    @Override
+    public T first() {
+        return this.size == 0 ? null : this.valueAt(this.leftmost(1));
+    }
+
+    @Override
+    public T last() {
+        if (this.size == 0) {
+            return null;
+        }
+        int k = 1;
+        while (2 * k + 1 <= this.size) {
+            k = 2 * k + 1;
+        }
+        return this.valueAt(k);
+    }
+
+    @Override
+    public boolean isBalanced() {
+        // Eytzinger layout is always a complete tree.
+        return true;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> inorderTraversal() {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        if (this.size > 0) {
+            for (int k = this.leftmost(1); k != 0; k = this.successor(k)) {
+                nodes.add(new BinarySearchTreeNode<>(this.valueAt(k)));
+            }
+        }
+        return nodes;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> preorderTraversal() {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        this.preorderTraversal(1, nodes);
+        return nodes;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> postorderTraversal() {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        this.postorderTraversal(1, nodes);
+        return nodes;
+    }
+
+    /**
+     * Return true if the values are in ascending order. A frozen tree is only
+     * invalid when it is frozen from an invalid tree.
+     *
+     * @return true if tree is valid.
+     */
+    @Override
+    public boolean isValid() {
+        if (this.size == 0) {
+            return true;
+        }
+        int prev = this.leftmost(1);
+        for (int k = this.successor(prev); k != 0; k = this.successor(k)) {
+            if (this.valueAt(prev).compareTo(this.valueAt(k)) > 0) {
+                return false;
+            }
+            prev = k;
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(int k) {
+        return (T) this.values[k];
+    }
+
+    /**
+     * Return the slot of the first value that is greater than or equal to a
+     * given value.
+     *
+     * @param value value to match.
+     * @return slot of the value, 0 if there is none.
+     */
+    private int lowerBound(T value) {
+        int k = 1;
+        while (k <= this.size) {
+            // go right when slot value < value.
+            k = 2 * k + (this.valueAt(k).compareTo(value) >>> 31);
+        }
+        // drop the trailing right turns and the last left turn.
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private int leftmost(int k) {
+        while (2 * k <= this.size) {
+            k = 2 * k;
+        }
+        return k;
+    }
+
+    /**
+     * Return the slot of the in-order successor.
+     *
+     * @param k slot.
+     * @return slot of the successor, 0 if k is the last slot.
+     */
+    private int successor(int k) {
+        if (2 * k + 1 <= this.size) {
+            return this.leftmost(2 * k + 1);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    private void preorderTraversal(int k, List<BinarySearchTreeNode<T>> nodes) {
+        if (k <= this.size) {
+            nodes.add(new BinarySearchTreeNode<>(this.valueAt(k)));
+            this.preorderTraversal(2 * k, nodes);
+            this.preorderTraversal(2 * k + 1, nodes);
+        }
+    }
+
+    private void postorderTraversal(int k, List<BinarySearchTreeNode<T>> nodes) {
+        if (k <= this.size) {
+            this.postorderTraversal(2 * k, nodes);
+            this.postorderTraversal(2 * k + 1, nodes);
+            nodes.add(new BinarySearchTreeNode<>(this.valueAt(k)));
+        }
+    }
+}
@@ -23,50 +23,29 @@
  */
 package com.dennisseah.graphs.bst;
 
-import java.util.List;
-
-interface IBinarySearchTree<T extends Comparable<T>> extends IBinarySearchTreeBase<T> {
-    /**
-     * Return true if the tree is balanced.
-     *
-     * @return true if the tree is balanced.
-     */
-    boolean isBalanced();
-
-    /**
-     * Return a list of nodes after doing a in-order traversal.
-     *
-     * @return list of nodes
-     */
-    List<BinarySearchTreeNode<T>> inorderTraversal();
-
+interface IBinarySearchTree<T extends Comparable<T>>
+        extends IBinarySearchTreeBase<T>, IReadOnlyBinarySearchTree<T> {
     /**
-     * Return a list of nodes after doing a pre-order traversal.
-     *
-     * @return list of nodes
+     * Balance the tree. There shall be no actions if the tree
+     * is already balanced.
+     * 
+     * @return true if actions are performed.
      */
-    List<BinarySearchTreeNode<T>> preorderTraversal();
+    boolean balance();
 
     /**
-     * Return a list of nodes after doing a post-order traversal.
+     * Remove the node with the smallest value. If there are several, only one
+     * of them is removed.
      *
-     * @return list of nodes
+     * @return smallest value, null if the tree is empty.
      */
-    List<BinarySearchTreeNode<T>> postorderTraversal();
+    T pollFirst();
 
     /**
-     * Return true if the tree is valid.
+     * Remove the node with the largest value. If there are several, only one
+     * of them is removed.
      *
-     * @see Validator.isValid
-     * @return true if tree is valid.
+     * @return largest value, null if the tree is empty.
      */
-    boolean isValid();
-
-    /**
-     * Balance the tree. There shall be no actions if the tree
-     * is already balanced.
-     * 
-     * @return true if actions are performed.
-     */
-    boolean balance();
+    T pollLast();
 }
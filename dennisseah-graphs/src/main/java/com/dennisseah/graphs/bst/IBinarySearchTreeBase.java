@@ -24,6 +24,7 @@
 package com.dennisseah.graphs.bst;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public abstract interface IBinarySearchTreeBase<T extends Comparable<T>> {
     /**
@@ -55,6 +56,34 @@ public abstract interface IBinarySearchTreeBase<T extends Comparable<T>> {
      */
     List<BinarySearchTreeNode<T>> find(T value);
 
+    /**
+     * Return the matching nodes of many values. The values are sorted and
+     * matched in one walk of the tree instead of one walk per value.
+     *
+     * @param values values to match.
+     * @return matching nodes grouped by the position of the value.
+     */
+    FindAllResult<T> findAll(T[] values);
+
+    /**
+     * Return the matching nodes of many values. Large lookups are split at sub
+     * tree boundaries and walked in parallel.
+     *
+     * @param values values to match.
+     * @param pool   pool to run the walks.
+     * @return matching nodes grouped by the position of the value.
+     */
+    FindAllResult<T> findAll(T[] values, ForkJoinPool pool);
+
+    /**
+     * Return a list of nodes with values in [low, high], in order.
+     *
+     * @param low  smallest value, inclusive.
+     * @param high largest value, inclusive.
+     * @return list of nodes
+     */
+    List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high);
+
     /**
      * Remove nodes from tree.
      *
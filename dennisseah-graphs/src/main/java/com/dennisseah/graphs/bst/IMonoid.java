@@ -0,0 +1,59 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Associative summary of node values, e.g. sum, count, min or max. Summaries
+ * are combined in order, so combine need not be commutative.
+ *
+ * @param <T> type of node value.
+ * @param <S> type of summary.
+ */
+public interface IMonoid<T, S> {
+    /**
+     * Return the summary of no values; combining it with a summary returns the
+     * summary.
+     *
+     * @return identity summary.
+     */
+    S identity();
+
+    /**
+     * Return the summary of a value.
+     *
+     * @param value node value.
+     * @return summary of the value.
+     */
+    S lift(T value);
+
+    /**
+     * Return the summary of the values of two summaries, the values of left
+     * before the values of right.
+     *
+     * @param left  summary of the first values.
+     * @param right summary of the following values.
+     * @return combined summary.
+     */
+    S combine(S left, S right);
+}
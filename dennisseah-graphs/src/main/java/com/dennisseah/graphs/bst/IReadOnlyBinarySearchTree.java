@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.List;
+
+public interface IReadOnlyBinarySearchTree<T extends Comparable<T>> {
+    /**
+     * Return a list of nodes that matches a given value.
+     *
+     * @param value value to match.
+     * @return list of matching nodes.
+     */
+    List<BinarySearchTreeNode<T>> find(T value);
+
+    /**
+     * Return the greatest value that is less than or equal to a given value.
+     *
+     * @param value value to match.
+     * @return greatest value less than or equal to value, null if there is none.
+     */
+    T floor(T value);
+
+    /**
+     * Return the least value that is greater than or equal to a given value.
+     *
+     * @param value value to match.
+     * @return least value greater than or equal to value, null if there is none.
+     */
+    T ceiling(T value);
+
+    /**
+     * Return the smallest value.
+     *
+     * @return smallest value, null if the tree is empty.
+     */
+    T first();
+
+    /**
+     * Return the largest value.
+     *
+     * @return largest value, null if the tree is empty.
+     */
+    T last();
+
+    /**
+     * Return true if the tree is balanced.
+     *
+     * @return true if the tree is balanced.
+     */
+    boolean isBalanced();
+
+    /**
+     * Return a list of nodes after doing a in-order traversal.
+     *
+     * @return list of nodes
+     */
+    List<BinarySearchTreeNode<T>> inorderTraversal();
+
+    /**
+     * Return a list of nodes after doing a pre-order traversal.
+     *
+     * @return list of nodes
+     */
+    List<BinarySearchTreeNode<T>> preorderTraversal();
+
+    /**
+     * Return a list of nodes after doing a post-order traversal.
+     *
+     * @return list of nodes
+     */
+    List<BinarySearchTreeNode<T>> postorderTraversal();
+
+    /**
+     * Return true if the tree is valid.
+     *
+     * @see Validator.isValid
+     * @return true if tree is valid.
+     */
+    boolean isValid();
+}
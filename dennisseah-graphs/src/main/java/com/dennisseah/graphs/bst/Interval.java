@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Closed interval [low, high]. Intervals are ordered by low, then by high.
+ */
+public class Interval<T extends Comparable<T>> implements Comparable<Interval<T>> {
+    private final T low;
+    private final T high;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param low  low endpoint, inclusive.
+     * @param high high endpoint, inclusive.
+     * @throws IllegalArgumentException if low is greater than high.
+     */
+    public Interval(T low, T high) {
+        if (low.compareTo(high) > 0) {
+            throw new IllegalArgumentException("Low endpoint is greater than high endpoint.");
+        }
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Return the low endpoint.
+     *
+     * @return low endpoint.
+     */
+    public T getLow() {
+        return this.low;
+    }
+
+    /**
+     * Return the high endpoint.
+     *
+     * @return high endpoint.
+     */
+    public T getHigh() {
+        return this.high;
+    }
+
+    /**
+     * Return true if a point is in this interval.
+     *
+     * @param point point.
+     * @return true if low &lt;= point &lt;= high.
+     */
+    public boolean contains(T point) {
+        return this.low.compareTo(point) <= 0 && point.compareTo(this.high) <= 0;
+    }
+
+    /**
+     * Return true if this interval and another interval have a point in common.
+     *
+     * @param other other interval.
+     * @return true if the intervals overlap.
+     */
+    public boolean overlaps(Interval<T> other) {
+        return this.low.compareTo(other.high) <= 0 && other.low.compareTo(this.high) <= 0;
+    }
+
+    @Override
+    public int compareTo(Interval<T> other) {
+        int cmp = this.low.compareTo(other.low);
+        return cmp != 0 ? cmp : this.high.compareTo(other.high);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Interval)) {
+            return false;
+        }
+        Interval<?> other = (Interval<?>) obj;
+        return this.low.equals(other.low) && this.high.equals(other.high);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.low.hashCode() + this.high.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "[" + this.low + ", " + this.high + "]";
+    }
+}
@@ -0,0 +1,380 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Interval tree. The tree is ordered by interval and kept balanced as an AVL
+ * tree; every node carries the largest high endpoint of its sub tree, which is
+ * maintained through inserts, removals and rotations. Overlap queries skip
+ * every sub tree whose largest endpoint is below the query, so the iterator
+ * reaches each result in O(log n), and a query that returns k intervals takes
+ * O(min(n, (k + 1) log n)).
+ *
+ * Rotations can place equal intervals on either side of each other, so
+ * lookups of duplicated intervals check both sides.
+ */
+public class IntervalTree<T extends Comparable<T>> extends BinarySearchTreeBase<Interval<T>> {
+    private int size = 0;
+    private boolean removed;
+
+    /**
+     * Construct a empty tree.
+     */
+    public IntervalTree() {
+        super();
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique intervals.
+     */
+    public IntervalTree(boolean uniqueNodeValue) {
+        super(uniqueNodeValue);
+    }
+
+    /**
+     * Return the number of intervals.
+     *
+     * @return number of intervals.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Set the root node. The intervals of the given tree are copied into new
+     * interval nodes.
+     *
+     * @param root root node.
+     */
+    @Override
+    public void setRoot(BinarySearchTreeNode<Interval<T>> root) {
+        List<BinarySearchTreeNode<Interval<T>>> nodes = (new TraversalOperations<Interval<T>>(root))
+                .inorderTraversal();
+        this.root = null;
+        this.size = 0;
+        for (BinarySearchTreeNode<Interval<T>> node : nodes) {
+            this.insert(node.getValue());
+        }
+    }
+
+    /**
+     * Insert interval [low, high] into tree.
+     *
+     * @param low  low endpoint, inclusive.
+     * @param high high endpoint, inclusive.
+     */
+    public void insert(T low, T high) {
+        this.insert(new Interval<>(low, high));
+    }
+
+    @Override
+    public void insert(Interval<T> value) {
+        this.root = this.insert(node(this.root), value);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<Interval<T>>> find(Interval<T> value) {
+        List<BinarySearchTreeNode<Interval<T>>> nodes = new ArrayList<>();
+        this.find(this.root, value, nodes);
+        return nodes;
+    }
+
+    @Override
+    public FindAllResult<Interval<T>> findAll(Interval<T>[] values) {
+        return (new BatchFinder<Interval<T>>(root, true)).findAll(values, null);
+    }
+
+    @Override
+    public FindAllResult<Interval<T>> findAll(Interval<T>[] values, ForkJoinPool pool) {
+        return (new BatchFinder<Interval<T>>(root, true)).findAll(values, pool);
+    }
+
+    @Override
+    public boolean remove(Interval<T> value) {
+        boolean any = false;
+        do {
+            this.removed = false;
+            this.root = this.remove(node(this.root), value);
+            if (this.removed) {
+                this.size--;
+                any = true;
+            }
+        } while (this.removed && !this.uniqueNodeValue);
+        return any;
+    }
+
+    /**
+     * Return true if the tree is balanced.
+     *
+     * @return true if the tree is balanced.
+     */
+    public boolean isBalanced() {
+        return (new Validator<>(this)).isBalanced();
+    }
+
+    @Override
+    public boolean isValid() {
+        return (new Validator<>(this)).isValid();
+    }
+
+    /**
+     * Return the intervals that contain a given point, in order. The intervals
+     * are located as the iteration proceeds.
+     *
+     * @param point point.
+     * @return intervals that contain the point.
+     */
+    public Iterable<Interval<T>> overlapping(T point) {
+        return this.overlapping(new Interval<>(point, point));
+    }
+
+    /**
+     * Return the intervals that overlap [low, high], in order.
+     *
+     * @param low  low endpoint, inclusive.
+     * @param high high endpoint, inclusive.
+     * @return intervals that overlap [low, high].
+     */
+    public Iterable<Interval<T>> overlapping(T low, T high) {
+        return this.overlapping(new Interval<>(low, high));
+    }
+
+    /**
+     * Return the intervals that overlap a given interval, in order. The
+     * intervals are located as the iteration proceeds.
+     *
+     * @param query interval.
+     * @return intervals that overlap the interval.
+     */
+    public Iterable<Interval<T>> overlapping(final Interval<T> query) {
+        final IntervalTreeNode<T> start = node(this.root);
+        return new Iterable<Interval<T>>() {
+            @Override
+            public Iterator<Interval<T>> iterator() {
+                return new OverlapIterator(start, query);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> IntervalTreeNode<T> node(BinarySearchTreeNode<Interval<T>> node) {
+        return (IntervalTreeNode<T>) node;
+    }
+
+    private static <T extends Comparable<T>> int nodeHeight(IntervalTreeNode<T> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private IntervalTreeNode<T> insert(IntervalTreeNode<T> node, Interval<T> value) {
+        if (node == null) {
+            this.size++;
+            return new IntervalTreeNode<>(value);
+        }
+        int cmp = value.compareTo(node.getValue());
+        if (this.uniqueNodeValue && cmp == 0) {
+            return node;
+        }
+        if (cmp > 0) {
+            node.right = this.insert(node(node.right), value);
+        } else {
+            node.left = this.insert(node(node.left), value);
+        }
+        return this.rebalance(node);
+    }
+
+    private IntervalTreeNode<T> remove(IntervalTreeNode<T> node, Interval<T> value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = value.compareTo(node.getValue());
+        if (cmp < 0) {
+            node.left = this.remove(node(node.left), value);
+        } else if (cmp > 0) {
+            node.right = this.remove(node(node.right), value);
+        } else {
+            this.removed = true;
+            if (node.left == null) {
+                return node(node.right);
+            }
+            if (node.right == null) {
+                return node(node.left);
+            }
+            IntervalTreeNode<T> successor = node(node.right);
+            while (successor.left != null) {
+                successor = node(successor.left);
+            }
+            successor.right = this.removeLeftmost(node(node.right));
+            successor.left = node.left;
+            node = successor;
+        }
+        return this.rebalance(node);
+    }
+
+    private IntervalTreeNode<T> removeLeftmost(IntervalTreeNode<T> node) {
+        if (node.left == null) {
+            return node(node.right);
+        }
+        node.left = this.removeLeftmost(node(node.left));
+        return this.rebalance(node);
+    }
+
+    private void find(BinarySearchTreeNode<Interval<T>> node, Interval<T> value,
+            List<BinarySearchTreeNode<Interval<T>>> nodes) {
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp == 0) {
+                nodes.add(node);
+                this.find(node.left, value, nodes);
+                node = node.right;
+            } else {
+                node = cmp > 0 ? node.left : node.right;
+            }
+        }
+    }
+
+    private void update(IntervalTreeNode<T> node) {
+        IntervalTreeNode<T> left = node(node.left);
+        IntervalTreeNode<T> right = node(node.right);
+        node.height = 1 + Math.max(nodeHeight(left), nodeHeight(right));
+
+        T max = node.getValue().getHigh();
+        if (left != null && left.max.compareTo(max) > 0) {
+            max = left.max;
+        }
+        if (right != null && right.max.compareTo(max) > 0) {
+            max = right.max;
+        }
+        node.max = max;
+    }
+
+    private IntervalTreeNode<T> rebalance(IntervalTreeNode<T> node) {
+        this.update(node);
+        int balance = nodeHeight(node(node.left)) - nodeHeight(node(node.right));
+        if (balance > 1) {
+            IntervalTreeNode<T> left = node(node.left);
+            if (nodeHeight(node(left.left)) < nodeHeight(node(left.right))) {
+                node.left = this.rotateLeft(left);
+            }
+            return this.rotateRight(node);
+        }
+        if (balance < -1) {
+            IntervalTreeNode<T> right = node(node.right);
+            if (nodeHeight(node(right.right)) < nodeHeight(node(right.left))) {
+                node.right = this.rotateRight(right);
+            }
+            return this.rotateLeft(node);
+        }
+        return node;
+    }
+
+    private IntervalTreeNode<T> rotateRight(IntervalTreeNode<T> node) {
+        IntervalTreeNode<T> left = node(node.left);
+        node.left = left.right;
+        left.right = node;
+        this.update(node);
+        this.update(left);
+        return left;
+    }
+
+    private IntervalTreeNode<T> rotateLeft(IntervalTreeNode<T> node) {
+        IntervalTreeNode<T> right = node(node.right);
+        node.right = right.left;
+        right.left = node;
+        this.update(node);
+        this.update(right);
+        return right;
+    }
+
+    /**
+     * In-order walk that skips sub trees that cannot overlap the query: those
+     * whose largest endpoint is below query low, and everything that starts
+     * after query high.
+     */
+    private class OverlapIterator implements Iterator<Interval<T>> {
+        private final Interval<T> query;
+        private final Deque<IntervalTreeNode<T>> stack = new ArrayDeque<>();
+        private Interval<T> next;
+
+        OverlapIterator(IntervalTreeNode<T> root, Interval<T> query) {
+            this.query = query;
+            this.pushLeft(root);
+            this.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Interval<T> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            Interval<T> result = this.next;
+            this.advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void pushLeft(IntervalTreeNode<T> node) {
+            while (node != null && node.max.compareTo(this.query.getLow()) >= 0) {
+                this.stack.push(node);
+                node = node(node.left);
+            }
+        }
+
+        private void advance() {
+            this.next = null;
+            while (!this.stack.isEmpty()) {
+                IntervalTreeNode<T> node = this.stack.pop();
+                Interval<T> interval = node.getValue();
+                if (interval.getLow().compareTo(this.query.getHigh()) > 0) {
+                    // the rest starts even later.
+                    this.stack.clear();
+                    return;
+                }
+                this.pushLeft(node(node.right));
+                if (interval.overlaps(this.query)) {
+                    this.next = interval;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Node of an interval tree. Besides the interval, it keeps the largest high
+ * endpoint and the height of its sub tree.
+ */
+public class IntervalTreeNode<T extends Comparable<T>> extends BinarySearchTreeNode<Interval<T>> {
+    T max;
+    int height;
+
+    /**
+     * Instantiate an instance of this class with an interval.
+     *
+     * @param value interval.
+     */
+    IntervalTreeNode(Interval<T> value) {
+        super(value);
+        this.max = value.getHigh();
+        this.height = 1;
+    }
+
+    /**
+     * Return the largest high endpoint of the sub tree.
+     *
+     * @return largest high endpoint.
+     */
+    public T getMax() {
+        return this.max;
+    }
+}
@@ -0,0 +1,254 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Split, join and set operations built on join. Nodes are arranged as a treap
+ * whose priority is derived from the hash code of the value, so no priority
+ * has to be stored in the node. Union, intersection and difference split the
+ * second tree at the root of the first tree and recurse on both sides, which
+ * takes O(m log(n / m + 1)) expected work for treap or balanced inputs, and
+ * the two sides run in parallel near the top of the recursion.
+ *
+ * The operations reuse the nodes of their inputs.
+ */
+class JoinOperations<T extends Comparable<T>> {
+    enum Operation {
+        UNION, INTERSECTION, DIFFERENCE, MERGE
+    }
+
+    private final ForkJoinPool pool;
+    private final int forkDepth;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param pool pool to run the set operations, null to run them in the
+     *             calling thread.
+     */
+    JoinOperations(ForkJoinPool pool) {
+        this.pool = pool;
+        this.forkDepth = pool == null ? 0
+                : 3 + (31 - Integer.numberOfLeadingZeros(Math.max(1, pool.getParallelism())));
+    }
+
+    /**
+     * Split a sub tree in two.
+     *
+     * @param node         root node of sub tree.
+     * @param value        value to split at.
+     * @param equalToLeft  true to put the nodes equal to value in the left part.
+     * @param parts        receives the left part at 0 and the right part at 1.
+     */
+    void split(BinarySearchTreeNode<T> node, T value, boolean equalToLeft, BinarySearchTreeNode<T>[] parts) {
+        BinarySearchTreeNode<T> left = null;
+        BinarySearchTreeNode<T> right = null;
+        BinarySearchTreeNode<T> leftTail = null;
+        BinarySearchTreeNode<T> rightTail = null;
+
+        // walk down once, hanging each node on the right spine of the left part
+        // or on the left spine of the right part.
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp < 0 || (cmp == 0 && equalToLeft)) {
+                if (leftTail == null) {
+                    left = node;
+                } else {
+                    leftTail.right = node;
+                }
+                leftTail = node;
+                node = node.right;
+            } else {
+                if (rightTail == null) {
+                    right = node;
+                } else {
+                    rightTail.left = node;
+                }
+                rightTail = node;
+                node = node.left;
+            }
+        }
+        if (leftTail != null) {
+            leftTail.right = null;
+        }
+        if (rightTail != null) {
+            rightTail.left = null;
+        }
+        parts[0] = left;
+        parts[1] = right;
+    }
+
+    /**
+     * Return the root of a tree with all nodes of left, then node, then all
+     * nodes of right in order.
+     *
+     * @param left  nodes less than or equal to node.
+     * @param node  middle node.
+     * @param right nodes greater than or equal to node.
+     * @return root node.
+     */
+    BinarySearchTreeNode<T> join(BinarySearchTreeNode<T> left, BinarySearchTreeNode<T> node,
+            BinarySearchTreeNode<T> right) {
+        long priority = priority(node);
+        if (priority >= priority(left) && priority >= priority(right)) {
+            node.left = left;
+            node.right = right;
+            return node;
+        }
+        if (priority(left) > priority(right)) {
+            left.right = this.join(left.right, node, right);
+            return left;
+        }
+        right.left = this.join(left, node, right.left);
+        return right;
+    }
+
+    /**
+     * Return the root of a tree with all nodes of left, then all nodes of
+     * right in order.
+     *
+     * @param left  nodes less than or equal to the nodes of right.
+     * @param right nodes greater than or equal to the nodes of left.
+     * @return root node.
+     */
+    BinarySearchTreeNode<T> join(BinarySearchTreeNode<T> left, BinarySearchTreeNode<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (priority(left) > priority(right)) {
+            left.right = this.join(left.right, right);
+            return left;
+        }
+        right.left = this.join(left, right.left);
+        return right;
+    }
+
+    /**
+     * Return the root of the result of a set operation.
+     *
+     * UNION keeps all nodes of first and the nodes of second whose value is not
+     * in first. INTERSECTION keeps the nodes of first whose value is in second,
+     * DIFFERENCE the nodes of first whose value is not in second. MERGE keeps
+     * all nodes of both, the equal nodes of second on the left of first.
+     *
+     * @param operation set operation.
+     * @param first     root node of first tree.
+     * @param second    root node of second tree.
+     * @return root node.
+     */
+    BinarySearchTreeNode<T> apply(Operation operation, BinarySearchTreeNode<T> first,
+            BinarySearchTreeNode<T> second) {
+        if (this.pool == null) {
+            return this.apply(operation, first, second, this.forkDepth);
+        }
+        return this.pool.invoke(new SetOperationTask(operation, first, second, 0));
+    }
+
+    @SuppressWarnings("java:S3776")
+    private BinarySearchTreeNode<T> apply(Operation operation, BinarySearchTreeNode<T> first,
+            BinarySearchTreeNode<T> second, int depth) {
+        if (first == null) {
+            return operation == Operation.UNION || operation == Operation.MERGE ? second : null;
+        }
+        if (second == null) {
+            return operation == Operation.INTERSECTION ? null : first;
+        }
+
+        T value = first.getValue();
+        BinarySearchTreeNode<T>[] parts = BinarySearchTreeNode.newArray(2);
+        boolean found;
+        if (operation == Operation.UNION) {
+            // drop the values of second that are equal to value.
+            this.split(second, value, false, parts);
+            BinarySearchTreeNode<T> lesser = parts[0];
+            this.split(parts[1], value, true, parts);
+            parts[0] = lesser;
+            found = false;
+        } else {
+            // the equal values stay on the left for equal nodes in first.left.
+            this.split(second, value, true, parts);
+            found = parts[0] != null && this.rightmost(parts[0]).getValue().compareTo(value) == 0;
+        }
+
+        BinarySearchTreeNode<T> firstLeft = first.left;
+        BinarySearchTreeNode<T> firstRight = first.right;
+        BinarySearchTreeNode<T> left;
+        BinarySearchTreeNode<T> right;
+        if (depth < this.forkDepth) {
+            SetOperationTask task = new SetOperationTask(operation, firstLeft, parts[0], depth + 1);
+            task.fork();
+            right = this.apply(operation, firstRight, parts[1], depth + 1);
+            left = task.join();
+        } else {
+            left = this.apply(operation, firstLeft, parts[0], depth);
+            right = this.apply(operation, firstRight, parts[1], depth);
+        }
+
+        boolean keep = operation == Operation.UNION || operation == Operation.MERGE
+                || (operation == Operation.INTERSECTION) == found;
+        return keep ? this.join(left, first, right) : this.join(left, right);
+    }
+
+    private BinarySearchTreeNode<T> rightmost(BinarySearchTreeNode<T> node) {
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node;
+    }
+
+    private static long priority(BinarySearchTreeNode<?> node) {
+        if (node == null) {
+            return Long.MIN_VALUE;
+        }
+        int h = node.getValue().hashCode() * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("serial")
+    private class SetOperationTask extends RecursiveTask<BinarySearchTreeNode<T>> {
+        private final Operation operation;
+        private final BinarySearchTreeNode<T> first;
+        private final BinarySearchTreeNode<T> second;
+        private final int depth;
+
+        SetOperationTask(Operation operation, BinarySearchTreeNode<T> first, BinarySearchTreeNode<T> second,
+                int depth) {
+            this.operation = operation;
+            this.first = first;
+            this.second = second;
+            this.depth = depth;
+        }
+
+        @Override
+        protected BinarySearchTreeNode<T> compute() {
+            return apply(this.operation, this.first, this.second, this.depth);
+        }
+    }
+}
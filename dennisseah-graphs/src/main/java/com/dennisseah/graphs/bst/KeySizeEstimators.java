@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Estimators of common value types.
+ */
+public final class KeySizeEstimators {
+    private KeySizeEstimators() {
+    }
+
+    /**
+     * Return an estimator of values that are not retained by the tree, e.g.
+     * cached or interned values.
+     *
+     * @return estimator of 0 bytes.
+     */
+    public static <T> IKeySizeEstimator<T> shared() {
+        return fixed(0);
+    }
+
+    /**
+     * Return an estimator of values of the same size.
+     *
+     * @param bytes bytes of a value.
+     * @return estimator.
+     */
+    public static <T> IKeySizeEstimator<T> fixed(final long bytes) {
+        return new IKeySizeEstimator<T>() {
+            @Override
+            public long estimate(T value, MemoryLayout layout) {
+                return bytes;
+            }
+        };
+    }
+
+    /**
+     * Return an estimator of boxed values such as Integer or Long, an object
+     * with a single field of the given bytes.
+     *
+     * @param fieldBytes bytes of the primitive field.
+     * @return estimator.
+     */
+    public static <T> IKeySizeEstimator<T> boxed(final int fieldBytes) {
+        return new IKeySizeEstimator<T>() {
+            @Override
+            public long estimate(T value, MemoryLayout layout) {
+                return layout.align(layout.getHeaderBytes() + fieldBytes);
+            }
+        };
+    }
+
+    /**
+     * Return an estimator of strings with compact (Latin-1) storage where it
+     * applies: the String object and its byte array.
+     *
+     * @return estimator.
+     */
+    public static IKeySizeEstimator<String> string() {
+        return new IKeySizeEstimator<String>() {
+            @Override
+            public long estimate(String value, MemoryLayout layout) {
+                boolean latin1 = true;
+                for (int i = 0; i < value.length() && latin1; i++) {
+                    latin1 = value.charAt(i) <= 0xFF;
+                }
+                long bytes = latin1 ? value.length() : 2L * value.length();
+                return layout.shallowSize(String.class) + layout.arraySize(1, bytes);
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Object layout of a JVM, to estimate object sizes: an object is a header and
+ * its fields, rounded up to the alignment. Padding between fields is ignored,
+ * so the estimates can be slightly low for objects with mixed field sizes.
+ */
+public final class MemoryLayout {
+    /**
+     * 64 bit JVM with compressed references, the default for heaps below 32 GB.
+     */
+    public static final MemoryLayout COMPRESSED_OOPS = new MemoryLayout(12, 16, 4, 8);
+    /**
+     * 64 bit JVM without compressed references.
+     */
+    public static final MemoryLayout UNCOMPRESSED_OOPS = new MemoryLayout(16, 24, 8, 8);
+
+    private final int headerBytes;
+    private final int arrayHeaderBytes;
+    private final int referenceBytes;
+    private final int alignment;
+    private final ConcurrentMap<Class<?>, Long> shallowSizes = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param headerBytes      bytes of an object header.
+     * @param arrayHeaderBytes bytes of an array header, including the length.
+     * @param referenceBytes   bytes of a reference.
+     * @param alignment        alignment of objects, a power of 2.
+     */
+    public MemoryLayout(int headerBytes, int arrayHeaderBytes, int referenceBytes, int alignment) {
+        if (Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("Alignment must be a power of 2.");
+        }
+        this.headerBytes = headerBytes;
+        this.arrayHeaderBytes = arrayHeaderBytes;
+        this.referenceBytes = referenceBytes;
+        this.alignment = alignment;
+    }
+
+    /**
+     * Return the bytes of an object header.
+     *
+     * @return bytes.
+     */
+    public int getHeaderBytes() {
+        return this.headerBytes;
+    }
+
+    /**
+     * Return the bytes of a reference.
+     *
+     * @return bytes.
+     */
+    public int getReferenceBytes() {
+        return this.referenceBytes;
+    }
+
+    /**
+     * Return bytes rounded up to the alignment.
+     *
+     * @param bytes bytes.
+     * @return aligned bytes.
+     */
+    public long align(long bytes) {
+        return (bytes + this.alignment - 1) & -this.alignment;
+    }
+
+    /**
+     * Return the bytes of an array.
+     *
+     * @param elementBytes bytes of an element.
+     * @param length       number of elements.
+     * @return bytes.
+     */
+    public long arraySize(int elementBytes, long length) {
+        return this.align(this.arrayHeaderBytes + elementBytes * length);
+    }
+
+    /**
+     * Return the bytes of an instance of a class, without the objects it
+     * refers to. The size of a class is computed once.
+     *
+     * @param type class.
+     * @return bytes.
+     */
+    public long shallowSize(Class<?> type) {
+        Long size = this.shallowSizes.get(type);
+        if (size == null) {
+            size = this.align(this.unalignedSize(type));
+            this.shallowSizes.putIfAbsent(type, size);
+        }
+        return size;
+    }
+
+    /**
+     * Return the bytes of the header and fields of a class, before alignment.
+     */
+    long unalignedSize(Class<?> type) {
+        long bytes = this.headerBytes;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += this.fieldSize(field.getType());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return this.referenceBytes;
+        }
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Estimated heap footprint of a tree: the bytes of its nodes and values, the
+ * depth of its nodes, and the capacity that holds nothing (child links
+ * without a child and alignment padding of the nodes).
+ */
+public class MemoryReport {
+    private final long nodeCount;
+    private final long nodeBytes;
+    private final long keyBytes;
+    private final long emptyLinkCount;
+    private final long wastedBytes;
+    private final long[] depthCounts;
+
+    MemoryReport(long nodeCount, long nodeBytes, long keyBytes, long emptyLinkCount, long wastedBytes,
+            long[] depthCounts) {
+        this.nodeCount = nodeCount;
+        this.nodeBytes = nodeBytes;
+        this.keyBytes = keyBytes;
+        this.emptyLinkCount = emptyLinkCount;
+        this.wastedBytes = wastedBytes;
+        this.depthCounts = depthCounts;
+    }
+
+    /**
+     * Return the report of the nodes under a root, in one walk without
+     * recursion.
+     *
+     * @param root      root node, null for an empty tree.
+     * @param estimator estimator of the values.
+     * @param layout    object layout.
+     * @return report.
+     */
+    public static <T extends Comparable<T>> MemoryReport of(BinarySearchTreeNode<T> root,
+            IKeySizeEstimator<? super T> estimator, MemoryLayout layout) {
+        long count = 0;
+        long nodeBytes = 0;
+        long keyBytes = 0;
+        long emptyLinks = 0;
+        long wasted = 0;
+        long[] depthCounts = new long[16];
+        int maxDepth = -1;
+
+        Deque<BinarySearchTreeNode<T>> nodes = new ArrayDeque<>();
+        int[] depths = new int[16];
+        if (root != null) {
+            nodes.push(root);
+            depths[0] = 0;
+        }
+        Class<?> lastType = null;
+        long shallow = 0;
+        long padding = 0;
+        while (!nodes.isEmpty()) {
+            BinarySearchTreeNode<T> node = nodes.pop();
+            int depth = depths[nodes.size()];
+            if (node.getClass() != lastType) {
+                // trees have one node type, so the sizes are looked up once.
+                lastType = node.getClass();
+                shallow = layout.shallowSize(lastType);
+                padding = shallow - layout.unalignedSize(lastType);
+            }
+            count++;
+            nodeBytes += shallow;
+            wasted += padding;
+            keyBytes += estimator.estimate(node.getValue(), layout);
+            if (depth >= depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, depthCounts.length * 2);
+            }
+            depthCounts[depth]++;
+            maxDepth = Math.max(maxDepth, depth);
+
+            // getLeft and getRight, the children; a threaded tree keeps its
+            // threads apart.
+            BinarySearchTreeNode<T> left = node.getLeft();
+            BinarySearchTreeNode<T> right = node.getRight();
+            for (int i = 0; i < 2; i++) {
+                BinarySearchTreeNode<T> child = i == 0 ? right : left;
+                if (child == null) {
+                    emptyLinks++;
+                    wasted += layout.getReferenceBytes();
+                } else {
+                    if (nodes.size() >= depths.length) {
+                        depths = Arrays.copyOf(depths, depths.length * 2);
+                    }
+                    depths[nodes.size()] = depth + 1;
+                    nodes.push(child);
+                }
+            }
+        }
+        return new MemoryReport(count, nodeBytes, keyBytes, emptyLinks, wasted,
+                Arrays.copyOf(depthCounts, maxDepth + 1));
+    }
+
+    /**
+     * Return the number of nodes.
+     *
+     * @return number of nodes.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Return the bytes of the nodes, without the values.
+     *
+     * @return bytes.
+     */
+    public long getNodeBytes() {
+        return this.nodeBytes;
+    }
+
+    /**
+     * Return the bytes of the values, as estimated.
+     *
+     * @return bytes.
+     */
+    public long getKeyBytes() {
+        return this.keyBytes;
+    }
+
+    /**
+     * Return the bytes of the nodes and the values.
+     *
+     * @return bytes.
+     */
+    public long getTotalBytes() {
+        return this.nodeBytes + this.keyBytes;
+    }
+
+    /**
+     * Return the average bytes per node, including its value.
+     *
+     * @return bytes per node, 0 for an empty tree.
+     */
+    public double getBytesPerNode() {
+        return this.nodeCount == 0 ? 0 : (double) this.getTotalBytes() / this.nodeCount;
+    }
+
+    /**
+     * Return the number of child links without a child, n + 1 for a binary
+     * tree of n nodes.
+     *
+     * @return number of links.
+     */
+    public long getEmptyLinkCount() {
+        return this.emptyLinkCount;
+    }
+
+    /**
+     * Return the bytes of the links without a child and of the alignment
+     * padding of the nodes.
+     *
+     * @return bytes.
+     */
+    public long getWastedBytes() {
+        return this.wastedBytes;
+    }
+
+    /**
+     * Return the number of nodes at each depth; the root is at depth 0.
+     *
+     * @return counts by depth, a copy.
+     */
+    public long[] getDepthCounts() {
+        return this.depthCounts.clone();
+    }
+
+    /**
+     * Return the largest depth, -1 for an empty tree; the height minus 1.
+     *
+     * @return largest depth.
+     */
+    public int getMaxDepth() {
+        return this.depthCounts.length - 1;
+    }
+
+    /**
+     * Return the average depth of the nodes, the average number of links from
+     * the root to a node.
+     *
+     * @return average depth, 0 for an empty tree.
+     */
+    public double getAverageDepth() {
+        long total = 0;
+        for (int depth = 0; depth < this.depthCounts.length; depth++) {
+            total += depth * this.depthCounts[depth];
+        }
+        return this.nodeCount == 0 ? 0 : (double) total / this.nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MemoryReport[nodes=%d, nodeBytes=%d, keyBytes=%d, totalBytes=%d, bytesPerNode=%.1f, "
+                + "emptyLinks=%d, wastedBytes=%d, maxDepth=%d, averageDepth=%.2f]", this.nodeCount, this.nodeBytes,
+                this.keyBytes, this.getTotalBytes(), this.getBytesPerNode(), this.emptyLinkCount, this.wastedBytes,
+                this.getMaxDepth(), this.getAverageDepth());
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Common summaries of node values.
+ */
+public final class Monoids {
+    private Monoids() {
+    }
+
+    /**
+     * Return the monoid of the number of values.
+     *
+     * @return count monoid.
+     */
+    public static <T> IMonoid<T, Long> count() {
+        return new IMonoid<T, Long>() {
+            @Override
+            public Long identity() {
+                return 0L;
+            }
+
+            @Override
+            public Long lift(T value) {
+                return 1L;
+            }
+
+            @Override
+            public Long combine(Long left, Long right) {
+                return left + right;
+            }
+        };
+    }
+
+    /**
+     * Return the monoid of the smallest value; the identity is null.
+     *
+     * @return min monoid.
+     */
+    public static <T extends Comparable<T>> IMonoid<T, T> min() {
+        return new IMonoid<T, T>() {
+            @Override
+            public T identity() {
+                return null;
+            }
+
+            @Override
+            public T lift(T value) {
+                return value;
+            }
+
+            @Override
+            public T combine(T left, T right) {
+                if (left == null) {
+                    return right;
+                }
+                return right == null || left.compareTo(right) <= 0 ? left : right;
+            }
+        };
+    }
+
+    /**
+     * Return the monoid of the largest value; the identity is null.
+     *
+     * @return max monoid.
+     */
+    public static <T extends Comparable<T>> IMonoid<T, T> max() {
+        return new IMonoid<T, T>() {
+            @Override
+            public T identity() {
+                return null;
+            }
+
+            @Override
+            public T lift(T value) {
+                return value;
+            }
+
+            @Override
+            public T combine(T left, T right) {
+                if (left == null) {
+                    return right;
+                }
+                return right == null || left.compareTo(right) >= 0 ? left : right;
+            }
+        };
+    }
+
+    /**
+     * Return the monoid of the sum of integer values, as a long.
+     *
+     * @return sum monoid.
+     */
+    public static IMonoid<Integer, Long> integerSum() {
+        return new IMonoid<Integer, Long>() {
+            @Override
+            public Long identity() {
+                return 0L;
+            }
+
+            @Override
+            public Long lift(Integer value) {
+                return value.longValue();
+            }
+
+            @Override
+            public Long combine(Long left, Long right) {
+                return left + right;
+            }
+        };
+    }
+
+    /**
+     * Return the monoid of the sum of long values.
+     *
+     * @return sum monoid.
+     */
+    public static IMonoid<Long, Long> longSum() {
+        return new IMonoid<Long, Long>() {
+            @Override
+            public Long identity() {
+                return 0L;
+            }
+
+            @Override
+            public Long lift(Long value) {
+                return value;
+            }
+
+            @Override
+            public Long combine(Long left, Long right) {
+                return left + right;
+            }
+        };
+    }
+
+    /**
+     * Return the monoid of the sum of double values.
+     *
+     * @return sum monoid.
+     */
+    public static IMonoid<Double, Double> doubleSum() {
+        return new IMonoid<Double, Double>() {
+            @Override
+            public Double identity() {
+                return 0.0;
+            }
+
+            @Override
+            public Double lift(Double value) {
+                return value;
+            }
+
+            @Override
+            public Double combine(Double left, Double right) {
+                return left + right;
+            }
+        };
+    }
+}
@@ -0,0 +1,371 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel variants of height, validation and traversals. The top levels of
+ * the tree are split at sub tree boundaries into tasks, and each task below
+ * the fork depth walks its sub tree without recursion, so that deep sub trees
+ * do not overflow the stack.
+ */
+class ParallelOperations<T extends Comparable<T>> {
+    /**
+     * Order of a traversal.
+     */
+    enum Order {
+        INORDER, PREORDER, POSTORDER
+    }
+
+    private final ForkJoinPool pool;
+    private final int forkDepth;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param pool pool to run the tasks, null to run them in the calling
+     *             thread.
+     */
+    ParallelOperations(ForkJoinPool pool) {
+        this.pool = pool;
+        this.forkDepth = pool == null ? 0
+                : 3 + (31 - Integer.numberOfLeadingZeros(Math.max(1, pool.getParallelism())));
+    }
+
+    /**
+     * Return height of a sub tree.
+     *
+     * @param root root node of sub tree.
+     * @return height.
+     */
+    int height(BinarySearchTreeNode<T> root) {
+        return this.invoke(new HeightTask(root, 0));
+    }
+
+    /**
+     * Return true if every node is ordered with its children, as
+     * Validator.isValid checks.
+     *
+     * @param root root node of sub tree.
+     * @return true if the sub tree is valid.
+     */
+    boolean isValid(BinarySearchTreeNode<T> root) {
+        return this.invoke(new ValidTask(root, 0));
+    }
+
+    /**
+     * Return true if the heights of the sub trees of every node differ by at
+     * most one. Heights are computed bottom up once, instead of once per
+     * ancestor.
+     *
+     * @param root root node of sub tree.
+     * @return true if the sub tree is balanced.
+     */
+    boolean isBalanced(BinarySearchTreeNode<T> root) {
+        return this.invoke(new BalancedTask(root, 0)) >= 0;
+    }
+
+    /**
+     * Return the nodes of a sub tree in an order. Each task collects the nodes
+     * of its sub tree into chunks that are in order, and the chunks are
+     * concatenated once at the end.
+     *
+     * @param root  root node of sub tree.
+     * @param order order of the traversal.
+     * @return list of nodes.
+     */
+    List<BinarySearchTreeNode<T>> traversal(BinarySearchTreeNode<T> root, Order order) {
+        List<List<BinarySearchTreeNode<T>>> chunks = this.invoke(new TraversalTask(root, order, 0));
+        int size = 0;
+        for (List<BinarySearchTreeNode<T>> chunk : chunks) {
+            size += chunk.size();
+        }
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(size);
+        for (List<BinarySearchTreeNode<T>> chunk : chunks) {
+            nodes.addAll(chunk);
+        }
+        return nodes;
+    }
+
+    @SuppressWarnings("serial")
+    private class HeightTask extends RecursiveTask<Integer> {
+        private final BinarySearchTreeNode<T> node;
+        private final int depth;
+
+        HeightTask(BinarySearchTreeNode<T> node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.node == null) {
+                return 0;
+            }
+            if (this.depth >= forkDepth) {
+                return sequentialHeight(this.node);
+            }
+            HeightTask left = new HeightTask(this.node.left, this.depth + 1);
+            left.fork();
+            int right = new HeightTask(this.node.right, this.depth + 1).compute();
+            return 1 + Math.max(left.join(), right);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class ValidTask extends RecursiveTask<Boolean> {
+        private final BinarySearchTreeNode<T> node;
+        private final int depth;
+
+        ValidTask(BinarySearchTreeNode<T> node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (this.node == null) {
+                return true;
+            }
+            if (this.depth >= forkDepth) {
+                return sequentialIsValid(this.node);
+            }
+            if (!isOrdered(this.node)) {
+                return false;
+            }
+            ValidTask left = new ValidTask(this.node.left, this.depth + 1);
+            left.fork();
+            boolean right = new ValidTask(this.node.right, this.depth + 1).compute();
+            return left.join() && right;
+        }
+    }
+
+    /**
+     * Return the height of a sub tree, -1 if it is not balanced.
+     */
+    @SuppressWarnings("serial")
+    private class BalancedTask extends RecursiveTask<Integer> {
+        private final BinarySearchTreeNode<T> node;
+        private final int depth;
+
+        BalancedTask(BinarySearchTreeNode<T> node, int depth) {
+            this.node = node;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.node == null) {
+                return 0;
+            }
+            if (this.depth >= forkDepth) {
+                return sequentialBalancedHeight(this.node);
+            }
+            BalancedTask left = new BalancedTask(this.node.left, this.depth + 1);
+            left.fork();
+            int right = new BalancedTask(this.node.right, this.depth + 1).compute();
+            return combine(left.join(), right);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private class TraversalTask extends RecursiveTask<List<List<BinarySearchTreeNode<T>>>> {
+        private final BinarySearchTreeNode<T> node;
+        private final Order order;
+        private final int depth;
+
+        TraversalTask(BinarySearchTreeNode<T> node, Order order, int depth) {
+            this.node = node;
+            this.order = order;
+            this.depth = depth;
+        }
+
+        @Override
+        protected List<List<BinarySearchTreeNode<T>>> compute() {
+            List<List<BinarySearchTreeNode<T>>> chunks = new ArrayList<>();
+            if (this.node == null) {
+                return chunks;
+            }
+            if (this.depth >= forkDepth) {
+                chunks.add(sequentialTraversal(this.node, this.order));
+                return chunks;
+            }
+
+            TraversalTask left = new TraversalTask(this.node.left, this.order, this.depth + 1);
+            left.fork();
+            List<List<BinarySearchTreeNode<T>>> right = new TraversalTask(this.node.right, this.order,
+                    this.depth + 1).compute();
+            List<BinarySearchTreeNode<T>> self = new ArrayList<>(1);
+            self.add(this.node);
+
+            if (this.order == Order.PREORDER) {
+                chunks.add(self);
+            }
+            chunks.addAll(left.join());
+            if (this.order == Order.INORDER) {
+                chunks.add(self);
+            }
+            chunks.addAll(right);
+            if (this.order == Order.POSTORDER) {
+                chunks.add(self);
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * Run a task in the pool, or in the calling thread without forks.
+     */
+    private <R> R invoke(RecursiveTask<R> task) {
+        return this.pool == null ? task.invoke() : this.pool.invoke(task);
+    }
+
+    private static int combine(int left, int right) {
+        if (left < 0 || right < 0 || Math.abs(left - right) > 1) {
+            return -1;
+        }
+        return 1 + Math.max(left, right);
+    }
+
+    private boolean isOrdered(BinarySearchTreeNode<T> node) {
+        if (node.left != null && node.getValue().compareTo(node.left.getValue()) <= 0) {
+            return false;
+        }
+        return node.right == null || node.getValue().compareTo(node.right.getValue()) <= 0;
+    }
+
+    private int sequentialHeight(BinarySearchTreeNode<T> node) {
+        int height = 0;
+        Deque<BinarySearchTreeNode<T>> level = new ArrayDeque<>();
+        level.add(node);
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                BinarySearchTreeNode<T> cur = level.poll();
+                if (cur.left != null) {
+                    level.add(cur.left);
+                }
+                if (cur.right != null) {
+                    level.add(cur.right);
+                }
+            }
+        }
+        return height;
+    }
+
+    private boolean sequentialIsValid(BinarySearchTreeNode<T> node) {
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            BinarySearchTreeNode<T> cur = stack.pop();
+            if (!this.isOrdered(cur)) {
+                return false;
+            }
+            if (cur.left != null) {
+                stack.push(cur.left);
+            }
+            if (cur.right != null) {
+                stack.push(cur.right);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Post-order walk with an explicit stack; the height of a node is known
+     * when it is popped the second time, from the heights of its children.
+     */
+    private int sequentialBalancedHeight(BinarySearchTreeNode<T> node) {
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        Deque<Integer> heights = new ArrayDeque<>();
+        BinarySearchTreeNode<T> last = null;
+        BinarySearchTreeNode<T> cur = node;
+        while (cur != null || !stack.isEmpty()) {
+            while (cur != null) {
+                stack.push(cur);
+                cur = cur.left;
+            }
+            BinarySearchTreeNode<T> top = stack.peek();
+            if (top.right != null && top.right != last) {
+                cur = top.right;
+                continue;
+            }
+            stack.pop();
+            int right = top.right == null ? 0 : heights.pop();
+            int left = top.left == null ? 0 : heights.pop();
+            int height = combine(left, right);
+            if (height < 0) {
+                return -1;
+            }
+            heights.push(height);
+            last = top;
+        }
+        return heights.pop();
+    }
+
+    private List<BinarySearchTreeNode<T>> sequentialTraversal(BinarySearchTreeNode<T> node, Order order) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        if (order == Order.INORDER) {
+            BinarySearchTreeNode<T> cur = node;
+            while (cur != null || !stack.isEmpty()) {
+                while (cur != null) {
+                    stack.push(cur);
+                    cur = cur.left;
+                }
+                cur = stack.pop();
+                nodes.add(cur);
+                cur = cur.right;
+            }
+            return nodes;
+        }
+
+        // pre-order, or the reverse of post-order when the children are
+        // pushed the other way round.
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            BinarySearchTreeNode<T> cur = stack.pop();
+            nodes.add(cur);
+            BinarySearchTreeNode<T> first = order == Order.PREORDER ? cur.left : cur.right;
+            BinarySearchTreeNode<T> second = order == Order.PREORDER ? cur.right : cur.left;
+            if (second != null) {
+                stack.push(second);
+            }
+            if (first != null) {
+                stack.push(first);
+            }
+        }
+        if (order == Order.POSTORDER) {
+            Collections.reverse(nodes);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,289 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scapegoat tree. The nodes are plain BinarySearchTreeNode without balance
+ * data; only the tree keeps its size. When an insert makes the tree deeper
+ * than log(size) / log(1 / alpha), the nearest ancestor of the new node whose
+ * child has more than alpha of its nodes is rebuilt into a balanced sub tree.
+ * When removals shrink the tree to alpha of its largest size, the whole tree
+ * is rebuilt. Updates take amortized O(log n).
+ *
+ * Rebuilding spreads nodes with the same value over both sides of each other,
+ * so that duplicates do not form chains; lookups check both sides.
+ */
+public class ScapegoatTree<T extends Comparable<T>> extends BinarySearchTreeBase<T> {
+    public static final double DEFAULT_ALPHA = 0.7;
+
+    private final double alpha;
+    private final double logInverseAlpha;
+    private final BalancedBuilder<T> builder = new BalancedBuilder<>(false);
+    private int size = 0;
+    private int maxSize = 0;
+
+    /**
+     * Ancestors of the node being inserted. Entries are cleared when the
+     * insert returns, so that the array does not keep removed nodes alive.
+     */
+    private BinarySearchTreeNode<T>[] path = BinarySearchTreeNode.newArray(32);
+
+    /**
+     * Construct a empty tree.
+     */
+    public ScapegoatTree() {
+        this(false, DEFAULT_ALPHA);
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     */
+    public ScapegoatTree(boolean uniqueNodeValue) {
+        this(uniqueNodeValue, DEFAULT_ALPHA);
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     * @param alpha           balance factor between 0.5 (strict, more
+     *                        rebuilds) and 1 (loose, fewer rebuilds).
+     */
+    public ScapegoatTree(boolean uniqueNodeValue, double alpha) {
+        super(uniqueNodeValue);
+        if (alpha <= 0.5 || alpha >= 1) {
+            throw new IllegalArgumentException("Alpha must be between 0.5 and 1.");
+        }
+        this.alpha = alpha;
+        this.logInverseAlpha = Math.log(1 / alpha);
+    }
+
+    /**
+     * Return the number of nodes.
+     *
+     * @return number of nodes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        super.setRoot(root);
+        this.size = this.builder.size(root);
+        this.maxSize = this.size;
+    }
+
+    @Override
+    public void insert(T value) {
+        BinarySearchTreeNode<T> node = new BinarySearchTreeNode<>(value);
+        if (this.root == null) {
+            this.root = node;
+            this.grow();
+            return;
+        }
+
+        int depth = 0;
+        BinarySearchTreeNode<T> parent = this.root;
+        while (true) {
+            int cmp = value.compareTo(parent.getValue());
+            if (this.uniqueNodeValue && cmp == 0) {
+                this.clearPath(depth);
+                return;
+            }
+            this.push(depth++, parent);
+            BinarySearchTreeNode<T> next = cmp > 0 ? parent.right : parent.left;
+            if (next == null) {
+                if (cmp > 0) {
+                    parent.right = node;
+                } else {
+                    parent.left = node;
+                }
+                break;
+            }
+            parent = next;
+        }
+        this.grow();
+
+        if (depth > Math.log(this.size) / this.logInverseAlpha) {
+            this.rebuildScapegoat(node, depth);
+        }
+        this.clearPath(depth);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        this.find(this.root, value, nodes);
+        return nodes;
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values) {
+        return (new BatchFinder<T>(root, true)).findAll(values, null);
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return (new BatchFinder<T>(root, true)).findAll(values, pool);
+    }
+
+    @Override
+    public boolean remove(T value) {
+        int removed = 0;
+
+        while (true) {
+            BinarySearchTreeNode<T> parent = null;
+            BinarySearchTreeNode<T> node = this.root;
+            int cmp = 0;
+            while (node != null && (cmp = node.getValue().compareTo(value)) != 0) {
+                parent = node;
+                node = cmp > 0 ? node.left : node.right;
+            }
+            if (node == null) {
+                break;
+            }
+
+            BinarySearchTreeNode<T> replacement = this.unlink(node);
+            if (parent == null) {
+                this.root = replacement;
+            } else if (parent.left == node) {
+                parent.left = replacement;
+            } else {
+                parent.right = replacement;
+            }
+            removed++;
+            if (this.uniqueNodeValue) {
+                break;
+            }
+        }
+
+        this.size -= removed;
+        if (removed > 0 && this.size <= this.alpha * this.maxSize) {
+            this.root = this.builder.build(this.builder.flatten(this.root, this.size), 0, this.size);
+            this.maxSize = this.size;
+        }
+        return removed > 0;
+    }
+
+    @Override
+    public boolean isValid() {
+        return (new Validator<>(this)).isValid();
+    }
+
+    private void find(BinarySearchTreeNode<T> node, T value, List<BinarySearchTreeNode<T>> nodes) {
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp == 0) {
+                nodes.add(node);
+                this.find(node.left, value, nodes);
+                node = node.right;
+            } else {
+                node = cmp > 0 ? node.left : node.right;
+            }
+        }
+    }
+
+    private void grow() {
+        this.size++;
+        this.maxSize = Math.max(this.maxSize, this.size);
+    }
+
+    private void push(int depth, BinarySearchTreeNode<T> node) {
+        if (depth == this.path.length) {
+            this.path = Arrays.copyOf(this.path, depth * 2);
+        }
+        this.path[depth] = node;
+    }
+
+    private void clearPath(int depth) {
+        Arrays.fill(this.path, 0, depth, null);
+    }
+
+    /**
+     * Walk up from a new node and rebuild the sub tree of the first ancestor
+     * whose child holds more than alpha of its nodes.
+     *
+     * @param node  new node.
+     * @param depth depth of the new node, path holds its ancestors.
+     */
+    private void rebuildScapegoat(BinarySearchTreeNode<T> node, int depth) {
+        int childSize = 1;
+        BinarySearchTreeNode<T> child = node;
+
+        for (int i = depth - 1; i >= 0; i--) {
+            BinarySearchTreeNode<T> parent = this.path[i];
+            BinarySearchTreeNode<T> sibling = parent.left == child ? parent.right : parent.left;
+            int parentSize = childSize + 1 + this.builder.size(sibling);
+
+            if (childSize > this.alpha * parentSize) {
+                BinarySearchTreeNode<T> rebuilt = this.builder.build(this.builder.flatten(parent, parentSize), 0,
+                        parentSize);
+                if (i == 0) {
+                    this.root = rebuilt;
+                } else if (this.path[i - 1].left == parent) {
+                    this.path[i - 1].left = rebuilt;
+                } else {
+                    this.path[i - 1].right = rebuilt;
+                }
+                break;
+            }
+            childSize = parentSize;
+            child = parent;
+        }
+    }
+
+    /**
+     * Return the sub tree that replaces a removed node. A node with two
+     * children is replaced by its in-order predecessor.
+     */
+    private BinarySearchTreeNode<T> unlink(BinarySearchTreeNode<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+
+        BinarySearchTreeNode<T> parent = node;
+        BinarySearchTreeNode<T> predecessor = node.left;
+        while (predecessor.right != null) {
+            parent = predecessor;
+            predecessor = predecessor.right;
+        }
+        if (parent != node) {
+            parent.right = predecessor.left;
+            predecessor.left = node.left;
+        }
+        predecessor.right = node.right;
+        return predecessor;
+    }
+}
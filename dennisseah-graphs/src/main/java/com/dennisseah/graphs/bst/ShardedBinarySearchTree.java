@@ -0,0 +1,765 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.dennisseah.graphs.common.ValueUtils;
+
+/**
+ * Tree of range partitioned shards. Split keys divide the values into shards,
+ * each an independent BinarySearchTree with its own read write lock: shard i
+ * has the values v with splitKeys[i - 1] &lt;= v &lt; splitKeys[i]. Operations
+ * on one value lock one shard, so writers of different shards do not contend.
+ * Traversals, ranges, floor and ceiling visit the shards in order, and are
+ * consistent per shard but not a snapshot across shards.
+ *
+ * The shard table is copied on write: splitShard replaces a shard by two,
+ * retires the old one under its write lock, and publishes a new table.
+ * Operations that lock a retired shard retry with the new table. There is no
+ * single root, so getRoot is not supported and pre-order and post-order
+ * traversals are the traversals of the shards in order.
+ */
+public class ShardedBinarySearchTree<T extends Comparable<T>> implements IBinarySearchTree<T> {
+    private final Object splitLock = new Object();
+    private volatile Table<T> table;
+
+    private static class Shard<T extends Comparable<T>> {
+        private final BinarySearchTree<T> tree;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final AtomicLong writeCount = new AtomicLong();
+        private boolean retired = false;
+
+        Shard(BinarySearchTree<T> tree) {
+            this.tree = tree;
+        }
+    }
+
+    private static class Table<T extends Comparable<T>> {
+        private final T[] splitKeys;
+        private final Shard<T>[] shards;
+
+        Table(T[] splitKeys, Shard<T>[] shards) {
+            this.splitKeys = splitKeys;
+            this.shards = shards;
+        }
+
+        /**
+         * Return the index of the shard of a value: the number of split keys
+         * that are less than or equal to the value.
+         */
+        int index(T value) {
+            int lo = 0;
+            int hi = this.splitKeys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (this.splitKeys[mid].compareTo(value) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Return a new array of shards.
+     *
+     * @param size length of the array.
+     * @return array of null shards.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <T extends Comparable<T>> Shard<T>[] newShards(int size) {
+        return new Shard[size];
+    }
+
+    /**
+     * Visitor of the shards; visit is called with the read lock of the shard.
+     */
+    private abstract class ShardVisitor {
+        /**
+         * Called before the first shard, and again when the visit restarts
+         * after a shard is split.
+         */
+        void reset() {
+        }
+
+        /**
+         * Visit a shard.
+         *
+         * @return false to stop.
+         */
+        abstract boolean visit(Table<T> table, int index, BinarySearchTree<T> tree);
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param splitKeys strictly increasing values that divide the shards;
+     *                  there is one more shard than split keys.
+     */
+    public ShardedBinarySearchTree(T[] splitKeys) {
+        this(splitKeys, false);
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param splitKeys       strictly increasing values that divide the shards;
+     *                        there is one more shard than split keys.
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     * @throws IllegalArgumentException if the split keys are not strictly
+     *                                  increasing.
+     */
+    public ShardedBinarySearchTree(T[] splitKeys, boolean uniqueNodeValue) {
+        for (int i = 1; i < splitKeys.length; i++) {
+            if (splitKeys[i - 1].compareTo(splitKeys[i]) >= 0) {
+                throw new IllegalArgumentException("Split keys are not strictly increasing.");
+            }
+        }
+        Shard<T>[] shards = newShards(splitKeys.length + 1);
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard<>(new BinarySearchTree<T>(uniqueNodeValue));
+        }
+        this.table = new Table<>(Arrays.copyOf(splitKeys, splitKeys.length), shards);
+    }
+
+    /**
+     * Return the number of shards.
+     *
+     * @return number of shards.
+     */
+    public int getShardCount() {
+        return this.table.shards.length;
+    }
+
+    /**
+     * Return a copy of the split keys.
+     *
+     * @return split keys.
+     */
+    public T[] getSplitKeys() {
+        T[] splitKeys = this.table.splitKeys;
+        return Arrays.copyOf(splitKeys, splitKeys.length);
+    }
+
+    /**
+     * Not supported, there is a root per shard.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public BinarySearchTreeNode<T> getRoot() {
+        throw new UnsupportedOperationException("A sharded tree has a root per shard.");
+    }
+
+    /**
+     * Replace the values of the tree by the values of another tree, which are
+     * distributed to the shards. The values are taken in order, so each shard
+     * is built balanced from its run of values.
+     *
+     * @param root root node.
+     */
+    @Override
+    public void setRoot(BinarySearchTreeNode<T> root) {
+        BalancedBuilder<T> builder = new BalancedBuilder<>(true);
+        BinarySearchTreeNode<T>[] nodes = builder.flatten(root, builder.size(root));
+        T[] values = ValueUtils.<T>newArray(nodes.length);
+        for (int i = 0; i < nodes.length; i++) {
+            values[i] = nodes[i].getValue();
+        }
+        synchronized (this.splitLock) {
+            Table<T> current = this.table;
+            for (Shard<T> shard : current.shards) {
+                shard.lock.writeLock().lock();
+            }
+            try {
+                int from = 0;
+                for (int i = 0; i < current.shards.length; i++) {
+                    BinarySearchTree<T> tree = current.shards[i].tree;
+                    int to = from;
+                    while (to < values.length
+                            && (i == current.splitKeys.length || values[to].compareTo(current.splitKeys[i]) < 0)) {
+                        to++;
+                    }
+                    int size = to - from;
+                    if (tree.uniqueNodeValue && size > 0) {
+                        // drop the duplicates in place, as insert does.
+                        size = 1;
+                        for (int j = from + 1; j < to; j++) {
+                            if (values[j].compareTo(values[from + size - 1]) != 0) {
+                                values[from + size++] = values[j];
+                            }
+                        }
+                    }
+                    tree.setRoot(builder.build(values, from, from + size, null));
+                    from = to;
+                }
+            } finally {
+                for (Shard<T> shard : current.shards) {
+                    shard.lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void insert(T value) {
+        Shard<T> shard = this.lock(value, true);
+        try {
+            shard.tree.insert(value);
+            shard.writeCount.incrementAndGet();
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        Shard<T> shard = this.lock(value, false);
+        try {
+            return shard.tree.find(value);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(T value) {
+        Shard<T> shard = this.lock(value, true);
+        try {
+            shard.writeCount.incrementAndGet();
+            return shard.tree.remove(value);
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values) {
+        return this.findAll(values, null);
+    }
+
+    /**
+     * Return the matching nodes of many values. The values are grouped by shard
+     * and each group is matched in one walk of its shard.
+     *
+     * @param values values to match.
+     * @param pool   pool to run the walks of a shard, null to walk in the
+     *               calling thread.
+     * @return matching nodes grouped by the position of the value.
+     */
+    @Override
+    public FindAllResult<T> findAll(final T[] values, final ForkJoinPool pool) {
+        final List<List<BinarySearchTreeNode<T>>> found = new ArrayList<>(values.length);
+        this.visitShards(null, true, new ShardVisitor() {
+            private int[][] groups;
+
+            @Override
+            void reset() {
+                this.groups = null;
+                found.clear();
+                for (int i = 0; i < values.length; i++) {
+                    found.add(null);
+                }
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                if (this.groups == null) {
+                    this.groups = group(table, values);
+                }
+                int[] group = this.groups[index];
+                if (group.length == 0) {
+                    return true;
+                }
+                T[] subset = ValueUtils.<T>newArray(group.length);
+                for (int i = 0; i < group.length; i++) {
+                    subset[i] = values[group[i]];
+                }
+                FindAllResult<T> result = pool == null ? tree.findAll(subset) : tree.findAll(subset, pool);
+                for (int i = 0; i < group.length; i++) {
+                    found.set(group[i], result.nodes(i));
+                }
+                return true;
+            }
+        });
+
+        int[] offsets = new int[values.length + 1];
+        for (int i = 0; i < values.length; i++) {
+            offsets[i + 1] = offsets[i] + found.get(i).size();
+        }
+        Object[] nodes = new Object[offsets[values.length]];
+        for (int i = 0; i < values.length; i++) {
+            List<BinarySearchTreeNode<T>> group = found.get(i);
+            for (int j = 0; j < group.size(); j++) {
+                nodes[offsets[i] + j] = group.get(j);
+            }
+        }
+        return new FindAllResult<>(nodes, offsets);
+    }
+
+    @Override
+    public T floor(final T value) {
+        final List<T> result = new ArrayList<>(1);
+        this.visitShards(value, false, new ShardVisitor() {
+            @Override
+            void reset() {
+                result.clear();
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                T floor = tree.floor(value);
+                if (floor != null) {
+                    result.add(floor);
+                    return false;
+                }
+                return true;
+            }
+        });
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public T ceiling(final T value) {
+        final List<T> result = new ArrayList<>(1);
+        this.visitShards(value, true, new ShardVisitor() {
+            @Override
+            void reset() {
+                result.clear();
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                T ceiling = tree.ceiling(value);
+                if (ceiling != null) {
+                    result.add(ceiling);
+                    return false;
+                }
+                return true;
+            }
+        });
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public T first() {
+        return this.extreme(true);
+    }
+
+    @Override
+    public T last() {
+        return this.extreme(false);
+    }
+
+    @Override
+    public T pollFirst() {
+        return this.poll(true);
+    }
+
+    @Override
+    public T pollLast() {
+        return this.poll(false);
+    }
+
+    /**
+     * Return a list of nodes with values in [low, high], in order. Only the
+     * shards that overlap the range are visited.
+     *
+     * @param low  smallest value, inclusive.
+     * @param high largest value, inclusive.
+     * @return list of nodes
+     */
+    @Override
+    public List<BinarySearchTreeNode<T>> rangeTraversal(final T low, final T high) {
+        final List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        this.visitShards(low, true, new ShardVisitor() {
+            @Override
+            void reset() {
+                nodes.clear();
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                if (index > 0 && table.splitKeys[index - 1].compareTo(high) > 0) {
+                    return false;
+                }
+                nodes.addAll((new TraversalOperations<T>(tree.root)).rangeTraversal(low, high));
+                return true;
+            }
+        });
+        return nodes;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> inorderTraversal() {
+        return this.traversal(ParallelOperations.Order.INORDER);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> preorderTraversal() {
+        return this.traversal(ParallelOperations.Order.PREORDER);
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> postorderTraversal() {
+        return this.traversal(ParallelOperations.Order.POSTORDER);
+    }
+
+    /**
+     * Return true if every shard is balanced.
+     *
+     * @return true if every shard is balanced.
+     */
+    @Override
+    public boolean isBalanced() {
+        final boolean[] balanced = new boolean[1];
+        this.visitShards(null, true, new ShardVisitor() {
+            @Override
+            void reset() {
+                balanced[0] = true;
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                balanced[0] = tree.isBalanced();
+                return balanced[0];
+            }
+        });
+        return balanced[0];
+    }
+
+    /**
+     * Return true if every shard is valid and has only values of its range.
+     *
+     * @return true if tree is valid.
+     */
+    @Override
+    public boolean isValid() {
+        final boolean[] valid = new boolean[1];
+        this.visitShards(null, true, new ShardVisitor() {
+            @Override
+            void reset() {
+                valid[0] = true;
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                valid[0] = tree.isValid() && inRange(table, index, tree.root);
+                return valid[0];
+            }
+        });
+        return valid[0];
+    }
+
+    /**
+     * Balance every shard.
+     *
+     * @return true if actions are performed on a shard.
+     */
+    @Override
+    public boolean balance() {
+        boolean balanced = false;
+        Table<T> current = this.table;
+        for (int i = 0; i < current.shards.length; i++) {
+            Shard<T> shard = current.shards[i];
+            shard.lock.writeLock().lock();
+            try {
+                if (!shard.retired) {
+                    balanced |= shard.tree.balance();
+                }
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+        return balanced;
+    }
+
+    /**
+     * Split a shard in two at the median of its values. Other shards are
+     * available while the shard is split.
+     *
+     * @param index index of the shard.
+     * @return false if the shard has fewer than two distinct values.
+     */
+    public boolean splitShard(int index) {
+        synchronized (this.splitLock) {
+            Table<T> current = this.table;
+            Shard<T> shard = current.shards[index];
+            shard.lock.writeLock().lock();
+            try {
+                BinarySearchTree<T> greater = this.splitAtMedian(shard.tree);
+                if (greater == null) {
+                    return false;
+                }
+                BinarySearchTreeNode<T> min = greater.root;
+                while (min.left != null) {
+                    min = min.left;
+                }
+
+                int count = current.shards.length;
+                T[] splitKeys = Arrays.copyOf(current.splitKeys, count);
+                System.arraycopy(current.splitKeys, index, splitKeys, index + 1, count - 1 - index);
+                splitKeys[index] = min.getValue();
+
+                Shard<T>[] shards = newShards(count + 1);
+                System.arraycopy(current.shards, 0, shards, 0, index);
+                System.arraycopy(current.shards, index + 1, shards, index + 2, count - 1 - index);
+                shards[index] = new Shard<>(shard.tree);
+                shards[index + 1] = new Shard<>(greater);
+
+                shard.retired = true;
+                this.table = new Table<>(splitKeys, shards);
+                return true;
+            } finally {
+                shard.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Split the shards that have at least a number of inserts and removes since
+     * the last call, and reset the counts of the others.
+     *
+     * @param threshold number of writes that makes a shard hot.
+     * @return number of split shards.
+     */
+    public int splitHotShards(long threshold) {
+        List<Shard<T>> hot = new ArrayList<>();
+        for (Shard<T> shard : this.table.shards) {
+            if (shard.writeCount.getAndSet(0) >= threshold) {
+                hot.add(shard);
+            }
+        }
+
+        int split = 0;
+        for (Shard<T> shard : hot) {
+            int index = Arrays.asList(this.table.shards).indexOf(shard);
+            if (index >= 0 && this.splitShard(index)) {
+                split++;
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Return the shard of a value with its read or write lock held.
+     */
+    private Shard<T> lock(T value, boolean write) {
+        while (true) {
+            Table<T> current = this.table;
+            Shard<T> shard = current.shards[current.index(value)];
+            Lock lock = write ? shard.lock.writeLock() : shard.lock.readLock();
+            lock.lock();
+            if (!shard.retired) {
+                return shard;
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return the first or last value of the first or last shard that is not
+     * empty.
+     */
+    private T extreme(final boolean first) {
+        final List<T> result = new ArrayList<>(1);
+        this.visitShards(null, first, new ShardVisitor() {
+            @Override
+            void reset() {
+                result.clear();
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                T value = first ? tree.first() : tree.last();
+                if (value != null) {
+                    result.add(value);
+                    return false;
+                }
+                return true;
+            }
+        });
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Remove the first or last value of the first or last shard that is not
+     * empty, with the write lock of the shard.
+     */
+    private T poll(boolean first) {
+        while (true) {
+            Table<T> current = this.table;
+            int count = current.shards.length;
+            boolean retry = false;
+            for (int i = first ? 0 : count - 1; i >= 0 && i < count && !retry; i += first ? 1 : -1) {
+                Shard<T> shard = current.shards[i];
+                shard.lock.writeLock().lock();
+                try {
+                    if (shard.retired) {
+                        retry = true;
+                    } else {
+                        T value = first ? shard.tree.pollFirst() : shard.tree.pollLast();
+                        if (value != null) {
+                            shard.writeCount.incrementAndGet();
+                            return value;
+                        }
+                    }
+                } finally {
+                    shard.lock.writeLock().unlock();
+                }
+            }
+            if (!retry) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Visit the shards in order, from the shard of a value or from the first
+     * (ascending) or last shard. The visit restarts if a shard is split.
+     */
+    private void visitShards(T from, boolean ascending, ShardVisitor visitor) {
+        while (true) {
+            Table<T> current = this.table;
+            int count = current.shards.length;
+            int i;
+            if (from != null) {
+                i = current.index(from);
+            } else {
+                i = ascending ? 0 : count - 1;
+            }
+            visitor.reset();
+
+            boolean retry = false;
+            for (; i >= 0 && i < count; i += ascending ? 1 : -1) {
+                Shard<T> shard = current.shards[i];
+                shard.lock.readLock().lock();
+                try {
+                    if (shard.retired) {
+                        retry = true;
+                        break;
+                    }
+                    if (!visitor.visit(current, i, shard.tree)) {
+                        break;
+                    }
+                } finally {
+                    shard.lock.readLock().unlock();
+                }
+            }
+            if (!retry) {
+                return;
+            }
+        }
+    }
+
+    private List<BinarySearchTreeNode<T>> traversal(final ParallelOperations.Order order) {
+        final List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        this.visitShards(null, true, new ShardVisitor() {
+            @Override
+            void reset() {
+                nodes.clear();
+            }
+
+            @Override
+            boolean visit(Table<T> table, int index, BinarySearchTree<T> tree) {
+                TraversalOperations<T> traversal = new TraversalOperations<>(tree.root);
+                if (order == ParallelOperations.Order.INORDER) {
+                    nodes.addAll(traversal.inorderTraversal());
+                } else if (order == ParallelOperations.Order.PREORDER) {
+                    nodes.addAll(traversal.preorderTraversal());
+                } else {
+                    nodes.addAll(traversal.postorderTraversal());
+                }
+                return true;
+            }
+        });
+        return nodes;
+    }
+
+    /**
+     * Return the indexes of the values per shard.
+     */
+    private int[][] group(Table<T> table, T[] values) {
+        int[] shardOf = new int[values.length];
+        int[] counts = new int[table.shards.length];
+        for (int i = 0; i < values.length; i++) {
+            shardOf[i] = table.index(values[i]);
+            counts[shardOf[i]]++;
+        }
+        int[][] groups = new int[table.shards.length][];
+        for (int s = 0; s < groups.length; s++) {
+            groups[s] = new int[counts[s]];
+            counts[s] = 0;
+        }
+        for (int i = 0; i < values.length; i++) {
+            groups[shardOf[i]][counts[shardOf[i]]++] = i;
+        }
+        return groups;
+    }
+
+    private boolean inRange(Table<T> table, int index, BinarySearchTreeNode<T> root) {
+        for (BinarySearchTreeNode<T> node : (new TraversalOperations<T>(root)).inorderTraversal()) {
+            if (index > 0 && node.getValue().compareTo(table.splitKeys[index - 1]) < 0) {
+                return false;
+            }
+            if (index < table.splitKeys.length && node.getValue().compareTo(table.splitKeys[index]) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move the values above the median of a tree to a new tree, keeping the
+     * values that are equal together. Return null if the tree cannot be split.
+     */
+    private BinarySearchTree<T> splitAtMedian(BinarySearchTree<T> tree) {
+        List<BinarySearchTreeNode<T>> nodes = tree.inorderTraversal();
+        if (nodes.size() < 2) {
+            return null;
+        }
+        T median = nodes.get(nodes.size() / 2 - 1).getValue();
+        if (median.compareTo(nodes.get(nodes.size() - 1).getValue()) == 0) {
+            // the upper half has one value; split below it instead.
+            int i = nodes.size() / 2 - 1;
+            while (i >= 0 && nodes.get(i).getValue().compareTo(median) == 0) {
+                i--;
+            }
+            if (i < 0) {
+                return null;
+            }
+            median = nodes.get(i).getValue();
+        }
+        return tree.split(median);
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Self adjusting binary search tree. Every insert, find and remove splays the
+ * accessed node to the root with top-down splaying, so operations are
+ * amortized O(log n) and frequently accessed values stay near the root.
+ *
+ * Rotations can move a node to either side of another node with the same
+ * value, so lookups of duplicated values check both sides.
+ */
+public class SplayTree<T extends Comparable<T>> extends BinarySearchTreeBase<T> {
+    /**
+     * Reused as the head of the left and right trees during a splay.
+     */
+    private final BinarySearchTreeNode<T> header = new BinarySearchTreeNode<>(null);
+
+    /**
+     * Construct a empty tree.
+     */
+    public SplayTree() {
+        super();
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     */
+    public SplayTree(boolean uniqueNodeValue) {
+        super(uniqueNodeValue);
+    }
+
+    @Override
+    public void insert(T value) {
+        BinarySearchTreeNode<T> node = new BinarySearchTreeNode<>(value);
+        if (this.root == null) {
+            this.root = node;
+            return;
+        }
+
+        this.root = this.splay(this.root, value, false);
+        int cmp = value.compareTo(this.root.getValue());
+        if (this.uniqueNodeValue && cmp == 0) {
+            return;
+        }
+        if (cmp < 0) {
+            node.left = this.root.left;
+            node.right = this.root;
+            this.root.left = null;
+        } else {
+            node.right = this.root.right;
+            node.left = this.root;
+            this.root.right = null;
+        }
+        this.root = node;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        this.root = this.splay(this.root, value, false);
+        if (this.root == null || this.root.getValue().compareTo(value) != 0) {
+            return nodes;
+        }
+
+        nodes.add(this.root);
+        if (!this.uniqueNodeValue) {
+            this.findEqualInLeft(this.root.left, value, nodes);
+            this.findEqualInRight(this.root.right, value, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Return the matching nodes of many values. Unlike find, this does not
+     * splay the tree.
+     *
+     * @param values values to match.
+     * @return matching nodes grouped by the position of the value.
+     */
+    @Override
+    public FindAllResult<T> findAll(T[] values) {
+        return (new BatchFinder<T>(root, true)).findAll(values, null);
+    }
+
+    @Override
+    public FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return (new BatchFinder<T>(root, true)).findAll(values, pool);
+    }
+
+    @Override
+    public boolean remove(T value) {
+        boolean removed = false;
+
+        do {
+            this.root = this.splay(this.root, value, false);
+            if (this.root == null || this.root.getValue().compareTo(value) != 0) {
+                break;
+            }
+            removed = true;
+
+            BinarySearchTreeNode<T> right = this.root.right;
+            if (this.root.left == null) {
+                this.root = right;
+            } else {
+                // the largest value of the left tree has no right node once it
+                // is splayed to the top.
+                this.root = this.splay(this.root.left, null, true);
+                this.root.right = right;
+            }
+        } while (!this.uniqueNodeValue);
+
+        return removed;
+    }
+
+    @Override
+    public boolean isValid() {
+        return (new Validator<>(this)).isValid();
+    }
+
+    /**
+     * Top-down splay. Return the new root of a sub tree after moving the last
+     * node on the search path of a value to the top.
+     *
+     * @param node  root node of sub tree.
+     * @param value value to search.
+     * @param toMax true to splay the largest value instead, value is ignored.
+     * @return new root of the sub tree.
+     */
+    @SuppressWarnings("java:S3776")
+    private BinarySearchTreeNode<T> splay(BinarySearchTreeNode<T> node, T value, boolean toMax) {
+        if (node == null) {
+            return null;
+        }
+
+        BinarySearchTreeNode<T> l = this.header;
+        BinarySearchTreeNode<T> r = this.header;
+        this.header.left = null;
+        this.header.right = null;
+
+        while (true) {
+            int cmp = toMax ? 1 : value.compareTo(node.getValue());
+            if (cmp < 0) {
+                if (node.left == null) {
+                    break;
+                }
+                if (value.compareTo(node.left.getValue()) < 0) {
+                    node = this.rotateRight(node);
+                    if (node.left == null) {
+                        break;
+                    }
+                }
+                r.left = node;
+                r = node;
+                node = node.left;
+            } else if (cmp > 0) {
+                if (node.right == null) {
+                    break;
+                }
+                if (toMax || value.compareTo(node.right.getValue()) > 0) {
+                    node = this.rotateLeft(node);
+                    if (node.right == null) {
+                        break;
+                    }
+                }
+                l.right = node;
+                l = node;
+                node = node.right;
+            } else {
+                break;
+            }
+        }
+
+        l.right = node.left;
+        r.left = node.right;
+        node.left = this.header.right;
+        node.right = this.header.left;
+        this.header.left = null;
+        this.header.right = null;
+        return node;
+    }
+
+    private BinarySearchTreeNode<T> rotateRight(BinarySearchTreeNode<T> node) {
+        BinarySearchTreeNode<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        return left;
+    }
+
+    private BinarySearchTreeNode<T> rotateLeft(BinarySearchTreeNode<T> node) {
+        BinarySearchTreeNode<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        return right;
+    }
+
+    /**
+     * Add the nodes of a given value in a sub tree whose values are all less
+     * than or equal to the value. The matches are the last nodes in order.
+     */
+    private void findEqualInLeft(BinarySearchTreeNode<T> node, T value, List<BinarySearchTreeNode<T>> nodes) {
+        while (node != null) {
+            if (node.getValue().compareTo(value) == 0) {
+                nodes.add(node);
+                // everything on the right is between this node and the value.
+                nodes.addAll((new TraversalOperations<T>(node.right)).preorderTraversal());
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Add the nodes of a given value in a sub tree whose values are all greater
+     * than or equal to the value. The matches are the first nodes in order.
+     */
+    private void findEqualInRight(BinarySearchTreeNode<T> node, T value, List<BinarySearchTreeNode<T>> nodes) {
+        while (node != null) {
+            if (node.getValue().compareTo(value) == 0) {
+                nodes.add(node);
+                // everything on the left is between the value and this node.
+                nodes.addAll((new TraversalOperations<T>(node.left)).preorderTraversal());
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary search tree whose nodes without a child have threads to the in-order
+ * predecessor and successor, see ThreadedBinarySearchTreeNode. The successor
+ * and predecessor of a node take constant amortized time, and in-order
+ * iteration from any node needs neither a stack nor a parent link, which
+ * suits cursor style reads such as "the next values after X".
+ * 
+ * As in BinarySearchTree, equal values go to the left.
+ */
+public class ThreadedBinarySearchTree<T extends Comparable<T>> implements IReadOnlyBinarySearchTree<T>, Iterable<T> {
+    private ThreadedBinarySearchTreeNode<T> root;
+    private boolean uniqueNodeValue = false;
+    private int size = 0;
+
+    /**
+     * Construct a empty tree.
+     */
+    public ThreadedBinarySearchTree() {
+        this.root = null;
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique node values.
+     */
+    public ThreadedBinarySearchTree(boolean uniqueNodeValue) {
+        this.root = null;
+        this.uniqueNodeValue = uniqueNodeValue;
+    }
+
+    /**
+     * Return the root node.
+     *
+     * @return root node, null if the tree is empty.
+     */
+    public ThreadedBinarySearchTreeNode<T> getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Return the number of nodes.
+     *
+     * @return number of nodes.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return the estimated heap footprint of the tree, for a JVM with
+     * compressed references. Threads are counted as part of the nodes.
+     *
+     * @param estimator estimator of the values.
+     * @return report.
+     */
+    public MemoryReport memoryReport(IKeySizeEstimator<? super T> estimator) {
+        return MemoryReport.of(this.root, estimator, MemoryLayout.COMPRESSED_OOPS);
+    }
+
+    /**
+     * Insert value into tree. The threads of the new node are taken from its
+     * parent.
+     *
+     * @param value value.
+     */
+    public void insert(T value) {
+        ThreadedBinarySearchTreeNode<T> node = new ThreadedBinarySearchTreeNode<>(value);
+        if (this.root == null) {
+            this.root = node;
+            this.size++;
+            return;
+        }
+
+        ThreadedBinarySearchTreeNode<T> parent = this.root;
+        while (true) {
+            int cmp = value.compareTo(parent.getValue());
+            if (this.uniqueNodeValue && cmp == 0) {
+                return;
+            }
+            if (cmp > 0) {
+                if (parent.right == null) {
+                    node.next = parent.next;
+                    node.previous = parent;
+                    parent.right = node;
+                    parent.next = null;
+                    break;
+                }
+                parent = parent.rightNode();
+            } else {
+                if (parent.left == null) {
+                    node.previous = parent.previous;
+                    node.next = parent;
+                    parent.left = node;
+                    parent.previous = null;
+                    break;
+                }
+                parent = parent.leftNode();
+            }
+        }
+        this.size++;
+    }
+
+    /**
+     * Remove all nodes with a value.
+     *
+     * @param value value.
+     * @return true if a node is removed.
+     */
+    public boolean remove(T value) {
+        boolean removed = this.removeOne(value);
+        if (removed && !this.uniqueNodeValue) {
+            while (this.removeOne(value)) {
+                // there may be multiple nodes with the same value.
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Return the node with the smallest value.
+     *
+     * @return first node, null if the tree is empty.
+     */
+    public ThreadedBinarySearchTreeNode<T> firstNode() {
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null && node.left != null) {
+            node = node.leftNode();
+        }
+        return node;
+    }
+
+    /**
+     * Return the node with the largest value.
+     *
+     * @return last node, null if the tree is empty.
+     */
+    public ThreadedBinarySearchTreeNode<T> lastNode() {
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null && node.right != null) {
+            node = node.rightNode();
+        }
+        return node;
+    }
+
+    /**
+     * Return the first node with a value greater than or equal to a given
+     * value.
+     *
+     * @param value value to match.
+     * @return node, null if there is none.
+     */
+    public ThreadedBinarySearchTreeNode<T> ceilingNode(T value) {
+        return this.lowerBound(value, false);
+    }
+
+    /**
+     * Return the first node with a value greater than a given value; the start
+     * of the next page after a cursor value.
+     *
+     * @param value value to match.
+     * @return node, null if there is none.
+     */
+    public ThreadedBinarySearchTreeNode<T> higherNode(T value) {
+        return this.lowerBound(value, true);
+    }
+
+    /**
+     * Return the last node with a value less than or equal to a given value.
+     *
+     * @param value value to match.
+     * @return node, null if there is none.
+     */
+    public ThreadedBinarySearchTreeNode<T> floorNode(T value) {
+        return this.upperBound(value, false);
+    }
+
+    /**
+     * Return the last node with a value less than a given value.
+     *
+     * @param value value to match.
+     * @return node, null if there is none.
+     */
+    public ThreadedBinarySearchTreeNode<T> lowerNode(T value) {
+        return this.upperBound(value, true);
+    }
+
+    /**
+     * Return the least value that is greater than a given value.
+     *
+     * @param value value to match.
+     * @return least value greater than value, null if there is none.
+     */
+    public T higher(T value) {
+        return valueOf(this.higherNode(value));
+    }
+
+    /**
+     * Return the greatest value that is less than a given value.
+     *
+     * @param value value to match.
+     * @return greatest value less than value, null if there is none.
+     */
+    public T lower(T value) {
+        return valueOf(this.lowerNode(value));
+    }
+
+    @Override
+    public T floor(T value) {
+        return valueOf(this.floorNode(value));
+    }
+
+    @Override
+    public T ceiling(T value) {
+        return valueOf(this.ceilingNode(value));
+    }
+
+    @Override
+    public T first() {
+        return valueOf(this.firstNode());
+    }
+
+    @Override
+    public T last() {
+        return valueOf(this.lastNode());
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        ThreadedBinarySearchTreeNode<T> node = this.ceilingNode(value);
+        while (node != null && node.getValue().compareTo(value) == 0) {
+            nodes.add(node);
+            node = node.successor();
+        }
+        return nodes;
+    }
+
+    /**
+     * Return an iterator of the values in order.
+     *
+     * @return iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ThreadIterator(this.firstNode());
+    }
+
+    /**
+     * Return an iterator of the values in order, from the first value that is
+     * greater than or equal to a given value.
+     *
+     * @param from value to start at.
+     * @return iterator.
+     */
+    public Iterator<T> iterator(T from) {
+        return new ThreadIterator(this.ceilingNode(from));
+    }
+
+    @Override
+    public boolean isBalanced() {
+        return this.balancedHeight(this.root) >= 0;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> inorderTraversal() {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        for (ThreadedBinarySearchTreeNode<T> node = this.firstNode(); node != null; node = node.successor()) {
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> preorderTraversal() {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            nodes.add(node);
+            if (node.left != null) {
+                node = node.leftNode();
+            } else {
+                // climb the successor threads to the next right child.
+                while (node != null && node.right == null) {
+                    node = node.next;
+                }
+                if (node != null) {
+                    node = node.rightNode();
+                }
+            }
+        }
+        return nodes;
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> postorderTraversal() {
+        // reverse of a node, right, left traversal.
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        Deque<ThreadedBinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        if (this.root != null) {
+            stack.push(this.root);
+        }
+        while (!stack.isEmpty()) {
+            ThreadedBinarySearchTreeNode<T> node = stack.pop();
+            nodes.add(node);
+            if (node.left != null) {
+                stack.push(node.leftNode());
+            }
+            if (node.right != null) {
+                stack.push(node.rightNode());
+            }
+        }
+        Collections.reverse(nodes);
+        return nodes;
+    }
+
+    /**
+     * Return true if the values are in order along the child links and every
+     * thread points to the in-order neighbor.
+     *
+     * @return true if tree is valid.
+     */
+    @Override
+    public boolean isValid() {
+        List<ThreadedBinarySearchTreeNode<T>> nodes = new ArrayList<>(this.size);
+        Deque<ThreadedBinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.push(node);
+                node = node.leftNode();
+            }
+            node = stack.pop();
+            nodes.add(node);
+            node = node.rightNode();
+        }
+
+        for (int i = 0; i < nodes.size(); i++) {
+            ThreadedBinarySearchTreeNode<T> current = nodes.get(i);
+            ThreadedBinarySearchTreeNode<T> previous = i > 0 ? nodes.get(i - 1) : null;
+            ThreadedBinarySearchTreeNode<T> next = i + 1 < nodes.size() ? nodes.get(i + 1) : null;
+            if (previous != null) {
+                int cmp = previous.getValue().compareTo(current.getValue());
+                if (cmp > 0 || (cmp == 0 && this.uniqueNodeValue)) {
+                    return false;
+                }
+            }
+            if ((current.left == null && current.previous != previous)
+                    || (current.right == null && current.next != next)) {
+                return false;
+            }
+        }
+        return nodes.size() == this.size;
+    }
+
+    private static <T extends Comparable<T>> T valueOf(ThreadedBinarySearchTreeNode<T> node) {
+        return node == null ? null : node.getValue();
+    }
+
+    private ThreadedBinarySearchTreeNode<T> lowerBound(T value, boolean strict) {
+        ThreadedBinarySearchTreeNode<T> result = null;
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp > 0 || (cmp == 0 && !strict)) {
+                result = node;
+                node = node.leftNode();
+            } else {
+                node = node.rightNode();
+            }
+        }
+        return result;
+    }
+
+    private ThreadedBinarySearchTreeNode<T> upperBound(T value, boolean strict) {
+        ThreadedBinarySearchTreeNode<T> result = null;
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = node.getValue().compareTo(value);
+            if (cmp < 0 || (cmp == 0 && !strict)) {
+                result = node;
+                node = node.rightNode();
+            } else {
+                node = node.leftNode();
+            }
+        }
+        return result;
+    }
+
+    private int balancedHeight(ThreadedBinarySearchTreeNode<T> node) {
+        if (node == null) {
+            return 0;
+        }
+        int left = this.balancedHeight(node.leftNode());
+        int right = this.balancedHeight(node.rightNode());
+        if (left < 0 || right < 0 || Math.abs(left - right) > 1) {
+            return -1;
+        }
+        return 1 + Math.max(left, right);
+    }
+
+    private boolean removeOne(T value) {
+        ThreadedBinarySearchTreeNode<T> parent = null;
+        ThreadedBinarySearchTreeNode<T> node = this.root;
+        while (node != null) {
+            int cmp = value.compareTo(node.getValue());
+            if (cmp == 0) {
+                break;
+            }
+            parent = node;
+            if (cmp < 0) {
+                node = node.leftNode();
+            } else {
+                node = node.rightNode();
+            }
+        }
+        if (node == null) {
+            return false;
+        }
+
+        if (node.left != null && node.right != null) {
+            // take the value of the successor, which has no left child, and
+            // unlink the successor instead.
+            parent = node;
+            ThreadedBinarySearchTreeNode<T> successor = node.rightNode();
+            while (successor.left != null) {
+                parent = successor;
+                successor = successor.leftNode();
+            }
+            try {
+                node.setValue(successor.getValue());
+            } catch (NullValueException e) {
+                throw new IllegalStateException(e);
+            }
+            node = successor;
+        }
+        this.unlink(parent, node);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Unlink a node with at most one child.
+     */
+    private void unlink(ThreadedBinarySearchTreeNode<T> parent, ThreadedBinarySearchTreeNode<T> node) {
+        boolean isLeft = parent != null && parent.left == node;
+        if (node.left == null && node.right == null) {
+            if (parent == null) {
+                this.root = null;
+            } else if (isLeft) {
+                parent.left = null;
+                parent.previous = node.previous;
+            } else {
+                parent.right = null;
+                parent.next = node.next;
+            }
+            return;
+        }
+
+        ThreadedBinarySearchTreeNode<T> child;
+        if (node.left != null) {
+            child = node.leftNode();
+            // the predecessor threads to node; it now threads past it.
+            node.predecessor().next = node.next;
+        } else {
+            child = node.rightNode();
+            node.successor().previous = node.previous;
+        }
+        if (parent == null) {
+            this.root = child;
+        } else if (isLeft) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+    }
+
+    private class ThreadIterator implements Iterator<T> {
+        private ThreadedBinarySearchTreeNode<T> next;
+
+        ThreadIterator(ThreadedBinarySearchTreeNode<T> next) {
+            this.next = next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            T value = this.next.getValue();
+            this.next = this.next.successor();
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+/**
+ * Node of a threaded binary search tree. The left and right links are plain
+ * children, as in BinarySearchTreeNode; a node without a left child has a
+ * thread to its in-order predecessor, and a node without a right child a
+ * thread to its in-order successor (null at the ends). The threads are kept
+ * in their own fields, so the node can be walked as a BinarySearchTreeNode,
+ * and the links are maintained by the tree.
+ */
+public class ThreadedBinarySearchTreeNode<T extends Comparable<T>> extends BinarySearchTreeNode<T> {
+    ThreadedBinarySearchTreeNode<T> previous;
+    ThreadedBinarySearchTreeNode<T> next;
+
+    /**
+     * Instantiate an instance of this class with node value, without children.
+     *
+     * @param value node value.
+     */
+    ThreadedBinarySearchTreeNode(T value) {
+        super(value);
+        this.previous = null;
+        this.next = null;
+    }
+
+    /**
+     * Not supported, the links are maintained by the tree.
+     *
+     * @param left left node.
+     */
+    @Override
+    public void setLeft(BinarySearchTreeNode<T> left) {
+        throw new UnsupportedOperationException("Links of a threaded tree are maintained by the tree.");
+    }
+
+    /**
+     * Not supported, the links are maintained by the tree.
+     *
+     * @param right right node.
+     */
+    @Override
+    public void setRight(BinarySearchTreeNode<T> right) {
+        throw new UnsupportedOperationException("Links of a threaded tree are maintained by the tree.");
+    }
+
+    /**
+     * Return the node with the next value in order, without a stack. It
+     * follows the successor thread, or walks down the left links of the right
+     * child; over a full iteration every link is followed at most twice.
+     *
+     * @return successor, null if this is the last node.
+     */
+    public ThreadedBinarySearchTreeNode<T> successor() {
+        if (this.right == null) {
+            return this.next;
+        }
+        ThreadedBinarySearchTreeNode<T> node = this.rightNode();
+        while (node.left != null) {
+            node = node.leftNode();
+        }
+        return node;
+    }
+
+    /**
+     * Return the node with the previous value in order, without a stack.
+     *
+     * @return predecessor, null if this is the first node.
+     */
+    public ThreadedBinarySearchTreeNode<T> predecessor() {
+        if (this.left == null) {
+            return this.previous;
+        }
+        ThreadedBinarySearchTreeNode<T> node = this.leftNode();
+        while (node.right != null) {
+            node = node.rightNode();
+        }
+        return node;
+    }
+
+    ThreadedBinarySearchTreeNode<T> leftNode() {
+        return (ThreadedBinarySearchTreeNode<T>) this.left;
+    }
+
+    ThreadedBinarySearchTreeNode<T> rightNode() {
+        return (ThreadedBinarySearchTreeNode<T>) this.right;
+    }
+}
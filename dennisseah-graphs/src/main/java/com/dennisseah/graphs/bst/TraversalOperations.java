@@ -23,7 +23,9 @@
  */
 package com.dennisseah.graphs.bst;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 public class TraversalOperations<T extends Comparable<T>> {
@@ -66,6 +68,40 @@ public class TraversalOperations<T extends Comparable<T>> {
         return nodes;
     }
 
+    /**
+     * Return a list of nodes with values in [low, high], in order. Sub trees
+     * outside the range are not visited.
+     *
+     * @param low  smallest value, inclusive.
+     * @param high largest value, inclusive.
+     * @return list of nodes
+     */
+    public List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high) {
+        List<BinarySearchTreeNode<T>> nodes = new ArrayList<>();
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        BinarySearchTreeNode<T> node = this.root;
+        while (true) {
+            while (node != null) {
+                if (node.getValue().compareTo(low) < 0) {
+                    node = node.right;
+                } else {
+                    stack.push(node);
+                    node = node.left;
+                }
+            }
+            if (stack.isEmpty()) {
+                break;
+            }
+            node = stack.pop();
+            if (node.getValue().compareTo(high) > 0) {
+                break;
+            }
+            nodes.add(node);
+            node = node.right;
+        }
+        return nodes;
+    }
+
     private void inorderTraversal(BinarySearchTreeNode<T> node, List<BinarySearchTreeNode<T>> nodes) {
         if (node != null) {
             this.inorderTraversal(node.left, nodes);
@@ -24,9 +24,9 @@
 package com.dennisseah.graphs.bst;
 
 public class Validator<T extends Comparable<T>> {
-    private BinarySearchTree<T> tree;
+    private BinarySearchTreeBase<T> tree;
 
-    Validator(BinarySearchTree<T> tree) {
+    Validator(BinarySearchTreeBase<T> tree) {
         this.tree = tree;
     }
 
@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded map of computed results. This class is not thread safe.
+ */
+public class LookupCache<K, V> {
+    private final int capacity;
+    private final CachePolicy policy;
+    private final LinkedHashMap<K, V> window;
+    private final LinkedHashMap<K, V> main;
+    private final int windowCapacity;
+    private final FrequencySketch sketch;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param capacity maximum number of entries.
+     * @param policy   eviction policy.
+     */
+    public LookupCache(int capacity, CachePolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+
+        if (policy == CachePolicy.TINY_LFU) {
+            this.windowCapacity = Math.max(1, capacity / 100);
+            this.window = new LinkedHashMap<>(16, 0.75f, true);
+            this.sketch = new FrequencySketch(capacity);
+        } else {
+            this.windowCapacity = 0;
+            this.window = null;
+            this.sketch = null;
+        }
+    }
+
+    /**
+     * Return the cached value of a key, and count a hit or a miss.
+     *
+     * @param key key.
+     * @return cached value, null if there is none.
+     */
+    public V get(K key) {
+        if (this.sketch != null) {
+            this.sketch.increment(key);
+        }
+        V value = this.main.get(key);
+        if (value == null && this.window != null) {
+            value = this.window.get(key);
+        }
+        if (value == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * Add a value, evicting an entry by policy if the cache is full.
+     *
+     * @param key   key.
+     * @param value value, not null.
+     */
+    public void put(K key, V value) {
+        if (this.policy == CachePolicy.LRU) {
+            this.main.put(key, value);
+            if (this.main.size() > this.capacity) {
+                this.removeEldest(this.main);
+            }
+            return;
+        }
+
+        if (this.main.containsKey(key)) {
+            this.main.put(key, value);
+            return;
+        }
+        this.window.put(key, value);
+        if (this.window.size() > this.windowCapacity) {
+            Map.Entry<K, V> candidate = this.removeEldest(this.window);
+            this.admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Remove the cached value of a key.
+     *
+     * @param key key.
+     */
+    public void invalidate(K key) {
+        this.main.remove(key);
+        if (this.window != null) {
+            this.window.remove(key);
+        }
+    }
+
+    /**
+     * Remove all cached values. The hit and miss counts are kept.
+     */
+    public void clear() {
+        this.main.clear();
+        if (this.window != null) {
+            this.window.clear();
+        }
+    }
+
+    /**
+     * Return the number of cached values.
+     *
+     * @return number of cached values.
+     */
+    public int size() {
+        return this.main.size() + (this.window == null ? 0 : this.window.size());
+    }
+
+    /**
+     * Return the number of lookups that found a cached value.
+     *
+     * @return hit count.
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Return the number of lookups that did not find a cached value.
+     *
+     * @return miss count.
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Move an entry leaving the window to the main area if there is room, or if
+     * it is more popular than the entry that it would replace.
+     */
+    private void admit(K key, V value) {
+        int mainCapacity = this.capacity - this.windowCapacity;
+        if (this.main.size() < mainCapacity) {
+            this.main.put(key, value);
+            return;
+        }
+        if (mainCapacity <= 0) {
+            return;
+        }
+        K victim = this.main.keySet().iterator().next();
+        if (this.sketch.frequency(key) > this.sketch.frequency(victim)) {
+            this.main.remove(victim);
+            this.main.put(key, value);
+        }
+    }
+
+    private Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> map) {
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        Map.Entry<K, V> eldest = it.next();
+        it.remove();
+        return eldest;
+    }
+}
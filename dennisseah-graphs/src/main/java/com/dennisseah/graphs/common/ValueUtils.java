@@ -39,4 +39,15 @@ public class ValueUtils<T> {
 
         return false;
     }
+
+    /**
+     * Return a new array of values.
+     *
+     * @param size length of the array.
+     * @return array of null values.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <T extends Comparable<T>> T[] newArray(int size) {
+        return (T[]) new Comparable[size];
+    }
 }
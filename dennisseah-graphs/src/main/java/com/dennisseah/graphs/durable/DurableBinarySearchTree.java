@@ -0,0 +1,408 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.durable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.FindAllResult;
+import com.dennisseah.graphs.bst.IBinarySearchTreeBase;
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Tree whose inserts and removes are written to a write-ahead log in a
+ * directory, so that the tree can be recovered after a crash.
+ * 
+ * The directory holds at most one checkpoint and one log of the same
+ * generation: checkpoint-N is a snapshot of the tree, and wal-N has the
+ * operations after it. A checkpoint is written to a temporary file and renamed
+ * when complete, then the next log is started and the files of the previous
+ * generation are deleted. Recovery loads the latest checkpoint and replays its
+ * log; a record that is torn by a crash ends the replay and is truncated.
+ * 
+ * The log record is appended before the tree is changed, so a failed write
+ * leaves the tree unchanged. The record is committed after the change, so a
+ * find can see a value that is not yet durable. This class is thread safe; the wrapped tree
+ * must not be used directly.
+ */
+public class DurableBinarySearchTree<T extends Comparable<T>> implements IBinarySearchTreeBase<T>, Closeable {
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 100000;
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 100;
+
+    private static final String CHECKPOINT_PREFIX = "checkpoint-";
+    private static final String LOG_PREFIX = "wal-";
+
+    private final IBinarySearchTreeBase<T> tree;
+    private final Path directory;
+    private final ValueCodec<T> codec;
+    private final SyncPolicy policy;
+    private final long syncIntervalMillis;
+    private final int checkpointInterval;
+    private long generation;
+    private WriteAheadLog log;
+    private int operationsSinceCheckpoint = 0;
+
+    /**
+     * Instantiate an instance of this class that forces every write to disk.
+     *
+     * @param tree      empty tree to keep the values.
+     * @param directory directory of the checkpoint and log files.
+     * @param codec     codec of the values.
+     * @throws IOException if the files cannot be read or written.
+     */
+    public DurableBinarySearchTree(IBinarySearchTreeBase<T> tree, Path directory, ValueCodec<T> codec)
+            throws IOException {
+        this(tree, directory, codec, SyncPolicy.ALWAYS, DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Instantiate an instance of this class, and recover the values that are
+     * in the directory.
+     *
+     * @param tree               empty tree to keep the values.
+     * @param directory          directory of the checkpoint and log files.
+     * @param codec              codec of the values.
+     * @param policy             sync policy.
+     * @param syncIntervalMillis sync interval of SyncPolicy.INTERVAL.
+     * @param checkpointInterval number of logged operations between
+     *                           checkpoints.
+     * @throws IOException if the files cannot be read or written.
+     */
+    public DurableBinarySearchTree(IBinarySearchTreeBase<T> tree, Path directory, ValueCodec<T> codec,
+            SyncPolicy policy, long syncIntervalMillis, int checkpointInterval) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive.");
+        }
+        this.tree = tree;
+        this.directory = directory;
+        this.codec = codec;
+        this.policy = policy;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.checkpointInterval = checkpointInterval;
+
+        Files.createDirectories(directory);
+        this.recover();
+    }
+
+    /**
+     * Return the generation of the current checkpoint and log.
+     *
+     * @return generation.
+     */
+    public synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    @Override
+    public synchronized BinarySearchTreeNode<T> getRoot() {
+        return this.tree.getRoot();
+    }
+
+    /**
+     * Set the root node. This cannot be logged as an operation, so a checkpoint
+     * is written.
+     *
+     * @param root root node.
+     */
+    @Override
+    public synchronized void setRoot(BinarySearchTreeNode<T> root) {
+        this.tree.setRoot(root);
+        try {
+            this.writeCheckpoint();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void insert(T value) {
+        this.commit(this.apply(WriteAheadLog.INSERT, value));
+    }
+
+    @Override
+    public boolean remove(T value) {
+        Commit commit = this.apply(WriteAheadLog.REMOVE, value);
+        this.commit(commit);
+        return commit != null;
+    }
+
+    @Override
+    public synchronized List<BinarySearchTreeNode<T>> find(T value) {
+        return this.tree.find(value);
+    }
+
+    @Override
+    public synchronized FindAllResult<T> findAll(T[] values) {
+        return this.tree.findAll(values);
+    }
+
+    @Override
+    public synchronized FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return this.tree.findAll(values, pool);
+    }
+
+    @Override
+    public synchronized List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high) {
+        return this.tree.rangeTraversal(low, high);
+    }
+
+    @Override
+    public synchronized boolean isValid() {
+        return this.tree.isValid();
+    }
+
+    /**
+     * Write a checkpoint of the tree and start a new log.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    public synchronized void checkpoint() throws IOException {
+        this.writeCheckpoint();
+    }
+
+    /**
+     * Force the log to disk, regardless of the sync policy.
+     *
+     * @throws IOException if the log cannot be forced.
+     */
+    public void sync() throws IOException {
+        WriteAheadLog current;
+        synchronized (this) {
+            current = this.log;
+        }
+        current.sync(Long.MAX_VALUE);
+    }
+
+    /**
+     * Force the log to disk and close it. The tree cannot be changed
+     * afterwards.
+     *
+     * @throws IOException if the log cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.log.close();
+    }
+
+    /**
+     * Log record that is appended and still to be committed.
+     */
+    private static class Commit {
+        private final WriteAheadLog log;
+        private final long sequence;
+
+        Commit(WriteAheadLog log, long sequence) {
+            this.log = log;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Append the log record and change the tree under the lock. The commit is
+     * done by the caller after the lock is released, so that concurrent writers
+     * share a fsync.
+     */
+    private synchronized Commit apply(byte operation, T value) {
+        byte[] payload = this.codec.encode(value);
+        if (operation == WriteAheadLog.REMOVE && this.tree.find(value).isEmpty()) {
+            return null;
+        }
+
+        try {
+            Commit commit = new Commit(this.log, this.log.append(operation, payload));
+            if (operation == WriteAheadLog.INSERT) {
+                this.tree.insert(value);
+            } else {
+                this.tree.remove(value);
+            }
+            if (++this.operationsSinceCheckpoint >= this.checkpointInterval) {
+                this.writeCheckpoint();
+            }
+            return commit;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void commit(Commit commit) {
+        if (commit == null) {
+            return;
+        }
+        try {
+            commit.log.commit(commit.sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // NO-ACTION, directories cannot be opened on some platforms, e.g.
+            // Windows.
+        }
+    }
+
+    private Path checkpointFile(long generation) {
+        return this.directory.resolve(CHECKPOINT_PREFIX + generation);
+    }
+
+    private Path logFile(long generation) {
+        return this.directory.resolve(LOG_PREFIX + generation);
+    }
+
+    private void recover() throws IOException {
+        this.generation = this.latestCheckpoint();
+        final boolean[] complete = new boolean[] { this.generation == 0 };
+
+        WriteAheadLog.RecordHandler handler = new WriteAheadLog.RecordHandler() {
+            @Override
+            public void apply(byte operation, byte[] payload) throws IOException {
+                switch (operation) {
+                    case WriteAheadLog.INSERT:
+                        tree.insert(codec.decode(payload));
+                        break;
+                    case WriteAheadLog.REMOVE:
+                        tree.remove(codec.decode(payload));
+                        break;
+                    case WriteAheadLog.END:
+                        complete[0] = true;
+                        break;
+                    default:
+                        throw new IOException("Unknown log operation " + operation);
+                }
+            }
+        };
+
+        if (this.generation > 0) {
+            WriteAheadLog.replay(this.checkpointFile(this.generation), handler);
+            if (!complete[0]) {
+                throw new IOException("Checkpoint " + this.checkpointFile(this.generation) + " is incomplete.");
+            }
+        }
+        long validLength = WriteAheadLog.replay(this.logFile(this.generation), handler);
+        this.log = new WriteAheadLog(this.logFile(this.generation), validLength, this.policy,
+                this.syncIntervalMillis);
+        this.deleteOlderGenerations();
+    }
+
+    /**
+     * Return the generation of the latest checkpoint, 0 if there is none.
+     */
+    private long latestCheckpoint() throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, CHECKPOINT_PREFIX + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(CHECKPOINT_PREFIX.length());
+                try {
+                    latest = Math.max(latest, Long.parseLong(suffix));
+                } catch (NumberFormatException e) {
+                    // NO-ACTION, e.g. a temporary file.
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Write the values in preorder, so that inserting them in order builds the
+     * same tree, followed by an end record.
+     */
+    private void writeCheckpoint() throws IOException {
+        long next = this.generation + 1;
+        Path temporary = this.directory.resolve(CHECKPOINT_PREFIX + next + ".tmp");
+
+        try (WriteAheadLog snapshot = new WriteAheadLog(temporary, 0, SyncPolicy.NONE, 0)) {
+            Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+            if (this.tree.getRoot() != null) {
+                stack.push(this.tree.getRoot());
+            }
+            while (!stack.isEmpty()) {
+                BinarySearchTreeNode<T> node = stack.pop();
+                snapshot.append(WriteAheadLog.INSERT, this.codec.encode(node.getValue()));
+                if (node.getRight() != null) {
+                    stack.push(node.getRight());
+                }
+                if (node.getLeft() != null) {
+                    stack.push(node.getLeft());
+                }
+            }
+            snapshot.append(WriteAheadLog.END, new byte[0]);
+        }
+        Files.move(temporary, this.checkpointFile(next), StandardCopyOption.ATOMIC_MOVE);
+
+        WriteAheadLog previous = this.log;
+        this.log = new WriteAheadLog(this.logFile(next), 0, this.policy, this.syncIntervalMillis);
+        this.generation = next;
+        this.operationsSinceCheckpoint = 0;
+        if (previous != null) {
+            previous.close();
+        }
+        this.deleteOlderGenerations();
+    }
+
+    /**
+     * Delete the files of the generations before the current one. The
+     * directory is forced first, so that the rename of the current checkpoint
+     * and the new log are on disk before the files they replace are gone.
+     */
+    private void deleteOlderGenerations() throws IOException {
+        this.syncDirectory();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String suffix;
+                if (name.startsWith(CHECKPOINT_PREFIX)) {
+                    suffix = name.substring(CHECKPOINT_PREFIX.length());
+                } else if (name.startsWith(LOG_PREFIX)) {
+                    suffix = name.substring(LOG_PREFIX.length());
+                } else {
+                    continue;
+                }
+                try {
+                    if (Long.parseLong(suffix) < this.generation) {
+                        Files.delete(file);
+                    }
+                } catch (NumberFormatException e) {
+                    // a temporary file of an interrupted checkpoint.
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.durable;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append only file of operation records. A record is
+ * 
+ * [payload length: int][operation: byte][payload][crc32 of operation and payload: int]
+ * 
+ * Appends are cheap writes into the file; commit makes them durable according
+ * to the sync policy. Writers that commit while another writer is forcing the
+ * file wait for it and return without a fsync of their own when their records
+ * are covered (group commit). With SyncPolicy.INTERVAL, a background task
+ * also forces the file every interval, so the last records are on disk even
+ * if no write follows them.
+ */
+class WriteAheadLog implements Closeable {
+    static final byte END = 0;
+    static final byte INSERT = 1;
+    static final byte REMOVE = 2;
+
+    private static final int HEADER_SIZE = 5;
+    private static final int TRAILER_SIZE = 4;
+
+    /**
+     * Receiver of the records that are read from a log.
+     */
+    interface RecordHandler {
+        /**
+         * Apply a record.
+         *
+         * @param operation operation.
+         * @param payload   payload.
+         * @throws IOException if the record cannot be applied.
+         */
+        void apply(byte operation, byte[] payload) throws IOException;
+    }
+
+    /**
+     * Thread that forces the logs with SyncPolicy.INTERVAL, shared by all
+     * logs.
+     */
+    private static final ScheduledExecutorService SYNC_SCHEDULER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "wal-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final FileChannel channel;
+    private final SyncPolicy policy;
+    private final long syncIntervalNanos;
+    private final Object syncLock = new Object();
+    private long appended = 0;
+    private volatile long synced = 0;
+    private volatile long lastSync = System.nanoTime();
+    private boolean closed = false;
+    private ScheduledFuture<?> syncTask;
+    private volatile IOException syncFailure;
+
+    /**
+     * Open a log for appending. Anything after validLength, e.g. a record that
+     * is partially written before a crash, is truncated.
+     *
+     * @param file               log file.
+     * @param validLength        length of the valid records, see replay.
+     * @param policy             sync policy.
+     * @param syncIntervalMillis sync interval of SyncPolicy.INTERVAL.
+     * @throws IOException if the file cannot be opened.
+     */
+    WriteAheadLog(Path file, long validLength, SyncPolicy policy, long syncIntervalMillis) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.channel.truncate(validLength);
+        this.channel.position(validLength);
+        this.policy = policy;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        if (policy == SyncPolicy.INTERVAL) {
+            this.syncTask = SYNC_SCHEDULER.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    syncInBackground();
+                }
+            }, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Read the records of a log in order. Reading stops at the end of the file
+     * or at the first record that is incomplete or fails its checksum.
+     *
+     * @param file    log file.
+     * @param handler receiver of the records.
+     * @return length of the valid records.
+     * @throws IOException if the file cannot be read.
+     */
+    static long replay(Path file, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long fileSize = Files.size(file);
+        long valid = 0;
+        CRC32 crc = new CRC32();
+
+        try (InputStream stream = Files.newInputStream(file);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            while (true) {
+                int length;
+                byte operation;
+                byte[] payload;
+                int checksum;
+                try {
+                    length = input.readInt();
+                    if (length < 0 || valid + HEADER_SIZE + length + TRAILER_SIZE > fileSize) {
+                        break;
+                    }
+                    operation = input.readByte();
+                    payload = new byte[length];
+                    input.readFully(payload);
+                    checksum = input.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(operation);
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                handler.apply(operation, payload);
+                valid += HEADER_SIZE + length + TRAILER_SIZE;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param operation operation.
+     * @param payload   payload.
+     * @return sequence number of the record, to pass to commit.
+     * @throws IOException if the record cannot be written.
+     */
+    synchronized long append(byte operation, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(operation);
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length + TRAILER_SIZE);
+        buffer.putInt(payload.length).put(operation).put(payload).putInt((int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        return ++this.appended;
+    }
+
+    /**
+     * Return the sequence number of the last record that is forced to disk.
+     *
+     * @return sequence number.
+     */
+    long getSynced() {
+        return this.synced;
+    }
+
+    /**
+     * Make a record durable according to the sync policy.
+     *
+     * @param sequence sequence number of the record.
+     * @throws IOException if the file cannot be forced.
+     */
+    void commit(long sequence) throws IOException {
+        if (this.syncFailure != null) {
+            throw this.syncFailure;
+        }
+        if (this.policy == SyncPolicy.NONE) {
+            return;
+        }
+        if (this.policy == SyncPolicy.INTERVAL && System.nanoTime() - this.lastSync < this.syncIntervalNanos) {
+            return;
+        }
+        this.sync(sequence);
+    }
+
+    /**
+     * Force the records up to a sequence number to disk. The writer that gets
+     * the lock forces everything appended so far, on behalf of the writers
+     * waiting behind it.
+     *
+     * @param sequence sequence number of the record.
+     * @throws IOException if the file cannot be forced.
+     */
+    void sync(long sequence) throws IOException {
+        if (this.synced >= sequence) {
+            return;
+        }
+        synchronized (this.syncLock) {
+            if (this.closed || this.synced >= sequence) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = this.appended;
+            }
+            this.channel.force(false);
+            this.synced = target;
+            this.lastSync = System.nanoTime();
+        }
+    }
+
+    /**
+     * Force the records that are appended since the last fsync. A failure is
+     * thrown by the next commit.
+     */
+    private void syncInBackground() {
+        long target;
+        synchronized (this) {
+            target = this.appended;
+        }
+        try {
+            this.sync(target);
+        } catch (IOException e) {
+            this.syncFailure = e;
+        }
+    }
+
+    /**
+     * Force all records to disk and close the file.
+     *
+     * @throws IOException if the file cannot be forced or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.syncLock) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (this.syncTask != null) {
+                this.syncTask.cancel(false);
+            }
+            try {
+                this.channel.force(false);
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+/**
+ * Result of a BreadthFirstSearch.
+ */
+public class BfsResult {
+    private final int[] distances;
+    private final int[] parents;
+    private final int reachedCount;
+    private final int topDownLevels;
+    private final int bottomUpLevels;
+
+    BfsResult(int[] distances, int[] parents, int reachedCount, int topDownLevels, int bottomUpLevels) {
+        this.distances = distances;
+        this.parents = parents;
+        this.reachedCount = reachedCount;
+        this.topDownLevels = topDownLevels;
+        this.bottomUpLevels = bottomUpLevels;
+    }
+
+    /**
+     * Return the number of arcs from the source to a vertex, -1 if the vertex
+     * is not reachable.
+     *
+     * @param v vertex.
+     * @return distance.
+     */
+    public int getDistance(int v) {
+        return this.distances[v];
+    }
+
+    /**
+     * Return the vertex before a vertex on a shortest path from the source, the
+     * source for the source itself and -1 if the vertex is not reachable.
+     *
+     * @param v vertex.
+     * @return parent vertex.
+     */
+    public int getParent(int v) {
+        return this.parents[v];
+    }
+
+    /**
+     * Return true if a vertex is reachable from the source.
+     *
+     * @param v vertex.
+     * @return true if the vertex is reachable.
+     */
+    public boolean isReachable(int v) {
+        return this.distances[v] >= 0;
+    }
+
+    /**
+     * Return the number of vertices that are reachable, including the source.
+     *
+     * @return number of vertices.
+     */
+    public int getReachedCount() {
+        return this.reachedCount;
+    }
+
+    /**
+     * Return the number of levels that are expanded top down.
+     *
+     * @return number of levels.
+     */
+    public int getTopDownLevels() {
+        return this.topDownLevels;
+    }
+
+    /**
+     * Return the number of levels that are expanded bottom up.
+     *
+     * @return number of levels.
+     */
+    public int getBottomUpLevels() {
+        return this.bottomUpLevels;
+    }
+}
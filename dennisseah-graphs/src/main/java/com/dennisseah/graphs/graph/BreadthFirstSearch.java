@@ -0,0 +1,277 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level synchronous, direction optimizing breadth first search of a CsrGraph.
+ * The frontier is a bitset of vertices, and each level is expanded by tasks
+ * over ranges of bitset words:
+ * 
+ * top down: every frontier vertex claims its unvisited neighbors,
+ * 
+ * bottom up: every unvisited vertex looks for a parent in the frontier, and
+ * stops at the first one.
+ * 
+ * Bottom up starts when the frontier grows and its arcs are a large part of
+ * the unexplored arcs, which is the case in the middle levels of low diameter
+ * graphs; top down is used again once the frontier is small.
+ */
+public class BreadthFirstSearch {
+    /**
+     * Switch to bottom up when the frontier arcs exceed 1 / ALPHA of the
+     * unexplored arcs.
+     */
+    static final int ALPHA = 14;
+    /**
+     * Switch back to top down when the frontier is smaller than 1 / BETA of the
+     * vertices.
+     */
+    static final int BETA = 24;
+    private static final int CHUNK_WORDS = 64;
+
+    private final CsrGraph graph;
+    private final CsrGraph reversed;
+    private final ForkJoinPool pool;
+    private final int words;
+
+    /**
+     * Instantiate an instance of this class, with the common pool.
+     *
+     * @param graph graph.
+     */
+    public BreadthFirstSearch(CsrGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param graph graph.
+     * @param pool  pool to run the tasks.
+     */
+    public BreadthFirstSearch(CsrGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        // bottom up follows arcs backwards.
+        this.reversed = graph.transpose();
+        this.pool = pool;
+        this.words = (graph.vertexCount + 63) >>> 6;
+    }
+
+    /**
+     * Return the distances and parents of the vertices reachable from a source.
+     *
+     * @param source source vertex.
+     * @return result.
+     * @throws IllegalArgumentException if the source is out of range.
+     */
+    public BfsResult search(int source) {
+        int n = this.graph.vertexCount;
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("Vertex " + source + " is not in [0, " + n + ")");
+        }
+        int[] distances = new int[n];
+        int[] parents = new int[n];
+        Arrays.fill(distances, -1);
+        Arrays.fill(parents, -1);
+        AtomicLongArray visited = new AtomicLongArray(this.words);
+        AtomicLongArray frontier = new AtomicLongArray(this.words);
+        setBit(visited, source);
+        setBit(frontier, source);
+        distances[source] = 0;
+        parents[source] = source;
+
+        Level level = new Level(distances, parents, visited);
+        long frontierCount = 1;
+        long previousCount = 0;
+        long frontierArcs = this.graph.degree(source);
+        long unexploredArcs = this.graph.getArcCount() - frontierArcs;
+        long reached = 1;
+        boolean bottomUp = false;
+        int topDownLevels = 0;
+        int bottomUpLevels = 0;
+
+        while (frontierCount > 0) {
+            if (!bottomUp && frontierCount > previousCount && frontierArcs > unexploredArcs / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierCount < n / BETA) {
+                bottomUp = false;
+            }
+            if (bottomUp) {
+                bottomUpLevels++;
+            } else {
+                topDownLevels++;
+            }
+
+            level.frontier = frontier;
+            level.next = new AtomicLongArray(this.words);
+            level.distance++;
+            level.bottomUp = bottomUp;
+            long[] counts = this.pool.invoke(new LevelTask(level, 0, this.words));
+            frontier = level.next;
+            previousCount = frontierCount;
+            frontierCount = counts[0];
+            frontierArcs = counts[1];
+            unexploredArcs -= frontierArcs;
+            reached += frontierCount;
+        }
+        return new BfsResult(distances, parents, (int) reached, topDownLevels, bottomUpLevels);
+    }
+
+    static boolean getBit(AtomicLongArray bits, int v) {
+        return (bits.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    static void setBit(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long mask = 1L << v;
+        long word = bits.get(w);
+        while ((word & mask) == 0 && !bits.compareAndSet(w, word, word | mask)) {
+            word = bits.get(w);
+        }
+    }
+
+    /**
+     * Return true if this call set the bit.
+     */
+    static boolean claimBit(AtomicLongArray bits, int v) {
+        int w = v >>> 6;
+        long mask = 1L << v;
+        while (true) {
+            long word = bits.get(w);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(w, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * State shared by the tasks of a level.
+     */
+    private static class Level {
+        final int[] distances;
+        final int[] parents;
+        final AtomicLongArray visited;
+        AtomicLongArray frontier;
+        AtomicLongArray next;
+        int distance = 0;
+        boolean bottomUp;
+
+        Level(int[] distances, int[] parents, AtomicLongArray visited) {
+            this.distances = distances;
+            this.parents = parents;
+            this.visited = visited;
+        }
+    }
+
+    /**
+     * Expand the frontier vertices of a range of words; returns the number of
+     * vertices of the next frontier and the number of their arcs.
+     */
+    @SuppressWarnings("serial")
+    private class LevelTask extends RecursiveTask<long[]> {
+        private final Level level;
+        private final int from;
+        private final int to;
+
+        LevelTask(Level level, int from, int to) {
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (this.to - this.from > CHUNK_WORDS) {
+                int middle = (this.from + this.to) >>> 1;
+                LevelTask left = new LevelTask(this.level, this.from, middle);
+                left.fork();
+                long[] right = new LevelTask(this.level, middle, this.to).compute();
+                long[] counts = left.join();
+                counts[0] += right[0];
+                counts[1] += right[1];
+                return counts;
+            }
+            long[] counts = new long[2];
+            for (int w = this.from; w < this.to; w++) {
+                if (this.level.bottomUp) {
+                    this.bottomUp(w, counts);
+                } else {
+                    this.topDown(w, counts);
+                }
+            }
+            return counts;
+        }
+
+        private void topDown(int w, long[] counts) {
+            long bits = this.level.frontier.get(w);
+            while (bits != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    int v = graph.targets[e];
+                    if (!getBit(this.level.visited, v) && claimBit(this.level.visited, v)) {
+                        this.reach(v, u, counts);
+                    }
+                }
+            }
+        }
+
+        private void bottomUp(int w, long[] counts) {
+            long bits = ~this.level.visited.get(w);
+            int last = graph.vertexCount - (w << 6);
+            if (last < 64) {
+                bits &= (1L << last) - 1;
+            }
+            while (bits != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                for (int e = reversed.offsets[v]; e < reversed.offsets[v + 1]; e++) {
+                    int u = reversed.targets[e];
+                    if (getBit(this.level.frontier, u)) {
+                        // only this task has vertices of this word.
+                        setBit(this.level.visited, v);
+                        this.reach(v, u, counts);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private void reach(int v, int parent, long[] counts) {
+            this.level.distances[v] = this.level.distance;
+            this.level.parents[v] = parent;
+            setBit(this.level.next, v);
+            counts[0]++;
+            counts[1] += graph.degree(v);
+        }
+    }
+}
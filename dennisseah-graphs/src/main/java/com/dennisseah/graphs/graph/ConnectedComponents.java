@@ -0,0 +1,172 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Connected components of a CsrGraph, by a concurrent union find. Tasks over
+ * ranges of vertices union the ends of their arcs; roots are linked with
+ * compare and set, always from the larger vertex to the smaller one, so the
+ * label of a component is its smallest vertex. Finds halve the paths they
+ * walk. The arcs of a directed graph are followed in both directions, that is
+ * the components are weakly connected.
+ */
+public class ConnectedComponents {
+    private static final int CHUNK_VERTICES = 4096;
+
+    private final int[] labels;
+    private final int componentCount;
+
+    /**
+     * Instantiate an instance of this class, with the common pool.
+     *
+     * @param graph graph.
+     */
+    public ConnectedComponents(CsrGraph graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param graph graph.
+     * @param pool  pool to run the tasks.
+     */
+    public ConnectedComponents(CsrGraph graph, ForkJoinPool pool) {
+        int n = graph.vertexCount;
+        AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            parents.set(v, v);
+        }
+        pool.invoke(new UnionTask(graph, parents, 0, n));
+
+        this.labels = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            this.labels[v] = find(parents, v);
+            if (this.labels[v] == v) {
+                count++;
+            }
+        }
+        this.componentCount = count;
+    }
+
+    /**
+     * Return the number of components.
+     *
+     * @return number of components.
+     */
+    public int getComponentCount() {
+        return this.componentCount;
+    }
+
+    /**
+     * Return the label of the component of a vertex, which is the smallest
+     * vertex of the component.
+     *
+     * @param v vertex.
+     * @return label.
+     */
+    public int getLabel(int v) {
+        return this.labels[v];
+    }
+
+    /**
+     * Return true if two vertices are in the same component.
+     *
+     * @param u vertex.
+     * @param v vertex.
+     * @return true if the vertices are connected.
+     */
+    public boolean isConnected(int u, int v) {
+        return this.labels[u] == this.labels[v];
+    }
+
+    private static int find(AtomicIntegerArray parents, int v) {
+        int x = v;
+        while (true) {
+            int parent = parents.get(x);
+            if (parent == x) {
+                return x;
+            }
+            int grandParent = parents.get(parent);
+            if (parent != grandParent) {
+                parents.compareAndSet(x, parent, grandParent);
+            }
+            x = grandParent;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parents, int u, int v) {
+        while (true) {
+            int ru = find(parents, u);
+            int rv = find(parents, v);
+            if (ru == rv) {
+                return;
+            }
+            // fails if another thread links the larger root first.
+            if (ru > rv ? parents.compareAndSet(ru, ru, rv) : parents.compareAndSet(rv, rv, ru)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class UnionTask extends RecursiveAction {
+        private final CsrGraph graph;
+        private final AtomicIntegerArray parents;
+        private final int from;
+        private final int to;
+
+        UnionTask(CsrGraph graph, AtomicIntegerArray parents, int from, int to) {
+            this.graph = graph;
+            this.parents = parents;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CHUNK_VERTICES) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new UnionTask(this.graph, this.parents, this.from, middle),
+                        new UnionTask(this.graph, this.parents, middle, this.to));
+                return;
+            }
+            boolean directed = this.graph.directed;
+            for (int u = this.from; u < this.to; u++) {
+                for (int e = this.graph.offsets[u]; e < this.graph.offsets[u + 1]; e++) {
+                    int v = this.graph.targets[e];
+                    // an undirected edge is also the arc from v to u.
+                    if (directed || u < v) {
+                        union(this.parents, u, v);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph in compressed sparse row (CSR) form. Vertices are 0 to
+ * vertexCount - 1. The arcs of vertex v are at index offsets[v] to
+ * offsets[v + 1] - 1 of targets (and of weights, if the graph is weighted), so
+ * neighbors are iterated as
+ * 
+ * for (int e = graph.offset(v); e < graph.offset(v + 1); e++) { graph.target(e) }
+ * 
+ * An undirected graph stores each edge as an arc in both directions, except
+ * self loops which are stored once.
+ */
+public class CsrGraph {
+    final int vertexCount;
+    final boolean directed;
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+
+    CsrGraph(int vertexCount, boolean directed, int[] offsets, int[] targets, double[] weights) {
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Return a graph of edges. Edge i is from sources[i] to targets[i]. The arcs
+     * of a vertex are in the order of the edges.
+     *
+     * @param vertexCount number of vertices.
+     * @param sources     source vertex of the edges.
+     * @param targets     target vertex of the edges.
+     * @param directed    false to have an undirected graph.
+     * @return graph.
+     * @throws IllegalArgumentException if a vertex is out of range.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, boolean directed) {
+        return fromEdges(vertexCount, sources, targets, null, directed);
+    }
+
+    /**
+     * Return a weighted graph of edges. Edge i is from sources[i] to targets[i]
+     * with weight weights[i]. The arcs of a vertex are in the order of the edges.
+     *
+     * @param vertexCount number of vertices.
+     * @param sources     source vertex of the edges.
+     * @param targets     target vertex of the edges.
+     * @param weights     weight of the edges, null for an unweighted graph.
+     * @param directed    false to have an undirected graph.
+     * @return graph.
+     * @throws IllegalArgumentException if a vertex is out of range.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, double[] weights,
+            boolean directed) {
+        return fromEdges(vertexCount, sources, targets, weights, sources.length, directed);
+    }
+
+    static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, double[] weights, int edgeCount,
+            boolean directed) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Negative vertex count " + vertexCount);
+        }
+        if (targets.length < edgeCount || sources.length < edgeCount
+                || (weights != null && weights.length < edgeCount)) {
+            throw new IllegalArgumentException("Edge arrays have different lengths.");
+        }
+
+        // count the arcs of each vertex at offsets[v + 1].
+        int[] offsets = new int[vertexCount + 1];
+        long arcCount = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            int u = sources[i];
+            int v = targets[i];
+            checkVertex(u, vertexCount);
+            checkVertex(v, vertexCount);
+            offsets[u + 1]++;
+            arcCount++;
+            if (!directed && u != v) {
+                offsets[v + 1]++;
+                arcCount++;
+            }
+        }
+        if (arcCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many edges " + edgeCount);
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // place the arcs, with a cursor per vertex.
+        int[] cursors = Arrays.copyOf(offsets, vertexCount);
+        int[] arcTargets = new int[(int) arcCount];
+        double[] arcWeights = weights == null ? null : new double[(int) arcCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int u = sources[i];
+            int v = targets[i];
+            int e = cursors[u]++;
+            arcTargets[e] = v;
+            if (arcWeights != null) {
+                arcWeights[e] = weights[i];
+            }
+            if (!directed && u != v) {
+                e = cursors[v]++;
+                arcTargets[e] = u;
+                if (arcWeights != null) {
+                    arcWeights[e] = weights[i];
+                }
+            }
+        }
+        return new CsrGraph(vertexCount, directed, offsets, arcTargets, arcWeights);
+    }
+
+    private static void checkVertex(int v, int vertexCount) {
+        if (v < 0 || v >= vertexCount) {
+            throw new IllegalArgumentException("Vertex " + v + " is not in [0, " + vertexCount + ")");
+        }
+    }
+
+    /**
+     * Return the number of vertices.
+     *
+     * @return number of vertices.
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Return the number of arcs; each edge of an undirected graph is two arcs,
+     * except self loops.
+     *
+     * @return number of arcs.
+     */
+    public int getArcCount() {
+        return this.targets.length;
+    }
+
+    /**
+     * Return true if the graph is directed.
+     *
+     * @return true if the graph is directed.
+     */
+    public boolean isDirected() {
+        return this.directed;
+    }
+
+    /**
+     * Return true if the arcs have weights.
+     *
+     * @return true if the arcs have weights.
+     */
+    public boolean isWeighted() {
+        return this.weights != null;
+    }
+
+    /**
+     * Return the number of arcs from a vertex.
+     *
+     * @param v vertex.
+     * @return out degree.
+     */
+    public int degree(int v) {
+        return this.offsets[v + 1] - this.offsets[v];
+    }
+
+    /**
+     * Return the index of the first arc of a vertex; offset(v + 1) is the end.
+     *
+     * @param v vertex, up to vertex count.
+     * @return index of arc.
+     */
+    public int offset(int v) {
+        return this.offsets[v];
+    }
+
+    /**
+     * Return the target vertex of an arc.
+     *
+     * @param e index of arc.
+     * @return target vertex.
+     */
+    public int target(int e) {
+        return this.targets[e];
+    }
+
+    /**
+     * Return the weight of an arc, 1 if the graph is unweighted.
+     *
+     * @param e index of arc.
+     * @return weight.
+     */
+    public double weight(int e) {
+        return this.weights == null ? 1.0 : this.weights[e];
+    }
+
+    /**
+     * Return a copy of the targets of the arcs from a vertex.
+     *
+     * @param v vertex.
+     * @return neighbors.
+     */
+    public int[] neighbors(int v) {
+        return Arrays.copyOfRange(this.targets, this.offsets[v], this.offsets[v + 1]);
+    }
+
+    /**
+     * Return true if there is an arc from u to v.
+     *
+     * @param u source vertex.
+     * @param v target vertex.
+     * @return true if there is an arc.
+     */
+    public boolean hasArc(int u, int v) {
+        for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++) {
+            if (this.targets[e] == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the graph with every arc reversed; an undirected graph is its own
+     * transpose. The arcs of each vertex of the result are ordered by source.
+     *
+     * @return transposed graph.
+     */
+    public CsrGraph transpose() {
+        if (!this.directed) {
+            return this;
+        }
+        int[] reversedOffsets = new int[this.vertexCount + 1];
+        for (int e = 0; e < this.targets.length; e++) {
+            reversedOffsets[this.targets[e] + 1]++;
+        }
+        for (int v = 0; v < this.vertexCount; v++) {
+            reversedOffsets[v + 1] += reversedOffsets[v];
+        }
+
+        int[] cursors = Arrays.copyOf(reversedOffsets, this.vertexCount);
+        int[] reversedTargets = new int[this.targets.length];
+        double[] reversedWeights = this.weights == null ? null : new double[this.weights.length];
+        for (int u = 0; u < this.vertexCount; u++) {
+            for (int e = this.offsets[u]; e < this.offsets[u + 1]; e++) {
+                int r = cursors[this.targets[e]]++;
+                reversedTargets[r] = u;
+                if (reversedWeights != null) {
+                    reversedWeights[r] = this.weights[e];
+                }
+            }
+        }
+        return new CsrGraph(this.vertexCount, true, reversedOffsets, reversedTargets, reversedWeights);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of edges in primitive arrays, to build a CsrGraph when the
+ * number of edges is not known up front.
+ */
+public class EdgeList {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private int size = 0;
+    private int maxVertex = -1;
+
+    /**
+     * Construct a empty list of unweighted edges.
+     */
+    public EdgeList() {
+        this(false);
+    }
+
+    /**
+     * Construct a empty list.
+     *
+     * @param weighted true to have weighted edges.
+     */
+    public EdgeList(boolean weighted) {
+        this.sources = new int[INITIAL_CAPACITY];
+        this.targets = new int[INITIAL_CAPACITY];
+        this.weights = weighted ? new double[INITIAL_CAPACITY] : null;
+    }
+
+    /**
+     * Return the number of edges.
+     *
+     * @return number of edges.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add an edge, with weight 1 if the edges are weighted.
+     *
+     * @param source source vertex.
+     * @param target target vertex.
+     */
+    public void add(int source, int target) {
+        this.add(source, target, 1.0);
+    }
+
+    /**
+     * Add an edge.
+     *
+     * @param source source vertex.
+     * @param target target vertex.
+     * @param weight weight, ignored if the edges are unweighted.
+     * @throws IllegalArgumentException if a vertex is negative.
+     */
+    public void add(int source, int target, double weight) {
+        if (source < 0 || target < 0) {
+            throw new IllegalArgumentException("Negative vertex in edge " + source + " to " + target);
+        }
+        if (this.size == this.sources.length) {
+            int capacity = this.size + (this.size >> 1);
+            this.sources = Arrays.copyOf(this.sources, capacity);
+            this.targets = Arrays.copyOf(this.targets, capacity);
+            if (this.weights != null) {
+                this.weights = Arrays.copyOf(this.weights, capacity);
+            }
+        }
+        this.sources[this.size] = source;
+        this.targets[this.size] = target;
+        if (this.weights != null) {
+            this.weights[this.size] = weight;
+        }
+        this.size++;
+        this.maxVertex = Math.max(this.maxVertex, Math.max(source, target));
+    }
+
+    /**
+     * Return a graph of the edges, with vertices up to the largest vertex of
+     * the edges.
+     *
+     * @param directed false to have an undirected graph.
+     * @return graph.
+     */
+    public CsrGraph toGraph(boolean directed) {
+        return this.toGraph(this.maxVertex + 1, directed);
+    }
+
+    /**
+     * Return a graph of the edges.
+     *
+     * @param vertexCount number of vertices.
+     * @param directed    false to have an undirected graph.
+     * @return graph.
+     * @throws IllegalArgumentException if a vertex is out of range.
+     */
+    public CsrGraph toGraph(int vertexCount, boolean directed) {
+        return CsrGraph.fromEdges(vertexCount, this.sources, this.targets, this.weights, this.size, directed);
+    }
+}
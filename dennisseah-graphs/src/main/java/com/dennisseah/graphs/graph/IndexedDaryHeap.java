@@ -0,0 +1,224 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min heap of int items 0 to capacity - 1 with double keys, in primitive
+ * arrays. The position of every item in the heap is kept, so that the key of
+ * an item can be decreased in place; no operation allocates. Each node has
+ * arity children, which makes the heap shallower than a binary heap and
+ * decrease key cheaper, at the cost of more comparisons per poll.
+ */
+public class IndexedDaryHeap {
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] positions;
+    private final double[] keys;
+    private int size = 0;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param capacity number of items.
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param capacity number of items.
+     * @param arity    number of children of a node, at least 2.
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2.");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    /**
+     * Return the number of items in the heap.
+     *
+     * @return number of items.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return true if the heap is empty.
+     *
+     * @return true if the heap is empty.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Return true if an item is in the heap.
+     *
+     * @param item item.
+     * @return true if the item is in the heap.
+     */
+    public boolean contains(int item) {
+        return this.positions[item] >= 0;
+    }
+
+    /**
+     * Return the key of an item in the heap.
+     *
+     * @param item item.
+     * @return key.
+     * @throws NoSuchElementException if the item is not in the heap.
+     */
+    public double getKey(int item) {
+        if (!this.contains(item)) {
+            throw new NoSuchElementException("Item " + item + " is not in the heap.");
+        }
+        return this.keys[item];
+    }
+
+    /**
+     * Insert an item, or decrease its key if it is in the heap with a larger
+     * key.
+     *
+     * @param item item.
+     * @param key  key.
+     * @return true if the item is inserted or its key decreased.
+     */
+    public boolean offer(int item, double key) {
+        int position = this.positions[item];
+        if (position < 0) {
+            position = this.size++;
+        } else if (key >= this.keys[item]) {
+            return false;
+        }
+        this.keys[item] = key;
+        this.siftUp(item, position);
+        return true;
+    }
+
+    /**
+     * Return the item with the smallest key.
+     *
+     * @return item.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int peek() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        return this.heap[0];
+    }
+
+    /**
+     * Remove and return the item with the smallest key.
+     *
+     * @return item.
+     * @throws NoSuchElementException if the heap is empty.
+     */
+    public int poll() {
+        int top = this.peek();
+        this.positions[top] = -1;
+        int last = this.heap[--this.size];
+        if (this.size > 0) {
+            this.siftDown(last, 0);
+        }
+        return top;
+    }
+
+    /**
+     * Remove every item.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.heap[i]] = -1;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Move the hole at position up until item fits, and place item.
+     */
+    private void siftUp(int item, int position) {
+        double key = this.keys[item];
+        int hole = position;
+        while (hole > 0) {
+            int parent = (hole - 1) / this.arity;
+            int parentItem = this.heap[parent];
+            if (this.keys[parentItem] <= key) {
+                break;
+            }
+            this.place(parentItem, hole);
+            hole = parent;
+        }
+        this.place(item, hole);
+    }
+
+    /**
+     * Move the hole at position down until item fits, and place item.
+     */
+    private void siftDown(int item, int position) {
+        double key = this.keys[item];
+        int hole = position;
+        while (true) {
+            int first = hole * this.arity + 1;
+            if (first >= this.size) {
+                break;
+            }
+            int end = Math.min(first + this.arity, this.size);
+            int smallest = first;
+            double smallestKey = this.keys[this.heap[first]];
+            for (int c = first + 1; c < end; c++) {
+                double childKey = this.keys[this.heap[c]];
+                if (childKey < smallestKey) {
+                    smallest = c;
+                    smallestKey = childKey;
+                }
+            }
+            if (smallestKey >= key) {
+                break;
+            }
+            this.place(this.heap[smallest], hole);
+            hole = smallest;
+        }
+        this.place(item, hole);
+    }
+
+    private void place(int item, int position) {
+        this.heap[position] = item;
+        this.positions[item] = position;
+    }
+}
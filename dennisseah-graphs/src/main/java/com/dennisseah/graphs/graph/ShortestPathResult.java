@@ -0,0 +1,104 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+/**
+ * Result of a single source ShortestPaths query.
+ */
+public class ShortestPathResult {
+    private final int source;
+    private final double[] distances;
+    private final int[] parents;
+
+    ShortestPathResult(int source, double[] distances, int[] parents) {
+        this.source = source;
+        this.distances = distances;
+        this.parents = parents;
+    }
+
+    /**
+     * Return the source vertex.
+     *
+     * @return source vertex.
+     */
+    public int getSource() {
+        return this.source;
+    }
+
+    /**
+     * Return the length of a shortest path from the source to a vertex,
+     * infinity if the vertex is not reachable.
+     *
+     * @param v vertex.
+     * @return distance.
+     */
+    public double getDistance(int v) {
+        return this.distances[v];
+    }
+
+    /**
+     * Return the vertex before a vertex on a shortest path from the source, -1
+     * for the source and for vertices that are not reachable.
+     *
+     * @param v vertex.
+     * @return parent vertex.
+     */
+    public int getParent(int v) {
+        return this.parents[v];
+    }
+
+    /**
+     * Return true if a vertex is reachable from the source.
+     *
+     * @param v vertex.
+     * @return true if the vertex is reachable.
+     */
+    public boolean isReachable(int v) {
+        return this.distances[v] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Return the vertices of a shortest path from the source to a vertex.
+     *
+     * @param target target vertex.
+     * @return vertices from the source to the target, empty if the target is not
+     *         reachable.
+     */
+    public int[] path(int target) {
+        if (!this.isReachable(target)) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = target; v != this.source; v = this.parents[v]) {
+            length++;
+        }
+        int[] vertices = new int[length];
+        int v = target;
+        for (int i = length - 1; i >= 0; i--) {
+            vertices[i] = v;
+            v = this.parents[v];
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,382 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+
+/**
+ * Single source shortest paths of a CsrGraph with non negative weights; an
+ * unweighted graph has weight 1 on every arc.
+ * 
+ * dijkstra keeps the tentative distances in an IndexedDaryHeap, so a query
+ * allocates its result and heap once and nothing per relaxation.
+ * 
+ * deltaStepping keeps vertices in buckets of width delta, and relaxes the arcs
+ * of a bucket in parallel; light arcs (weight up to delta) repeatedly, until
+ * the bucket is settled, then heavy arcs once. Only the buckets that have
+ * vertices exist, so arcs much heavier than delta skip the empty buckets.
+ * 
+ * treeDijkstra uses a BinarySearchTree of (distance, vertex) as the priority
+ * queue, for comparison; it allocates a node per relaxation.
+ */
+public class ShortestPaths {
+    private static final int CHUNK_VERTICES = 256;
+
+    private final CsrGraph graph;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param graph graph.
+     * @throws IllegalArgumentException if there are negative weights.
+     */
+    public ShortestPaths(CsrGraph graph) {
+        if (graph.weights != null) {
+            for (double weight : graph.weights) {
+                if (!(weight >= 0)) {
+                    throw new IllegalArgumentException("Weight " + weight + " is not a non negative number.");
+                }
+            }
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * Return the shortest paths from a source to every vertex.
+     *
+     * @param source source vertex.
+     * @return result.
+     */
+    public ShortestPathResult dijkstra(int source) {
+        return this.dijkstra(source, -1);
+    }
+
+    /**
+     * Return the shortest paths from a source, stopping once the target is
+     * settled. The distances of vertices that are further than the target may
+     * be larger than the shortest.
+     *
+     * @param source source vertex.
+     * @param target target vertex, -1 for every vertex.
+     * @return result.
+     */
+    public ShortestPathResult dijkstra(int source, int target) {
+        this.checkVertex(source);
+        double[] distances = this.initialDistances();
+        int[] parents = this.initialParents();
+        IndexedDaryHeap heap = new IndexedDaryHeap(this.graph.vertexCount);
+        int[] offsets = this.graph.offsets;
+        int[] targets = this.graph.targets;
+
+        distances[source] = 0;
+        heap.offer(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            if (u == target) {
+                break;
+            }
+            double du = distances[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double dv = du + this.graph.weight(e);
+                if (dv < distances[v]) {
+                    distances[v] = dv;
+                    parents[v] = u;
+                    heap.offer(v, dv);
+                }
+            }
+        }
+        return new ShortestPathResult(source, distances, parents);
+    }
+
+    /**
+     * Return the shortest paths from a source to every vertex, with
+     * delta-stepping in a pool.
+     *
+     * @param source source vertex.
+     * @param delta  width of a bucket, e.g. the average weight.
+     * @param pool   pool to run the tasks.
+     * @return result.
+     */
+    public ShortestPathResult deltaStepping(int source, double delta, ForkJoinPool pool) {
+        this.checkVertex(source);
+        if (!(delta > 0)) {
+            throw new IllegalArgumentException("Delta " + delta + " must be positive.");
+        }
+        int n = this.graph.vertexCount;
+        // non negative doubles order as their bits do.
+        AtomicLongArray bits = new AtomicLongArray(n);
+        long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            bits.set(v, infinity);
+        }
+        bits.set(source, Double.doubleToLongBits(0));
+
+        TreeMap<Long, IntList> buckets = new TreeMap<>();
+        addToBucket(buckets, source, 0, delta);
+        int[] marks = new int[n];
+        int phase = 0;
+        IntList frontier = new IntList();
+        IntList settled = new IntList();
+
+        while (!buckets.isEmpty()) {
+            // relaxations from bucket i only add to bucket i and above.
+            long i = buckets.firstKey();
+            IntList bucket;
+            settled.clear();
+            while ((bucket = buckets.remove(i)) != null) {
+                // a vertex may be in the bucket more than once, or have moved
+                // to a lower bucket.
+                phase++;
+                frontier.clear();
+                for (int k = 0; k < bucket.size; k++) {
+                    int v = bucket.values[k];
+                    if (marks[v] != phase && bucketOf(Double.longBitsToDouble(bits.get(v)), delta) == i) {
+                        marks[v] = phase;
+                        frontier.add(v);
+                    }
+                }
+                settled.addAll(frontier);
+                IntList improved = pool.invoke(new RelaxTask(bits, frontier, 0, frontier.size, delta, true));
+                this.addAll(buckets, improved, bits, delta);
+            }
+            IntList improved = pool.invoke(new RelaxTask(bits, settled, 0, settled.size, delta, false));
+            this.addAll(buckets, improved, bits, delta);
+        }
+
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++) {
+            distances[v] = Double.longBitsToDouble(bits.get(v));
+        }
+        return new ShortestPathResult(source, distances, this.parentsOf(source, distances));
+    }
+
+    /**
+     * Return the shortest paths from a source to every vertex, with a
+     * BinarySearchTree as the priority queue.
+     *
+     * @param source source vertex.
+     * @return result.
+     */
+    public ShortestPathResult treeDijkstra(int source) {
+        this.checkVertex(source);
+        double[] distances = this.initialDistances();
+        int[] parents = this.initialParents();
+        Candidate[] queued = new Candidate[this.graph.vertexCount];
+        BinarySearchTree<Candidate> queue = new BinarySearchTree<>(true);
+
+        distances[source] = 0;
+        queued[source] = new Candidate(0, source);
+        queue.insert(queued[source]);
+        Candidate candidate;
+        while ((candidate = queue.pollFirst()) != null) {
+            int u = candidate.vertex;
+            queued[u] = null;
+            for (int e = this.graph.offsets[u]; e < this.graph.offsets[u + 1]; e++) {
+                int v = this.graph.targets[e];
+                double dv = candidate.distance + this.graph.weight(e);
+                if (dv < distances[v]) {
+                    // decrease key is a remove and an insert.
+                    if (queued[v] != null) {
+                        queue.remove(queued[v]);
+                    }
+                    distances[v] = dv;
+                    parents[v] = u;
+                    queued[v] = new Candidate(dv, v);
+                    queue.insert(queued[v]);
+                }
+            }
+        }
+        return new ShortestPathResult(source, distances, parents);
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= this.graph.vertexCount) {
+            throw new IllegalArgumentException("Vertex " + v + " is not in [0, " + this.graph.vertexCount + ")");
+        }
+    }
+
+    private double[] initialDistances() {
+        double[] distances = new double[this.graph.vertexCount];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        return distances;
+    }
+
+    private int[] initialParents() {
+        int[] parents = new int[this.graph.vertexCount];
+        Arrays.fill(parents, -1);
+        return parents;
+    }
+
+    /**
+     * Return a parent of every reached vertex, an arc that ends a shortest
+     * path to it. Concurrent relaxations cannot record parents in the order of
+     * their distances, so they are found once the distances are final, by a
+     * breadth first search from the source over the arcs on shortest paths; a
+     * vertex gets its parent when it is first reached, so arcs of zero weight
+     * cannot make the parents a cycle.
+     */
+    private int[] parentsOf(int source, double[] distances) {
+        int[] parents = this.initialParents();
+        boolean[] reached = new boolean[this.graph.vertexCount];
+        IntList queue = new IntList();
+        queue.add(source);
+        reached[source] = true;
+        for (int i = 0; i < queue.size; i++) {
+            int u = queue.values[i];
+            for (int e = this.graph.offsets[u]; e < this.graph.offsets[u + 1]; e++) {
+                int v = this.graph.targets[e];
+                if (!reached[v] && distances[u] + this.graph.weight(e) == distances[v]) {
+                    reached[v] = true;
+                    parents[v] = u;
+                    queue.add(v);
+                }
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * Return the bucket of a distance. The cast saturates, so the distances
+     * beyond Long.MAX_VALUE buckets share the last bucket, which is relaxed
+     * until no distance in it improves.
+     */
+    private static long bucketOf(double distance, double delta) {
+        return (long) (distance / delta);
+    }
+
+    private static void addToBucket(TreeMap<Long, IntList> buckets, int v, double distance, double delta) {
+        long b = bucketOf(distance, delta);
+        IntList bucket = buckets.get(b);
+        if (bucket == null) {
+            bucket = new IntList();
+            buckets.put(b, bucket);
+        }
+        bucket.add(v);
+    }
+
+    private void addAll(TreeMap<Long, IntList> buckets, IntList improved, AtomicLongArray bits, double delta) {
+        for (int k = 0; k < improved.size; k++) {
+            int v = improved.values[k];
+            addToBucket(buckets, v, Double.longBitsToDouble(bits.get(v)), delta);
+        }
+    }
+
+    /**
+     * Relax the light or heavy arcs of a range of vertices; returns the
+     * vertices whose distance decreased.
+     */
+    @SuppressWarnings("serial")
+    private class RelaxTask extends RecursiveTask<IntList> {
+        private final AtomicLongArray bits;
+        private final IntList vertices;
+        private final int from;
+        private final int to;
+        private final double delta;
+        private final boolean light;
+
+        RelaxTask(AtomicLongArray bits, IntList vertices, int from, int to, double delta, boolean light) {
+            this.bits = bits;
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (this.to - this.from > CHUNK_VERTICES) {
+                int middle = (this.from + this.to) >>> 1;
+                RelaxTask left = new RelaxTask(this.bits, this.vertices, this.from, middle, this.delta, this.light);
+                left.fork();
+                IntList right = new RelaxTask(this.bits, this.vertices, middle, this.to, this.delta, this.light)
+                        .compute();
+                IntList improved = left.join();
+                improved.addAll(right);
+                return improved;
+            }
+            IntList improved = new IntList();
+            for (int k = this.from; k < this.to; k++) {
+                int u = this.vertices.values[k];
+                double du = Double.longBitsToDouble(this.bits.get(u));
+                for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                    double weight = graph.weight(e);
+                    if ((weight <= this.delta) == this.light && this.decrease(graph.targets[e], du + weight)) {
+                        improved.add(graph.targets[e]);
+                    }
+                }
+            }
+            return improved;
+        }
+
+        private boolean decrease(int v, double distance) {
+            long update = Double.doubleToLongBits(distance);
+            while (true) {
+                long current = this.bits.get(v);
+                if (update >= current) {
+                    return false;
+                }
+                if (this.bits.compareAndSet(v, current, update)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Entry of the tree priority queue, ordered by distance then vertex.
+     */
+    private static class Candidate implements Comparable<Candidate> {
+        final double distance;
+        final int vertex;
+
+        Candidate(double distance, int vertex) {
+            this.distance = distance;
+            this.vertex = vertex;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int c = Double.compare(this.distance, other.distance);
+            return c != 0 ? c : Integer.compare(this.vertex, other.vertex);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Candidate && this.compareTo((Candidate) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.valueOf(this.distance).hashCode() + this.vertex;
+        }
+    }
+}
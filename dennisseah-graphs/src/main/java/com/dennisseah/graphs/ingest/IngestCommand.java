@@ -0,0 +1,90 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.ingest;
+
+/**
+ * Insert or remove command of an ingest stream.
+ */
+public final class IngestCommand<T extends Comparable<T>> {
+    /**
+     * Operation of a command.
+     */
+    public enum Operation {
+        INSERT, REMOVE
+    }
+
+    private final Operation operation;
+    private final T value;
+
+    private IngestCommand(Operation operation, T value) {
+        if (value == null) {
+            throw new NullPointerException("Value is required.");
+        }
+        this.operation = operation;
+        this.value = value;
+    }
+
+    /**
+     * Return a command to insert a value.
+     *
+     * @param value value.
+     * @return command.
+     */
+    public static <T extends Comparable<T>> IngestCommand<T> insert(T value) {
+        return new IngestCommand<>(Operation.INSERT, value);
+    }
+
+    /**
+     * Return a command to remove all nodes of a value.
+     *
+     * @param value value.
+     * @return command.
+     */
+    public static <T extends Comparable<T>> IngestCommand<T> remove(T value) {
+        return new IngestCommand<>(Operation.REMOVE, value);
+    }
+
+    /**
+     * Return operation.
+     *
+     * @return operation.
+     */
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    /**
+     * Return value.
+     *
+     * @return value.
+     */
+    public T getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return this.operation + " " + this.value;
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.ingest;
+
+/**
+ * Completion signal of a batch of commands that is applied to the tree.
+ */
+public final class IngestResult {
+    private final long batch;
+    private final int commandCount;
+    private final int removedValueCount;
+    private final int insertedValueCount;
+    private final long appliedCommandCount;
+
+    IngestResult(long batch, int commandCount, int removedValueCount, int insertedValueCount,
+            long appliedCommandCount) {
+        this.batch = batch;
+        this.commandCount = commandCount;
+        this.removedValueCount = removedValueCount;
+        this.insertedValueCount = insertedValueCount;
+        this.appliedCommandCount = appliedCommandCount;
+    }
+
+    /**
+     * Return the number of the batch, starting at 1.
+     *
+     * @return batch number.
+     */
+    public long getBatch() {
+        return this.batch;
+    }
+
+    /**
+     * Return the number of commands of the batch.
+     *
+     * @return number of commands.
+     */
+    public int getCommandCount() {
+        return this.commandCount;
+    }
+
+    /**
+     * Return the number of distinct values removed, after commands on the same
+     * value are coalesced.
+     *
+     * @return number of removed values.
+     */
+    public int getRemovedValueCount() {
+        return this.removedValueCount;
+    }
+
+    /**
+     * Return the number of values inserted, after commands on the same value
+     * are coalesced.
+     *
+     * @return number of inserted values.
+     */
+    public int getInsertedValueCount() {
+        return this.insertedValueCount;
+    }
+
+    /**
+     * Return the number of commands applied so far, including this batch. The
+     * commands received up to this number are visible in the tree.
+     *
+     * @return number of applied commands.
+     */
+    public long getAppliedCommandCount() {
+        return this.appliedCommandCount;
+    }
+
+    @Override
+    public String toString() {
+        return "batch " + this.batch + ": " + this.commandCount + " commands, " + this.removedValueCount
+                + " removed, " + this.insertedValueCount + " inserted";
+    }
+}
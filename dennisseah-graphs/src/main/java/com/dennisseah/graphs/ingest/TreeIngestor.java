@@ -0,0 +1,278 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.ingest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.common.ValueUtils;
+
+/**
+ * Processor that applies a stream of insert and remove commands to a tree in
+ * batches, and publishes an IngestResult for each batch that is applied.
+ * 
+ * At most batchSize commands are requested from the publisher before a batch
+ * is applied, so the buffer is bounded and a SubmissionPublisher in front of
+ * the ingestor blocks (or drops, with offer) when the tree falls behind. A
+ * batch is applied when it is full, when the oldest command has waited
+ * lingerMillis, on flush, or when the stream ends. Commands on the same value
+ * are coalesced into at most one removal followed by the inserts after it,
+ * and the batch is applied with BinarySearchTree.applyBatch while holding the
+ * lock of the tree; readers in other threads synchronize on the tree as well.
+ * 
+ * Results are published in order; a slow result subscriber slows down the
+ * ingestor, and through it the publishers.
+ */
+public class TreeIngestor<T extends Comparable<T>>
+        implements Flow.Processor<IngestCommand<T>, IngestResult>, AutoCloseable {
+    private final BinarySearchTree<T> tree;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final ForkJoinPool pool;
+    private final SubmissionPublisher<IngestResult> results = new SubmissionPublisher<>();
+    private final ScheduledExecutorService scheduler;
+    private final List<IngestCommand<T>> buffer;
+    private Flow.Subscription subscription;
+    private ScheduledFuture<?> lingerTask;
+    private boolean done = false;
+    private long batchCount = 0;
+    private long appliedCommandCount = 0;
+
+    private final Comparator<IngestCommand<T>> byValue = new Comparator<IngestCommand<T>>() {
+        @Override
+        public int compare(IngestCommand<T> a, IngestCommand<T> b) {
+            return a.getValue().compareTo(b.getValue());
+        }
+    };
+
+    /**
+     * Instantiate an instance of this class. Batches are applied in the thread
+     * that delivers the commands.
+     *
+     * @param tree         tree to update.
+     * @param batchSize    maximum number of commands of a batch.
+     * @param lingerMillis maximum time that a command waits for its batch to
+     *                     fill up, 0 to wait until the batch is full.
+     */
+    public TreeIngestor(BinarySearchTree<T> tree, int batchSize, long lingerMillis) {
+        this(tree, batchSize, lingerMillis, null);
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree         tree to update.
+     * @param batchSize    maximum number of commands of a batch.
+     * @param lingerMillis maximum time that a command waits for its batch to
+     *                     fill up, 0 to wait until the batch is full.
+     * @param pool         pool to apply the batches, null to apply them in the
+     *                     thread that delivers the commands.
+     */
+    public TreeIngestor(BinarySearchTree<T> tree, int batchSize, long lingerMillis, ForkJoinPool pool) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("Linger time must not be negative.");
+        }
+        this.tree = tree;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.pool = pool;
+        this.buffer = new ArrayList<>(batchSize);
+        this.scheduler = lingerMillis == 0 ? null : Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "tree-ingestor-linger");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super IngestResult> subscriber) {
+        this.results.subscribe(subscriber);
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null || this.done) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(this.batchSize);
+    }
+
+    @Override
+    public synchronized void onNext(IngestCommand<T> command) {
+        if (command == null) {
+            throw new NullPointerException("Command is required.");
+        }
+        if (this.done) {
+            return;
+        }
+        this.buffer.add(command);
+        if (this.buffer.size() >= this.batchSize) {
+            this.applyBuffer();
+        } else if (this.buffer.size() == 1 && this.scheduler != null) {
+            this.lingerTask = this.scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, this.lingerMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Apply the commands that were received and close the results with the
+     * error of the publisher.
+     *
+     * @param throwable error.
+     */
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        if (!this.done) {
+            this.applyBuffer();
+            this.finish();
+            this.results.closeExceptionally(throwable);
+        }
+    }
+
+    /**
+     * Apply the commands that were received and close the results.
+     */
+    @Override
+    public synchronized void onComplete() {
+        if (!this.done) {
+            this.applyBuffer();
+            this.finish();
+            this.results.close();
+        }
+    }
+
+    /**
+     * Apply the commands that were received without waiting for the batch to
+     * fill up.
+     */
+    public synchronized void flush() {
+        if (!this.done) {
+            this.applyBuffer();
+        }
+    }
+
+    /**
+     * Cancel the subscription, apply the commands that were received and close
+     * the results.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.subscription != null) {
+            this.subscription.cancel();
+        }
+        this.onComplete();
+    }
+
+    /**
+     * Return the number of commands applied so far.
+     *
+     * @return number of applied commands.
+     */
+    public synchronized long getAppliedCommandCount() {
+        return this.appliedCommandCount;
+    }
+
+    private void finish() {
+        this.done = true;
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Coalesce and apply the buffered commands, request as many commands as
+     * were applied, and publish the result.
+     */
+    private void applyBuffer() {
+        if (this.lingerTask != null) {
+            this.lingerTask.cancel(false);
+            this.lingerTask = null;
+        }
+        int count = this.buffer.size();
+        if (count == 0) {
+            return;
+        }
+
+        // stable, so the commands on a value stay in the order received.
+        Collections.sort(this.buffer, this.byValue);
+        List<T> removals = new ArrayList<>();
+        List<T> insertions = new ArrayList<>();
+        int i = 0;
+        while (i < count) {
+            T value = this.buffer.get(i).getValue();
+            int lastRemove = -1;
+            int j = i;
+            while (j < count && this.buffer.get(j).getValue().compareTo(value) == 0) {
+                if (this.buffer.get(j).getOperation() == IngestCommand.Operation.REMOVE) {
+                    lastRemove = j;
+                }
+                j++;
+            }
+            if (lastRemove >= 0) {
+                removals.add(value);
+            }
+            for (int k = lastRemove < 0 ? i : lastRemove + 1; k < j; k++) {
+                insertions.add(value);
+            }
+            i = j;
+        }
+        this.buffer.clear();
+
+        synchronized (this.tree) {
+            this.tree.applyBatch(removals.toArray(ValueUtils.<T>newArray(removals.size())),
+                    insertions.toArray(ValueUtils.<T>newArray(insertions.size())), this.pool);
+        }
+        this.appliedCommandCount += count;
+        this.batchCount++;
+
+        if (this.subscription != null && !this.done) {
+            this.subscription.request(count);
+        }
+        this.results.submit(new IngestResult(this.batchCount, count, removals.size(), insertions.size(),
+                this.appliedCommandCount));
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.lsm;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Bloom filter of encoded keys. With 10 bits per key and 7 hashes, about 1% of
+ * the lookups of absent keys read the run.
+ */
+class BloomFilter {
+    static final int BITS_PER_KEY = 10;
+    static final int HASH_COUNT = 7;
+
+    private final long[] bits;
+    private final int hashCount;
+
+    /**
+     * Instantiate an empty filter.
+     *
+     * @param expectedCount expected number of keys.
+     */
+    BloomFilter(long expectedCount) {
+        long bitCount = Math.max(64, expectedCount * BITS_PER_KEY);
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (bitCount + 63) / 64)];
+        this.hashCount = HASH_COUNT;
+    }
+
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Add a key.
+     *
+     * @param key encoded key.
+     */
+    void add(byte[] key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long bitCount = this.bits.length * 64L;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = ((h1 + i * h2) & 0xffffffffL) % bitCount;
+            this.bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Return false if the key is certainly not added.
+     *
+     * @param key encoded key.
+     * @return false if the key is not added, true if it may be added.
+     */
+    boolean mightContain(byte[] key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long bitCount = this.bits.length * 64L;
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = ((h1 + i * h2) & 0xffffffffL) % bitCount;
+            if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the filter.
+     *
+     * @param output output.
+     * @throws IOException if the filter cannot be written.
+     */
+    void write(DataOutput output) throws IOException {
+        output.writeInt(this.hashCount);
+        output.writeInt(this.bits.length);
+        for (long word : this.bits) {
+            output.writeLong(word);
+        }
+    }
+
+    /**
+     * Return the number of bytes that write produces.
+     *
+     * @return number of bytes.
+     */
+    long serializedSize() {
+        return 8L + this.bits.length * 8L;
+    }
+
+    /**
+     * Read a filter that is written by write.
+     *
+     * @param buffer buffer positioned at the filter.
+     * @return the filter.
+     */
+    static BloomFilter read(ByteBuffer buffer) {
+        int hashCount = buffer.getInt();
+        long[] bits = new long[buffer.getInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+        }
+        return new BloomFilter(bits, hashCount);
+    }
+
+    /**
+     * FNV-1a followed by the murmur3 finalizer, which spreads the bits over
+     * both halves that are used as the two hashes.
+     */
+    private static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
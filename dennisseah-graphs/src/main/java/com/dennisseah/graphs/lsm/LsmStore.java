@@ -0,0 +1,586 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.lsm;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.ScapegoatTree;
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Ordered set of keys that is larger than the heap. New keys and removals go
+ * into a ScapegoatTree (the memtable), which stays balanced when keys arrive in
+ * order; when it has memtableLimit entries it
+ * is written to an immutable sorted run file in the directory. Lookups check
+ * the memtable and then the runs from newest to oldest, where a removal is a
+ * tombstone entry that hides the key in older runs. When there are
+ * compactionThreshold runs, a background thread merges them into one run and
+ * drops the tombstones. If a background compaction fails, writes and flushes
+ * throw its error until a compaction succeeds, e.g. a call to compact.
+ * 
+ * Run files are named run-MIN-MAX after the flush sequences they cover, so
+ * that a compaction output that is complete before a crash supersedes its
+ * inputs on recovery. The memtable is only written on flush and close. This
+ * class is thread safe.
+ */
+public class LsmStore<T extends Comparable<T>> implements Closeable {
+    public static final int DEFAULT_MEMTABLE_LIMIT = 4096;
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4;
+
+    private static final String RUN_PREFIX = "run-";
+
+    private final Path directory;
+    private final ValueCodec<T> codec;
+    private final int memtableLimit;
+    private final int compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object compactionLock = new Object();
+    private final ExecutorService compactor;
+    private ScapegoatTree<LsmEntry<T>> memtable = new ScapegoatTree<>(true);
+    private int memtableSize = 0;
+    private volatile List<SortedRun<T>> runs = new ArrayList<>();
+    private long nextSequence = 1;
+    private boolean compactionScheduled = false;
+    private boolean closed = false;
+    private volatile IOException compactionFailure;
+
+    /**
+     * Instantiate an instance of this class with the default limits.
+     *
+     * @param directory directory of the run files.
+     * @param codec     codec of the keys.
+     * @throws IOException if the run files cannot be read.
+     */
+    public LsmStore(Path directory, ValueCodec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_MEMTABLE_LIMIT, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Instantiate an instance of this class, and open the runs in the
+     * directory.
+     *
+     * @param directory           directory of the run files.
+     * @param codec               codec of the keys.
+     * @param memtableLimit       number of memtable entries that triggers a
+     *                            flush.
+     * @param compactionThreshold number of runs that triggers a compaction.
+     * @throws IOException if the run files cannot be read.
+     */
+    public LsmStore(Path directory, ValueCodec<T> codec, int memtableLimit, int compactionThreshold)
+            throws IOException {
+        if (memtableLimit < 1 || compactionThreshold < 2) {
+            throw new IllegalArgumentException("Memtable limit must be positive and compaction threshold above 1.");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.memtableLimit = memtableLimit;
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "lsm-compaction");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        Files.createDirectories(directory);
+        this.recover();
+    }
+
+    /**
+     * Return the number of run files.
+     *
+     * @return number of runs.
+     */
+    public int getRunCount() {
+        return this.runs.size();
+    }
+
+    /**
+     * Insert a key.
+     *
+     * @param key key.
+     * @throws IOException if the memtable cannot be flushed.
+     */
+    public void insert(T key) throws IOException {
+        this.write(key, false);
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key key.
+     * @throws IOException if the memtable cannot be flushed.
+     */
+    public void remove(T key) throws IOException {
+        this.write(key, true);
+    }
+
+    /**
+     * Return true if the store has a key.
+     *
+     * @param key key.
+     * @return true if the key is in the store.
+     * @throws IOException if a run cannot be read.
+     */
+    public boolean contains(T key) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            List<BinarySearchTreeNode<LsmEntry<T>>> nodes = this.memtable.find(new LsmEntry<>(key, false));
+            if (!nodes.isEmpty()) {
+                return !nodes.get(0).getValue().deleted;
+            }
+            for (SortedRun<T> run : this.runs) {
+                LsmEntry<T> entry = run.find(key);
+                if (entry != null) {
+                    return !entry.deleted;
+                }
+            }
+            return false;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the keys in [low, high] in ascending order. The memtable and the
+     * runs are merged, with the newest entry of a key taking precedence.
+     *
+     * @param low  smallest key, inclusive.
+     * @param high largest key, inclusive.
+     * @return keys in the range.
+     * @throws IOException if a run cannot be read.
+     */
+    public List<T> range(T low, T high) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            List<Iterator<LsmEntry<T>>> sources = new ArrayList<>();
+            sources.add(this.memtableRange(low, high).iterator());
+            for (SortedRun<T> run : this.runs) {
+                sources.add(run.iterator(low));
+            }
+
+            List<T> keys = new ArrayList<>();
+            Iterator<LsmEntry<T>> merged = new MergeIterator<>(sources);
+            while (merged.hasNext()) {
+                LsmEntry<T> entry = merged.next();
+                if (entry.key.compareTo(high) > 0) {
+                    break;
+                }
+                if (!entry.deleted) {
+                    keys.add(entry.key);
+                }
+            }
+            return keys;
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the memtable to a new run.
+     *
+     * @throws IOException if the run cannot be written.
+     */
+    public void flush() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.checkCompaction();
+            this.flushMemtable();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merge all runs into one run in the calling thread, and drop the
+     * tombstones. Reads and writes continue while the runs are merged.
+     *
+     * @throws IOException if the runs cannot be merged.
+     */
+    public void compact() throws IOException {
+        synchronized (this.compactionLock) {
+            List<SortedRun<T>> inputs = this.runs;
+            if (inputs.size() < 2) {
+                return;
+            }
+
+            List<Iterator<LsmEntry<T>>> sources = new ArrayList<>();
+            long expectedCount = 0;
+            for (SortedRun<T> run : inputs) {
+                sources.add(run.iterator(null));
+                expectedCount += run.getEntryCount();
+            }
+            long minSequence = inputs.get(inputs.size() - 1).getMinSequence();
+            long maxSequence = inputs.get(0).getMaxSequence();
+            Path file = this.runFile(minSequence, maxSequence);
+            SortedRun.write(file, new LiveEntries<>(new MergeIterator<>(sources)), expectedCount, this.codec);
+            SortedRun<T> output = SortedRun.open(file, minSequence, maxSequence, this.codec);
+
+            this.lock.writeLock().lock();
+            try {
+                // runs flushed during the merge are newer than the inputs.
+                List<SortedRun<T>> updated = new ArrayList<>(this.runs.subList(0, this.runs.size() - inputs.size()));
+                updated.add(output);
+                this.runs = updated;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            for (SortedRun<T> run : inputs) {
+                run.close();
+                Files.delete(run.getFile());
+            }
+            this.compactionFailure = null;
+        }
+    }
+
+    /**
+     * Return the error of the last background compaction, null if it
+     * succeeded.
+     *
+     * @return error, null if there is none.
+     */
+    public IOException getCompactionFailure() {
+        return this.compactionFailure;
+    }
+
+    /**
+     * Flush the memtable, wait for a running compaction, and close the runs.
+     *
+     * @throws IOException if the memtable cannot be flushed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.flushMemtable();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        this.compactor.shutdown();
+        try {
+            this.compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this.compactionLock) {
+            for (SortedRun<T> run : this.runs) {
+                run.close();
+            }
+        }
+    }
+
+    private void write(T key, boolean deleted) throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("Store is closed.");
+            }
+            this.checkCompaction();
+            LsmEntry<T> entry = new LsmEntry<>(key, deleted);
+            List<BinarySearchTreeNode<LsmEntry<T>>> nodes = this.memtable.find(entry);
+            if (nodes.isEmpty()) {
+                this.memtable.insert(entry);
+                if (++this.memtableSize >= this.memtableLimit) {
+                    this.flushMemtable();
+                }
+            } else {
+                nodes.get(0).getValue().deleted = deleted;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void checkCompaction() throws IOException {
+        IOException failure = this.compactionFailure;
+        if (failure != null) {
+            throw new IOException("Background compaction failed.", failure);
+        }
+    }
+
+    /**
+     * Write the memtable to a new run; the write lock is held.
+     */
+    private void flushMemtable() throws IOException {
+        if (this.memtableSize == 0) {
+            return;
+        }
+        List<LsmEntry<T>> entries = new ArrayList<>(this.memtableSize);
+        for (LsmEntry<T> entry : this.memtableRange(null, null)) {
+            // without older runs, there is nothing for a tombstone to hide.
+            if (!entry.deleted || !this.runs.isEmpty()) {
+                entries.add(entry);
+            }
+        }
+
+        long sequence = this.nextSequence++;
+        if (!entries.isEmpty()) {
+            Path file = this.runFile(sequence, sequence);
+            SortedRun.write(file, entries.iterator(), entries.size(), this.codec);
+            List<SortedRun<T>> updated = new ArrayList<>(this.runs.size() + 1);
+            updated.add(SortedRun.open(file, sequence, sequence, this.codec));
+            updated.addAll(this.runs);
+            this.runs = updated;
+        }
+        this.memtable = new ScapegoatTree<>(true);
+        this.memtableSize = 0;
+
+        if (this.runs.size() >= this.compactionThreshold && !this.compactionScheduled && !this.closed) {
+            this.compactionScheduled = true;
+            this.compactor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    lock.writeLock().lock();
+                    compactionScheduled = false;
+                    lock.writeLock().unlock();
+                    try {
+                        compact();
+                    } catch (IOException e) {
+                        // the inputs are kept; the error is thrown by the next
+                        // write until a compaction succeeds.
+                        compactionFailure = e;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Return the memtable entries in [low, high], a null bound is open; sub
+     * trees outside the range are not visited.
+     */
+    private List<LsmEntry<T>> memtableRange(T low, T high) {
+        List<LsmEntry<T>> entries = new ArrayList<>();
+        Deque<BinarySearchTreeNode<LsmEntry<T>>> stack = new ArrayDeque<>();
+        BinarySearchTreeNode<LsmEntry<T>> node = this.memtable.getRoot();
+        while (true) {
+            while (node != null) {
+                if (low != null && node.getValue().key.compareTo(low) < 0) {
+                    node = node.getRight();
+                } else {
+                    stack.push(node);
+                    node = node.getLeft();
+                }
+            }
+            if (stack.isEmpty()) {
+                break;
+            }
+            node = stack.pop();
+            if (high != null && node.getValue().key.compareTo(high) > 0) {
+                break;
+            }
+            entries.add(node.getValue());
+            node = node.getRight();
+        }
+        return entries;
+    }
+
+    private Path runFile(long minSequence, long maxSequence) {
+        return this.directory.resolve(RUN_PREFIX + minSequence + "-" + maxSequence);
+    }
+
+    /**
+     * Open the run files, newest first. A run whose sequences are covered by
+     * another run is an input of a compaction that completed before a crash,
+     * and is deleted along with temporary files.
+     */
+    private void recover() throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, RUN_PREFIX + "*")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file);
+                    continue;
+                }
+                String[] parts = name.substring(RUN_PREFIX.length()).split("-");
+                ranges.add(new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) });
+                files.add(file);
+            }
+        }
+
+        final List<SortedRun<T>> opened = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            boolean covered = false;
+            for (int j = 0; j < files.size() && !covered; j++) {
+                covered = j != i && ranges.get(j)[0] <= ranges.get(i)[0] && ranges.get(i)[1] <= ranges.get(j)[1];
+            }
+            if (covered) {
+                Files.delete(files.get(i));
+            } else {
+                opened.add(SortedRun.open(files.get(i), ranges.get(i)[0], ranges.get(i)[1], this.codec));
+                this.nextSequence = Math.max(this.nextSequence, ranges.get(i)[1] + 1);
+            }
+        }
+        Collections.sort(opened, new Comparator<SortedRun<T>>() {
+            @Override
+            public int compare(SortedRun<T> a, SortedRun<T> b) {
+                return Long.compare(b.getMaxSequence(), a.getMaxSequence());
+            }
+        });
+        this.runs = opened;
+    }
+
+    /**
+     * Merge of sorted sources, where the first source is the newest. Of the
+     * entries with the same key, only the one of the newest source is returned.
+     */
+    private static class MergeIterator<T extends Comparable<T>> implements Iterator<LsmEntry<T>> {
+        private final PriorityQueue<Head<T>> heads;
+
+        MergeIterator(List<Iterator<LsmEntry<T>>> sources) {
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()), new Comparator<Head<T>>() {
+                @Override
+                public int compare(Head<T> a, Head<T> b) {
+                    int cmp = a.entry.key.compareTo(b.entry.key);
+                    return cmp != 0 ? cmp : Integer.compare(a.rank, b.rank);
+                }
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).hasNext()) {
+                    this.heads.add(new Head<>(sources.get(i), i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.heads.isEmpty();
+        }
+
+        @Override
+        public LsmEntry<T> next() {
+            if (this.heads.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Head<T> head = this.heads.poll();
+            LsmEntry<T> entry = head.entry;
+            this.advance(head);
+            while (!this.heads.isEmpty() && this.heads.peek().entry.key.compareTo(entry.key) == 0) {
+                this.advance(this.heads.poll());
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance(Head<T> head) {
+            if (head.source.hasNext()) {
+                head.entry = head.source.next();
+                this.heads.add(head);
+            }
+        }
+    }
+
+    private static class Head<T extends Comparable<T>> {
+        private final Iterator<LsmEntry<T>> source;
+        private final int rank;
+        private LsmEntry<T> entry;
+
+        Head(Iterator<LsmEntry<T>> source, int rank) {
+            this.source = source;
+            this.rank = rank;
+            this.entry = source.next();
+        }
+    }
+
+    /**
+     * Entries that are not tombstones.
+     */
+    private static class LiveEntries<T extends Comparable<T>> implements Iterator<LsmEntry<T>> {
+        private final Iterator<LsmEntry<T>> entries;
+        private LsmEntry<T> next;
+
+        LiveEntries(Iterator<LsmEntry<T>> entries) {
+            this.entries = entries;
+            this.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public LsmEntry<T> next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            LsmEntry<T> result = this.next;
+            this.advance();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            this.next = null;
+            while (this.entries.hasNext()) {
+                LsmEntry<T> entry = this.entries.next();
+                if (!entry.deleted) {
+                    this.next = entry;
+                    return;
+                }
+            }
+        }
+    }
+}
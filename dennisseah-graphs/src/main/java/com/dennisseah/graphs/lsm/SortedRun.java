@@ -0,0 +1,328 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.lsm;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Immutable file of entries in ascending key order. The file is
+ * 
+ * [blocks of BLOCK_SIZE entries: key length int, deleted byte, key]
+ * [bloom filter]
+ * [sparse index: block count int, per block: key length int, first key, offset long]
+ * [footer: bloom offset long, index offset long, entry count long, magic int]
+ * 
+ * The bloom filter and the sparse index are loaded on open; a lookup reads one
+ * block with a positional read.
+ */
+class SortedRun<T extends Comparable<T>> implements Closeable {
+    static final int BLOCK_SIZE = 16;
+    private static final int FOOTER_SIZE = 28;
+    private static final int MAGIC = 0x4c534d31;
+
+    private final Path file;
+    private final long minSequence;
+    private final long maxSequence;
+    private final ValueCodec<T> codec;
+    private final FileChannel channel;
+    private final BloomFilter bloom;
+    private final List<T> firstKeys;
+    private final long[] offsets;
+    private final long entryCount;
+
+    private SortedRun(Path file, long minSequence, long maxSequence, ValueCodec<T> codec) throws IOException {
+        this.file = file;
+        this.minSequence = minSequence;
+        this.maxSequence = maxSequence;
+        this.codec = codec;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        ByteBuffer footer = this.read(this.channel.size() - FOOTER_SIZE, FOOTER_SIZE);
+        long bloomOffset = footer.getLong();
+        long indexOffset = footer.getLong();
+        this.entryCount = footer.getLong();
+        if (footer.getInt() != MAGIC) {
+            this.channel.close();
+            throw new IOException(file + " is not a sorted run.");
+        }
+
+        ByteBuffer meta = this.read(bloomOffset, (int) (this.channel.size() - FOOTER_SIZE - bloomOffset));
+        this.bloom = BloomFilter.read(meta);
+        meta.position((int) (indexOffset - bloomOffset));
+        int blockCount = meta.getInt();
+        this.firstKeys = new ArrayList<>(blockCount);
+        this.offsets = new long[blockCount + 1];
+        for (int i = 0; i < blockCount; i++) {
+            byte[] key = new byte[meta.getInt()];
+            meta.get(key);
+            this.firstKeys.add(codec.decode(key));
+            this.offsets[i] = meta.getLong();
+        }
+        this.offsets[blockCount] = bloomOffset;
+    }
+
+    /**
+     * Open a run.
+     *
+     * @param file        run file.
+     * @param minSequence oldest flush sequence in the run.
+     * @param maxSequence newest flush sequence in the run.
+     * @param codec       codec of the keys.
+     * @return the run.
+     * @throws IOException if the file cannot be read.
+     */
+    static <T extends Comparable<T>> SortedRun<T> open(Path file, long minSequence, long maxSequence,
+            ValueCodec<T> codec) throws IOException {
+        return new SortedRun<>(file, minSequence, maxSequence, codec);
+    }
+
+    /**
+     * Write entries to a new run file. The entries are written to a temporary
+     * file that is renamed when complete.
+     *
+     * @param file          run file.
+     * @param entries       entries in ascending key order.
+     * @param expectedCount upper bound of the number of entries, to size the
+     *                      bloom filter.
+     * @param codec         codec of the keys.
+     * @throws IOException if the file cannot be written.
+     */
+    static <T extends Comparable<T>> void write(Path file, Iterator<LsmEntry<T>> entries, long expectedCount,
+            ValueCodec<T> codec) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        BloomFilter bloom = new BloomFilter(expectedCount);
+        List<byte[]> firstKeys = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        long offset = 0;
+        long count = 0;
+
+        try (OutputStream stream = Files.newOutputStream(temporary);
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            while (entries.hasNext()) {
+                LsmEntry<T> entry = entries.next();
+                byte[] key = codec.encode(entry.key);
+                if (count % BLOCK_SIZE == 0) {
+                    firstKeys.add(key);
+                    offsets.add(offset);
+                }
+                bloom.add(key);
+                output.writeInt(key.length);
+                output.writeByte(entry.deleted ? 1 : 0);
+                output.write(key);
+                offset += 5 + key.length;
+                count++;
+            }
+
+            long bloomOffset = offset;
+            bloom.write(output);
+            long indexOffset = bloomOffset + bloom.serializedSize();
+            output.writeInt(firstKeys.size());
+            for (int i = 0; i < firstKeys.size(); i++) {
+                output.writeInt(firstKeys.get(i).length);
+                output.write(firstKeys.get(i));
+                output.writeLong(offsets.get(i));
+            }
+            output.writeLong(bloomOffset);
+            output.writeLong(indexOffset);
+            output.writeLong(count);
+            output.writeInt(MAGIC);
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    Path getFile() {
+        return this.file;
+    }
+
+    long getMinSequence() {
+        return this.minSequence;
+    }
+
+    long getMaxSequence() {
+        return this.maxSequence;
+    }
+
+    long getEntryCount() {
+        return this.entryCount;
+    }
+
+    /**
+     * Return the entry of a key, null if the run does not have it.
+     *
+     * @param key key.
+     * @return entry, or null.
+     * @throws IOException if the run cannot be read.
+     */
+    LsmEntry<T> find(T key) throws IOException {
+        if (!this.bloom.mightContain(this.codec.encode(key))) {
+            return null;
+        }
+        int block = this.blockOf(key);
+        if (block < 0) {
+            return null;
+        }
+        for (LsmEntry<T> entry : this.readBlock(block)) {
+            int cmp = entry.key.compareTo(key);
+            if (cmp == 0) {
+                return entry;
+            }
+            if (cmp > 0) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the entries from a key onwards, in ascending order. Blocks are
+     * read as the iteration proceeds.
+     *
+     * @param low smallest key, inclusive.
+     * @return iterator of entries.
+     */
+    Iterator<LsmEntry<T>> iterator(final T low) {
+        return new Iterator<LsmEntry<T>>() {
+            private int block = Math.max(0, blockOf(low));
+            private List<LsmEntry<T>> entries = new ArrayList<>();
+            private int index = 0;
+            private LsmEntry<T> next = this.advance();
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public LsmEntry<T> next() {
+                if (this.next == null) {
+                    throw new NoSuchElementException();
+                }
+                LsmEntry<T> result = this.next;
+                this.next = this.advance();
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            private LsmEntry<T> advance() {
+                while (true) {
+                    if (this.index == this.entries.size()) {
+                        if (this.block >= firstKeys.size()) {
+                            return null;
+                        }
+                        try {
+                            this.entries = readBlock(this.block++);
+                        } catch (IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        this.index = 0;
+                    }
+                    LsmEntry<T> entry = this.entries.get(this.index++);
+                    if (low == null || entry.key.compareTo(low) >= 0) {
+                        return entry;
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Close the file.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Return the last block whose first key is not greater than a key, -1 if
+     * the key is smaller than every key of the run.
+     */
+    private int blockOf(T key) {
+        if (key == null) {
+            return 0;
+        }
+        int lo = 0;
+        int hi = this.firstKeys.size() - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.firstKeys.get(mid).compareTo(key) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private List<LsmEntry<T>> readBlock(int block) throws IOException {
+        ByteBuffer buffer = this.read(this.offsets[block], (int) (this.offsets[block + 1] - this.offsets[block]));
+        List<LsmEntry<T>> entries = new ArrayList<>(BLOCK_SIZE);
+        while (buffer.hasRemaining()) {
+            byte[] key = new byte[buffer.getInt()];
+            boolean deleted = buffer.get() != 0;
+            buffer.get(key);
+            entries.add(new LsmEntry<>(this.codec.decode(key), deleted));
+        }
+        return entries;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + this.file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,338 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Adaptive radix tree (ART) of byte[] keys, ordered by unsigned byte values.
+ * Every byte of a key is looked at most once on the way down, so the cost of
+ * insert, find and remove is proportional to the key length instead of key
+ * length times tree height. Prefixes shared by keys are stored once, in the
+ * inner node where the keys split.
+ */
+public class AdaptiveRadixTree {
+    private Object root;
+    private boolean uniqueNodeValue = false;
+    private int size;
+    private int removed;
+
+    /**
+     * Construct a empty tree.
+     */
+    public AdaptiveRadixTree() {
+        this.root = null;
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique keys.
+     */
+    public AdaptiveRadixTree(boolean uniqueNodeValue) {
+        this.root = null;
+        this.uniqueNodeValue = uniqueNodeValue;
+    }
+
+    /**
+     * Return the number of keys, including duplicates.
+     *
+     * @return number of keys.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Insert key into tree. The key is copied.
+     *
+     * @param key key.
+     */
+    public void insert(byte[] key) {
+        this.root = this.insert(this.root, key.clone(), 0);
+    }
+
+    /**
+     * Return the number of times a key is in the tree.
+     *
+     * @param key key to match.
+     * @return number of matching keys.
+     */
+    public int find(byte[] key) {
+        ArtLeaf leaf = this.findLeaf(key);
+        return leaf == null ? 0 : leaf.count;
+    }
+
+    /**
+     * Return true if the tree has a given key.
+     *
+     * @param key key to match.
+     * @return true if the key is found.
+     */
+    public boolean contains(byte[] key) {
+        return this.findLeaf(key) != null;
+    }
+
+    /**
+     * Remove key from tree, all of its duplicates included.
+     *
+     * @param key key to match.
+     * @return true if there are one or more keys that are removed.
+     */
+    public boolean remove(byte[] key) {
+        this.removed = 0;
+        this.root = this.remove(this.root, key, 0);
+        this.size -= this.removed;
+        return this.removed > 0;
+    }
+
+    /**
+     * Return a list of keys in ascending order. Duplicated keys are repeated.
+     *
+     * @return list of keys.
+     */
+    public List<byte[]> inorderTraversal() {
+        List<byte[]> keys = new ArrayList<>(this.size);
+        this.inorderTraversal(this.root, keys);
+        return keys;
+    }
+
+    private ArtLeaf findLeaf(byte[] key) {
+        Object node = this.root;
+        int depth = 0;
+
+        while (node != null) {
+            if (node instanceof ArtLeaf) {
+                ArtLeaf leaf = (ArtLeaf) node;
+                return leaf.matches(key, depth) ? leaf : null;
+            }
+
+            ArtNode inner = (ArtNode) node;
+            byte[] prefix = inner.prefix;
+            if (key.length - depth < prefix.length) {
+                return null;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (prefix[i] != key[depth + i]) {
+                    return null;
+                }
+            }
+            depth += prefix.length;
+
+            if (depth == key.length) {
+                return inner.terminal;
+            }
+            node = inner.findChild(key[depth]);
+            depth++;
+        }
+        return null;
+    }
+
+    private Object insert(Object node, byte[] key, int depth) {
+        if (node == null) {
+            this.size++;
+            return new ArtLeaf(key);
+        }
+
+        if (node instanceof ArtLeaf) {
+            ArtLeaf leaf = (ArtLeaf) node;
+            if (leaf.matches(key, depth)) {
+                if (!this.uniqueNodeValue) {
+                    leaf.count++;
+                    this.size++;
+                }
+                return leaf;
+            }
+
+            // the keys split below this point, and the shared bytes become the
+            // prefix of a new inner node.
+            int shared = 0;
+            while (depth + shared < leaf.key.length && depth + shared < key.length
+                    && leaf.key[depth + shared] == key[depth + shared]) {
+                shared++;
+            }
+            ArtNode4 inner = new ArtNode4();
+            inner.prefix = Arrays.copyOfRange(key, depth, depth + shared);
+            this.attach(inner, leaf, depth + shared);
+            this.attach(inner, new ArtLeaf(key), depth + shared);
+            this.size++;
+            return inner;
+        }
+
+        ArtNode inner = (ArtNode) node;
+        int matched = this.matchPrefix(inner, key, depth);
+        if (matched < inner.prefix.length) {
+            // the key leaves the compressed path part way, split the prefix.
+            ArtNode4 split = new ArtNode4();
+            split.prefix = Arrays.copyOf(inner.prefix, matched);
+            byte branch = inner.prefix[matched];
+            inner.prefix = Arrays.copyOfRange(inner.prefix, matched + 1, inner.prefix.length);
+            split.addChild(branch, inner);
+            this.attach(split, new ArtLeaf(key), depth + matched);
+            this.size++;
+            return split;
+        }
+
+        depth += inner.prefix.length;
+        if (depth == key.length) {
+            if (inner.terminal == null) {
+                inner.terminal = new ArtLeaf(key);
+                this.size++;
+            } else if (!this.uniqueNodeValue) {
+                inner.terminal.count++;
+                this.size++;
+            }
+            return inner;
+        }
+
+        Object child = inner.findChild(key[depth]);
+        if (child == null) {
+            if (inner.isFull()) {
+                inner = inner.grow();
+            }
+            inner.addChild(key[depth], new ArtLeaf(key));
+            this.size++;
+            return inner;
+        }
+
+        Object updated = this.insert(child, key, depth + 1);
+        if (updated != child) {
+            inner.replaceChild(key[depth], updated);
+        }
+        return inner;
+    }
+
+    private Object remove(Object node, byte[] key, int depth) {
+        if (node == null) {
+            return null;
+        }
+
+        if (node instanceof ArtLeaf) {
+            ArtLeaf leaf = (ArtLeaf) node;
+            if (leaf.matches(key, depth)) {
+                this.removed = leaf.count;
+                return null;
+            }
+            return leaf;
+        }
+
+        ArtNode inner = (ArtNode) node;
+        if (this.matchPrefix(inner, key, depth) < inner.prefix.length) {
+            return inner;
+        }
+
+        depth += inner.prefix.length;
+        if (depth == key.length) {
+            if (inner.terminal == null) {
+                return inner;
+            }
+            this.removed = inner.terminal.count;
+            inner.terminal = null;
+            return this.compact(inner);
+        }
+
+        Object child = inner.findChild(key[depth]);
+        if (child == null) {
+            return inner;
+        }
+        Object updated = this.remove(child, key, depth + 1);
+        if (updated == child) {
+            return inner;
+        }
+        if (updated == null) {
+            inner.removeChild(key[depth]);
+        } else {
+            inner.replaceChild(key[depth], updated);
+        }
+        return this.compact(inner);
+    }
+
+    /**
+     * Return the replacement of a node after a removal: nothing or the
+     * terminal leaf when there are no children left, the only child with the
+     * prefix merged in when there is just one path left, or a smaller node.
+     */
+    private Object compact(ArtNode inner) {
+        if (inner.childCount == 0) {
+            return inner.terminal;
+        }
+        if (inner.childCount == 1 && inner.terminal == null) {
+            int branch = inner.nextKey(0);
+            Object child = inner.findChild((byte) branch);
+            if (child instanceof ArtNode) {
+                ArtNode node = (ArtNode) child;
+                byte[] prefix = new byte[inner.prefix.length + 1 + node.prefix.length];
+                System.arraycopy(inner.prefix, 0, prefix, 0, inner.prefix.length);
+                prefix[inner.prefix.length] = (byte) branch;
+                System.arraycopy(node.prefix, 0, prefix, inner.prefix.length + 1, node.prefix.length);
+                node.prefix = prefix;
+            }
+            return child;
+        }
+        return inner.shrink();
+    }
+
+    private void attach(ArtNode4 inner, ArtLeaf leaf, int depth) {
+        if (leaf.key.length == depth) {
+            inner.terminal = leaf;
+        } else {
+            inner.addChild(leaf.key[depth], leaf);
+        }
+    }
+
+    /**
+     * Return the number of prefix bytes of a node that match the key from a
+     * given depth.
+     */
+    private int matchPrefix(ArtNode inner, byte[] key, int depth) {
+        byte[] prefix = inner.prefix;
+        int i = 0;
+        while (i < prefix.length && depth + i < key.length && prefix[i] == key[depth + i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private void inorderTraversal(Object node, List<byte[]> keys) {
+        if (node == null) {
+            return;
+        }
+        if (node instanceof ArtLeaf) {
+            ArtLeaf leaf = (ArtLeaf) node;
+            for (int i = 0; i < leaf.count; i++) {
+                keys.add(leaf.key.clone());
+            }
+            return;
+        }
+
+        ArtNode inner = (ArtNode) node;
+        // a key ending here is a prefix of all keys below, so it comes first.
+        this.inorderTraversal(inner.terminal, keys);
+        for (int k = inner.nextKey(0); k >= 0; k = inner.nextKey(k + 1)) {
+            this.inorderTraversal(inner.findChild((byte) k), keys);
+        }
+    }
+}
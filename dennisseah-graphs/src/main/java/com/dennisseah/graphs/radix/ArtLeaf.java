@@ -0,0 +1,63 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Leaf of an adaptive radix tree. It keeps the full key so that a lookup
+ * reaching the leaf can verify the bytes that are not stored on the path.
+ */
+class ArtLeaf {
+    final byte[] key;
+    int count;
+
+    /**
+     * Instantiate an instance of this class with a key.
+     *
+     * @param key key of the leaf.
+     */
+    ArtLeaf(byte[] key) {
+        this.key = key;
+        this.count = 1;
+    }
+
+    /**
+     * Return true if the leaf key equals a given key. The bytes before depth
+     * are known to match already.
+     *
+     * @param key   key to match.
+     * @param depth number of bytes that are already matched.
+     * @return true if the keys are equal.
+     */
+    boolean matches(byte[] key, int depth) {
+        if (this.key.length != key.length) {
+            return false;
+        }
+        for (int i = depth; i < key.length; i++) {
+            if (this.key[i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
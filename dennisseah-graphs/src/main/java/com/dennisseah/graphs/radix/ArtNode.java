@@ -0,0 +1,123 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Inner node of an adaptive radix tree. Children are either inner nodes or
+ * leaves and are indexed by one key byte, compared as unsigned values. The
+ * node comes in four sizes (4, 16, 48 and 256 children) and is replaced by
+ * the next size up or down as children are added and removed.
+ */
+abstract class ArtNode {
+    static final byte[] EMPTY = new byte[0];
+
+    /**
+     * Bytes shared by every key below this node (path compression).
+     */
+    byte[] prefix = EMPTY;
+
+    /**
+     * Leaf of the key that ends at this node, if any.
+     */
+    ArtLeaf terminal;
+
+    int childCount;
+
+    /**
+     * Return the child of a given key byte.
+     *
+     * @param key key byte.
+     * @return child node or leaf, null if there is none.
+     */
+    abstract Object findChild(byte key);
+
+    /**
+     * Return the smallest key byte of the children that is greater than or
+     * equal to a given value.
+     *
+     * @param from unsigned value to start from.
+     * @return unsigned key byte, -1 if there is none.
+     */
+    abstract int nextKey(int from);
+
+    /**
+     * Add a child. The node shall not be full.
+     *
+     * @param key   key byte.
+     * @param child child node or leaf.
+     */
+    abstract void addChild(byte key, Object child);
+
+    /**
+     * Replace the child of a given key byte.
+     *
+     * @param key   key byte.
+     * @param child child node or leaf.
+     */
+    abstract void replaceChild(byte key, Object child);
+
+    /**
+     * Remove the child of a given key byte.
+     *
+     * @param key key byte.
+     */
+    abstract void removeChild(byte key);
+
+    /**
+     * Return true if there is no room for another child.
+     *
+     * @return true if the node is full.
+     */
+    abstract boolean isFull();
+
+    /**
+     * Return a node of the next size up with the same content.
+     *
+     * @return bigger node.
+     */
+    abstract ArtNode grow();
+
+    /**
+     * Return a node of the next size down with the same content if the
+     * children fit, this node otherwise.
+     *
+     * @return smaller node or this node.
+     */
+    abstract ArtNode shrink();
+
+    /**
+     * Copy the prefix and terminal leaf to a given node, and add all children.
+     *
+     * @param node node of another size.
+     * @return the given node.
+     */
+    ArtNode copyTo(ArtNode node) {
+        node.prefix = this.prefix;
+        node.terminal = this.terminal;
+        for (int k = this.nextKey(0); k >= 0; k = this.nextKey(k + 1)) {
+            node.addChild((byte) k, this.findChild((byte) k));
+        }
+        return node;
+    }
+}
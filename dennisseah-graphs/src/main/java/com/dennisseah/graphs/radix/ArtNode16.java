@@ -0,0 +1,65 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Inner node with up to 16 children, keys kept sorted and searched with a
+ * binary search.
+ */
+class ArtNode16 extends ArtNode4 {
+    static final int SHRINK_THRESHOLD = 3;
+
+    ArtNode16() {
+        super(16);
+    }
+
+    @Override
+    int indexOf(byte key) {
+        int k = key & 0xff;
+        int lo = 0;
+        int hi = this.childCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int m = this.keys[mid] & 0xff;
+            if (m < k) {
+                lo = mid + 1;
+            } else if (m > k) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    ArtNode grow() {
+        return this.copyTo(new ArtNode48());
+    }
+
+    @Override
+    ArtNode shrink() {
+        return this.childCount <= SHRINK_THRESHOLD ? this.copyTo(new ArtNode4()) : this;
+    }
+}
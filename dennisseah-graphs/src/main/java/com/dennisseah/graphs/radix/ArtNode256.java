@@ -0,0 +1,82 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Inner node with a child slot for every key byte.
+ */
+class ArtNode256 extends ArtNode {
+    static final int SHRINK_THRESHOLD = 36;
+
+    private final Object[] children = new Object[256];
+
+    @Override
+    Object findChild(byte key) {
+        return this.children[key & 0xff];
+    }
+
+    @Override
+    int nextKey(int from) {
+        for (int k = from; k < 256; k++) {
+            if (this.children[k] != null) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    void addChild(byte key, Object child) {
+        this.children[key & 0xff] = child;
+        this.childCount++;
+    }
+
+    @Override
+    void replaceChild(byte key, Object child) {
+        this.children[key & 0xff] = child;
+    }
+
+    @Override
+    void removeChild(byte key) {
+        if (this.children[key & 0xff] != null) {
+            this.children[key & 0xff] = null;
+            this.childCount--;
+        }
+    }
+
+    @Override
+    boolean isFull() {
+        return false;
+    }
+
+    @Override
+    ArtNode grow() {
+        return this;
+    }
+
+    @Override
+    ArtNode shrink() {
+        return this.childCount <= SHRINK_THRESHOLD ? this.copyTo(new ArtNode48()) : this;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Inner node with up to 4 children, keys kept sorted.
+ */
+class ArtNode4 extends ArtNode {
+    final byte[] keys;
+    final Object[] children;
+
+    ArtNode4() {
+        this(4);
+    }
+
+    ArtNode4(int capacity) {
+        this.keys = new byte[capacity];
+        this.children = new Object[capacity];
+    }
+
+    int indexOf(byte key) {
+        for (int i = 0; i < this.childCount; i++) {
+            if (this.keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    Object findChild(byte key) {
+        int i = this.indexOf(key);
+        return i < 0 ? null : this.children[i];
+    }
+
+    @Override
+    int nextKey(int from) {
+        for (int i = 0; i < this.childCount; i++) {
+            int k = this.keys[i] & 0xff;
+            if (k >= from) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    void addChild(byte key, Object child) {
+        int k = key & 0xff;
+        int i = this.childCount;
+        while (i > 0 && (this.keys[i - 1] & 0xff) > k) {
+            this.keys[i] = this.keys[i - 1];
+            this.children[i] = this.children[i - 1];
+            i--;
+        }
+        this.keys[i] = key;
+        this.children[i] = child;
+        this.childCount++;
+    }
+
+    @Override
+    void replaceChild(byte key, Object child) {
+        this.children[this.indexOf(key)] = child;
+    }
+
+    @Override
+    void removeChild(byte key) {
+        int i = this.indexOf(key);
+        if (i < 0) {
+            return;
+        }
+        this.childCount--;
+        System.arraycopy(this.keys, i + 1, this.keys, i, this.childCount - i);
+        System.arraycopy(this.children, i + 1, this.children, i, this.childCount - i);
+        this.children[this.childCount] = null;
+    }
+
+    @Override
+    boolean isFull() {
+        return this.childCount == this.keys.length;
+    }
+
+    @Override
+    ArtNode grow() {
+        return this.copyTo(new ArtNode16());
+    }
+
+    @Override
+    ArtNode shrink() {
+        return this;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+/**
+ * Inner node with up to 48 children. A 256 entry index maps a key byte to the
+ * slot of its child.
+ */
+class ArtNode48 extends ArtNode {
+    static final int SHRINK_THRESHOLD = 12;
+
+    /**
+     * Slot + 1 of the child of each key byte, 0 if there is no child.
+     */
+    private final byte[] index = new byte[256];
+    private final Object[] children = new Object[48];
+
+    @Override
+    Object findChild(byte key) {
+        int slot = this.index[key & 0xff];
+        return slot == 0 ? null : this.children[slot - 1];
+    }
+
+    @Override
+    int nextKey(int from) {
+        for (int k = from; k < 256; k++) {
+            if (this.index[k] != 0) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    void addChild(byte key, Object child) {
+        int slot = 0;
+        while (this.children[slot] != null) {
+            slot++;
+        }
+        this.children[slot] = child;
+        this.index[key & 0xff] = (byte) (slot + 1);
+        this.childCount++;
+    }
+
+    @Override
+    void replaceChild(byte key, Object child) {
+        this.children[this.index[key & 0xff] - 1] = child;
+    }
+
+    @Override
+    void removeChild(byte key) {
+        int slot = this.index[key & 0xff];
+        if (slot == 0) {
+            return;
+        }
+        this.children[slot - 1] = null;
+        this.index[key & 0xff] = 0;
+        this.childCount--;
+    }
+
+    @Override
+    boolean isFull() {
+        return this.childCount == this.children.length;
+    }
+
+    @Override
+    ArtNode grow() {
+        return this.copyTo(new ArtNode256());
+    }
+
+    @Override
+    ArtNode shrink() {
+        return this.childCount <= SHRINK_THRESHOLD ? this.copyTo(new ArtNode16()) : this;
+    }
+}
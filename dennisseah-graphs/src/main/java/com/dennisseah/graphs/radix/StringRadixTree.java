@@ -0,0 +1,120 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adaptive radix tree of String keys. Keys are stored as UTF-8 bytes, so the
+ * order is by Unicode code point. This is the same as String.compareTo except
+ * for strings with characters beyond U+FFFF, which compareTo orders by UTF-16
+ * code unit.
+ */
+public class StringRadixTree {
+    private final AdaptiveRadixTree tree;
+
+    /**
+     * Construct a empty tree.
+     */
+    public StringRadixTree() {
+        this.tree = new AdaptiveRadixTree();
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique keys.
+     */
+    public StringRadixTree(boolean uniqueNodeValue) {
+        this.tree = new AdaptiveRadixTree(uniqueNodeValue);
+    }
+
+    /**
+     * Return the number of keys, including duplicates.
+     *
+     * @return number of keys.
+     */
+    public int size() {
+        return this.tree.size();
+    }
+
+    /**
+     * Insert key into tree.
+     *
+     * @param key key.
+     */
+    public void insert(String key) {
+        this.tree.insert(encode(key));
+    }
+
+    /**
+     * Return the number of times a key is in the tree.
+     *
+     * @param key key to match.
+     * @return number of matching keys.
+     */
+    public int find(String key) {
+        return this.tree.find(encode(key));
+    }
+
+    /**
+     * Return true if the tree has a given key.
+     *
+     * @param key key to match.
+     * @return true if the key is found.
+     */
+    public boolean contains(String key) {
+        return this.tree.contains(encode(key));
+    }
+
+    /**
+     * Remove key from tree, all of its duplicates included.
+     *
+     * @param key key to match.
+     * @return true if there are one or more keys that are removed.
+     */
+    public boolean remove(String key) {
+        return this.tree.remove(encode(key));
+    }
+
+    /**
+     * Return a list of keys in ascending order. Duplicated keys are repeated.
+     *
+     * @return list of keys.
+     */
+    public List<String> inorderTraversal() {
+        List<byte[]> keys = this.tree.inorderTraversal();
+        List<String> values = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            values.add(new String(key, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static byte[] encode(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.IReadOnlyBinarySearchTree;
+
+/**
+ * Read only copy of a ReplicationLeader tree, updated by a
+ * ReplicationFollower. Reads may run concurrently with the updates; the
+ * returned nodes are only stable until the next update.
+ */
+public class ReplicaTree<T extends Comparable<T>> implements IReadOnlyBinarySearchTree<T> {
+    private final boolean uniqueNodeValue;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object sequenceMonitor = new Object();
+    private BinarySearchTree<T> tree;
+    private long sequence = 0;
+
+    /**
+     * Construct a empty tree.
+     */
+    public ReplicaTree() {
+        this(false);
+    }
+
+    /**
+     * Construct a empty tree.
+     *
+     * @param uniqueNodeValue true to have a tree with unique node values, as the
+     *                        tree of the leader.
+     */
+    public ReplicaTree(boolean uniqueNodeValue) {
+        this.uniqueNodeValue = uniqueNodeValue;
+        this.tree = new BinarySearchTree<>(uniqueNodeValue);
+    }
+
+    /**
+     * Return the sequence of the last operation of the leader that is applied.
+     *
+     * @return sequence.
+     */
+    public long getSequence() {
+        synchronized (this.sequenceMonitor) {
+            return this.sequence;
+        }
+    }
+
+    /**
+     * Wait until an operation of the leader is applied.
+     *
+     * @param target        sequence of the operation, e.g. getSequence of the
+     *                      leader after a write.
+     * @param timeoutMillis maximum time to wait.
+     * @return true if the operation is applied.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    public boolean awaitSequence(long target, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (this.sequenceMonitor) {
+            long remaining = timeoutMillis;
+            while (this.sequence < target && remaining > 0) {
+                this.sequenceMonitor.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return this.sequence >= target;
+        }
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> find(T value) {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.find(value);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public T floor(T value) {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.floor(value);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public T ceiling(T value) {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.ceiling(value);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public T first() {
+        // readers that look up the first node at once cache the same node.
+        this.lock.readLock().lock();
+        try {
+            return this.tree.first();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public T last() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.last();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isBalanced() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.isBalanced();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> inorderTraversal() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.inorderTraversal();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> preorderTraversal() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.preorderTraversal();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<BinarySearchTreeNode<T>> postorderTraversal() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.postorderTraversal();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isValid() {
+        this.lock.readLock().lock();
+        try {
+            return this.tree.isValid();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a batch of the leader. Operations that are already applied, after a
+     * reconnect, are skipped.
+     *
+     * @param batch batch.
+     * @throws IllegalStateException if operations are missing before the batch.
+     */
+    void apply(ReplicationBatch<T> batch) {
+        long current = this.getSequence();
+        long applied = current;
+        this.lock.writeLock().lock();
+        try {
+            if (batch.snapshot != null) {
+                // pre-order inserts rebuild the shape of the leader tree.
+                BinarySearchTree<T> rebuilt = new BinarySearchTree<>(this.uniqueNodeValue);
+                for (T value : batch.snapshot) {
+                    rebuilt.insert(value);
+                }
+                this.tree = rebuilt;
+                applied = batch.snapshotSequence;
+            } else {
+                for (ReplicationEntry<T> entry : batch.entries) {
+                    if (entry.sequence <= applied) {
+                        continue;
+                    }
+                    if (entry.sequence != applied + 1) {
+                        throw new IllegalStateException(
+                                "Missing operations " + (applied + 1) + " to " + (entry.sequence - 1) + ".");
+                    }
+                    if (entry.operation == ReplicationEntry.INSERT) {
+                        this.tree.insert(entry.value);
+                    } else {
+                        this.tree.remove(entry.value);
+                    }
+                    applied = entry.sequence;
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+            if (applied != current) {
+                synchronized (this.sequenceMonitor) {
+                    this.sequence = applied;
+                    this.sequenceMonitor.notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import java.util.List;
+
+/**
+ * What a follower needs to catch up: either the operations after its
+ * sequence, or a snapshot when the leader no longer has them.
+ */
+class ReplicationBatch<T extends Comparable<T>> {
+    /**
+     * Values of the leader tree in pre-order, null if this batch has
+     * operations.
+     */
+    final List<T> snapshot;
+    /**
+     * Sequence of the leader that the snapshot reflects.
+     */
+    final long snapshotSequence;
+    final List<ReplicationEntry<T>> entries;
+
+    private ReplicationBatch(List<T> snapshot, long snapshotSequence, List<ReplicationEntry<T>> entries) {
+        this.snapshot = snapshot;
+        this.snapshotSequence = snapshotSequence;
+        this.entries = entries;
+    }
+
+    static <T extends Comparable<T>> ReplicationBatch<T> snapshot(List<T> values, long sequence) {
+        return new ReplicationBatch<>(values, sequence, null);
+    }
+
+    static <T extends Comparable<T>> ReplicationBatch<T> operations(List<ReplicationEntry<T>> entries) {
+        return new ReplicationBatch<>(null, 0, entries);
+    }
+
+    boolean isEmpty() {
+        return this.snapshot == null && this.entries.isEmpty();
+    }
+
+    /**
+     * Return the sequence of the follower after it applies this batch.
+     *
+     * @param current sequence of the follower.
+     * @return sequence after this batch.
+     */
+    long lastSequence(long current) {
+        if (this.snapshot != null) {
+            return this.snapshotSequence;
+        }
+        return this.entries.isEmpty() ? current : this.entries.get(this.entries.size() - 1).sequence;
+    }
+}
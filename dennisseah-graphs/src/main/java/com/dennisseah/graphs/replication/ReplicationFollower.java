@@ -0,0 +1,204 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Background thread that applies the operations of a ReplicationLeader to a
+ * ReplicaTree, in the same JVM or over a socket. Over a socket, the follower
+ * reconnects when the connection is lost and continues from its sequence. In
+ * the same JVM, the follower stops when it has applied the last operation of a
+ * closed leader.
+ */
+public class ReplicationFollower<T extends Comparable<T>> implements Closeable {
+    private static final long POLL_MILLIS = 500;
+    private static final long MIN_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final ReplicaTree<T> replica;
+    private final ReplicationLeader<T> leader;
+    private final InetSocketAddress address;
+    private final ValueCodec<T> codec;
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private volatile Socket socket;
+    private volatile long reconnectCount = 0;
+
+    private ReplicationFollower(ReplicaTree<T> replica, ReplicationLeader<T> leader, InetSocketAddress address,
+            ValueCodec<T> codec) {
+        this.replica = replica;
+        this.leader = leader;
+        this.address = address;
+        this.codec = codec;
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                if (ReplicationFollower.this.leader != null) {
+                    pull();
+                } else {
+                    receive();
+                }
+            }
+        }, "replication-follower");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Return a follower of a leader in the same JVM.
+     *
+     * @param leader  leader.
+     * @param replica tree to update.
+     * @return follower, which is running.
+     */
+    public static <T extends Comparable<T>> ReplicationFollower<T> follow(ReplicationLeader<T> leader,
+            ReplicaTree<T> replica) {
+        ReplicationFollower<T> follower = new ReplicationFollower<>(replica, leader, null, null);
+        follower.thread.start();
+        return follower;
+    }
+
+    /**
+     * Return a follower of a leader that listens on an address.
+     *
+     * @param address address of the leader.
+     * @param codec   codec of the values.
+     * @param replica tree to update.
+     * @return follower, which is running.
+     */
+    public static <T extends Comparable<T>> ReplicationFollower<T> connect(InetSocketAddress address,
+            ValueCodec<T> codec, ReplicaTree<T> replica) {
+        ReplicationFollower<T> follower = new ReplicationFollower<>(replica, null, address, codec);
+        follower.thread.start();
+        return follower;
+    }
+
+    /**
+     * Return the number of times the connection to the leader is
+     * re-established.
+     *
+     * @return number of reconnects.
+     */
+    public long getReconnectCount() {
+        return this.reconnectCount;
+    }
+
+    /**
+     * Return true if the follower still applies operations.
+     *
+     * @return true if running.
+     */
+    public boolean isRunning() {
+        return this.thread.isAlive();
+    }
+
+    /**
+     * Stop following the leader. The replica keeps its values.
+     *
+     * @throws IOException if the connection cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        Socket current = this.socket;
+        if (current != null) {
+            current.close();
+        }
+        this.thread.interrupt();
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pull() {
+        try {
+            while (!this.closed) {
+                ReplicationBatch<T> batch = this.leader.fetch(this.replica.getSequence(), ReplicationLeader.MAX_BATCH,
+                        POLL_MILLIS);
+                if (!batch.isEmpty()) {
+                    this.replica.apply(batch);
+                } else if (this.leader.isClosed()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // NO-ACTION, the follower is closed.
+        }
+    }
+
+    private void receive() {
+        long backoff = MIN_BACKOFF_MILLIS;
+        boolean connected = false;
+        while (!this.closed) {
+            try (Socket current = new Socket()) {
+                this.socket = current;
+                if (this.closed) {
+                    return;
+                }
+                current.connect(this.address);
+                if (current.getLocalSocketAddress().equals(current.getRemoteSocketAddress())) {
+                    // a loopback connect to a port without listener may connect
+                    // to itself, and then holds the port of the leader.
+                    throw new IOException("Connected to self.");
+                }
+                current.setTcpNoDelay(true);
+                if (connected) {
+                    this.reconnectCount++;
+                }
+                connected = true;
+                backoff = MIN_BACKOFF_MILLIS;
+
+                DataOutputStream output = new DataOutputStream(current.getOutputStream());
+                output.writeLong(this.replica.getSequence());
+                output.flush();
+                DataInputStream input = new DataInputStream(new BufferedInputStream(current.getInputStream(),
+                        1 << 16));
+                while (!this.closed) {
+                    this.replica.apply(ReplicationProtocol.read(input, this.codec));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // reconnect with the sequence of the replica.
+            }
+
+            if (!this.closed) {
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.FindAllResult;
+import com.dennisseah.graphs.bst.IBinarySearchTreeBase;
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Tree whose inserts and removes are kept in a log with sequence numbers, for
+ * ReplicaTree followers to apply. The log keeps the latest operations; a
+ * follower that is further behind, and every follower after setRoot, catches
+ * up from a snapshot of the tree and continues from its sequence.
+ * 
+ * Followers in the same JVM read the log directly; others connect to the
+ * address of listen, and the operations are streamed to them in batches. This
+ * class is thread safe; the wrapped tree must not be used directly.
+ */
+public class ReplicationLeader<T extends Comparable<T>> implements IBinarySearchTreeBase<T>, Closeable {
+    public static final int DEFAULT_RETENTION = 100000;
+    static final int MAX_BATCH = 1024;
+    private static final long POLL_MILLIS = 500;
+
+    private final BinarySearchTree<T> tree;
+    private final ValueCodec<T> codec;
+    private final int retention;
+    private final List<ReplicationEntry<T>> entries = new ArrayList<>();
+    private long firstSequence = 1;
+    private long sequence = 0;
+    private volatile boolean closed = false;
+    private ServerSocket serverSocket;
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree  tree to replicate.
+     * @param codec codec of the values, for followers over sockets.
+     */
+    public ReplicationLeader(BinarySearchTree<T> tree, ValueCodec<T> codec) {
+        this(tree, codec, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree      tree to replicate.
+     * @param codec     codec of the values, for followers over sockets.
+     * @param retention number of latest operations that are kept for
+     *                  followers that are behind.
+     */
+    public ReplicationLeader(BinarySearchTree<T> tree, ValueCodec<T> codec, int retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("Retention must be positive.");
+        }
+        this.tree = tree;
+        this.codec = codec;
+        this.retention = retention;
+        if (tree.getRoot() != null) {
+            // the existing values are only available as a snapshot.
+            synchronized (this) {
+                this.startSnapshot();
+            }
+        }
+    }
+
+    /**
+     * Return the sequence of the latest operation.
+     *
+     * @return sequence.
+     */
+    public synchronized long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Return true if the leader is closed; there are no more operations.
+     *
+     * @return true if closed.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public synchronized BinarySearchTreeNode<T> getRoot() {
+        return this.tree.getRoot();
+    }
+
+    /**
+     * Set the root node. Followers catch up from a snapshot.
+     *
+     * @param root root node.
+     */
+    @Override
+    public synchronized void setRoot(BinarySearchTreeNode<T> root) {
+        this.tree.setRoot(root);
+        this.startSnapshot();
+    }
+
+    @Override
+    public synchronized void insert(T value) {
+        this.tree.insert(value);
+        this.append(ReplicationEntry.INSERT, value);
+    }
+
+    @Override
+    public synchronized boolean remove(T value) {
+        boolean removed = this.tree.remove(value);
+        if (removed) {
+            this.append(ReplicationEntry.REMOVE, value);
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized List<BinarySearchTreeNode<T>> find(T value) {
+        return this.tree.find(value);
+    }
+
+    @Override
+    public synchronized FindAllResult<T> findAll(T[] values) {
+        return this.tree.findAll(values);
+    }
+
+    @Override
+    public synchronized FindAllResult<T> findAll(T[] values, ForkJoinPool pool) {
+        return this.tree.findAll(values, pool);
+    }
+
+    @Override
+    public synchronized List<BinarySearchTreeNode<T>> rangeTraversal(T low, T high) {
+        return this.tree.rangeTraversal(low, high);
+    }
+
+    @Override
+    public synchronized boolean isValid() {
+        return this.tree.isValid();
+    }
+
+    /**
+     * Accept followers on an address, in a background thread.
+     *
+     * @param address address, e.g. port 0 of loopback for a free port.
+     * @return bound address.
+     * @throws IOException if the address cannot be bound.
+     */
+    public synchronized InetSocketAddress listen(InetSocketAddress address) throws IOException {
+        if (this.serverSocket != null) {
+            throw new IllegalStateException("Leader is listening.");
+        }
+        this.serverSocket = new ServerSocket();
+        // a restarted leader binds the address of the previous one.
+        this.serverSocket.setReuseAddress(true);
+        this.serverSocket.bind(address);
+        this.startThread("replication-accept", new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        });
+        return (InetSocketAddress) this.serverSocket.getLocalSocketAddress();
+    }
+
+    /**
+     * Stop streaming to followers and close the sockets.
+     *
+     * @throws IOException if the sockets cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        List<Thread> running;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.notifyAll();
+            if (this.serverSocket != null) {
+                this.serverSocket.close();
+            }
+            for (Socket socket : this.sockets) {
+                socket.close();
+            }
+            running = new ArrayList<>(this.threads);
+        }
+        for (Thread thread : running) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return what a follower at a sequence needs next, waiting up to a timeout
+     * if it is up to date.
+     *
+     * @param from          sequence of the follower.
+     * @param maxEntries    maximum number of operations.
+     * @param timeoutMillis time to wait for an operation.
+     * @return batch, empty if there is no operation.
+     * @throws InterruptedException if the wait is interrupted.
+     */
+    synchronized ReplicationBatch<T> fetch(long from, int maxEntries, long timeoutMillis)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long remaining = timeoutMillis;
+        while (from == this.sequence && !this.closed && remaining > 0) {
+            this.wait(remaining);
+            remaining = deadline - System.currentTimeMillis();
+        }
+
+        if (from > this.sequence || from + 1 < this.firstSequence) {
+            return ReplicationBatch.snapshot(this.preorderValues(), this.sequence);
+        }
+        int start = (int) (from + 1 - this.firstSequence);
+        int end = Math.min(this.entries.size(), start + maxEntries);
+        return ReplicationBatch.operations(new ArrayList<>(this.entries.subList(start, end)));
+    }
+
+    private void append(byte operation, T value) {
+        this.sequence++;
+        this.entries.add(new ReplicationEntry<>(this.sequence, operation, value));
+        if (this.entries.size() >= 2 * this.retention) {
+            this.entries.subList(0, this.entries.size() - this.retention).clear();
+            this.firstSequence = this.entries.get(0).sequence;
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Drop the log, so that followers catch up from a snapshot.
+     */
+    private void startSnapshot() {
+        this.sequence++;
+        this.entries.clear();
+        this.firstSequence = this.sequence + 1;
+        this.notifyAll();
+    }
+
+    /**
+     * Return the values in pre-order, which rebuild the same tree when they
+     * are inserted in order.
+     */
+    private List<T> preorderValues() {
+        List<T> values = new ArrayList<>();
+        Deque<BinarySearchTreeNode<T>> stack = new ArrayDeque<>();
+        if (this.tree.getRoot() != null) {
+            stack.push(this.tree.getRoot());
+        }
+        while (!stack.isEmpty()) {
+            BinarySearchTreeNode<T> node = stack.pop();
+            values.add(node.getValue());
+            if (node.getRight() != null) {
+                stack.push(node.getRight());
+            }
+            if (node.getLeft() != null) {
+                stack.push(node.getLeft());
+            }
+        }
+        return values;
+    }
+
+    private synchronized void startThread(String name, Runnable runnable) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        this.threads.add(thread);
+        thread.start();
+    }
+
+    private void accept() {
+        while (!this.closed) {
+            try {
+                final Socket socket = this.serverSocket.accept();
+                synchronized (this) {
+                    if (this.closed) {
+                        socket.close();
+                        return;
+                    }
+                    this.sockets.add(socket);
+                }
+                this.startThread("replication-stream", new Runnable() {
+                    @Override
+                    public void run() {
+                        stream(socket);
+                    }
+                });
+            } catch (IOException e) {
+                // NO-ACTION, the server socket is closed.
+            }
+        }
+    }
+
+    /**
+     * Stream batches to a follower, from the sequence that it sends.
+     */
+    private void stream(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(),
+                    1 << 16));
+            long from = input.readLong();
+            while (!this.closed) {
+                ReplicationBatch<T> batch = this.fetch(from, MAX_BATCH, POLL_MILLIS);
+                if (!batch.isEmpty()) {
+                    ReplicationProtocol.write(output, batch, this.codec);
+                    from = batch.lastSequence(from);
+                }
+            }
+        } catch (IOException e) {
+            // NO-ACTION, the follower is gone; it reconnects with its sequence.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // NO-ACTION
+            }
+            synchronized (this) {
+                this.sockets.remove(socket);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Wire format of replication. A follower connects and sends the sequence it
+ * has, as a long. The leader then streams batches:
+ * 
+ * SNAPSHOT: [type: byte][sequence: long][count: int] then [length: int][value] per value
+ * OPERATIONS: [type: byte][first sequence: long][count: int] then [operation: byte][length: int][value] per operation
+ * 
+ * The operations of a batch have consecutive sequences.
+ */
+final class ReplicationProtocol {
+    static final byte SNAPSHOT = 1;
+    static final byte OPERATIONS = 2;
+
+    private ReplicationProtocol() {
+    }
+
+    static <T extends Comparable<T>> void write(DataOutputStream output, ReplicationBatch<T> batch,
+            ValueCodec<T> codec) throws IOException {
+        if (batch.snapshot != null) {
+            output.writeByte(SNAPSHOT);
+            output.writeLong(batch.snapshotSequence);
+            output.writeInt(batch.snapshot.size());
+            for (T value : batch.snapshot) {
+                writeValue(output, value, codec);
+            }
+        } else {
+            output.writeByte(OPERATIONS);
+            output.writeLong(batch.entries.isEmpty() ? 0 : batch.entries.get(0).sequence);
+            output.writeInt(batch.entries.size());
+            for (ReplicationEntry<T> entry : batch.entries) {
+                output.writeByte(entry.operation);
+                writeValue(output, entry.value, codec);
+            }
+        }
+        output.flush();
+    }
+
+    static <T extends Comparable<T>> ReplicationBatch<T> read(DataInputStream input, ValueCodec<T> codec)
+            throws IOException {
+        byte type = input.readByte();
+        long sequence = input.readLong();
+        int count = input.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count " + count);
+        }
+
+        if (type == SNAPSHOT) {
+            List<T> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readValue(input, codec));
+            }
+            return ReplicationBatch.snapshot(values, sequence);
+        }
+        if (type != OPERATIONS) {
+            throw new IOException("Unknown batch type " + type);
+        }
+        List<ReplicationEntry<T>> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte operation = input.readByte();
+            entries.add(new ReplicationEntry<>(sequence + i, operation, readValue(input, codec)));
+        }
+        return ReplicationBatch.operations(entries);
+    }
+
+    private static <T extends Comparable<T>> void writeValue(DataOutputStream output, T value,
+            ValueCodec<T> codec) throws IOException {
+        byte[] bytes = codec.encode(value);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static <T extends Comparable<T>> T readValue(DataInputStream input, ValueCodec<T> codec)
+            throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid value length " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return codec.decode(bytes);
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.server;
+
+/**
+ * Binary protocol of the tree server. Every message is a frame
+ * 
+ * [length of the rest: int][request id: int][operation or status: byte][payload]
+ * 
+ * A client may send many requests without waiting for their responses; the
+ * responses of a connection are sent in the order of its requests, with the
+ * request id of each request. Values are encoded with the ValueCodec of the
+ * tree.
+ * 
+ * INSERT: payload is the value; the response has no payload.
+ * FIND: payload is the value; the response is the number of matches, int.
+ * REMOVE: payload is the value; the response is 1 if removed, else 0, byte.
+ * RANGE: payload is [low length: int][low][high]; the response is
+ * [count: int] followed by [length: int][value] per value, in order.
+ * A RANGE whose response would exceed MAX_FRAME_SIZE fails with ERROR, and
+ * narrower ranges are to be asked instead.
+ * 
+ * A response with status ERROR has a UTF-8 message as payload.
+ */
+final class Protocol {
+    static final byte INSERT = 1;
+    static final byte FIND = 2;
+    static final byte REMOVE = 3;
+    static final byte RANGE = 4;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /**
+     * Size of request id and operation.
+     */
+    static final int HEADER_SIZE = 5;
+
+    static final int MAX_FRAME_SIZE = 16 << 20;
+
+    /**
+     * Bytes of responses a connection may have waiting before the server
+     * stops reading its requests.
+     */
+    static final int MAX_QUEUED_OUTPUT = 1 << 20;
+
+    private Protocol() {
+    }
+}
@@ -0,0 +1,353 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.dennisseah.graphs.common.ValueCodec;
+
+/**
+ * Client of a TreeServer. Each call of insert, find, remove and range waits
+ * for its response; a pipeline sends many requests together and reads their
+ * responses while it writes, so that a server which stops reading until its
+ * responses are taken cannot stall a large pipeline. This class is not thread
+ * safe.
+ */
+public class TreeClient<T extends Comparable<T>> implements Closeable {
+    private final SocketChannel channel;
+    private final ValueCodec<T> codec;
+    private final Selector selector;
+    private final SelectionKey key;
+    private ByteBuffer input = ByteBuffer.allocate(4096);
+    private int nextId = 0;
+
+    /**
+     * Connect to a server.
+     *
+     * @param address address of the server.
+     * @param codec   codec of the values.
+     * @throws IOException if the server cannot be connected.
+     */
+    public TreeClient(InetSocketAddress address, ValueCodec<T> codec) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.channel.socket().setTcpNoDelay(true);
+        this.channel.configureBlocking(false);
+        this.selector = Selector.open();
+        this.key = this.channel.register(this.selector, SelectionKey.OP_READ);
+        this.codec = codec;
+    }
+
+    /**
+     * Insert value into tree.
+     *
+     * @param value node value.
+     * @throws IOException if the request fails.
+     */
+    public void insert(T value) throws IOException {
+        Pipeline pipeline = this.pipeline();
+        CompletableFuture<Void> reply = pipeline.insert(value);
+        pipeline.execute();
+        result(reply);
+    }
+
+    /**
+     * Return the number of nodes that match a value.
+     *
+     * @param value value to match.
+     * @return number of matching nodes.
+     * @throws IOException if the request fails.
+     */
+    public int find(T value) throws IOException {
+        Pipeline pipeline = this.pipeline();
+        CompletableFuture<Integer> reply = pipeline.find(value);
+        pipeline.execute();
+        return result(reply);
+    }
+
+    /**
+     * Remove nodes from tree.
+     *
+     * @param value value to match.
+     * @return true if there are one or more nodes that are removed.
+     * @throws IOException if the request fails.
+     */
+    public boolean remove(T value) throws IOException {
+        Pipeline pipeline = this.pipeline();
+        CompletableFuture<Boolean> reply = pipeline.remove(value);
+        pipeline.execute();
+        return result(reply);
+    }
+
+    /**
+     * Return the values in [low, high], in order.
+     *
+     * @param low  smallest value, inclusive.
+     * @param high largest value, inclusive.
+     * @return values in the range.
+     * @throws IOException if the request fails.
+     */
+    public List<T> range(T low, T high) throws IOException {
+        Pipeline pipeline = this.pipeline();
+        CompletableFuture<List<T>> reply = pipeline.range(low, high);
+        pipeline.execute();
+        return result(reply);
+    }
+
+    /**
+     * Return a new pipeline of requests.
+     *
+     * @return pipeline.
+     */
+    public Pipeline pipeline() {
+        return new Pipeline();
+    }
+
+    /**
+     * Close the connection.
+     *
+     * @throws IOException if the connection cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.selector.close();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Requests that are sent together. Each request returns a future that is
+     * completed by execute, or completed exceptionally if the server fails the
+     * request.
+     */
+    public class Pipeline {
+        private final List<byte[]> frames = new ArrayList<>();
+        private final List<Pending> pending = new ArrayList<>();
+
+        private Pipeline() {
+        }
+
+        /**
+         * Queue an insert.
+         *
+         * @param value node value.
+         * @return future of the response.
+         */
+        public CompletableFuture<Void> insert(T value) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            this.add(Protocol.INSERT, codec.encode(value), future);
+            return future;
+        }
+
+        /**
+         * Queue a find.
+         *
+         * @param value value to match.
+         * @return future of the number of matching nodes.
+         */
+        public CompletableFuture<Integer> find(T value) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            this.add(Protocol.FIND, codec.encode(value), future);
+            return future;
+        }
+
+        /**
+         * Queue a remove.
+         *
+         * @param value value to match.
+         * @return future of true if nodes are removed.
+         */
+        public CompletableFuture<Boolean> remove(T value) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            this.add(Protocol.REMOVE, codec.encode(value), future);
+            return future;
+        }
+
+        /**
+         * Queue a range.
+         *
+         * @param low  smallest value, inclusive.
+         * @param high largest value, inclusive.
+         * @return future of the values in the range.
+         */
+        public CompletableFuture<List<T>> range(T low, T high) {
+            byte[] lowBytes = codec.encode(low);
+            byte[] highBytes = codec.encode(high);
+            byte[] payload = ByteBuffer.allocate(4 + lowBytes.length + highBytes.length).putInt(lowBytes.length)
+                    .put(lowBytes).put(highBytes).array();
+            CompletableFuture<List<T>> future = new CompletableFuture<>();
+            this.add(Protocol.RANGE, payload, future);
+            return future;
+        }
+
+        /**
+         * Send the queued requests and read their responses, as the socket
+         * takes requests and has responses. The pipeline is empty afterwards
+         * and can be reused.
+         *
+         * @throws IOException if the requests cannot be sent or the responses
+         *                     cannot be read.
+         */
+        public void execute() throws IOException {
+            int size = 0;
+            for (byte[] frame : this.frames) {
+                size += frame.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            for (byte[] frame : this.frames) {
+                buffer.put(frame);
+            }
+            buffer.flip();
+            this.frames.clear();
+
+            int completed = 0;
+            while (completed < this.pending.size()) {
+                key.interestOps(buffer.hasRemaining() ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                        : SelectionKey.OP_READ);
+                selector.select();
+                selector.selectedKeys().clear();
+                if (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                if (channel.read(input) < 0) {
+                    throw new IOException("Connection is closed by the server.");
+                }
+                completed = this.complete(completed);
+            }
+            this.pending.clear();
+        }
+
+        /**
+         * Complete the requests of the complete responses that are read.
+         *
+         * @param from index of the first request without response.
+         * @return index of the first request without response afterwards.
+         */
+        private int complete(int from) throws IOException {
+            ByteBuffer buffer = input;
+            buffer.flip();
+            while (from < this.pending.size() && buffer.remaining() >= 4 + Protocol.HEADER_SIZE) {
+                int length = buffer.getInt(buffer.position());
+                if (length < Protocol.HEADER_SIZE || length > Protocol.MAX_FRAME_SIZE) {
+                    throw new IOException("Invalid response length " + length);
+                }
+                if (buffer.remaining() < 4 + length) {
+                    break;
+                }
+                buffer.getInt();
+                int id = buffer.getInt();
+                byte status = buffer.get();
+                Pending request = this.pending.get(from);
+                if (id != request.id) {
+                    throw new IOException("Unexpected response " + id + " for request " + request.id);
+                }
+                byte[] payload = new byte[length - Protocol.HEADER_SIZE];
+                buffer.get(payload);
+                if (status == Protocol.OK) {
+                    request.complete(ByteBuffer.wrap(payload));
+                } else {
+                    request.future.completeExceptionally(new IOException(new String(payload, StandardCharsets.UTF_8)));
+                }
+                from++;
+            }
+            buffer.compact();
+
+            // make room for the rest of a large frame.
+            if (!buffer.hasRemaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                input = larger;
+            }
+            return from;
+        }
+
+        private void add(byte operation, byte[] payload, CompletableFuture<?> future) {
+            int id = nextId++;
+            this.frames.add(ByteBuffer.allocate(4 + Protocol.HEADER_SIZE + payload.length)
+                    .putInt(Protocol.HEADER_SIZE + payload.length).putInt(id).put(operation).put(payload).array());
+            this.pending.add(new Pending(id, operation, future));
+        }
+    }
+
+    private class Pending {
+        private final int id;
+        private final byte operation;
+        private final CompletableFuture<?> future;
+
+        Pending(int id, byte operation, CompletableFuture<?> future) {
+            this.id = id;
+            this.operation = operation;
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(ByteBuffer payload) {
+            switch (this.operation) {
+                case Protocol.INSERT:
+                    ((CompletableFuture<Void>) this.future).complete(null);
+                    break;
+                case Protocol.FIND:
+                    ((CompletableFuture<Integer>) this.future).complete(payload.getInt());
+                    break;
+                case Protocol.REMOVE:
+                    ((CompletableFuture<Boolean>) this.future).complete(payload.get() != 0);
+                    break;
+                default:
+                    int count = payload.getInt();
+                    List<T> values = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        byte[] value = new byte[payload.getInt()];
+                        payload.get(value);
+                        values.add(codec.decode(value));
+                    }
+                    ((CompletableFuture<List<T>>) this.future).complete(values);
+                    break;
+            }
+        }
+    }
+
+    private static <R> R result(CompletableFuture<R> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
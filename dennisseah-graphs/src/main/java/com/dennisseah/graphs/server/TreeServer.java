@@ -0,0 +1,443 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.FindAllResult;
+import com.dennisseah.graphs.bst.IBinarySearchTreeBase;
+import com.dennisseah.graphs.common.ValueCodec;
+import com.dennisseah.graphs.common.ValueUtils;
+
+/**
+ * Server of a tree over non-blocking sockets, see Protocol. One thread runs
+ * the selector and the tree operations. The requests that arrive in one round
+ * of the selector, from all connections, are executed as a batch in order;
+ * consecutive finds of a batch share one walk of the tree (findAll).
+ * 
+ * A connection is not read while more than 1 MiB of its responses wait to be
+ * sent, so a client that does not read its responses cannot grow the memory
+ * of the server without bound.
+ * 
+ * The tree must not be changed by others while it is served.
+ */
+public class TreeServer<T extends Comparable<T>> implements Closeable {
+    private final IBinarySearchTreeBase<T> tree;
+    private final ValueCodec<T> codec;
+    private final long maxQueuedOutput;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread thread;
+    private volatile boolean running;
+    private long batchCount = 0;
+    private long requestCount = 0;
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree  tree to serve.
+     * @param codec codec of the values.
+     */
+    public TreeServer(IBinarySearchTreeBase<T> tree, ValueCodec<T> codec) {
+        this(tree, codec, Protocol.MAX_QUEUED_OUTPUT);
+    }
+
+    /**
+     * Instantiate an instance of this class.
+     *
+     * @param tree            tree to serve.
+     * @param codec           codec of the values.
+     * @param maxQueuedOutput bytes of responses a connection may have waiting
+     *                        before it is not read anymore.
+     */
+    TreeServer(IBinarySearchTreeBase<T> tree, ValueCodec<T> codec, long maxQueuedOutput) {
+        this.tree = tree;
+        this.codec = codec;
+        this.maxQueuedOutput = maxQueuedOutput;
+    }
+
+    /**
+     * Bind to an address and start serving.
+     *
+     * @param address address, e.g. port 0 of loopback for a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public synchronized void start(InetSocketAddress address) throws IOException {
+        if (this.running) {
+            throw new IllegalStateException("Server is started.");
+        }
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(address);
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+
+        this.running = true;
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "tree-server");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Return the bound address.
+     *
+     * @return bound address.
+     * @throws IOException if the address cannot be read.
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) this.serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Return the number of executed batches.
+     *
+     * @return number of batches.
+     */
+    public synchronized long getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Return the number of executed requests.
+     *
+     * @return number of requests.
+     */
+    public synchronized long getRequestCount() {
+        return this.requestCount;
+    }
+
+    /**
+     * Stop serving and close all connections.
+     *
+     * @throws IOException if the sockets cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.selector.wakeup();
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Connection {
+        private final SocketChannel channel;
+        private ByteBuffer input = ByteBuffer.allocate(4096);
+        private final Deque<ByteBuffer> output = new ArrayDeque<>();
+        private long queued = 0;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private static class Request {
+        private final Connection connection;
+        private final int id;
+        private final byte operation;
+        private final byte[] payload;
+        private byte[] response;
+
+        Request(Connection connection, int id, byte operation, byte[] payload) {
+            this.connection = connection;
+            this.id = id;
+            this.operation = operation;
+            this.payload = payload;
+        }
+    }
+
+    private void serve() {
+        List<Request> batch = new ArrayList<>();
+        Set<Connection> pending = new LinkedHashSet<>();
+        try {
+            while (this.running) {
+                this.selector.select();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            this.accept();
+                            continue;
+                        }
+                        if (key.isWritable()) {
+                            this.flush(key, (Connection) key.attachment());
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            this.read(key, (Connection) key.attachment(), batch);
+                        }
+                    } catch (IOException e) {
+                        this.disconnect(key);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    this.execute(batch);
+                    for (Request request : batch) {
+                        request.connection.output.add(ByteBuffer.wrap(request.response));
+                        request.connection.queued += request.response.length;
+                        pending.add(request.connection);
+                    }
+                    batch.clear();
+                    for (Connection connection : pending) {
+                        SelectionKey key = connection.channel.keyFor(this.selector);
+                        if (key == null || !key.isValid()) {
+                            continue;
+                        }
+                        try {
+                            this.flush(key, connection);
+                        } catch (IOException e) {
+                            this.disconnect(key);
+                        }
+                    }
+                    pending.clear();
+                }
+            }
+        } catch (IOException e) {
+            // NO-ACTION, the selector is broken and the server stops.
+        } finally {
+            for (SelectionKey key : this.selector.keys()) {
+                this.disconnect(key);
+            }
+            try {
+                this.selector.close();
+            } catch (IOException e) {
+                // NO-ACTION
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(this.selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    private void disconnect(SelectionKey key) {
+        if (key == null) {
+            return;
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // NO-ACTION
+        }
+    }
+
+    /**
+     * Read what is available and add the complete frames to the batch.
+     */
+    private void read(SelectionKey key, Connection connection, List<Request> batch) throws IOException {
+        int read = connection.channel.read(connection.input);
+        if (read < 0) {
+            this.disconnect(key);
+            return;
+        }
+
+        ByteBuffer input = connection.input;
+        input.flip();
+        while (input.remaining() >= 4) {
+            int length = input.getInt(input.position());
+            if (length < Protocol.HEADER_SIZE || length > Protocol.MAX_FRAME_SIZE) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (input.remaining() < 4 + length) {
+                break;
+            }
+            input.getInt();
+            int id = input.getInt();
+            byte operation = input.get();
+            byte[] payload = new byte[length - Protocol.HEADER_SIZE];
+            input.get(payload);
+            batch.add(new Request(connection, id, operation, payload));
+        }
+        input.compact();
+
+        // make room for the rest of a large frame.
+        if (!input.hasRemaining()) {
+            ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+            input.flip();
+            larger.put(input);
+            connection.input = larger;
+        }
+    }
+
+    /**
+     * Write what the socket takes, and read again only when the responses
+     * waiting are below the limit.
+     */
+    private void flush(SelectionKey key, Connection connection) throws IOException {
+        while (!connection.output.isEmpty()) {
+            ByteBuffer buffer = connection.output.peek();
+            connection.queued -= connection.channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                break;
+            }
+            connection.output.poll();
+        }
+
+        int ops = connection.output.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+        if (connection.queued <= this.maxQueuedOutput) {
+            ops |= SelectionKey.OP_READ;
+        }
+        key.interestOps(ops);
+    }
+
+    private void execute(List<Request> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            Request request = batch.get(i);
+            if (request.operation != Protocol.FIND) {
+                this.execute(request);
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < batch.size() && batch.get(end).operation == Protocol.FIND) {
+                end++;
+            }
+            try {
+                T[] values = ValueUtils.<T>newArray(end - i);
+                for (int j = i; j < end; j++) {
+                    values[j - i] = this.codec.decode(batch.get(j).payload);
+                }
+                FindAllResult<T> found = this.tree.findAll(values);
+                for (int j = i; j < end; j++) {
+                    batch.get(j).response = response(batch.get(j).id, Protocol.OK,
+                            ByteBuffer.allocate(4).putInt(found.count(j - i)).array());
+                }
+            } catch (RuntimeException e) {
+                // find each on its own, so that a bad value fails only its request.
+                for (int j = i; j < end; j++) {
+                    this.execute(batch.get(j));
+                }
+            }
+            i = end;
+        }
+
+        synchronized (this) {
+            this.batchCount++;
+            this.requestCount += batch.size();
+        }
+    }
+
+    private void execute(Request request) {
+        try {
+            byte[] payload;
+            switch (request.operation) {
+                case Protocol.INSERT:
+                    this.tree.insert(this.codec.decode(request.payload));
+                    payload = new byte[0];
+                    break;
+                case Protocol.FIND:
+                    payload = ByteBuffer.allocate(4)
+                            .putInt(this.tree.find(this.codec.decode(request.payload)).size()).array();
+                    break;
+                case Protocol.REMOVE:
+                    payload = new byte[] { (byte) (this.tree.remove(this.codec.decode(request.payload)) ? 1 : 0) };
+                    break;
+                case Protocol.RANGE:
+                    payload = this.range(request.payload);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + request.operation);
+            }
+            request.response = response(request.id, Protocol.OK, payload);
+        } catch (RuntimeException e) {
+            String message = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            request.response = response(request.id, Protocol.ERROR, message.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private byte[] range(byte[] request) {
+        ByteBuffer buffer = ByteBuffer.wrap(request);
+        byte[] low = new byte[buffer.getInt()];
+        buffer.get(low);
+        byte[] high = new byte[buffer.remaining()];
+        buffer.get(high);
+
+        List<BinarySearchTreeNode<T>> nodes = this.tree.rangeTraversal(this.codec.decode(low),
+                this.codec.decode(high));
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(nodes.size());
+            for (BinarySearchTreeNode<T> node : nodes) {
+                byte[] value = this.codec.encode(node.getValue());
+                if (output.size() + 4 + value.length > Protocol.MAX_FRAME_SIZE - Protocol.HEADER_SIZE) {
+                    throw new IllegalArgumentException("Range of " + nodes.size()
+                            + " values exceeds the maximum response size, narrow the range.");
+                }
+                output.writeInt(value.length);
+                output.write(value);
+            }
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte[] response(int id, byte status, byte[] payload) {
+        return ByteBuffer.allocate(4 + Protocol.HEADER_SIZE + payload.length)
+                .putInt(Protocol.HEADER_SIZE + payload.length).putInt(id).put(status).put(payload).array();
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AugmentedBinarySearchTreeTest {
+    private long sum(List<Integer> values, int low, int high) {
+        long sum = 0;
+        for (int v : values) {
+            if (v >= low && v <= high) {
+                sum += v;
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void sumTest() {
+        AugmentedBinarySearchTree<Integer, Long> tree = new AugmentedBinarySearchTree<>(Monoids.integerSum());
+        for (int i : new Integer[] { 5, 3, 8, 1, 4, 7, 9, 3 }) {
+            tree.insert(i);
+        }
+        assertEquals(40L, tree.aggregate().longValue());
+        assertEquals(10L, tree.aggregate(3, 4).longValue());
+        assertEquals(24L, tree.aggregate(6, 100).longValue());
+        assertEquals(0L, tree.aggregate(10, 20).longValue());
+        assertEquals(0L, tree.aggregate(4, 3).longValue());
+    }
+
+    @Test
+    public void minMaxCountTest() {
+        AugmentedBinarySearchTree<Integer, Integer> min = new AugmentedBinarySearchTree<>(Monoids.<Integer>min());
+        AugmentedBinarySearchTree<Integer, Integer> max = new AugmentedBinarySearchTree<>(Monoids.<Integer>max());
+        AugmentedBinarySearchTree<Integer, Long> count = new AugmentedBinarySearchTree<>(
+                Monoids.<Integer>count(), true);
+        for (int i : new Integer[] { 50, 30, 80, 10, 40, 70, 90, 30 }) {
+            min.insert(i);
+            max.insert(i);
+            count.insert(i);
+        }
+        assertEquals(30, min.aggregate(25, 75).intValue());
+        assertEquals(70, max.aggregate(25, 75).intValue());
+        assertEquals(7L, count.aggregate().longValue());
+        assertEquals(4L, count.aggregate(25, 75).longValue());
+        assertNull(min.aggregate(91, 100));
+    }
+
+    @Test
+    public void inOrderCombineTest() {
+        IMonoid<String, String> concat = new IMonoid<String, String>() {
+            public String identity() {
+                return "";
+            }
+
+            public String lift(String value) {
+                return value;
+            }
+
+            public String combine(String left, String right) {
+                return left + right;
+            }
+        };
+        AugmentedBinarySearchTree<String, String> tree = new AugmentedBinarySearchTree<>(concat);
+        for (String s : new String[] { "d", "b", "f", "a", "c", "e", "g" }) {
+            tree.insert(s);
+        }
+        assertEquals("bcde", tree.aggregate("b", "e"));
+        tree.remove("d");
+        assertEquals("abcefg", tree.aggregate());
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        Random random = new Random(36);
+        AugmentedBinarySearchTree<Integer, Long> tree = new AugmentedBinarySearchTree<>(Monoids.integerSum());
+        List<Integer> reference = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            if (reference.isEmpty() || random.nextInt(3) > 0) {
+                int value = random.nextInt(500);
+                tree.insert(value);
+                reference.add(value);
+            } else {
+                Integer value = reference.get(random.nextInt(reference.size()));
+                assertTrue(tree.remove(value));
+                while (reference.remove(value)) {
+                    // remove all duplicates
+                }
+            }
+            if (i % 1000 == 999) {
+                assertTrue(tree.balance() || tree.isBalanced());
+            }
+            if (i % 50 == 0) {
+                int low = random.nextInt(500);
+                int high = low + random.nextInt(200);
+                assertEquals(sum(reference, low, high), tree.aggregate(low, high).longValue());
+                assertEquals(sum(reference, 0, 1000), tree.aggregate().longValue());
+            }
+        }
+        assertFalse(tree.remove(1000));
+    }
+
+    @Test
+    public void setRootTest() {
+        AugmentedBinarySearchTree<Integer, Long> tree = new AugmentedBinarySearchTree<>(Monoids.integerSum());
+        tree.setRoot(new BinarySearchTreeNode<>(5, new BinarySearchTreeNode<>(2), new BinarySearchTreeNode<>(9)));
+        assertTrue(tree.getRoot() instanceof AugmentedBinarySearchTreeNode);
+        assertEquals(16L, tree.aggregate().longValue());
+        assertEquals(7L, tree.aggregate(1, 5).longValue());
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class BinarySearchTreeMapTest {
+    private BiFunction<Integer, Integer, Integer> fnSum = new BiFunction<Integer, Integer, Integer>() {
+        public Integer apply(Integer a, Integer b) {
+            return a + b;
+        }
+    };
+
+    private BinarySearchTreeMap<Integer, String> createMap() {
+        BinarySearchTreeMap<Integer, String> map = new BinarySearchTreeMap<>();
+        for (int i : new Integer[] { 50, 30, 70, 20, 40, 60, 80 }) {
+            map.put(i, "v" + i);
+        }
+        return map;
+    }
+
+    @Test
+    public void putGetRemoveTest() {
+        BinarySearchTreeMap<Integer, String> map = createMap();
+        assertEquals(7, map.size());
+        assertEquals("v40", map.get(40));
+        assertNull(map.get(45));
+        assertEquals("v40", map.put(40, "x"));
+        assertEquals("x", map.get(40));
+        assertEquals(7, map.size());
+        assertEquals("v50", map.remove(50));
+        assertNull(map.remove(50));
+        assertFalse(map.containsKey(50));
+        assertEquals(6, map.size());
+        assertTrue(map.isValid());
+        assertArrayEquals(new Integer[] { 20, 30, 40, 60, 70, 80 }, map.keySet().toArray());
+    }
+
+    @Test
+    public void nullValueTest() {
+        BinarySearchTreeMap<Integer, String> map = new BinarySearchTreeMap<>();
+        map.put(1, null);
+        assertTrue(map.containsKey(1));
+        assertNull(map.get(1));
+        assertEquals("a", map.getOrDefault(2, "a"));
+        assertNull(map.getOrDefault(1, "a"));
+        assertNull(map.putIfAbsent(1, "b"));
+        assertEquals("b", map.putIfAbsent(1, "c"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullKeyTest() {
+        new BinarySearchTreeMap<Integer, String>().put(null, "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidAlphaTest() {
+        new BinarySearchTreeMap<Integer, String>(0.5);
+    }
+
+    @Test
+    public void computeMergeTest() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.merge(i % 10, 1, fnSum);
+        }
+        assertEquals(10, map.size());
+        assertEquals(Integer.valueOf(10), map.get(3));
+
+        assertEquals(Integer.valueOf(13), map.compute(3, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer key, Integer value) {
+                return key + value;
+            }
+        }));
+        assertNull(map.computeIfPresent(3, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer key, Integer value) {
+                return null;
+            }
+        }));
+        assertFalse(map.containsKey(3));
+        assertEquals(Integer.valueOf(9), map.computeIfAbsent(3, new Function<Integer, Integer>() {
+            public Integer apply(Integer key) {
+                return key * 3;
+            }
+        }));
+        assertEquals(Integer.valueOf(9), map.computeIfAbsent(3, new Function<Integer, Integer>() {
+            public Integer apply(Integer key) {
+                return 0;
+            }
+        }));
+        assertNull(map.compute(42, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer key, Integer value) {
+                return null;
+            }
+        }));
+        assertFalse(map.containsKey(42));
+        assertTrue(map.isValid());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void computeModifiesMapTest() {
+        final BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        map.computeIfAbsent(1, new Function<Integer, Integer>() {
+            public Integer apply(Integer key) {
+                map.put(2, 2);
+                return 1;
+            }
+        });
+    }
+
+    @Test
+    public void computeReadsMapTest() {
+        final BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i * 10, i);
+        }
+        // the functions locate other keys without modifying the map.
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent(55, new Function<Integer, Integer>() {
+            public Integer apply(Integer key) {
+                return map.remove(999) == null ? 1 : 2;
+            }
+        }));
+        assertEquals(Integer.valueOf(3), map.compute(45, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer key, Integer value) {
+                return map.putIfAbsent(0, 7) == null ? 4 : 3;
+            }
+        }));
+        assertEquals(Integer.valueOf(4), map.merge(45, 1, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer value, Integer other) {
+                return map.remove(-1) == null ? value + other : 0;
+            }
+        }));
+        assertNull(map.computeIfPresent(90, new BiFunction<Integer, Integer, Integer>() {
+            public Integer apply(Integer key, Integer value) {
+                return map.remove(998);
+            }
+        }));
+        assertEquals(11, map.size());
+        assertEquals(Integer.valueOf(1), map.get(55));
+        assertEquals(Integer.valueOf(4), map.get(45));
+        assertFalse(map.containsKey(90));
+        assertTrue(map.isValid());
+    }
+
+    @Test
+    public void navigationTest() {
+        BinarySearchTreeMap<Integer, String> map = createMap();
+        assertEquals(Integer.valueOf(20), map.firstKey());
+        assertEquals(Integer.valueOf(80), map.lastKey());
+        assertEquals(Integer.valueOf(40), map.floorKey(45));
+        assertEquals(Integer.valueOf(40), map.floorKey(40));
+        assertEquals(Integer.valueOf(30), map.lowerKey(40));
+        assertEquals(Integer.valueOf(50), map.ceilingKey(45));
+        assertEquals(Integer.valueOf(60), map.higherKey(50));
+        assertNull(map.lowerKey(20));
+        assertNull(map.higherKey(80));
+        assertEquals("v60", map.ceilingEntry(55).getValue());
+
+        Map.Entry<Integer, String> first = map.pollFirstEntry();
+        assertEquals(Integer.valueOf(20), first.getKey());
+        assertEquals("v20", first.getValue());
+        assertEquals(Integer.valueOf(80), map.pollLastEntry().getKey());
+        assertEquals(5, map.size());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void firstKeyEmptyTest() {
+        new BinarySearchTreeMap<Integer, String>().firstKey();
+    }
+
+    @Test
+    public void viewsTest() {
+        BinarySearchTreeMap<Integer, String> map = createMap();
+        NavigableMap<Integer, String> sub = map.subMap(30, true, 70, false);
+        assertArrayEquals(new Integer[] { 30, 40, 50, 60 }, sub.keySet().toArray());
+        assertEquals(4, sub.size());
+        assertEquals(Integer.valueOf(60), sub.lastKey());
+        assertNull(sub.get(70));
+        assertEquals(Integer.valueOf(30), sub.ceilingKey(10));
+        assertNull(sub.higherKey(60));
+
+        NavigableMap<Integer, String> descending = sub.descendingMap();
+        assertArrayEquals(new Integer[] { 60, 50, 40, 30 }, descending.keySet().toArray());
+        assertEquals(Integer.valueOf(50), descending.higherKey(60));
+        assertArrayEquals(new Integer[] { 50, 40 }, descending.subMap(55, 35).keySet().toArray());
+        assertArrayEquals(new Integer[] { 80, 70, 60, 50, 40, 30, 20 }, map.descendingKeySet().toArray());
+
+        assertArrayEquals(new Integer[] { 20, 30 }, map.headMap(40).keySet().toArray());
+        assertArrayEquals(new Integer[] { 40, 50, 60, 70, 80 }, map.tailMap(40).keySet().toArray());
+        assertArrayEquals(new Integer[] { 50, 60 }, map.tailMap(40, false).headMap(70).keySet().toArray());
+
+        sub.put(45, "v45");
+        assertEquals("v45", map.get(45));
+        assertEquals(Integer.valueOf(60), sub.pollLastEntry().getKey());
+        assertFalse(map.containsKey(60));
+        sub.clear();
+        assertArrayEquals(new Integer[] { 20, 70, 80 }, map.keySet().toArray());
+        assertEquals(new TreeMap<>(map), map);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void putOutOfRangeTest() {
+        createMap().headMap(40).put(40, "x");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subMapOutOfRangeTest() {
+        createMap().headMap(40).tailMap(50);
+    }
+
+    @Test
+    public void iteratorTest() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() * 2);
+        }
+        assertEquals(Integer.valueOf(84), map.get(42));
+
+        // removals rebuild the tree under the iterator.
+        Iterator<Integer> it = map.keySet().iterator();
+        int expected = 0;
+        while (it.hasNext()) {
+            assertEquals(Integer.valueOf(expected), it.next());
+            if (expected % 3 != 0) {
+                it.remove();
+            }
+            expected++;
+        }
+        assertEquals(34, map.size());
+        assertTrue(map.isValid());
+
+        it = map.descendingKeySet().iterator();
+        it.next();
+        it.remove();
+        assertEquals(Integer.valueOf(96), it.next());
+        assertEquals(Integer.valueOf(96), map.lastKey());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailFastTest() {
+        BinarySearchTreeMap<Integer, String> map = createMap();
+        Iterator<Integer> it = map.keySet().iterator();
+        it.next();
+        map.put(1, "x");
+        it.next();
+    }
+
+    @Test
+    public void sortedInsertTest() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        int size = 100000;
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+        assertTrue(map.isValid());
+        // log(size) / log(1 / 0.7) + 1
+        assertTrue(map.height() <= 34);
+    }
+
+    @Test
+    public void matchesTreeMapTest() {
+        Random random = new Random(42);
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(1000);
+            switch (random.nextInt(4)) {
+            case 0:
+                assertEquals(reference.remove(key), map.remove(key));
+                break;
+            case 1:
+                assertEquals(reference.merge(key, i, fnSum), map.merge(key, i, fnSum));
+                break;
+            default:
+                assertEquals(reference.put(key, i), map.put(key, i));
+            }
+            assertEquals(reference.floorKey(key), map.floorKey(key));
+            assertEquals(reference.higherKey(key), map.higherKey(key));
+        }
+        assertEquals(reference.size(), map.size());
+        assertEquals(reference, map);
+        assertEquals(reference.subMap(100, false, 200, true), map.subMap(100, false, 200, true));
+        assertEquals(reference.descendingMap().headMap(500), map.descendingMap().headMap(500));
+        assertTrue(map.isValid());
+    }
+}
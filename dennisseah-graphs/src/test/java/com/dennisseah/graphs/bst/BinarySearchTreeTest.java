@@ -29,7 +29,12 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import org.junit.Test;
@@ -154,6 +159,15 @@ public class BinarySearchTreeTest {
         assertArrayEquals(expecteds, actuals);
     }
 
+    @Test
+    public void removeWithSuccessorTest() {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 10, 4, 2, 8, 6, 9, 7 });
+        assertTrue(tree.remove(4));
+        Integer[] expecteds = new Integer[] { 2, 6, 7, 8, 9, 10 }; // sorted
+        Object[] actuals = tree.inorderTraversal().stream().map(fnNodeValue).toArray();
+        assertArrayEquals(expecteds, actuals);
+    }
+
     @Test
     public void removeNoneTest() {
         BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 7, 1, 5, 6, 4, 2, 3 });
@@ -244,4 +258,252 @@ public class BinarySearchTreeTest {
         assertTrue(tree.balance());
         assertEquals(4, tree.height());
     }
+
+    @Test
+    public void floorTest() {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 40, 20, 60, 10, 30, 50, 70 });
+        assertNull(tree.floor(5));
+        assertEquals(30, tree.floor(35).intValue());
+        assertEquals(40, tree.floor(40).intValue());
+        assertEquals(70, tree.floor(75).intValue());
+    }
+
+    @Test
+    public void ceilingTest() {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 40, 20, 60, 10, 30, 50, 70 });
+        assertEquals(10, tree.ceiling(5).intValue());
+        assertEquals(40, tree.ceiling(35).intValue());
+        assertEquals(40, tree.ceiling(40).intValue());
+        assertNull(tree.ceiling(75));
+    }
+
+    @Test
+    public void findAllTest() {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 4, 2, 6, 1, 3, 5, 7, 7, 7 });
+        FindAllResult<Integer> found = tree.findAll(new Integer[] { 7, 0, 3, 7, 8 });
+        assertEquals(5, found.size());
+        assertEquals(3, found.count(0));
+        assertEquals(0, found.count(1));
+        assertEquals(1, found.count(2));
+        assertEquals(3, found.get(2, 0).getValue().intValue());
+        assertEquals(3, found.count(3));
+        assertEquals(0, found.count(4));
+        assertEquals(7, found.totalCount());
+        assertEquals(tree.find(7), found.nodes(0));
+    }
+
+    @Test
+    public void findAllParallelTest() {
+        Random random = new Random(7);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i = 0; i < 5000; i++) {
+            tree.insert(random.nextInt(2000));
+        }
+        Integer[] values = new Integer[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(2500);
+        }
+
+        FindAllResult<Integer> found = tree.findAll(values, ForkJoinPool.commonPool());
+        assertEquals(values.length, found.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(tree.find(values[i]), found.nodes(i));
+        }
+    }
+
+    @Test
+    public void fromUnsortedTest() {
+        Random random = new Random(37);
+        Integer[] values = new Integer[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(50000);
+        }
+        Integer[] copy = values.clone();
+
+        BinarySearchTree<Integer> tree = BinarySearchTree.fromUnsorted(values, false);
+        assertArrayEquals(copy, values);
+        assertEquals(values.length, tree.inorderTraversal().size());
+        for (int i = 0; i < 100; i++) {
+            int count = 0;
+            for (Integer v : values) {
+                if (v.equals(values[i])) {
+                    count++;
+                }
+            }
+            assertEquals(count, tree.find(values[i]).size());
+        }
+
+        BinarySearchTree<Integer> unique = BinarySearchTree.fromUnsorted(values, true);
+        assertTrue(unique.isValid());
+        assertTrue(unique.isBalanced());
+        Object[] sorted = unique.inorderTraversal().stream().map(fnNodeValue).toArray();
+        for (int i = 1; i < sorted.length; i++) {
+            assertTrue((Integer) sorted[i - 1] < (Integer) sorted[i]);
+        }
+        assertEquals(sorted.length, BinarySearchTree.fromUnsorted(values, true, null).inorderTraversal().size());
+        assertNull(BinarySearchTree.fromUnsorted(new Integer[0], true).getRoot());
+    }
+
+    @Test
+    public void fromUnsortedDuplicatesTest() {
+        // one long run of equal values is chained, not recursed into.
+        Integer[] values = new Integer[100000];
+        Arrays.fill(values, 7);
+        values[0] = 3;
+        values[1] = 9;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (ForkJoinPool p : new ForkJoinPool[] { null, pool }) {
+            BinarySearchTree<Integer> tree = BinarySearchTree.fromUnsorted(values, false, p);
+            List<BinarySearchTreeNode<Integer>> nodes = tree.parallelInorderTraversal(null);
+            assertEquals(values.length, nodes.size());
+            assertEquals(Integer.valueOf(3), nodes.get(0).getValue());
+            assertEquals(Integer.valueOf(9), nodes.get(nodes.size() - 1).getValue());
+            for (int i = 1; i < nodes.size(); i++) {
+                assertTrue(nodes.get(i - 1).getValue() <= nodes.get(i).getValue());
+            }
+        }
+        pool.shutdown();
+
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        tree.insert(7);
+        Integer[] none = new Integer[0];
+        tree.applyBatch(none, values, null);
+        assertEquals(values.length + 1, tree.parallelInorderTraversal(null).size());
+    }
+
+    @Test
+    public void parallelOperationsTest() throws InvalidBinaryTreeException, NullValueException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(38);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int i = 0; i < 20000; i++) {
+            tree.insert(random.nextInt(1000000));
+        }
+        assertEquals(tree.height(), tree.parallelHeight(pool));
+        assertEquals(tree.isValid(), tree.parallelIsValid(pool));
+        assertEquals(tree.isBalanced(), tree.parallelIsBalanced(pool));
+        assertEquals(tree.inorderTraversal(), tree.parallelInorderTraversal(pool));
+        assertEquals(tree.preorderTraversal(), tree.parallelPreorderTraversal(pool));
+        assertEquals(tree.postorderTraversal(), tree.parallelPostorderTraversal(pool));
+
+        tree.balance();
+        assertTrue(tree.parallelIsBalanced(pool));
+        assertEquals(tree.height(), tree.parallelHeight(pool));
+
+        BinarySearchTree<Integer> invalid = new BinarySearchTree<Integer>(new Integer[] { 4, 2, 6, 1, 3, 5, 7 });
+        invalid.getRoot().getLeft().getLeft().setValue(9);
+        assertFalse(invalid.isValid());
+        assertFalse(invalid.parallelIsValid(pool));
+
+        // deeper than the recursive walks can go.
+        BinarySearchTree<Integer> chain = new BinarySearchTree<Integer>();
+        BinarySearchTreeNode<Integer> node = new BinarySearchTreeNode<Integer>(0);
+        chain.setRoot(node);
+        for (int i = 1; i < 100000; i++) {
+            node.setRight(new BinarySearchTreeNode<Integer>(i));
+            node = node.getRight();
+        }
+        assertEquals(100000, chain.parallelHeight(pool));
+        assertFalse(chain.parallelIsBalanced(pool));
+        assertEquals(100000, chain.parallelInorderTraversal(pool).size());
+        assertTrue(new BinarySearchTree<Integer>().parallelInorderTraversal(pool).isEmpty());
+        pool.shutdown();
+
+        // without a pool the operations run in the calling thread.
+        assertEquals(tree.height(), tree.parallelHeight(null));
+        assertTrue(tree.parallelIsValid(null));
+        assertTrue(tree.parallelIsBalanced(null));
+        assertEquals(tree.inorderTraversal(), tree.parallelInorderTraversal(null));
+        assertEquals(100000, chain.parallelHeight(null));
+        assertEquals(100000, chain.parallelPostorderTraversal(null).size());
+    }
+
+    @Test
+    public void firstLastTest() throws InvalidBinaryTreeException {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 5, 3, 8, 1, 4, 9 });
+        assertEquals(Integer.valueOf(1), tree.first());
+        assertEquals(Integer.valueOf(9), tree.last());
+
+        // the cached nodes follow inserts, removes and balance.
+        tree.insert(0);
+        tree.insert(12);
+        tree.insert(7);
+        assertEquals(Integer.valueOf(0), tree.first());
+        assertEquals(Integer.valueOf(12), tree.last());
+        assertTrue(tree.remove(12));
+        assertEquals(Integer.valueOf(9), tree.last());
+        tree.balance();
+        assertEquals(Integer.valueOf(0), tree.first());
+        assertEquals(Integer.valueOf(9), tree.last());
+
+        tree.setRoot(createTree(new Integer[] { 20, 10, 30 }).getRoot());
+        assertEquals(Integer.valueOf(10), tree.first());
+        assertEquals(Integer.valueOf(30), tree.last());
+
+        BinarySearchTree<Integer> greater = tree.split(15);
+        assertEquals(Integer.valueOf(10), tree.last());
+        assertEquals(Integer.valueOf(20), greater.first());
+
+        BinarySearchTree<Integer> empty = new BinarySearchTree<Integer>();
+        assertNull(empty.first());
+        assertNull(empty.last());
+        assertNull(empty.pollFirst());
+        assertNull(empty.pollLast());
+    }
+
+    @Test
+    public void removeFirstLastTest() {
+        // removes of values in between keep the cached nodes.
+        Random random = new Random(46);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(3) < 2) {
+                tree.insert(value);
+                expected.add(value);
+                Collections.sort(expected);
+            } else {
+                assertEquals(expected.removeAll(Collections.singleton(value)), tree.remove(value));
+            }
+            if (!expected.isEmpty()) {
+                assertEquals(expected.get(0), tree.first());
+                assertEquals(expected.get(expected.size() - 1), tree.last());
+            }
+        }
+    }
+
+    @Test
+    public void pollTest() {
+        BinarySearchTree<Integer> tree = createTreeWithInsert(new Integer[] { 5, 3, 8, 3, 1, 8, 9 });
+        assertEquals(Integer.valueOf(1), tree.pollFirst());
+        assertEquals(Integer.valueOf(3), tree.pollFirst());
+        assertEquals(Integer.valueOf(3), tree.first());
+        assertEquals(Integer.valueOf(9), tree.pollLast());
+        assertEquals(Integer.valueOf(8), tree.pollLast());
+        assertEquals(Integer.valueOf(8), tree.last());
+        assertArrayEquals(new Integer[] { 3, 5, 8 }, tree.inorderTraversal().stream().map(fnNodeValue).toArray());
+
+        // work queue with random inserts, compared with a sorted list.
+        Random random = new Random(45);
+        BinarySearchTree<Integer> queue = new BinarySearchTree<Integer>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            int op = random.nextInt(4);
+            if (op < 2 || expected.isEmpty()) {
+                int value = random.nextInt(1000);
+                queue.insert(value);
+                expected.add(value);
+                Collections.sort(expected);
+            } else if (op == 2) {
+                assertEquals(expected.remove(0), queue.pollFirst());
+            } else {
+                assertEquals(expected.remove(expected.size() - 1), queue.pollLast());
+            }
+            if (!expected.isEmpty()) {
+                assertEquals(expected.get(0), queue.first());
+                assertEquals(expected.get(expected.size() - 1), queue.last());
+            }
+        }
+    }
 }
@@ -0,0 +1,323 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+public class BoundedBinarySearchTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    /**
+     * Clock that is moved by the test.
+     */
+    private static class ManualClock implements LongSupplier {
+        long now = 1000;
+
+        @Override
+        public long getAsLong() {
+            return this.now;
+        }
+    }
+
+    private Object[] values(BinarySearchTree<Integer> tree) {
+        return tree.inorderTraversal().stream().map(fnNodeValue).toArray();
+    }
+
+    private void insert(BinarySearchTree<Integer> tree, Integer[] values) {
+        for (int i : values) {
+            tree.insert(i);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMaxSizeTest() {
+        new BoundedBinarySearchTree<Integer>(0, EvictionPolicy.SMALLEST);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ttlWithoutTimeTest() {
+        new BoundedBinarySearchTree<Integer>(10, EvictionPolicy.TTL);
+    }
+
+    @Test
+    public void smallestTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(3, EvictionPolicy.SMALLEST);
+        insert(tree, new Integer[] { 5, 2, 8, 2, 9, 1 });
+        assertArrayEquals(new Integer[] { 5, 8, 9 }, values(tree));
+        assertEquals(3, tree.size());
+        assertEquals(2, tree.getEvictionCount());
+        assertEquals(Integer.valueOf(5), tree.first());
+        assertTrue(tree.isValid());
+    }
+
+    @Test
+    public void largestTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(3, EvictionPolicy.LARGEST);
+        insert(tree, new Integer[] { 5, 2, 8, 9, 1 });
+        assertArrayEquals(new Integer[] { 1, 2, 5 }, values(tree));
+        assertEquals(Integer.valueOf(5), tree.last());
+        assertTrue(tree.remove(2));
+        assertFalse(tree.remove(2));
+        assertEquals(2, tree.size());
+        tree.insert(7);
+        assertEquals(3, tree.size());
+        assertEquals(2, tree.getEvictionCount());
+    }
+
+    @Test
+    public void lruTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(3, EvictionPolicy.LRU);
+        insert(tree, new Integer[] { 1, 2, 3 });
+        assertEquals(1, tree.find(1).size());
+        tree.insert(4);
+        assertArrayEquals(new Integer[] { 1, 3, 4 }, values(tree));
+        tree.insert(3);
+        tree.insert(5);
+        assertArrayEquals(new Integer[] { 3, 4, 5 }, values(tree));
+        assertEquals(Integer.valueOf(3), tree.pollFirst());
+        tree.insert(6);
+        tree.insert(7);
+        assertArrayEquals(new Integer[] { 5, 6, 7 }, values(tree));
+        assertEquals(3, tree.size());
+    }
+
+    @Test
+    public void ttlTest() {
+        ManualClock clock = new ManualClock();
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(3, EvictionPolicy.TTL, 100, clock);
+        insert(tree, new Integer[] { 10, 20 });
+        clock.now += 50;
+        tree.insert(30);
+        tree.insert(10);
+        clock.now += 60;
+        // 20 expired, 10 was inserted again.
+        assertArrayEquals(new Integer[] { 10, 30 }, values(tree));
+        assertEquals(1, tree.getEvictionCount());
+
+        tree.insert(40);
+        tree.insert(50);
+        // full, the oldest value goes first.
+        assertArrayEquals(new Integer[] { 10, 40, 50 }, values(tree));
+        clock.now += 1000;
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.find(40).size());
+        assertEquals(5, tree.getEvictionCount());
+    }
+
+    @Test
+    public void balanceTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(100, EvictionPolicy.LRU);
+        for (int i = 0; i < 150; i++) {
+            tree.insert(i);
+        }
+        assertTrue(tree.balance());
+        assertTrue(tree.isBalanced());
+        assertEquals(100, tree.size());
+        tree.insert(150);
+        assertEquals(Integer.valueOf(51), tree.first());
+    }
+
+    @Test
+    public void setRootTest() throws InvalidBinaryTreeException {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(3, EvictionPolicy.SMALLEST);
+        tree.setRoot(new BinarySearchTree<Integer>(new Integer[] { 4, 2, 6, 1, 3, 5, 7 }).getRoot());
+        assertEquals(3, tree.size());
+        assertEquals(4, tree.getEvictionCount());
+        assertArrayEquals(new Object[] { 5, 6, 7 }, values(tree));
+
+        tree.setRoot(null);
+        assertEquals(0, tree.size());
+        tree.insert(1);
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    public void unionTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(4, EvictionPolicy.LRU);
+        insert(tree, new Integer[] { 1, 2, 3 });
+        tree.find(1);
+        BinarySearchTree<Integer> other = new BinarySearchTree<>(true);
+        insert(other, new Integer[] { 3, 4, 5 });
+
+        // the values of the other tree are the most recently used.
+        tree.union(other, null);
+        assertEquals(4, tree.size());
+        assertArrayEquals(new Object[] { 1, 3, 4, 5 }, values(tree));
+        assertTrue(tree.isValid());
+
+        BinarySearchTree<Integer> greater = tree.split(3);
+        assertEquals(2, tree.size());
+        tree.join(greater);
+        assertEquals(4, tree.size());
+
+        BinarySearchTree<Integer> removals = new BinarySearchTree<>(true);
+        insert(removals, new Integer[] { 4 });
+        tree.difference(removals, null);
+        assertEquals(3, tree.size());
+        assertFalse(tree.remove(4));
+    }
+
+    @Test
+    public void applyBatchTest() {
+        ManualClock clock = new ManualClock();
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(5, EvictionPolicy.TTL, 100, clock);
+        insert(tree, new Integer[] { 1, 2, 3 });
+        clock.now += 50;
+        tree.applyBatch(new Integer[] { 2 }, new Integer[] { 7, 8, 9, 10 }, null);
+        assertEquals(5, tree.size());
+        assertArrayEquals(new Object[] { 3, 7, 8, 9, 10 }, values(tree));
+
+        // the values of the batch live from the batch.
+        clock.now += 60;
+        assertArrayEquals(new Object[] { 7, 8, 9, 10 }, values(tree));
+        assertEquals(4, tree.size());
+    }
+
+    @Test
+    public void smallBatchesTest() {
+        Random random = new Random(12);
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(1000, EvictionPolicy.SMALLEST);
+        TreeSet<Integer> reference = new TreeSet<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(100000);
+            tree.insert(value);
+            reference.add(value);
+        }
+        while (reference.size() > 1000) {
+            reference.pollFirst();
+        }
+
+        // few values are inserted and removed one at a time.
+        for (int round = 0; round < 200; round++) {
+            Integer[] removals = new Integer[] { reference.first(), reference.last(), random.nextInt(100000) };
+            Integer[] insertions = new Integer[] { random.nextInt(100000), random.nextInt(100000) };
+            tree.applyBatch(removals, insertions, null);
+            reference.removeAll(Arrays.asList(removals));
+            reference.addAll(Arrays.asList(insertions));
+
+            Integer[] otherValues = new Integer[] { random.nextInt(100000), reference.higher(reference.first()) };
+            BinarySearchTree<Integer> other = new BinarySearchTree<>(true);
+            insert(other, otherValues);
+            if (round % 2 == 0) {
+                reference.addAll(Arrays.asList(otherValues));
+                tree.union(other, null);
+            } else {
+                reference.removeAll(Arrays.asList(otherValues));
+                tree.difference(other, null);
+            }
+            assertNull(other.getRoot());
+            while (reference.size() > 1000) {
+                reference.pollFirst();
+            }
+            assertEquals(reference.size(), tree.size());
+        }
+        assertArrayEquals(reference.toArray(), values(tree));
+        assertTrue(tree.isValid());
+        assertTrue(tree.height() <= 30);
+
+        BinarySearchTree<Integer> greater = tree.split(reference.last() - 1);
+        assertEquals(reference.size() - 1, tree.size());
+        tree.join(greater);
+        assertEquals(reference.size(), tree.size());
+        assertEquals(reference.last(), tree.last());
+
+        // the values of the other tree are the most recently used.
+        BoundedBinarySearchTree<Integer> lru = new BoundedBinarySearchTree<>(100, EvictionPolicy.LRU);
+        for (int i = 0; i < 100; i++) {
+            lru.insert(i);
+        }
+        lru.find(0);
+        BinarySearchTree<Integer> other = new BinarySearchTree<>(true);
+        insert(other, new Integer[] { 200, 201, 5 });
+        lru.union(other, null);
+        assertEquals(100, lru.size());
+        assertEquals(Integer.valueOf(0), lru.first());
+        assertTrue(lru.find(1).isEmpty());
+        assertTrue(lru.find(2).isEmpty());
+        assertFalse(lru.find(5).isEmpty());
+        assertEquals(Integer.valueOf(201), lru.last());
+    }
+
+    @Test
+    public void sequentialTest() {
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(20000, EvictionPolicy.SMALLEST);
+        for (int i = 0; i < 100000; i++) {
+            tree.insert(i);
+        }
+        assertEquals(20000, tree.size());
+        assertEquals(Integer.valueOf(80000), tree.first());
+        assertEquals(Integer.valueOf(99999), tree.last());
+        // log(20000) / log(1 / 0.7) is about 28.
+        assertTrue(tree.height() <= 30);
+        assertTrue(tree.isValid());
+
+        for (int i = 80000; i < 95000; i++) {
+            assertTrue(tree.remove(i));
+        }
+        assertEquals(5000, tree.size());
+        assertTrue(tree.height() <= 26);
+    }
+
+    @Test
+    public void matchesTreeSetTest() {
+        Random random = new Random(11);
+        BoundedBinarySearchTree<Integer> tree = new BoundedBinarySearchTree<>(50, EvictionPolicy.SMALLEST);
+        TreeSet<Integer> reference = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(5) == 0) {
+                assertEquals(reference.remove(value), tree.remove(value));
+            } else {
+                tree.insert(value);
+                reference.add(value);
+                if (reference.size() > 50) {
+                    reference.pollFirst();
+                }
+            }
+            assertEquals(reference.size(), tree.size());
+            if (!reference.isEmpty()) {
+                assertEquals(reference.first(), tree.first());
+                assertEquals(reference.last(), tree.last());
+            }
+        }
+        assertArrayEquals(reference.toArray(), values(tree));
+        assertTrue(tree.isValid());
+    }
+}
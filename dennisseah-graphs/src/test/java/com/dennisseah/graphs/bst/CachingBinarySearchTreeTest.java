@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.dennisseah.graphs.common.CachePolicy;
+
+public class CachingBinarySearchTreeTest {
+    private CachingBinarySearchTree<Integer> createTree(Integer[] values, CachePolicy policy) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return new CachingBinarySearchTree<>(tree, 4, policy);
+    }
+
+    @Test
+    public void findHitTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 6, 1, 3, 5, 7 }, CachePolicy.LRU);
+        List<BinarySearchTreeNode<Integer>> first = tree.find(5);
+        List<BinarySearchTreeNode<Integer>> second = tree.find(5);
+        assertSame(first, second);
+        assertEquals(1, tree.getHitCount());
+        assertEquals(1, tree.getMissCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void findReadOnlyTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 6 }, CachePolicy.LRU);
+        tree.find(4).clear();
+    }
+
+    @Test
+    public void insertInvalidatesTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 6 }, CachePolicy.LRU);
+        assertEquals(0, tree.find(5).size());
+        tree.insert(5);
+        assertEquals(1, tree.find(5).size());
+        tree.insert(5);
+        assertEquals(2, tree.find(5).size());
+    }
+
+    @Test
+    public void removeInvalidatesTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 8, 6, 9, 7 }, CachePolicy.LRU);
+        List<BinarySearchTreeNode<Integer>> sixes = tree.find(6);
+        assertEquals(1, tree.find(4).size());
+        assertTrue(tree.remove(4));
+        assertEquals(0, tree.find(4).size());
+
+        // 6 has moved into the node that held 4.
+        List<BinarySearchTreeNode<Integer>> found = tree.find(6);
+        assertEquals(tree.getTree().find(6), found);
+        assertEquals(1, sixes.size());
+    }
+
+    @Test
+    public void setRootInvalidatesTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 6 }, CachePolicy.LRU);
+        assertEquals(1, tree.find(4).size());
+        tree.setRoot(new BinarySearchTreeNode<Integer>(1));
+        assertEquals(0, tree.find(4).size());
+    }
+
+    @Test
+    public void balanceInvalidatesTest() {
+        CachingBinarySearchTree<Integer> tree = createTree(new Integer[] { 1, 2, 3, 4, 5 }, CachePolicy.LRU);
+        List<BinarySearchTreeNode<Integer>> before = tree.find(3);
+        assertTrue(tree.balance());
+        assertEquals(tree.getTree().find(3), tree.find(3));
+        assertEquals(1, before.size());
+    }
+
+    @Test
+    public void tinyLfuKeepsHotKeysTest() {
+        Integer[] values = new Integer[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        CachingBinarySearchTree<Integer> tree = createTree(values, CachePolicy.TINY_LFU);
+        Random random = new Random(3);
+
+        // two hot keys are looked up between scans of cold keys.
+        for (int i = 0; i < 2000; i++) {
+            tree.find(1);
+            tree.find(2);
+            tree.find(random.nextInt(1000));
+        }
+        long hits = tree.getHitCount();
+        tree.find(1);
+        tree.find(2);
+        assertEquals(hits + 2, tree.getHitCount());
+    }
+
+    @Test
+    public void matchesTreeTest() {
+        Random random = new Random(9);
+        for (CachePolicy policy : CachePolicy.values()) {
+            SplayTree<Integer> expected = new SplayTree<>();
+            CachingBinarySearchTree<Integer> tree = new CachingBinarySearchTree<Integer>(new SplayTree<Integer>(),
+                    16, policy);
+            for (int i = 0; i < 5000; i++) {
+                int value = random.nextInt(50);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        assertEquals(expected.remove(value), tree.remove(value));
+                        break;
+                    case 1:
+                        expected.insert(value);
+                        tree.insert(value);
+                        break;
+                    default:
+                        assertEquals(expected.find(value).size(), tree.find(value).size());
+                        break;
+                }
+            }
+            assertTrue(tree.getHitCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class FrozenBinarySearchTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private FrozenBinarySearchTree<Integer> createFrozenTree(Integer[] values) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return tree.freeze();
+    }
+
+    @Test
+    public void freezeEmptyTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] {});
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.find(1).size());
+        assertNull(tree.floor(1));
+        assertNull(tree.ceiling(1));
+        assertEquals(0, tree.inorderTraversal().size());
+        assertTrue(tree.isValid());
+    }
+
+    @Test
+    public void inorderTraversalTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3 });
+        Integer[] expecteds = new Integer[] { 1, 2, 3, 4, 5, 6, 7 }; // sorted
+        Object[] actuals = tree.inorderTraversal().stream().map(fnNodeValue).toArray();
+        assertArrayEquals(expecteds, actuals);
+    }
+
+    @Test
+    public void preorderTraversalTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3 });
+        Integer[] expecteds = new Integer[] { 4, 2, 1, 3, 6, 5, 7 };
+        Object[] actuals = tree.preorderTraversal().stream().map(fnNodeValue).toArray();
+        assertArrayEquals(expecteds, actuals);
+    }
+
+    @Test
+    public void postorderTraversalTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3 });
+        Integer[] expecteds = new Integer[] { 1, 3, 2, 5, 7, 6, 4 };
+        Object[] actuals = tree.postorderTraversal().stream().map(fnNodeValue).toArray();
+        assertArrayEquals(expecteds, actuals);
+    }
+
+    @Test
+    public void findMultipleTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3, 7, 7 });
+        List<BinarySearchTreeNode<Integer>> found = tree.find(7);
+        assertEquals(3, found.size());
+        for (BinarySearchTreeNode<Integer> node : found) {
+            assertEquals(7, node.getValue().intValue());
+        }
+        assertTrue(tree.contains(7));
+    }
+
+    @Test
+    public void findNoneTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 1, 2, 3, 4, 6, 7 });
+        assertEquals(0, tree.find(5).size());
+        assertFalse(tree.contains(5));
+        assertFalse(tree.contains(0));
+        assertFalse(tree.contains(8));
+    }
+
+    @Test
+    public void floorCeilingTest() {
+        FrozenBinarySearchTree<Integer> tree = createFrozenTree(new Integer[] { 10, 20, 30, 40, 50 });
+        assertNull(tree.floor(5));
+        assertEquals(10, tree.floor(10).intValue());
+        assertEquals(20, tree.floor(29).intValue());
+        assertEquals(50, tree.floor(99).intValue());
+        assertEquals(10, tree.ceiling(5).intValue());
+        assertEquals(30, tree.ceiling(21).intValue());
+        assertEquals(50, tree.ceiling(50).intValue());
+        assertNull(tree.ceiling(51));
+    }
+
+    @Test
+    public void matchesBinarySearchTreeTest() {
+        Random random = new Random(42);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            tree.insert(random.nextInt(500));
+        }
+        FrozenBinarySearchTree<Integer> frozen = tree.freeze();
+
+        assertTrue(frozen.isValid());
+        for (int i = -1; i <= 501; i++) {
+            assertEquals(tree.find(i).size(), frozen.find(i).size());
+            assertEquals(tree.floor(i), frozen.floor(i));
+            assertEquals(tree.ceiling(i), frozen.ceiling(i));
+        }
+    }
+
+    @Test
+    public void freezeIsDetachedTest() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        tree.insert(1);
+        FrozenBinarySearchTree<Integer> frozen = tree.freeze();
+        tree.insert(2);
+        assertEquals(1, frozen.size());
+        assertFalse(frozen.contains(2));
+    }
+
+    @Test
+    public void firstLastTest() {
+        for (int size = 1; size < 20; size++) {
+            Integer[] values = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = size - i;
+            }
+            FrozenBinarySearchTree<Integer> tree = createFrozenTree(values);
+            assertEquals(Integer.valueOf(1), tree.first());
+            assertEquals(Integer.valueOf(size), tree.last());
+        }
+        assertNull(createFrozenTree(new Integer[] {}).first());
+        assertNull(createFrozenTree(new Integer[] {}).last());
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntervalTreeTest {
+    private List<Interval<Integer>> toList(Iterable<Interval<Integer>> intervals) {
+        List<Interval<Integer>> result = new ArrayList<>();
+        for (Interval<Integer> interval : intervals) {
+            result.add(interval);
+        }
+        return result;
+    }
+
+    private List<Interval<Integer>> bruteForce(List<Interval<Integer>> intervals, Interval<Integer> query) {
+        List<Interval<Integer>> result = new ArrayList<>();
+        for (Interval<Integer> interval : intervals) {
+            if (interval.overlaps(query)) {
+                result.add(interval);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private boolean maxIsValid(IntervalTreeNode<Integer> node) {
+        if (node == null) {
+            return true;
+        }
+        int max = node.getValue().getHigh();
+        IntervalTreeNode<Integer> left = (IntervalTreeNode<Integer>) node.getLeft();
+        IntervalTreeNode<Integer> right = (IntervalTreeNode<Integer>) node.getRight();
+        if (left != null) {
+            max = Math.max(max, left.getMax());
+        }
+        if (right != null) {
+            max = Math.max(max, right.getMax());
+        }
+        return node.getMax() == max && maxIsValid(left) && maxIsValid(right);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidIntervalTest() {
+        new Interval<Integer>(5, 4);
+    }
+
+    @Test
+    public void stabbingQueryTest() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.insert(15, 20);
+        tree.insert(10, 30);
+        tree.insert(17, 19);
+        tree.insert(5, 20);
+        tree.insert(12, 15);
+        tree.insert(30, 40);
+
+        List<Interval<Integer>> found = toList(tree.overlapping(16));
+        assertEquals(3, found.size());
+        assertEquals(new Interval<>(5, 20), found.get(0));
+        assertEquals(new Interval<>(10, 30), found.get(1));
+        assertEquals(new Interval<>(15, 20), found.get(2));
+
+        assertEquals(2, toList(tree.overlapping(30)).size());
+        assertTrue(toList(tree.overlapping(41)).isEmpty());
+        assertTrue(toList(tree.overlapping(0, 4)).isEmpty());
+        assertEquals(6, toList(tree.overlapping(0, 100)).size());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorExhaustedTest() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.insert(1, 2);
+        Iterator<Interval<Integer>> it = tree.overlapping(1).iterator();
+        assertTrue(it.hasNext());
+        it.next();
+        assertFalse(it.hasNext());
+        it.next();
+    }
+
+    @Test
+    public void removeTest() {
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.insert(1, 10);
+        tree.insert(1, 10);
+        tree.insert(2, 3);
+        tree.insert(8, 9);
+        assertEquals(2, tree.find(new Interval<>(1, 10)).size());
+
+        assertTrue(tree.remove(new Interval<>(1, 10)));
+        assertFalse(tree.remove(new Interval<>(1, 10)));
+        assertEquals(2, tree.size());
+        assertEquals(1, toList(tree.overlapping(5, 8)).size());
+        assertTrue(maxIsValid((IntervalTreeNode<Integer>) tree.getRoot()));
+    }
+
+    @Test
+    public void uniqueNodeValueTest() {
+        IntervalTree<Integer> tree = new IntervalTree<>(true);
+        tree.insert(1, 2);
+        tree.insert(1, 2);
+        tree.insert(1, 3);
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        Random random = new Random(33);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<Interval<Integer>> reference = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            if (reference.isEmpty() || random.nextInt(3) > 0) {
+                int low = random.nextInt(1000);
+                Interval<Integer> interval = new Interval<>(low, low + random.nextInt(50));
+                tree.insert(interval);
+                reference.add(interval);
+            } else {
+                Interval<Integer> interval = reference.get(random.nextInt(reference.size()));
+                tree.remove(interval);
+                while (reference.remove(interval)) {
+                    // remove all duplicates
+                }
+            }
+
+            if (i % 100 == 0) {
+                int low = random.nextInt(1100);
+                Interval<Integer> query = new Interval<>(low, low + random.nextInt(20));
+                assertEquals(bruteForce(reference, query), toList(tree.overlapping(query)));
+                assertEquals(reference.size(), tree.size());
+                assertTrue(tree.isBalanced());
+                assertTrue(maxIsValid((IntervalTreeNode<Integer>) tree.getRoot()));
+            }
+        }
+    }
+
+    @Test
+    public void setRootTest() {
+        BinarySearchTreeNode<Interval<Integer>> root = new BinarySearchTreeNode<>(new Interval<>(5, 6));
+        root.setLeft(new BinarySearchTreeNode<>(new Interval<>(1, 9)));
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        tree.setRoot(root);
+        assertEquals(2, tree.size());
+        assertEquals(2, toList(tree.overlapping(6)).size());
+    }
+}
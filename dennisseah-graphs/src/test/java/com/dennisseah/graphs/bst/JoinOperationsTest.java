@@ -0,0 +1,193 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class JoinOperationsTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private BinarySearchTree<Integer> createTree(Iterable<Integer> values) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return tree;
+    }
+
+    private BinarySearchTree<Integer> createTree(Integer[] values) {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return tree;
+    }
+
+    private Set<Integer> randomSet(Random random, int size, int bound) {
+        Set<Integer> values = new TreeSet<>();
+        while (values.size() < size) {
+            values.add(random.nextInt(bound));
+        }
+        return values;
+    }
+
+    private Object[] values(BinarySearchTree<Integer> tree) {
+        return tree.inorderTraversal().stream().map(fnNodeValue).toArray();
+    }
+
+    @Test
+    public void splitTest() {
+        BinarySearchTree<Integer> tree = createTree(new Integer[] { 4, 2, 6, 1, 3, 5, 7 });
+        BinarySearchTree<Integer> greater = tree.split(4);
+        assertArrayEquals(new Integer[] { 1, 2, 3, 4 }, values(tree));
+        assertArrayEquals(new Integer[] { 5, 6, 7 }, values(greater));
+        assertTrue(tree.isValid());
+        assertTrue(greater.isValid());
+    }
+
+    @Test
+    public void joinTest() {
+        BinarySearchTree<Integer> tree = createTree(new Integer[] { 2, 1, 3 });
+        BinarySearchTree<Integer> greater = createTree(new Integer[] { 6, 5, 7 });
+        tree.join(greater);
+        assertArrayEquals(new Integer[] { 1, 2, 3, 5, 6, 7 }, values(tree));
+        assertNull(greater.getRoot());
+        assertTrue(tree.isValid());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void joinOverlapTest() {
+        BinarySearchTree<Integer> tree = createTree(new Integer[] { 2, 1, 3 });
+        tree.join(createTree(new Integer[] { 3, 4 }));
+    }
+
+    @Test
+    public void setOperationsTest() {
+        Random random = new Random(13);
+        for (ForkJoinPool pool : new ForkJoinPool[] { null, ForkJoinPool.commonPool() }) {
+            for (int round = 0; round < 20; round++) {
+                Set<Integer> a = randomSet(random, random.nextInt(300), 500);
+                Set<Integer> b = randomSet(random, random.nextInt(300), 500);
+
+                Set<Integer> expected = new TreeSet<>(a);
+                expected.addAll(b);
+                BinarySearchTree<Integer> tree = createTree(a);
+                tree.union(createTree(b), pool);
+                assertArrayEquals(expected.toArray(), values(tree));
+                assertTrue(tree.isValid());
+
+                expected = new TreeSet<>(a);
+                expected.retainAll(b);
+                tree = createTree(a);
+                tree.intersection(createTree(b), pool);
+                assertArrayEquals(expected.toArray(), values(tree));
+                assertTrue(tree.isValid());
+
+                expected = new TreeSet<>(a);
+                expected.removeAll(b);
+                tree = createTree(a);
+                tree.difference(createTree(b), pool);
+                assertArrayEquals(expected.toArray(), values(tree));
+                assertTrue(tree.isValid());
+            }
+        }
+    }
+
+    @Test
+    public void unionKeepsDuplicatesOfThisTreeTest() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i : new Integer[] { 4, 2, 4, 6 }) {
+            tree.insert(i);
+        }
+        tree.union(createTree(new Integer[] { 4, 5, 1 }));
+        assertArrayEquals(new Integer[] { 1, 2, 4, 4, 5, 6 }, values(tree));
+        assertEquals(2, tree.find(4).size());
+    }
+
+    @Test
+    public void applyBatchTest() {
+        Random random = new Random(23);
+        for (boolean unique : new boolean[] { true, false }) {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(unique);
+            BinarySearchTree<Integer> expected = new BinarySearchTree<Integer>(unique);
+            for (int i = 0; i < 500; i++) {
+                int value = random.nextInt(200);
+                tree.insert(value);
+                expected.insert(value);
+            }
+            for (int round = 0; round < 20; round++) {
+                Integer[] removals = randomSet(random, 20, 200).toArray(new Integer[0]);
+                Integer[] insertions = new Integer[50];
+                for (int i = 0; i < insertions.length; i++) {
+                    insertions[i] = random.nextInt(200);
+                }
+                tree.applyBatch(removals, insertions, round % 2 == 0 ? null : ForkJoinPool.commonPool());
+                for (int value : removals) {
+                    expected.remove(value);
+                }
+                for (int value : insertions) {
+                    expected.insert(value);
+                }
+                assertArrayEquals(values(expected), values(tree));
+            }
+            int[] counts = new int[200];
+            for (Object value : values(expected)) {
+                counts[(Integer) value]++;
+            }
+            for (int value = 0; value < 200; value++) {
+                assertEquals(counts[value], tree.find(value).size());
+            }
+            assertEquals(expected.first(), tree.first());
+            assertEquals(expected.last(), tree.last());
+        }
+    }
+
+    @Test
+    public void largeUnionIsShallowTest() {
+        Random random = new Random(17);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int i = 0; i < 64; i++) {
+            BinarySearchTree<Integer> part = createTree(randomSet(random, 1000, 1000000));
+            tree.union(part);
+        }
+        // treap shape, expected height is logarithmic.
+        assertTrue(tree.height() < 80);
+        assertTrue(tree.isValid());
+    }
+}
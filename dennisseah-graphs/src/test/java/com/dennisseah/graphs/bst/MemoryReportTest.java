@@ -0,0 +1,123 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MemoryReportTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void balancedTreeTest() throws InvalidBinaryTreeException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(new Integer[] { 4, 2, 6, 1, 3, 5, 7 });
+        MemoryReport report = tree.memoryReport(KeySizeEstimators.<Integer>boxed(4));
+
+        // header, value, left and right.
+        assertEquals(7, report.getNodeCount());
+        assertEquals(7 * 24, report.getNodeBytes());
+        assertEquals(7 * 16, report.getKeyBytes());
+        assertEquals(7 * 40, report.getTotalBytes());
+        assertEquals(40.0, report.getBytesPerNode(), DELTA);
+        assertEquals(8, report.getEmptyLinkCount());
+        assertEquals(8 * 4, report.getWastedBytes());
+        assertArrayEquals(new long[] { 1, 2, 4 }, report.getDepthCounts());
+        assertEquals(2, report.getMaxDepth());
+        assertEquals(10.0 / 7, report.getAverageDepth(), DELTA);
+
+        MemoryReport uncompressed = tree.memoryReport(KeySizeEstimators.<Integer>shared(),
+                MemoryLayout.UNCOMPRESSED_OOPS);
+        assertEquals(7 * 40, uncompressed.getNodeBytes());
+        assertEquals(0, uncompressed.getKeyBytes());
+    }
+
+    @Test
+    public void emptyAndDeepTreeTest() {
+        MemoryReport empty = new BinarySearchTree<Integer>().memoryReport(KeySizeEstimators.<Integer>shared());
+        assertEquals(0, empty.getNodeCount());
+        assertEquals(-1, empty.getMaxDepth());
+        assertEquals(0.0, empty.getBytesPerNode(), DELTA);
+
+        // deeper than a recursive walk can go.
+        BinarySearchTree<Integer> chain = new BinarySearchTree<Integer>();
+        BinarySearchTreeNode<Integer> node = new BinarySearchTreeNode<Integer>(0);
+        chain.setRoot(node);
+        for (int i = 1; i < 100000; i++) {
+            node.setRight(new BinarySearchTreeNode<Integer>(i));
+            node = node.getRight();
+        }
+        MemoryReport report = chain.memoryReport(KeySizeEstimators.<Integer>fixed(16));
+        assertEquals(100000, report.getNodeCount());
+        assertEquals(99999, report.getMaxDepth());
+        assertEquals(100001, report.getEmptyLinkCount());
+    }
+
+    @Test
+    public void frozenComparisonTest() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int i = 0; i < 1000; i++) {
+            tree.insert((i * 389) % 1000);
+        }
+        tree.balance();
+        MemoryReport nodes = tree.memoryReport(KeySizeEstimators.<Integer>boxed(4));
+        MemoryReport frozen = tree.freeze().memoryReport(KeySizeEstimators.<Integer>boxed(4));
+
+        assertEquals(nodes.getNodeCount(), frozen.getNodeCount());
+        assertEquals(nodes.getKeyBytes(), frozen.getKeyBytes());
+        // a reference per value instead of a node.
+        assertEquals(16 + 1001 * 4 + 4, frozen.getNodeBytes());
+        assertEquals(4, frozen.getWastedBytes());
+        assertTrue(frozen.getTotalBytes() < nodes.getTotalBytes());
+        assertEquals(1, frozen.getDepthCounts()[0]);
+        assertEquals(9, frozen.getMaxDepth());
+    }
+
+    @Test
+    public void stringEstimatorTest() {
+        IKeySizeEstimator<String> estimator = KeySizeEstimators.string();
+        MemoryLayout layout = MemoryLayout.COMPRESSED_OOPS;
+        // String object and a byte array of one byte per character.
+        assertEquals(24 + 24, estimator.estimate("abc", layout));
+        assertEquals(24 + 24, estimator.estimate("été", layout));
+        // two bytes per character.
+        assertEquals(24 + 24, estimator.estimate("中", layout));
+        assertEquals(24 + 40, estimator.estimate("abcdefghij中", layout));
+    }
+
+    @Test
+    public void threadedTreeTest() {
+        ThreadedBinarySearchTree<Integer> tree = new ThreadedBinarySearchTree<Integer>();
+        for (int i : new int[] { 2, 1, 3 }) {
+            tree.insert(i);
+        }
+        MemoryReport report = tree.memoryReport(KeySizeEstimators.<Integer>shared());
+        assertEquals(3, report.getNodeCount());
+        assertArrayEquals(new long[] { 1, 2 }, report.getDepthCounts());
+        // header, value, left, right and the two threads.
+        assertEquals(3 * 32, report.getNodeBytes());
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class ScapegoatTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private Object[] inorderValues(ScapegoatTree<Integer> tree) {
+        return (new TraversalOperations<Integer>(tree.getRoot())).inorderTraversal().stream().map(fnNodeValue)
+                .toArray();
+    }
+
+    private int maxHeight(int size) {
+        return 1 + (int) Math.floor(Math.log(size) / Math.log(1 / ScapegoatTree.DEFAULT_ALPHA));
+    }
+
+    @Test
+    public void sortedInsertStaysBalancedTest() {
+        ScapegoatTree<Integer> tree = new ScapegoatTree<>();
+        for (int i = 0; i < 10000; i++) {
+            tree.insert(i);
+            assertTrue(tree.height() <= maxHeight(tree.size()));
+        }
+        assertEquals(10000, tree.size());
+        assertTrue(tree.isValid());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidAlphaTest() {
+        new ScapegoatTree<Integer>(false, 0.5);
+    }
+
+    @Test
+    public void insertUniqueNodeValuesTest() {
+        ScapegoatTree<Integer> tree = new ScapegoatTree<>(true);
+        for (int i : new Integer[] { 7, 1, 5, 6, 4, 2, 3, 7 }) {
+            tree.insert(i);
+        }
+        assertArrayEquals(new Integer[] { 1, 2, 3, 4, 5, 6, 7 }, inorderValues(tree));
+        assertEquals(7, tree.size());
+    }
+
+    @Test
+    public void removeShrinksTest() {
+        ScapegoatTree<Integer> tree = new ScapegoatTree<>();
+        for (int i = 0; i < 1000; i++) {
+            tree.insert(i);
+        }
+        for (int i = 0; i < 990; i++) {
+            assertTrue(tree.remove(i));
+        }
+        assertFalse(tree.remove(0));
+        assertEquals(10, tree.size());
+        assertTrue(tree.height() <= maxHeight(tree.size()));
+        assertArrayEquals(new Integer[] { 990, 991, 992, 993, 994, 995, 996, 997, 998, 999 }, inorderValues(tree));
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        Random random = new Random(23);
+        ScapegoatTree<Integer> tree = new ScapegoatTree<>();
+        Map<Integer, Integer> expected = new TreeMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(400);
+            Integer count = expected.get(value);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(value) != null, tree.remove(value));
+                    break;
+                case 1:
+                    assertEquals(count == null ? 0 : count.intValue(), tree.find(value).size());
+                    break;
+                default:
+                    expected.put(value, count == null ? 1 : count + 1);
+                    tree.insert(value);
+                    break;
+            }
+        }
+
+        List<Integer> expecteds = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                expecteds.add(entry.getKey());
+            }
+        }
+        assertArrayEquals(expecteds.toArray(), inorderValues(tree));
+        assertEquals(expecteds.size(), tree.size());
+        assertTrue(tree.height() <= maxHeight((int) (tree.size() / ScapegoatTree.DEFAULT_ALPHA)));
+
+        Integer[] values = expected.keySet().toArray(new Integer[0]);
+        FindAllResult<Integer> found = tree.findAll(values);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expected.get(values[i]).intValue(), found.count(i));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class ShardedBinarySearchTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private ShardedBinarySearchTree<Integer> createTree() {
+        ShardedBinarySearchTree<Integer> tree = new ShardedBinarySearchTree<>(new Integer[] { 10, 20, 30 });
+        for (int i : new Integer[] { 25, 5, 35, 15, 1, 12, 31, 20, 12 }) {
+            tree.insert(i);
+        }
+        return tree;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSplitKeysTest() {
+        new ShardedBinarySearchTree<Integer>(new Integer[] { 10, 10 });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getRootTest() {
+        createTree().getRoot();
+    }
+
+    @Test
+    public void setRootTest() {
+        Integer[] values = new Integer[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        ShardedBinarySearchTree<Integer> tree = new ShardedBinarySearchTree<>(new Integer[] { 100, 20000, 40000 });
+        tree.setRoot(BinarySearchTree.fromUnsorted(values, false).getRoot());
+        assertTrue(tree.isBalanced());
+        assertTrue(tree.isValid());
+        assertEquals(values.length, tree.inorderTraversal().size());
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i / 2;
+        }
+
+        ShardedBinarySearchTree<Integer> unique = new ShardedBinarySearchTree<>(new Integer[] { 100, 20000, 40000 },
+                true);
+        unique.setRoot(BinarySearchTree.fromUnsorted(values, false).getRoot());
+        assertTrue(unique.isBalanced());
+        assertTrue(unique.isValid());
+        assertEquals(values.length / 2, unique.inorderTraversal().size());
+        assertEquals(1, unique.find(20000).size());
+    }
+
+    @Test
+    public void pointOperationsTest() {
+        ShardedBinarySearchTree<Integer> tree = createTree();
+        assertEquals(4, tree.getShardCount());
+        assertEquals(2, tree.find(12).size());
+        assertEquals(1, tree.find(20).size());
+        assertTrue(tree.find(21).isEmpty());
+        assertTrue(tree.remove(12));
+        assertFalse(tree.remove(12));
+        assertTrue(tree.isValid());
+        assertArrayEquals(new Integer[] { 1, 5, 15, 20, 25, 31, 35 },
+                tree.inorderTraversal().stream().map(fnNodeValue).toArray());
+    }
+
+    @Test
+    public void floorCeilingRangeTest() {
+        ShardedBinarySearchTree<Integer> tree = createTree();
+        assertEquals(5, tree.floor(11).intValue());
+        assertEquals(25, tree.floor(30).intValue());
+        assertNull(tree.floor(0));
+        assertEquals(15, tree.ceiling(13).intValue());
+        assertEquals(31, tree.ceiling(26).intValue());
+        assertNull(tree.ceiling(36));
+        assertArrayEquals(new Integer[] { 12, 12, 15, 20, 25 },
+                tree.rangeTraversal(11, 29).stream().map(fnNodeValue).toArray());
+    }
+
+    @Test
+    public void findAllTest() {
+        ShardedBinarySearchTree<Integer> tree = createTree();
+        FindAllResult<Integer> found = tree.findAll(new Integer[] { 35, 12, 2, 1 });
+        assertEquals(4, found.size());
+        assertEquals(1, found.count(0));
+        assertEquals(2, found.count(1));
+        assertEquals(0, found.count(2));
+        assertEquals(1, found.get(3, 0).getValue().intValue());
+    }
+
+    @Test
+    public void splitShardTest() {
+        ShardedBinarySearchTree<Integer> tree = new ShardedBinarySearchTree<>(new Integer[] { 100 });
+        for (int i = 0; i < 100; i++) {
+            tree.insert(i);
+            tree.insert(i);
+        }
+        tree.insert(150);
+        assertEquals(1, tree.splitHotShards(100));
+        assertEquals(3, tree.getShardCount());
+        assertArrayEquals(new Integer[] { 50, 100 }, tree.getSplitKeys());
+        assertEquals(201, tree.inorderTraversal().size());
+        assertEquals(2, tree.find(49).size());
+        assertEquals(2, tree.find(50).size());
+
+        ShardedBinarySearchTree<Integer> same = new ShardedBinarySearchTree<>(new Integer[0]);
+        same.insert(7);
+        same.insert(7);
+        assertFalse(same.splitShard(0));
+    }
+
+    @Test
+    public void concurrentWritersTest() throws InterruptedException {
+        final ShardedBinarySearchTree<Integer> tree = new ShardedBinarySearchTree<>(new Integer[] { 25000, 50000,
+                75000 }, true);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        tree.insert(random.nextInt(100000));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (int i = 0; i < 5; i++) {
+            tree.splitShard(0);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        TreeMap<Integer, Boolean> reference = new TreeMap<>();
+        for (int t = 0; t < threads.length; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < 20000; i++) {
+                reference.put(random.nextInt(100000), true);
+            }
+        }
+        List<Integer> expected = new ArrayList<>(reference.keySet());
+        assertArrayEquals(expected.toArray(), tree.inorderTraversal().stream().map(fnNodeValue).toArray());
+        assertTrue(tree.isValid());
+    }
+
+    @Test
+    public void pollTest() {
+        ShardedBinarySearchTree<Integer> tree = createTree();
+        assertEquals(Integer.valueOf(1), tree.first());
+        assertEquals(Integer.valueOf(35), tree.last());
+        assertEquals(Integer.valueOf(1), tree.pollFirst());
+        assertEquals(Integer.valueOf(5), tree.pollFirst());
+        // the first shard is empty now.
+        assertEquals(Integer.valueOf(12), tree.first());
+        assertEquals(Integer.valueOf(35), tree.pollLast());
+        assertEquals(Integer.valueOf(31), tree.pollLast());
+        assertEquals(Integer.valueOf(25), tree.last());
+
+        int count = 0;
+        while (tree.pollLast() != null) {
+            count++;
+        }
+        assertEquals(5, count);
+        assertNull(tree.first());
+        assertNull(tree.pollFirst());
+    }
+}
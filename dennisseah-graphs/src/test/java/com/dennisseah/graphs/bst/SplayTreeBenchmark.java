@@ -0,0 +1,114 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compare find on a SplayTree with find on a BinarySearchTree for lookups that
+ * follow a Zipf distribution. This is not part of the test suite, run it with
+ *
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.dennisseah.graphs.bst.SplayTreeBenchmark
+ *
+ * or from the IDE. Optional arguments: number of keys, number of lookups and
+ * the Zipf exponent.
+ */
+public class SplayTreeBenchmark {
+    private final int[] lookups;
+    private final Integer[] keys;
+
+    SplayTreeBenchmark(int keyCount, int lookupCount, double exponent, long seed) {
+        Random random = new Random(seed);
+
+        this.keys = new Integer[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            this.keys[i] = i;
+        }
+        // shuffle so the plain tree is built in random order, and so the hot
+        // keys are spread over the key space.
+        for (int i = keyCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer tmp = this.keys[i];
+            this.keys[i] = this.keys[j];
+            this.keys[j] = tmp;
+        }
+
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int rank = 0; rank < keyCount; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        this.lookups = new int[lookupCount];
+        for (int i = 0; i < lookupCount; i++) {
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            this.lookups[i] = rank < 0 ? Math.min(-rank - 1, keyCount - 1) : rank;
+        }
+    }
+
+    private long run(IBinarySearchTreeBase<Integer> tree) {
+        long found = 0;
+        for (int rank : this.lookups) {
+            found += tree.find(this.keys[rank]).size();
+        }
+        return found;
+    }
+
+    private IBinarySearchTreeBase<Integer> fill(IBinarySearchTreeBase<Integer> tree) {
+        for (Integer key : this.keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    private void measure(String name, IBinarySearchTreeBase<Integer> tree, int rounds) {
+        long best = Long.MAX_VALUE;
+        long found = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            found = this.run(tree);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-28s %10.1f ns/find (%d found)%n", name, (double) best / this.lookups.length, found);
+    }
+
+    public static void main(String[] args) {
+        int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int lookupCount = args.length > 1 ? Integer.parseInt(args[1]) : 2000000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+
+        SplayTreeBenchmark benchmark = new SplayTreeBenchmark(keyCount, lookupCount, exponent, 42);
+        System.out.printf("%d keys, %d lookups, zipf exponent %.2f%n", keyCount, lookupCount, exponent);
+
+        BinarySearchTree<Integer> balanced = new BinarySearchTree<>(true);
+        benchmark.fill(balanced);
+        balanced.balance();
+
+        benchmark.measure("BinarySearchTree", benchmark.fill(new BinarySearchTree<Integer>(true)), 5);
+        benchmark.measure("BinarySearchTree (balanced)", balanced, 5);
+        benchmark.measure("SplayTree", benchmark.fill(new SplayTree<Integer>(true)), 5);
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class SplayTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private SplayTree<Integer> createTree(Integer[] values) {
+        return createTree(values, false);
+    }
+
+    private SplayTree<Integer> createTree(Integer[] values, boolean uniqueNodeValues) {
+        SplayTree<Integer> tree = new SplayTree<Integer>(uniqueNodeValues);
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return tree;
+    }
+
+    private Object[] inorderValues(SplayTree<Integer> tree) {
+        return (new TraversalOperations<Integer>(tree.getRoot())).inorderTraversal().stream().map(fnNodeValue)
+                .toArray();
+    }
+
+    @Test
+    public void createEmptyTreeTest() {
+        SplayTree<Integer> tree = new SplayTree<>();
+        assertNull(tree.getRoot());
+        assertEquals(0, tree.find(1).size());
+        assertFalse(tree.remove(1));
+    }
+
+    @Test
+    public void insertTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3, 7 });
+        Integer[] expecteds = new Integer[] { 1, 2, 3, 4, 5, 6, 7, 7 }; // sorted
+        assertArrayEquals(expecteds, inorderValues(tree));
+        assertEquals(7, tree.getRoot().getValue().intValue());
+    }
+
+    @Test
+    public void insertUniqueNodeValuesTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 7, 1, 5, 6, 4, 2, 3, 7 }, true);
+        Integer[] expecteds = new Integer[] { 1, 2, 3, 4, 5, 6, 7 }; // sorted
+        assertArrayEquals(expecteds, inorderValues(tree));
+    }
+
+    @Test
+    public void findMovesNodeToRootTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 1, 2, 3, 4, 5, 6, 7 });
+        List<BinarySearchTreeNode<Integer>> found = tree.find(3);
+        assertEquals(1, found.size());
+        assertEquals(found.get(0), tree.getRoot());
+        assertEquals(0, tree.find(8).size());
+    }
+
+    @Test
+    public void findMultipleTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 7, 3, 7, 1, 5, 7, 6, 4, 2, 7 });
+        tree.find(4);
+        tree.find(6);
+        List<BinarySearchTreeNode<Integer>> found = tree.find(7);
+        assertEquals(4, found.size());
+        for (BinarySearchTreeNode<Integer> node : found) {
+            assertEquals(7, node.getValue().intValue());
+        }
+    }
+
+    @Test
+    public void removeMultipleTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 7, 1, 5, 3, 6, 4, 2, 3 });
+        assertTrue(tree.remove(3));
+        assertFalse(tree.remove(3));
+        Integer[] expecteds = new Integer[] { 1, 2, 4, 5, 6, 7 }; // sorted
+        assertArrayEquals(expecteds, inorderValues(tree));
+    }
+
+    @Test
+    public void findAllTest() {
+        SplayTree<Integer> tree = createTree(new Integer[] { 4, 2, 6, 1, 3, 5, 7, 7, 7 });
+        tree.find(5);
+        FindAllResult<Integer> found = tree.findAll(new Integer[] { 7, 0, 3 });
+        assertEquals(3, found.count(0));
+        assertEquals(0, found.count(1));
+        assertEquals(1, found.count(2));
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        Random random = new Random(5);
+        SplayTree<Integer> tree = new SplayTree<>();
+        Map<Integer, Integer> expected = new TreeMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(300);
+            Integer count = expected.get(value);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.remove(value) != null, tree.remove(value));
+                    break;
+                case 1:
+                    assertEquals(count == null ? 0 : count.intValue(), tree.find(value).size());
+                    break;
+                default:
+                    expected.put(value, count == null ? 1 : count + 1);
+                    tree.insert(value);
+                    break;
+            }
+        }
+
+        List<Integer> expecteds = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                expecteds.add(entry.getKey());
+            }
+        }
+        assertArrayEquals(expecteds.toArray(), inorderValues(tree));
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.bst;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class ThreadedBinarySearchTreeTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    private ThreadedBinarySearchTree<Integer> createTree(Integer[] values) {
+        ThreadedBinarySearchTree<Integer> tree = new ThreadedBinarySearchTree<Integer>();
+        for (int i : values) {
+            tree.insert(i);
+        }
+        return tree;
+    }
+
+    @Test
+    public void traversalTest() {
+        Integer[] values = new Integer[] { 7, 1, 5, 6, 4, 2, 3, 5, 9 };
+        ThreadedBinarySearchTree<Integer> tree = createTree(values);
+        BinarySearchTree<Integer> expected = new BinarySearchTree<Integer>();
+        for (int i : values) {
+            expected.insert(i);
+        }
+
+        // same shape as BinarySearchTree.
+        assertTrue(tree.isValid());
+        assertEquals(9, tree.size());
+        assertArrayEquals(expected.inorderTraversal().stream().map(fnNodeValue).toArray(),
+                tree.inorderTraversal().stream().map(fnNodeValue).toArray());
+        assertArrayEquals(expected.preorderTraversal().stream().map(fnNodeValue).toArray(),
+                tree.preorderTraversal().stream().map(fnNodeValue).toArray());
+        assertArrayEquals(expected.postorderTraversal().stream().map(fnNodeValue).toArray(),
+                tree.postorderTraversal().stream().map(fnNodeValue).toArray());
+        assertEquals(expected.isBalanced(), tree.isBalanced());
+
+        // the links are children only, the threads are kept apart.
+        ThreadedBinarySearchTreeNode<Integer> first = tree.firstNode();
+        assertNull(first.getLeft());
+        assertNull(first.predecessor());
+        assertNull(tree.lastNode().successor());
+
+        // the nodes can be walked as plain binary search tree nodes.
+        BinarySearchTree<Integer> plain = new BinarySearchTree<Integer>();
+        plain.setRoot(tree.getRoot());
+        assertTrue(plain.isValid());
+        assertEquals(expected.height(), plain.height());
+        assertArrayEquals(expected.inorderTraversal().stream().map(fnNodeValue).toArray(),
+                plain.inorderTraversal().stream().map(fnNodeValue).toArray());
+        assertArrayEquals(expected.postorderTraversal().stream().map(fnNodeValue).toArray(),
+                plain.postorderTraversal().stream().map(fnNodeValue).toArray());
+    }
+
+    @Test
+    public void successorTest() {
+        ThreadedBinarySearchTree<Integer> tree = createTree(new Integer[] { 50, 30, 70, 20, 40, 60, 80, 30 });
+        assertEquals(2, tree.find(30).size());
+        assertTrue(tree.find(35).isEmpty());
+        assertEquals(Integer.valueOf(40), tree.higher(30));
+        assertEquals(Integer.valueOf(20), tree.lower(30));
+        assertEquals(Integer.valueOf(30), tree.floor(35));
+        assertEquals(Integer.valueOf(40), tree.ceiling(35));
+        assertNull(tree.higher(80));
+        assertNull(tree.lower(20));
+        assertEquals(Integer.valueOf(20), tree.first());
+        assertEquals(Integer.valueOf(80), tree.last());
+
+        ThreadedBinarySearchTreeNode<Integer> node = tree.ceilingNode(30);
+        assertEquals(Integer.valueOf(30), node.successor().getValue());
+        assertEquals(Integer.valueOf(20), node.predecessor().getValue());
+
+        List<Integer> backwards = new ArrayList<>();
+        for (node = tree.lastNode(); node != null; node = node.predecessor()) {
+            backwards.add(node.getValue());
+        }
+        assertArrayEquals(new Integer[] { 80, 70, 60, 50, 40, 30, 30, 20 }, backwards.toArray());
+    }
+
+    @Test
+    public void paginationTest() {
+        ThreadedBinarySearchTree<Integer> tree = new ThreadedBinarySearchTree<Integer>(true);
+        for (int i = 0; i < 1000; i++) {
+            tree.insert((i * 389) % 1000);
+        }
+
+        // pages of 64 values, each started from the last value of the page
+        // before.
+        List<Integer> all = new ArrayList<>();
+        Integer cursor = -1;
+        while (true) {
+            ThreadedBinarySearchTreeNode<Integer> node = tree.higherNode(cursor);
+            if (node == null) {
+                break;
+            }
+            for (int n = 0; n < 64 && node != null; n++, node = node.successor()) {
+                all.add(node.getValue());
+                cursor = node.getValue();
+            }
+        }
+        assertEquals(1000, all.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), all.get(i));
+        }
+
+        Iterator<Integer> iterator = tree.iterator(995);
+        assertEquals(Integer.valueOf(995), iterator.next());
+        int count = 1;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(5, count);
+    }
+
+    @Test
+    public void removeTest() {
+        Random random = new Random(46);
+        ThreadedBinarySearchTree<Integer> tree = new ThreadedBinarySearchTree<Integer>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(500);
+            tree.insert(value);
+            expected.add(value);
+        }
+        for (int i = 0; i < 300; i++) {
+            Integer value = random.nextInt(500);
+            boolean removed = expected.contains(value);
+            assertEquals(removed, tree.remove(value));
+            expected.removeAll(Collections.singleton(value));
+            assertTrue(tree.isValid());
+        }
+        Collections.sort(expected);
+        List<Integer> actual = new ArrayList<>();
+        for (int value : tree) {
+            actual.add(value);
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), tree.size());
+
+        for (Integer value : new ArrayList<>(expected)) {
+            tree.remove(value);
+        }
+        assertNull(tree.getRoot());
+        assertEquals(0, tree.size());
+        assertFalse(tree.iterator().hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setLinkTest() {
+        createTree(new Integer[] { 2, 1 }).getRoot().setLeft(null);
+    }
+}
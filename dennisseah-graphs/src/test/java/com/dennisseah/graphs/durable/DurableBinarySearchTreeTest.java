@@ -0,0 +1,204 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.durable;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.common.ValueCodecs;
+
+public class DurableBinarySearchTreeTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DurableBinarySearchTree<Integer> open(Path directory, SyncPolicy policy, int checkpointInterval)
+            throws IOException {
+        return new DurableBinarySearchTree<>(new BinarySearchTree<Integer>(), directory, ValueCodecs.INTEGER,
+                policy, 10, checkpointInterval);
+    }
+
+    private Object[] inorderValues(DurableBinarySearchTree<Integer> tree) {
+        List<Integer> values = new ArrayList<>();
+        BinarySearchTree<Integer> copy = new BinarySearchTree<>();
+        copy.setRoot(tree.getRoot());
+        for (BinarySearchTreeNode<Integer> node : copy.inorderTraversal()) {
+            values.add(node.getValue());
+        }
+        return values.toArray();
+    }
+
+    @Test
+    public void recoverTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 1000)) {
+            for (int i : new int[] { 5, 3, 8, 1, 4, 3 }) {
+                tree.insert(i);
+            }
+            assertTrue(tree.remove(8));
+            assertFalse(tree.remove(9));
+        }
+
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 1000)) {
+            assertArrayEquals(new Integer[] { 1, 3, 3, 4, 5 }, inorderValues(tree));
+            assertEquals(2, tree.find(3).size());
+        }
+    }
+
+    @Test
+    public void checkpointTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.NONE, 10)) {
+            for (int i = 0; i < 25; i++) {
+                tree.insert(i);
+            }
+            assertEquals(2, tree.getGeneration());
+        }
+        assertTrue(Files.exists(directory.resolve("checkpoint-2")));
+        assertTrue(Files.exists(directory.resolve("wal-2")));
+        assertFalse(Files.exists(directory.resolve("checkpoint-1")));
+        assertFalse(Files.exists(directory.resolve("wal-1")));
+
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.NONE, 10)) {
+            assertEquals(25, inorderValues(tree).length);
+            // values are inserted in preorder, which keeps the shape of the tree.
+            assertEquals(2, tree.getRoot().getRight().getRight().getValue().intValue());
+        }
+    }
+
+    @Test
+    public void tornRecordTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.INTERVAL, 1000)) {
+            tree.insert(1);
+            tree.insert(2);
+            tree.insert(3);
+        }
+
+        Path log = directory.resolve("wal-0");
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.INTERVAL, 1000)) {
+            assertArrayEquals(new Integer[] { 1, 2 }, inorderValues(tree));
+            tree.insert(4);
+        }
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.INTERVAL, 1000)) {
+            assertArrayEquals(new Integer[] { 1, 2, 4 }, inorderValues(tree));
+        }
+    }
+
+    @Test
+    public void concurrentWritersTest() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        try (final DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 500)) {
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                final int offset = t * 1000;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < 200; i++) {
+                            tree.insert(offset + i);
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 500)) {
+            assertEquals(1600, inorderValues(tree).length);
+            assertTrue(tree.isValid());
+        }
+    }
+
+    @Test
+    public void setRootTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 1000)) {
+            tree.insert(1);
+            tree.setRoot(new BinarySearchTreeNode<>(7, new BinarySearchTreeNode<>(6), null));
+            assertEquals(1, tree.getGeneration());
+        }
+        try (DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 1000)) {
+            assertArrayEquals(new Integer[] { 6, 7 }, inorderValues(tree));
+        }
+    }
+
+    @Test
+    public void intervalSyncInBackgroundTest() throws Exception {
+        Path file = folder.newFolder().toPath().resolve("wal-0");
+        try (WriteAheadLog log = new WriteAheadLog(file, 0, SyncPolicy.INTERVAL, 10)) {
+            long sequence = log.append(WriteAheadLog.INSERT, new byte[] { 1 });
+            // no write follows, the background task forces the record.
+            for (int i = 0; i < 500 && log.getSynced() < sequence; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(sequence, log.getSynced());
+        }
+    }
+
+    @Test
+    public void failedAppendLeavesTreeTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        DurableBinarySearchTree<Integer> tree = open(directory, SyncPolicy.ALWAYS, 1000);
+        tree.insert(1);
+        tree.close();
+        try {
+            tree.insert(2);
+            fail();
+        } catch (UncheckedIOException e) {
+            // the log is closed.
+        }
+        try {
+            tree.remove(1);
+            fail();
+        } catch (UncheckedIOException e) {
+            // the log is closed.
+        }
+        assertArrayEquals(new Integer[] { 1 }, inorderValues(tree));
+    }
+}
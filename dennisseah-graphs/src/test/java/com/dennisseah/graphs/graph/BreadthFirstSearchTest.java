@@ -0,0 +1,127 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class BreadthFirstSearchTest {
+    private CsrGraph randomGraph(int n, int edgeCount, boolean directed, long seed) {
+        Random random = new Random(seed);
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < edgeCount; i++) {
+            edges.add(random.nextInt(n), random.nextInt(n));
+        }
+        return edges.toGraph(n, directed);
+    }
+
+    private int[] sequentialDistances(CsrGraph graph, int source) {
+        int[] distances = new int[graph.getVertexCount()];
+        Arrays.fill(distances, -1);
+        distances[source] = 0;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = graph.offset(u); e < graph.offset(u + 1); e++) {
+                int v = graph.target(e);
+                if (distances[v] < 0) {
+                    distances[v] = distances[u] + 1;
+                    queue.add(v);
+                }
+            }
+        }
+        return distances;
+    }
+
+    private void assertSearch(CsrGraph graph, BfsResult result, int source) {
+        int[] expected = sequentialDistances(graph, source);
+        int reached = 0;
+        for (int v = 0; v < expected.length; v++) {
+            assertEquals(expected[v], result.getDistance(v));
+            if (expected[v] > 0) {
+                int parent = result.getParent(v);
+                assertEquals(expected[v] - 1, expected[parent]);
+                assertTrue(graph.hasArc(parent, v));
+            }
+            if (expected[v] >= 0) {
+                reached++;
+            }
+        }
+        assertEquals(reached, result.getReachedCount());
+    }
+
+    @Test
+    public void searchTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CsrGraph graph = randomGraph(200000, 2000000, false, 7);
+            BfsResult result = new BreadthFirstSearch(graph, pool).search(0);
+            assertSearch(graph, result, 0);
+            // the middle levels of a random graph are expanded bottom up.
+            assertTrue(result.getBottomUpLevels() > 0);
+            assertTrue(result.getTopDownLevels() > 0);
+
+            CsrGraph directed = randomGraph(100000, 400000, true, 11);
+            assertSearch(directed, new BreadthFirstSearch(directed, pool).search(3), 3);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void pathTest() {
+        int n = 1000;
+        EdgeList edges = new EdgeList();
+        for (int v = 1; v < n; v++) {
+            edges.add(v - 1, v);
+        }
+        CsrGraph graph = edges.toGraph(n + 1, true);
+        BfsResult result = new BreadthFirstSearch(graph).search(0);
+        assertEquals(n - 1, result.getDistance(n - 1));
+        assertEquals(n - 2, result.getParent(n - 1));
+        assertEquals(0, result.getParent(0));
+        assertFalse(result.isReachable(n));
+        assertEquals(-1, result.getParent(n));
+        assertEquals(0, result.getBottomUpLevels());
+
+        result = new BreadthFirstSearch(graph).search(n / 2);
+        assertFalse(result.isReachable(0));
+        assertEquals(n - n / 2, result.getReachedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSourceTest() {
+        new BreadthFirstSearch(randomGraph(10, 10, true, 1)).search(10);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ConnectedComponentsTest {
+    @Test
+    public void componentsTest() {
+        // cycles of 1000 vertices, with the vertices of the cycles interleaved.
+        int cycles = 50;
+        int length = 1000;
+        EdgeList edges = new EdgeList();
+        for (int c = 0; c < cycles; c++) {
+            for (int i = 0; i < length; i++) {
+                edges.add(c + i * cycles, c + ((i + 1) % length) * cycles);
+            }
+        }
+        int isolated = cycles * length;
+        CsrGraph graph = edges.toGraph(isolated + 1, false);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ConnectedComponents components = new ConnectedComponents(graph, pool);
+            assertEquals(cycles + 1, components.getComponentCount());
+            for (int v = 0; v < isolated; v++) {
+                assertEquals(v % cycles, components.getLabel(v));
+            }
+            assertEquals(isolated, components.getLabel(isolated));
+            assertTrue(components.isConnected(3, 3 + 7 * cycles));
+            assertFalse(components.isConnected(3, 4));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void randomTest() {
+        int n = 100000;
+        Random random = new Random(5);
+        EdgeList edges = new EdgeList();
+        for (int i = 0; i < n / 2; i++) {
+            edges.add(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph graph = edges.toGraph(n, true);
+        ConnectedComponents components = new ConnectedComponents(graph);
+
+        // every vertex that a search reaches, in either direction, has the
+        // label of the source.
+        CsrGraph undirected = edges.toGraph(n, false);
+        for (int source : new int[] { 0, 17, 4242 }) {
+            BfsResult result = new BreadthFirstSearch(undirected).search(source);
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                assertEquals(result.isReachable(v), components.isConnected(source, v));
+                if (components.isConnected(source, v)) {
+                    size++;
+                }
+            }
+            assertEquals(result.getReachedCount(), size);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class CsrGraphTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void directedTest() {
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 0, 2, 1, 0 }, new int[] { 1, 2, 3, 2, 3 },
+                new double[] { 1.5, 2.5, 3.5, 4.5, 5.5 }, true);
+        assertEquals(4, graph.getVertexCount());
+        assertEquals(5, graph.getArcCount());
+        assertTrue(graph.isDirected());
+        assertTrue(graph.isWeighted());
+
+        assertArrayEquals(new int[] { 1, 2, 3 }, graph.neighbors(0));
+        assertArrayEquals(new int[] { 2 }, graph.neighbors(1));
+        assertArrayEquals(new int[] { 3 }, graph.neighbors(2));
+        assertArrayEquals(new int[0], graph.neighbors(3));
+        assertEquals(0, graph.degree(3));
+        assertTrue(graph.hasArc(2, 3));
+        assertFalse(graph.hasArc(3, 2));
+
+        double sum = 0;
+        for (int e = graph.offset(0); e < graph.offset(1); e++) {
+            sum += graph.weight(e);
+        }
+        assertEquals(1.5 + 2.5 + 5.5, sum, DELTA);
+    }
+
+    @Test
+    public void undirectedTest() {
+        CsrGraph graph = CsrGraph.fromEdges(3, new int[] { 0, 1, 2 }, new int[] { 1, 2, 2 }, false);
+        assertFalse(graph.isWeighted());
+        // the self loop is stored once.
+        assertEquals(5, graph.getArcCount());
+        assertArrayEquals(new int[] { 1 }, graph.neighbors(0));
+        assertArrayEquals(new int[] { 0, 2 }, graph.neighbors(1));
+        assertArrayEquals(new int[] { 1, 2 }, graph.neighbors(2));
+        assertEquals(1.0, graph.weight(0), DELTA);
+        assertSame(graph, graph.transpose());
+    }
+
+    @Test
+    public void transposeTest() {
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 3, 0, 0, 2, 1 }, new int[] { 1, 1, 2, 1, 0 },
+                new double[] { 1, 2, 3, 4, 5 }, true);
+        CsrGraph transposed = graph.transpose();
+        assertEquals(graph.getArcCount(), transposed.getArcCount());
+        assertArrayEquals(new int[] { 1 }, transposed.neighbors(0));
+        assertArrayEquals(new int[] { 0, 2, 3 }, transposed.neighbors(1));
+        assertArrayEquals(new int[] { 0 }, transposed.neighbors(2));
+        assertArrayEquals(new int[0], transposed.neighbors(3));
+        assertEquals(5.0, transposed.weight(transposed.offset(0)), DELTA);
+
+        CsrGraph back = transposed.transpose();
+        for (int v = 0; v < 4; v++) {
+            for (int u : graph.neighbors(v)) {
+                assertTrue(back.hasArc(v, u));
+            }
+            assertEquals(graph.degree(v), back.degree(v));
+        }
+    }
+
+    @Test
+    public void edgeListTest() {
+        EdgeList edges = new EdgeList(true);
+        int n = 100000;
+        for (int i = 1; i < n; i++) {
+            edges.add(i / 2, i, i);
+        }
+        assertEquals(n - 1, edges.size());
+
+        CsrGraph graph = edges.toGraph(true);
+        assertEquals(n, graph.getVertexCount());
+        assertArrayEquals(new int[] { 2, 3 }, graph.neighbors(1));
+        assertEquals(3.0, graph.weight(graph.offset(1) + 1), DELTA);
+        assertEquals(2 * (n - 1), edges.toGraph(false).getArcCount());
+    }
+
+    @Test
+    public void invalidVertexTest() {
+        try {
+            CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 2 }, true);
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new EdgeList().add(-1, 0);
+            fail("exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
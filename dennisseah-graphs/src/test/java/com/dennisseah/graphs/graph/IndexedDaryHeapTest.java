@@ -0,0 +1,101 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedDaryHeapTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void offerPollTest() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(10);
+        assertTrue(heap.offer(3, 5.0));
+        assertTrue(heap.offer(7, 2.0));
+        assertTrue(heap.offer(1, 9.0));
+        assertFalse(heap.offer(1, 9.5));
+        assertTrue(heap.offer(1, 1.0));
+        assertEquals(3, heap.size());
+        assertEquals(1.0, heap.getKey(1), DELTA);
+
+        assertEquals(1, heap.poll());
+        assertFalse(heap.contains(1));
+        assertEquals(7, heap.poll());
+        assertEquals(3, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void randomTest() {
+        for (int arity : new int[] { 2, 4, 8 }) {
+            int n = 10000;
+            Random random = new Random(arity);
+            IndexedDaryHeap heap = new IndexedDaryHeap(n, arity);
+            double[] keys = new double[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = random.nextDouble();
+                heap.offer(i, keys[i]);
+            }
+            for (int k = 0; k < n; k++) {
+                int i = random.nextInt(n);
+                keys[i] = keys[i] / 2;
+                heap.offer(i, keys[i]);
+            }
+
+            double previous = -1;
+            for (int k = 0; k < n; k++) {
+                int i = heap.peek();
+                assertEquals(keys[i], heap.getKey(i), DELTA);
+                assertEquals(i, heap.poll());
+                assertTrue(keys[i] >= previous);
+                previous = keys[i];
+            }
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    public void clearTest() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(4);
+        heap.offer(0, 1);
+        heap.offer(2, 0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        heap.offer(2, 3);
+        assertEquals(2, heap.poll());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void pollEmptyTest() {
+        new IndexedDaryHeap(4).poll();
+    }
+}
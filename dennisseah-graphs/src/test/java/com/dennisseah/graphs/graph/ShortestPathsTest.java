@@ -0,0 +1,146 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class ShortestPathsTest {
+    private static final double DELTA = 1e-9;
+
+    private CsrGraph sampleGraph() {
+        // 0 -> 1 -> 3 is shorter than 0 -> 3; 4 is not reachable.
+        return CsrGraph.fromEdges(5, new int[] { 0, 0, 1, 2, 0, 3 }, new int[] { 1, 3, 3, 3, 2, 2 },
+                new double[] { 1, 10, 2, 1, 7, 3 }, true);
+    }
+
+    private void assertSample(ShortestPathResult result) {
+        assertEquals(0.0, result.getDistance(0), DELTA);
+        assertEquals(3.0, result.getDistance(3), DELTA);
+        assertEquals(6.0, result.getDistance(2), DELTA);
+        assertArrayEquals(new int[] { 0, 1, 3, 2 }, result.path(2));
+        assertFalse(result.isReachable(4));
+        assertEquals(0, result.path(4).length);
+        assertEquals(-1, result.getParent(0));
+    }
+
+    private void assertPaths(CsrGraph graph, ShortestPathResult expected, ShortestPathResult actual) {
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            assertEquals(expected.getDistance(v), actual.getDistance(v), DELTA);
+            int parent = actual.getParent(v);
+            if (parent >= 0) {
+                double best = Double.POSITIVE_INFINITY;
+                for (int e = graph.offset(parent); e < graph.offset(parent + 1); e++) {
+                    if (graph.target(e) == v) {
+                        best = Math.min(best, graph.weight(e));
+                    }
+                }
+                assertEquals(actual.getDistance(v), actual.getDistance(parent) + best, DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void sampleTest() {
+        ShortestPaths paths = new ShortestPaths(sampleGraph());
+        assertSample(paths.dijkstra(0));
+        assertSample(paths.treeDijkstra(0));
+        assertSample(paths.deltaStepping(0, 2.0, ForkJoinPool.commonPool()));
+        assertEquals(3.0, paths.dijkstra(0, 3).getDistance(3), DELTA);
+    }
+
+    @Test
+    public void randomTest() {
+        int n = 20000;
+        Random random = new Random(3);
+        EdgeList edges = new EdgeList(true);
+        for (int i = 0; i < 8 * n; i++) {
+            edges.add(random.nextInt(n), random.nextInt(n), random.nextInt(100) / 10.0);
+        }
+        CsrGraph graph = edges.toGraph(n, false);
+        ShortestPaths paths = new ShortestPaths(graph);
+        ShortestPathResult expected = paths.dijkstra(0);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (double delta : new double[] { 0.5, 5.0, 50.0 }) {
+                assertPaths(graph, expected, paths.deltaStepping(0, delta, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertPaths(graph, expected, paths.treeDijkstra(0));
+
+        int target = n - 1;
+        assertEquals(expected.getDistance(target), paths.dijkstra(0, target).getDistance(target), DELTA);
+    }
+
+    @Test
+    public void unweightedTest() {
+        EdgeList edges = new EdgeList();
+        for (int v = 1; v < 100; v++) {
+            edges.add(v - 1, v);
+        }
+        ShortestPathResult result = new ShortestPaths(edges.toGraph(true)).dijkstra(0);
+        assertEquals(99.0, result.getDistance(99), DELTA);
+        assertEquals(100, result.path(99).length);
+    }
+
+    @Test
+    public void zeroWeightTest() {
+        // 1 and 2 are tight to each other in both directions; their shortest
+        // paths go through 3.
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 3, 2, 1 }, new int[] { 3, 2, 1, 2 },
+                new double[] { 1, 0, 0, 0 }, true);
+        ShortestPathResult result = new ShortestPaths(graph).deltaStepping(0, 1.0, ForkJoinPool.commonPool());
+        assertEquals(1.0, result.getDistance(1), DELTA);
+        assertEquals(1.0, result.getDistance(2), DELTA);
+        assertArrayEquals(new int[] { 0, 3, 2, 1 }, result.path(1));
+        assertArrayEquals(new int[] { 0, 3, 2 }, result.path(2));
+        assertArrayEquals(new int[] { 0, 3 }, result.path(3));
+    }
+
+    @Test
+    public void heavyWeightTest() {
+        // arcs far heavier than delta, up to distances beyond the last bucket.
+        CsrGraph graph = CsrGraph.fromEdges(4, new int[] { 0, 1, 2 }, new int[] { 1, 2, 3 },
+                new double[] { 1e7, 1e7, 1e300 }, true);
+        ShortestPathResult result = new ShortestPaths(graph).deltaStepping(0, 1.0, ForkJoinPool.commonPool());
+        assertEquals(1e7, result.getDistance(1), DELTA);
+        assertEquals(2e7, result.getDistance(2), DELTA);
+        assertEquals(1e300, result.getDistance(3), DELTA);
+        assertEquals(2, result.getParent(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeWeightTest() {
+        new ShortestPaths(CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 1 }, new double[] { -1 }, true));
+    }
+}
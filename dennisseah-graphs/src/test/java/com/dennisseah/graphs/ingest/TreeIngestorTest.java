@@ -0,0 +1,223 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.ingest;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+
+public class TreeIngestorTest {
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        public Integer apply(BinarySearchTreeNode<Integer> node) {
+            return node.getValue();
+        }
+    };
+
+    /**
+     * Subscription that records the demand.
+     */
+    private static class RecordingSubscription implements Flow.Subscription {
+        long requested = 0;
+        boolean cancelled = false;
+
+        @Override
+        public void request(long n) {
+            this.requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+    }
+
+    /**
+     * Subscriber that collects the results.
+     */
+    private static class ResultCollector implements Flow.Subscriber<IngestResult> {
+        final List<IngestResult> results = new ArrayList<>();
+        final CompletableFuture<List<IngestResult>> completed = new CompletableFuture<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public synchronized void onNext(IngestResult result) {
+            this.results.add(result);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.completed.completeExceptionally(throwable);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            this.completed.complete(this.results);
+        }
+    }
+
+    private Object[] values(BinarySearchTree<Integer> tree) {
+        return tree.inorderTraversal().stream().map(fnNodeValue).toArray();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBatchSizeTest() {
+        new TreeIngestor<Integer>(new BinarySearchTree<Integer>(), 0, 0);
+    }
+
+    @Test
+    public void coalesceTest() throws Exception {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int i : new Integer[] { 5, 3, 8, 3 }) {
+            tree.insert(i);
+        }
+        TreeIngestor<Integer> ingestor = new TreeIngestor<>(tree, 100, 0);
+        ResultCollector collector = new ResultCollector();
+        ingestor.subscribe(collector);
+        RecordingSubscription subscription = new RecordingSubscription();
+        ingestor.onSubscribe(subscription);
+        assertEquals(100, subscription.requested);
+
+        ingestor.onNext(IngestCommand.insert(3));
+        ingestor.onNext(IngestCommand.remove(3));
+        ingestor.onNext(IngestCommand.insert(3));
+        ingestor.onNext(IngestCommand.insert(1));
+        ingestor.onNext(IngestCommand.remove(8));
+        ingestor.onNext(IngestCommand.insert(9));
+        ingestor.onNext(IngestCommand.remove(9));
+        assertEquals(0, ingestor.getAppliedCommandCount());
+        ingestor.onComplete();
+
+        assertArrayEquals(new Integer[] { 1, 3, 5 }, values(tree));
+        List<IngestResult> results = collector.completed.get(10, TimeUnit.SECONDS);
+        assertEquals(1, results.size());
+        assertEquals(7, results.get(0).getCommandCount());
+        assertEquals(3, results.get(0).getRemovedValueCount());
+        assertEquals(2, results.get(0).getInsertedValueCount());
+        assertEquals(7, results.get(0).getAppliedCommandCount());
+    }
+
+    @Test
+    public void boundedDemandTest() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        TreeIngestor<Integer> ingestor = new TreeIngestor<>(tree, 4, 0);
+        RecordingSubscription subscription = new RecordingSubscription();
+        ingestor.onSubscribe(subscription);
+        for (int i = 0; i < 10; i++) {
+            // received commands never exceed the demand.
+            assertTrue(i < subscription.requested);
+            ingestor.onNext(IngestCommand.insert(i));
+            assertTrue(subscription.requested - (i + 1) <= 4);
+        }
+        assertEquals(8, ingestor.getAppliedCommandCount());
+        ingestor.flush();
+        assertEquals(10, ingestor.getAppliedCommandCount());
+        assertEquals(14, subscription.requested);
+
+        RecordingSubscription second = new RecordingSubscription();
+        ingestor.onSubscribe(second);
+        assertTrue(second.cancelled);
+        ingestor.close();
+        assertTrue(subscription.cancelled);
+    }
+
+    @Test
+    public void lingerTest() throws Exception {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        TreeIngestor<Integer> ingestor = new TreeIngestor<>(tree, 1000, 20);
+        final CompletableFuture<IngestResult> first = new CompletableFuture<>();
+        ingestor.subscribe(new ResultCollector() {
+            @Override
+            public synchronized void onNext(IngestResult result) {
+                first.complete(result);
+            }
+        });
+        ingestor.onSubscribe(new RecordingSubscription());
+        ingestor.onNext(IngestCommand.insert(2));
+        ingestor.onNext(IngestCommand.insert(1));
+
+        IngestResult result = first.get(10, TimeUnit.SECONDS);
+        assertEquals(2, result.getCommandCount());
+        synchronized (tree) {
+            assertArrayEquals(new Integer[] { 1, 2 }, values(tree));
+        }
+        ingestor.close();
+    }
+
+    @Test
+    public void publisherTest() throws Exception {
+        Random random = new Random(7);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        BinarySearchTree<Integer> expected = new BinarySearchTree<Integer>();
+        TreeIngestor<Integer> ingestor = new TreeIngestor<>(tree, 64, 5);
+        ResultCollector collector = new ResultCollector();
+        ingestor.subscribe(collector);
+
+        // a small buffer, submit blocks while the ingestor catches up.
+        SubmissionPublisher<IngestCommand<Integer>> publisher = new SubmissionPublisher<>(
+                ForkJoinPool.commonPool(), 16);
+        publisher.subscribe(ingestor);
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                publisher.submit(IngestCommand.remove(value));
+                expected.remove(value);
+            } else {
+                publisher.submit(IngestCommand.insert(value));
+                expected.insert(value);
+            }
+        }
+        publisher.close();
+
+        List<IngestResult> results = collector.completed.get(30, TimeUnit.SECONDS);
+        long applied = 0;
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).getBatch());
+            assertTrue(results.get(i).getCommandCount() <= 64);
+            applied += results.get(i).getCommandCount();
+            assertEquals(applied, results.get(i).getAppliedCommandCount());
+        }
+        assertEquals(count, applied);
+        assertArrayEquals(values(expected), values(tree));
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.lsm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.dennisseah.graphs.common.ValueCodecs;
+
+public class LsmStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void flushAndFindTest() throws IOException {
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 10, 100)) {
+            for (int i = 0; i < 95; i++) {
+                store.insert(i * 2);
+            }
+            assertEquals(9, store.getRunCount());
+            assertTrue(store.contains(0));
+            assertTrue(store.contains(188));
+            assertFalse(store.contains(7));
+            assertFalse(store.contains(1000));
+            assertArrayEquals(new Integer[] { 18, 20, 22 }, store.range(17, 23).toArray());
+        }
+    }
+
+    @Test
+    public void tombstoneTest() throws IOException {
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 4, 100)) {
+            store.insert(1);
+            store.insert(2);
+            store.insert(3);
+            store.insert(4);
+            assertEquals(1, store.getRunCount());
+
+            store.remove(2);
+            assertFalse(store.contains(2));
+            store.flush();
+            assertEquals(2, store.getRunCount());
+            assertFalse(store.contains(2));
+            assertArrayEquals(new Integer[] { 1, 3, 4 }, store.range(0, 10).toArray());
+
+            store.insert(2);
+            assertTrue(store.contains(2));
+        }
+    }
+
+    @Test
+    public void compactionTest() throws IOException {
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 8, 100)) {
+            for (int i = 0; i < 64; i++) {
+                store.insert(i);
+            }
+            for (int i = 0; i < 64; i += 2) {
+                store.remove(i);
+            }
+            store.flush();
+            assertEquals(12, store.getRunCount());
+
+            store.compact();
+            assertEquals(1, store.getRunCount());
+            assertEquals(32, store.range(0, 100).size());
+            assertFalse(store.contains(10));
+            assertTrue(store.contains(11));
+        }
+    }
+
+    @Test
+    public void backgroundCompactionTest() throws Exception {
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 16, 3)) {
+            for (int i = 0; i < 10000; i++) {
+                store.insert(i);
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while (store.getRunCount() >= 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(store.getRunCount() < 3);
+            assertEquals(10000, store.range(0, 10000).size());
+        }
+    }
+
+    @Test
+    public void compactionFailureTest() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        try (LsmStore<Integer> store = new LsmStore<>(directory, ValueCodecs.INTEGER, 2, 3)) {
+            // a directory in place of the temporary file of the compaction output.
+            Path blocker = Files.createDirectories(directory.resolve("run-1-3.tmp"));
+            Files.createFile(blocker.resolve("file"));
+            for (int i = 0; i < 6; i++) {
+                store.insert(i);
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while (store.getCompactionFailure() == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(store.getCompactionFailure());
+            try {
+                store.insert(6);
+                fail();
+            } catch (IOException e) {
+                assertEquals(store.getCompactionFailure(), e.getCause());
+            }
+
+            Files.delete(blocker.resolve("file"));
+            Files.delete(blocker);
+            store.compact();
+            assertNull(store.getCompactionFailure());
+            store.insert(6);
+            assertEquals(7, store.range(0, 10).size());
+        }
+    }
+
+    @Test
+    public void sequentialKeysTest() throws IOException {
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 100000,
+                100)) {
+            // the memtable stays balanced, so this does not take quadratic time.
+            for (int i = 0; i < 100000; i++) {
+                store.insert(i);
+            }
+            assertTrue(store.contains(99999));
+            assertEquals(11, store.range(500, 510).size());
+        }
+    }
+
+    @Test
+    public void reopenTest() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        try (LsmStore<String> store = new LsmStore<>(directory, ValueCodecs.STRING, 3, 100)) {
+            for (String key : new String[] { "pear", "apple", "fig", "kiwi", "lime", "date" }) {
+                store.insert(key);
+            }
+            store.remove("fig");
+            store.insert("plum");
+        }
+        try (LsmStore<String> store = new LsmStore<>(directory, ValueCodecs.STRING, 3, 100)) {
+            assertArrayEquals(new String[] { "apple", "date", "kiwi", "lime", "pear", "plum" },
+                    store.range("a", "z").toArray());
+            store.compact();
+        }
+        try (LsmStore<String> store = new LsmStore<>(directory, ValueCodecs.STRING, 3, 100)) {
+            assertEquals(1, store.getRunCount());
+            assertFalse(store.contains("fig"));
+        }
+    }
+
+    @Test
+    public void randomOperationsTest() throws IOException {
+        Random random = new Random(35);
+        TreeSet<Integer> reference = new TreeSet<>();
+        try (LsmStore<Integer> store = new LsmStore<>(folder.newFolder().toPath(), ValueCodecs.INTEGER, 50, 4)) {
+            for (int i = 0; i < 20000; i++) {
+                int key = random.nextInt(2000);
+                if (random.nextInt(3) == 0) {
+                    store.remove(key);
+                    reference.remove(key);
+                } else {
+                    store.insert(key);
+                    reference.add(key);
+                }
+                if (i % 500 == 0) {
+                    int low = random.nextInt(2000);
+                    int high = low + random.nextInt(300);
+                    assertEquals(new ArrayList<>(reference.subSet(low, true, high, true)), store.range(low, high));
+                    assertEquals(reference.contains(key), store.contains(key));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.radix;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class AdaptiveRadixTreeTest {
+    private StringRadixTree createTree(String[] keys) {
+        StringRadixTree tree = new StringRadixTree();
+        for (String key : keys) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    @Test
+    public void createEmptyTreeTest() {
+        StringRadixTree tree = new StringRadixTree();
+        assertEquals(0, tree.size());
+        assertFalse(tree.contains(""));
+        assertEquals(0, tree.inorderTraversal().size());
+    }
+
+    @Test
+    public void inorderTraversalTest() {
+        StringRadixTree tree = createTree(new String[] { "romane", "romanus", "romulus", "rubens", "ruber", "rubicon",
+                "rubicundus", "rom", "" });
+        String[] expecteds = new String[] { "", "rom", "romane", "romanus", "romulus", "rubens", "ruber", "rubicon",
+                "rubicundus" };
+        assertArrayEquals(expecteds, tree.inorderTraversal().toArray());
+    }
+
+    @Test
+    public void findTest() {
+        StringRadixTree tree = createTree(new String[] { "http://a/b/c", "http://a/b", "http://a/b/c", "http://a/d" });
+        assertEquals(2, tree.find("http://a/b/c"));
+        assertEquals(1, tree.find("http://a/b"));
+        assertEquals(0, tree.find("http://a/"));
+        assertEquals(0, tree.find("http://a/b/c/d"));
+        assertEquals(4, tree.size());
+    }
+
+    @Test
+    public void insertUniqueNodeValuesTest() {
+        StringRadixTree tree = new StringRadixTree(true);
+        tree.insert("abc");
+        tree.insert("abc");
+        assertEquals(1, tree.find("abc"));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    public void removeTest() {
+        StringRadixTree tree = createTree(new String[] { "abc", "abd", "ab", "abc" });
+        assertTrue(tree.remove("abc"));
+        assertFalse(tree.remove("abc"));
+        assertFalse(tree.remove("a"));
+        assertEquals(2, tree.size());
+        assertTrue(tree.remove("ab"));
+        assertTrue(tree.contains("abd"));
+        assertTrue(tree.remove("abd"));
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.inorderTraversal().size());
+    }
+
+    @Test
+    public void byteKeysUnsignedOrderTest() {
+        AdaptiveRadixTree tree = new AdaptiveRadixTree();
+        tree.insert(new byte[] { (byte) 0xff });
+        tree.insert(new byte[] { 0x01 });
+        tree.insert(new byte[] { (byte) 0x80, 0x00 });
+        List<byte[]> keys = tree.inorderTraversal();
+        assertArrayEquals(new byte[] { 0x01 }, keys.get(0));
+        assertArrayEquals(new byte[] { (byte) 0x80, 0x00 }, keys.get(1));
+        assertArrayEquals(new byte[] { (byte) 0xff }, keys.get(2));
+    }
+
+    @Test
+    public void randomOperationsTest() {
+        // wide alphabet so that nodes grow to 48 and 256 children and shrink back.
+        Random random = new Random(11);
+        StringRadixTree tree = new StringRadixTree();
+        Map<String, Integer> expected = new TreeMap<>();
+
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder("key/");
+            int len = random.nextInt(4);
+            for (int j = 0; j < len; j++) {
+                sb.append((char) (' ' + random.nextInt(90)));
+            }
+            String key = sb.toString();
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, tree.remove(key));
+            } else {
+                tree.insert(key);
+                Integer count = expected.get(key);
+                expected.put(key, count == null ? 1 : count + 1);
+            }
+        }
+
+        List<String> expecteds = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), tree.find(entry.getKey()));
+            for (int i = 0; i < entry.getValue(); i++) {
+                expecteds.add(entry.getKey());
+            }
+        }
+        assertEquals(expecteds, tree.inorderTraversal());
+        assertEquals(expecteds.size(), tree.size());
+
+        for (String key : new ArrayList<>(expected.keySet())) {
+            assertTrue(tree.remove(key));
+        }
+        assertEquals(0, tree.size());
+    }
+}
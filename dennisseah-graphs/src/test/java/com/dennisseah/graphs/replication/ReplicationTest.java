@@ -0,0 +1,213 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.replication;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.BinarySearchTreeNode;
+import com.dennisseah.graphs.bst.IReadOnlyBinarySearchTree;
+import com.dennisseah.graphs.bst.InvalidBinaryTreeException;
+import com.dennisseah.graphs.common.ValueCodecs;
+
+public class ReplicationTest {
+    private static final long TIMEOUT = 10000;
+
+    private Function<BinarySearchTreeNode<Integer>, Integer> fnNodeValue = new Function<BinarySearchTreeNode<Integer>, Integer>() {
+        @Override
+        public Integer apply(BinarySearchTreeNode<Integer> n) {
+            return n.getValue();
+        }
+    };
+
+    private Object[] preorder(IReadOnlyBinarySearchTree<Integer> tree) {
+        return tree.preorderTraversal().stream().map(fnNodeValue).toArray();
+    }
+
+    private Object[] preorder(BinarySearchTree<Integer> tree) {
+        return tree.preorderTraversal().stream().map(fnNodeValue).toArray();
+    }
+
+    private InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    @Test
+    public void followTest() throws IOException, InterruptedException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+        ReplicaTree<Integer> replica = new ReplicaTree<>();
+        try (ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER);
+                ReplicationFollower<Integer> follower = ReplicationFollower.follow(leader, replica)) {
+            for (int i : new int[] { 5, 3, 8, 1, 4, 3, 9 }) {
+                leader.insert(i);
+            }
+            assertTrue(leader.remove(8));
+            assertTrue(!leader.remove(8));
+            assertEquals(8, leader.getSequence());
+
+            assertTrue(replica.awaitSequence(leader.getSequence(), TIMEOUT));
+            assertArrayEquals(preorder(tree), preorder(replica));
+            assertEquals(2, replica.find(3).size());
+            assertEquals(Integer.valueOf(5), replica.floor(7));
+            assertTrue(follower.isRunning());
+        }
+    }
+
+    @Test
+    public void closedLeaderTest() throws IOException, InterruptedException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+        ReplicaTree<Integer> replica = new ReplicaTree<>();
+        ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER);
+        try (ReplicationFollower<Integer> follower = ReplicationFollower.follow(leader, replica)) {
+            leader.insert(5);
+            leader.insert(3);
+            leader.close();
+            assertTrue(leader.isClosed());
+
+            // the follower applies what is left and stops instead of polling.
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (follower.isRunning() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(follower.isRunning());
+            assertEquals(2, replica.getSequence());
+        }
+    }
+
+    @Test
+    public void socketTest() throws IOException, InterruptedException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+        ReplicaTree<Integer> replica = new ReplicaTree<>();
+        ReplicaTree<Integer> other = new ReplicaTree<>();
+        try (ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER)) {
+            InetSocketAddress address = leader.listen(loopback());
+            try (ReplicationFollower<Integer> follower = ReplicationFollower.connect(address, ValueCodecs.INTEGER,
+                    replica);
+                    ReplicationFollower<Integer> second = ReplicationFollower.connect(address, ValueCodecs.INTEGER,
+                            other)) {
+                for (int i = 0; i < 5000; i++) {
+                    leader.insert((i * 7919) % 5000);
+                }
+                for (int i = 0; i < 5000; i += 2) {
+                    leader.remove(i);
+                }
+
+                assertTrue(replica.awaitSequence(leader.getSequence(), TIMEOUT));
+                assertTrue(other.awaitSequence(leader.getSequence(), TIMEOUT));
+                assertArrayEquals(preorder(tree), preorder(replica));
+                assertArrayEquals(preorder(tree), preorder(other));
+                assertTrue(replica.isValid());
+                assertTrue(follower.isRunning());
+                assertTrue(second.isRunning());
+            }
+        }
+    }
+
+    @Test
+    public void snapshotTest() throws IOException, InterruptedException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(true);
+        ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER, 10);
+        for (int i = 0; i < 100; i++) {
+            leader.insert((i * 37) % 100);
+        }
+
+        // the first operations are no longer in the log.
+        ReplicaTree<Integer> replica = new ReplicaTree<>(true);
+        ReplicationBatch<Integer> batch = leader.fetch(0, ReplicationLeader.MAX_BATCH, 0);
+        assertEquals(100, batch.snapshot.size());
+        replica.apply(batch);
+        assertEquals(100, replica.getSequence());
+        assertArrayEquals(preorder(tree), preorder(replica));
+
+        // up to date followers receive operations.
+        leader.insert(200);
+        batch = leader.fetch(100, ReplicationLeader.MAX_BATCH, 0);
+        assertEquals(1, batch.entries.size());
+        replica.apply(batch);
+        replica.apply(batch);
+        assertEquals(101, replica.getSequence());
+        assertArrayEquals(preorder(tree), preorder(replica));
+        leader.close();
+    }
+
+    @Test
+    public void setRootTest() throws IOException, InterruptedException, InvalidBinaryTreeException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(new Integer[] { 2, 1, 3 });
+        ReplicaTree<Integer> replica = new ReplicaTree<>();
+        try (ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER)) {
+            InetSocketAddress address = leader.listen(loopback());
+            try (ReplicationFollower<Integer> follower = ReplicationFollower.connect(address, ValueCodecs.INTEGER,
+                    replica)) {
+                assertTrue(replica.awaitSequence(leader.getSequence(), TIMEOUT));
+                assertArrayEquals(new Object[] { 2, 1, 3 }, preorder(replica));
+
+                BinarySearchTreeNode<Integer> root = new BinarySearchTreeNode<>(10);
+                root.setRight(new BinarySearchTreeNode<>(20));
+                leader.setRoot(root);
+                leader.insert(15);
+                assertTrue(replica.awaitSequence(leader.getSequence(), TIMEOUT));
+                assertArrayEquals(new Object[] { 10, 20, 15 }, preorder(replica));
+                assertTrue(follower.isRunning());
+            }
+        }
+    }
+
+    @Test
+    public void reconnectTest() throws IOException, InterruptedException {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>();
+        ReplicaTree<Integer> replica = new ReplicaTree<>();
+        ReplicationLeader<Integer> leader = new ReplicationLeader<>(tree, ValueCodecs.INTEGER);
+        InetSocketAddress address = leader.listen(loopback());
+        try (ReplicationFollower<Integer> follower = ReplicationFollower.connect(address, ValueCodecs.INTEGER,
+                replica)) {
+            for (int i : new int[] { 5, 3, 8 }) {
+                leader.insert(i);
+            }
+            assertTrue(replica.awaitSequence(3, TIMEOUT));
+            leader.close();
+
+            // a new leader of the tree, on the same address.
+            tree.insert(1);
+            try (ReplicationLeader<Integer> restarted = new ReplicationLeader<>(tree, ValueCodecs.INTEGER)) {
+                restarted.listen(address);
+                long deadline = System.currentTimeMillis() + TIMEOUT;
+                while (replica.find(1).isEmpty() && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertArrayEquals(preorder(tree), preorder(replica));
+                assertTrue(follower.getReconnectCount() >= 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * MIT License
+ *
+ * Copyright (c) 2022 Dennis Seah
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.dennisseah.graphs.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.dennisseah.graphs.bst.BinarySearchTree;
+import com.dennisseah.graphs.bst.ShardedBinarySearchTree;
+import com.dennisseah.graphs.common.ValueCodecs;
+
+public class TreeServerTest {
+    private BinarySearchTree<Integer> tree;
+    private TreeServer<Integer> server;
+    private InetSocketAddress address;
+
+    @Before
+    public void setUp() throws IOException {
+        this.tree = new BinarySearchTree<>();
+        this.server = new TreeServer<>(this.tree, ValueCodecs.INTEGER);
+        this.server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.address = this.server.getAddress();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        this.server.close();
+    }
+
+    @Test
+    public void requestTest() throws IOException {
+        try (TreeClient<Integer> client = new TreeClient<>(this.address, ValueCodecs.INTEGER)) {
+            for (int i : new int[] { 5, 3, 8, 1, 4, 3 }) {
+                client.insert(i);
+            }
+            assertEquals(2, client.find(3));
+            assertEquals(0, client.find(9));
+            assertTrue(client.remove(8));
+            assertFalse(client.remove(8));
+            assertArrayEquals(new Integer[] { 3, 3, 4, 5 }, client.range(2, 7).toArray());
+            assertTrue(client.range(6, 7).isEmpty());
+        }
+    }
+
+    @Test
+    public void pipelineTest() throws IOException {
+        try (TreeClient<Integer> client = new TreeClient<>(this.address, ValueCodecs.INTEGER)) {
+            TreeClient<Integer>.Pipeline pipeline = client.pipeline();
+            for (int i = 0; i < 5000; i++) {
+                pipeline.insert(i % 1000);
+            }
+            List<CompletableFuture<Integer>> finds = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                finds.add(pipeline.find(i));
+            }
+            CompletableFuture<Boolean> removed = pipeline.remove(7);
+            CompletableFuture<Integer> afterRemove = pipeline.find(7);
+            CompletableFuture<List<Integer>> range = pipeline.range(5, 9);
+            pipeline.execute();
+
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(i < 1000 ? 5 : 0, finds.get(i).join().intValue());
+            }
+            assertTrue(removed.join());
+            assertEquals(0, afterRemove.join().intValue());
+            assertEquals(20, range.join().size());
+            assertTrue(this.server.getBatchCount() < this.server.getRequestCount());
+        }
+    }
+
+    @Test
+    public void concurrentClientsTest() throws Exception {
+        Thread[] threads = new Thread[4];
+        final List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 10000;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try (TreeClient<Integer> client = new TreeClient<>(address, ValueCodecs.INTEGER)) {
+                        TreeClient<Integer>.Pipeline pipeline = client.pipeline();
+                        for (int i = 0; i < 1000; i++) {
+                            pipeline.insert(offset + i);
+                        }
+                        pipeline.execute();
+                        assertEquals(1000, client.range(offset, offset + 9999).size());
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(4000, this.tree.inorderTraversal().size());
+    }
+
+    @Test
+    public void largePipelineTest() throws IOException {
+        this.tree.insert(5);
+        // the responses are far more than the server queues before it stops
+        // reading, so the client must read while it writes.
+        int requests = 1000000;
+        try (TreeClient<Integer> client = new TreeClient<>(this.address, ValueCodecs.INTEGER)) {
+            TreeClient<Integer>.Pipeline pipeline = client.pipeline();
+            List<CompletableFuture<Integer>> found = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                found.add(pipeline.find(i % 10));
+            }
+            pipeline.execute();
+            for (int i = 0; i < requests; i++) {
+                assertEquals(i % 10 == 5 ? 1 : 0, found.get(i).join().intValue());
+            }
+        }
+    }
+
+    @Test
+    public void largeRangeTest() throws IOException {
+        // 8 bytes per value, more than a frame can hold.
+        Integer[] values = new Integer[(Protocol.MAX_FRAME_SIZE >> 3) + 1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        this.tree.setRoot(BinarySearchTree.fromUnsorted(values, true).getRoot());
+        try (TreeClient<Integer> client = new TreeClient<>(this.address, ValueCodecs.INTEGER)) {
+            try {
+                client.range(0, values.length);
+                fail();
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("narrow the range"));
+            }
+            // the connection is still in step.
+            assertEquals(1000, client.range(0, 999).size());
+            assertEquals(1, client.find(7));
+        }
+    }
+
+    @Test
+    public void shardedRangeTest() throws IOException {
+        ShardedBinarySearchTree<Integer> sharded = new ShardedBinarySearchTree<>(new Integer[] { 10, 20 });
+        try (TreeServer<Integer> shardedServer = new TreeServer<>(sharded, ValueCodecs.INTEGER)) {
+            shardedServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (TreeClient<Integer> client = new TreeClient<>(shardedServer.getAddress(), ValueCodecs.INTEGER)) {
+                for (int i : new int[] { 25, 5, 15, 12, 8, 21 }) {
+                    client.insert(i);
+                }
+                assertArrayEquals(new Integer[] { 8, 12, 15, 21 }, client.range(6, 22).toArray());
+                assertTrue(client.range(16, 20).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void errorTest() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(this.address)) {
+            ByteBuffer request = ByteBuffer.allocate(9).putInt(5).putInt(42).put((byte) 99);
+            request.flip();
+            channel.write(request);
+
+            ByteBuffer header = ByteBuffer.allocate(9);
+            while (header.hasRemaining()) {
+                channel.read(header);
+            }
+            header.flip();
+            header.getInt();
+            assertEquals(42, header.getInt());
+            assertEquals(Protocol.ERROR, header.get());
+        }
+
+        try (TreeClient<Integer> client = new TreeClient<>(this.address, ValueCodecs.INTEGER)) {
+            TreeClient<Integer>.Pipeline pipeline = client.pipeline();
+            CompletableFuture<Integer> found = pipeline.find(1);
+            pipeline.execute();
+            assertEquals(0, found.join().intValue());
+        }
+    }
+
+    @Test
+    public void backpressureTest() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            this.tree.insert(i);
+        }
+        // stop reading a connection after 4 KiB of waiting responses.
+        try (TreeServer<Integer> limited = new TreeServer<>(this.tree, ValueCodecs.INTEGER, 4096)) {
+            limited.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (final SocketChannel channel = SocketChannel.open(limited.getAddress())) {
+                final int requests = 200;
+                CompletableFuture<Void> written = CompletableFuture.runAsync(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int id = 0; id < requests; id++) {
+                                ByteBuffer request = ByteBuffer.allocate(21).putInt(17).putInt(id)
+                                        .put(Protocol.RANGE).putInt(4).putInt(0).putInt(999);
+                                request.flip();
+                                while (request.hasRemaining()) {
+                                    channel.write(request);
+                                }
+                            }
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }
+                });
+
+                Thread.sleep(100);
+                for (int id = 0; id < requests; id++) {
+                    ByteBuffer header = ByteBuffer.allocate(13);
+                    while (header.hasRemaining()) {
+                        channel.read(header);
+                    }
+                    header.flip();
+                    int length = header.getInt();
+                    assertEquals(id, header.getInt());
+                    assertEquals(Protocol.OK, header.get());
+                    assertEquals(1000, header.getInt());
+
+                    ByteBuffer values = ByteBuffer.allocate(length - 9);
+                    while (values.hasRemaining()) {
+                        channel.read(values);
+                    }
+                }
+                written.join();
+            }
+        }
+    }
+
+    @Test
+    public void failedRequestTest() throws IOException {
+        try (TreeClient<String> client = new TreeClient<>(this.address, ValueCodecs.STRING)) {
+            TreeClient<String>.Pipeline pipeline = client.pipeline();
+            CompletableFuture<Void> inserted = pipeline.insert("ab");
+            pipeline.execute();
+            try {
+                inserted.join();
+                fail();
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+        }
+    }
+}